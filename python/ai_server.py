@@ -2,7 +2,11 @@ import os
 import json
 from pathlib import Path
 from dotenv import load_dotenv, find_dotenv
+import gzip
+import zlib
 from fastapi import FastAPI, HTTPException
+from starlette.middleware.gzip import GZipMiddleware
+from starlette.responses import JSONResponse
 from pydantic import BaseModel, Field
 from typing import List, Literal, Optional, Dict, Any
 from openai import OpenAI
@@ -111,6 +115,7 @@ class ChatRequest(BaseModel):
     user_message: str = Field(description="사용자 메시지")
     history: List[dict] = Field(default=[], description="이전 대화 내역")
     simulation_context: Optional[SimulationContext] = Field(default=None, description="시뮬레이션 컨텍스트 정보")
+    conversation_summary: Optional[str] = Field(default=None, description="history 이전 대화의 누적 요약")
 
 
 class ChatResponse(BaseModel):
@@ -133,6 +138,16 @@ class HistorySumResponse(BaseModel):
     summary: str = Field(description="요약된 히스토리")
 
 
+class ConversationSummaryRequest(BaseModel):
+    previous_summary: Optional[str] = Field(default=None, description="지금까지의 대화 요약 (없으면 처음 요약)")
+    messages: List[dict] = Field(description="요약에 새로 반영할 대화 (role, content)")
+    character_name: str = Field(description="캐릭터 이름")
+
+
+class ConversationSummaryResponse(BaseModel):
+    summary: str = Field(description="갱신된 대화 요약")
+
+
 class KeyConversation(BaseModel):
     """점수 산정에 영향을 준 주요 대화"""
     role: Literal["user", "assistant"] = Field(description="발화자 (user: 사용자, assistant: 페르소나)")
@@ -176,6 +191,33 @@ class ReportResponse(BaseModel):
     report: SimulationReport = Field(description="생성된 시뮬레이션 분석 보고서")
 
 
+class TurnMetricScore(BaseModel):
+    """이번 대화 구간에 대한 개별 평가 지표 점수"""
+    code: str = Field(description="지표 코드 (ECI, EVR, CCS 또는 RRI, EEQI, RPS)")
+    name: str = Field(description="지표 이름")
+    score: int = Field(description="이번 대화 구간만 기준으로 한 점수 (0-100)", ge=0, le=100)
+    reason: str = Field(description="점수 산정 이유 (한 문장)")
+    key: bool = Field(description="이 지표의 전체 점수에 특히 큰 영향을 줄 만한 대화인지")
+
+
+class TurnEvaluation(BaseModel):
+    """대화 턴 단위 평가 결과 (백엔드가 누적해서 최종 보고서를 만듦)"""
+    metrics: List[TurnMetricScore] = Field(description="시나리오의 세 지표 점수 (metric_1, metric_2, metric_3 순서)")
+    summary: str = Field(description="이전 요약에 이번 대화를 반영한 전체 대화 3줄 요약")
+    analysis: str = Field(description="이전 분석에 이번 대화를 반영한 전반적인 대화 흐름과 사용자 태도 분석 (200자 내외)")
+    feedback: str = Field(description="이전 조언에 이번 대화를 반영한 구체적인 조언")
+
+
+class TurnReportRequest(BaseModel):
+    exchange: List[dict] = Field(description="새로 평가할 대화 구간 (role, content)")
+    user_name: str = Field(description="사용자(본인) 이름")
+    target_name: str = Field(description="페르소나 대상(상대방) 이름")
+    scenario_type: Literal["FUTURE", "PAST"] = Field(description="시나리오 유형")
+    previous_summary: Optional[str] = Field(default=None, description="지금까지의 대화 요약")
+    previous_analysis: Optional[str] = Field(default=None, description="지금까지의 분석")
+    previous_feedback: Optional[str] = Field(default=None, description="지금까지의 조언")
+
+
 class ExtractNegativeTriggersRequest(BaseModel):
     text_content: str = Field(description="전체 대화 텍스트 (가장 최근부터 maxChars만큼)")
     user_name: str = Field(description="사용자(본인) 이름")
@@ -208,6 +250,67 @@ app = FastAPI(
 )
 
 
+# ============================================================
+# 요청/응답 gzip 압축 (백엔드 AiRequestCompressionFilter와 짝)
+# ============================================================
+
+# 이 크기(바이트) 이상인 응답만 gzip으로 압축 (Accept-Encoding: gzip 요청에 한해)
+GZIP_MIN_RESPONSE_SIZE = int(os.environ.get("GZIP_MIN_RESPONSE_SIZE", "1024"))
+
+
+class GzipRequestMiddleware:
+    """Content-Encoding: gzip 요청 본문을 풀어서 엔드포인트에 전달합니다."""
+
+    def __init__(self, app):
+        self.app = app
+
+    async def __call__(self, scope, receive, send):
+        if scope["type"] != "http":
+            await self.app(scope, receive, send)
+            return
+
+        headers = scope["headers"]
+        encoding = next((v for k, v in headers if k == b"content-encoding"), b"")
+        if b"gzip" not in encoding.lower():
+            await self.app(scope, receive, send)
+            return
+
+        body = b""
+        more_body = True
+        while more_body:
+            message = await receive()
+            body += message.get("body", b"")
+            more_body = message.get("more_body", False)
+
+        try:
+            body = gzip.decompress(body)
+        except (OSError, EOFError, zlib.error):
+            response = JSONResponse({"detail": "gzip 요청 본문을 해제할 수 없습니다."}, status_code=400)
+            await response(scope, receive, send)
+            return
+
+        # 엔드포인트에는 압축되지 않은 요청처럼 보이도록 헤더 교체
+        scope = dict(scope)
+        scope["headers"] = [
+            (k, v) for k, v in headers if k not in (b"content-encoding", b"content-length")
+        ] + [(b"content-length", str(len(body)).encode())]
+
+        delivered = False
+
+        async def receive_decompressed():
+            nonlocal delivered
+            if not delivered:
+                delivered = True
+                return {"type": "http.request", "body": body, "more_body": False}
+            return await receive()
+
+        await self.app(scope, receive_decompressed, send)
+
+
+app.add_middleware(GZipMiddleware, minimum_size=GZIP_MIN_RESPONSE_SIZE)
+app.add_middleware(GzipRequestMiddleware)
+
+
 # ============================================================
 # 유틸리티 함수
 # ============================================================
@@ -391,7 +494,8 @@ def generate_reply(
     persona: UserPersona, 
     user_message: str, 
     history: List[dict],
-    simulation_context: Optional[SimulationContext] = None
+    simulation_context: Optional[SimulationContext] = None,
+    conversation_summary: Optional[str] = None
 ) -> str:
     """페르소나와 시뮬레이션 컨텍스트 정보를 기반으로 대화 응답을 생성합니다.
     
@@ -400,6 +504,7 @@ def generate_reply(
         user_message: 사용자 메시지
         history: 이전 대화 내역
         simulation_context: 시뮬레이션 컨텍스트 (나이, 관계, 히스토리 등)
+        conversation_summary: history보다 앞선 대화의 누적 요약
     
     Returns:
         생성된 AI 응답
@@ -486,6 +591,15 @@ def generate_reply(
         
         persona_prompt += context_prompt
 
+    # 최근 대화 이전의 내용은 요약으로만 전달됨
+    if conversation_summary:
+        persona_prompt += f"""
+[지금까지의 대화 요약]
+- 아래 대화 내역보다 앞서 두 사람이 나눈 대화를 요약한 내용입니다.
+
+{conversation_summary}
+"""
+
     # 응답 생성 지침 추가
     persona_prompt += f"""
 [응답 지침]
@@ -559,36 +673,54 @@ def summarize_history(history: str, character_name: str) -> str:
         return "히스토리 요약에 실패했습니다."
 
 
-def analyze_chat_performance(
-    chat_logs: List[dict], 
-    user_name: str, 
-    target_name: str,
-    scenario_type: str
-) -> Optional[SimulationReport]:
-    """대화 로그를 분석하여 시나리오별 보고서를 생성합니다.
+def summarize_conversation(
+    previous_summary: Optional[str],
+    messages: List[dict],
+    character_name: str
+) -> str:
+    """이전 요약에 새 대화를 반영하여 시뮬레이션 대화 요약을 갱신합니다.
     
     Args:
-        chat_logs: 대화 로그 리스트 (role, content 포함)
-        user_name: 사용자(본인) 이름
-        target_name: 페르소나 대상(상대방) 이름
-        scenario_type: 시나리오 유형 ("FUTURE" 또는 "PAST")
+        previous_summary: 지금까지의 대화 요약
+        messages: 새로 반영할 대화 (role: user/assistant, content)
+        character_name: 캐릭터 이름
     
     Returns:
-        SimulationReport: 구조화된 시뮬레이션 분석 보고서
+        갱신된 대화 요약
     """
-    
-    logs_text = "\n".join([
-        f"{log.get('role', 'unknown')}: {log.get('content', '')}" 
-        for log in chat_logs
-    ])
-    
-    system_prompt = f"""당신은 인간 관계 시뮬레이션 및 대화 분석 전문가입니다.
-사용자와 AI 페르소나 간의 대화 로그를 분석하여, 제시된 시나리오 유형에 맞는 평가 지표를 기반으로 
-정량적 점수(0~100점)를 산출하고, 통찰력 있는 피드백 리포트를 작성해야 합니다.
+    system_prompt = f"""당신은 대화 요약 전문가입니다.
+사용자와 '{character_name}'의 시뮬레이션 대화를 이어서 요약합니다.
 
-# Evaluation Guidelines
+[요약 지침]
+1. 이전 요약의 내용을 유지하면서 새 대화를 반영해 하나의 요약으로 작성
+2. 대화 주제, 약속/결정 사항, 감정 변화, 갈등 여부를 시간순으로 정리
+3. 이후 대화를 이어가는 데 필요한 사실(이름, 장소, 일정 등)은 빠뜨리지 않기
+4. 10문장 이내로 간결하게 작성
+"""
 
-{"## [미래 시뮬레이션] (Future Simulation)" if scenario_type == "FUTURE" else "## [과거 후회 시뮬레이션] (Past Regret Simulation)"}
+    dialogue = "\n".join(
+        f"{'사용자' if m.get('role') == 'user' else character_name}: {m.get('content', '')}"
+        for m in messages
+    )
+    user_content = f"[이전 요약]\n{previous_summary or '(없음)'}\n\n[새 대화]\n{dialogue}"
+
+    try:
+        response = client.chat.completions.create(
+            model=DEFAULT_MODEL,
+            messages=[
+                {"role": "system", "content": system_prompt},
+                {"role": "user", "content": user_content}
+            ],
+        )
+        return response.choices[0].message.content
+    except Exception as e:
+        print(f"대화 요약 오류: {e}")
+        raise HTTPException(status_code=500, detail="대화 요약에 실패했습니다.")
+
+
+def build_metric_guidelines(scenario_type: str) -> str:
+    """시나리오 유형별 평가 지표(ECI/EVR/CCS 또는 RRI/EEQI/RPS) 설명 (/report와 /report-turn에서 공통으로 사용)"""
+    return f"""{"## [미래 시뮬레이션] (Future Simulation)" if scenario_type == "FUTURE" else "## [과거 후회 시뮬레이션] (Past Regret Simulation)"}
 
 {'''이 상황은 현재 관계를 바탕으로 일어날법한 미래를 연습하는 상황입니다.
 
@@ -630,7 +762,39 @@ def analyze_chat_performance(
 [scores 작성 규칙 - 과거 후회 시뮬레이션]
 - metric_1: code="RRI", name="후회 해소도"
 - metric_2: code="EEQI", name="감정 표현 성숙도"
-- metric_3: code="RPS", name="관계 회복력"'''}
+- metric_3: code="RPS", name="관계 회복력"'''}"""
+
+
+def analyze_chat_performance(
+    chat_logs: List[dict], 
+    user_name: str, 
+    target_name: str,
+    scenario_type: str
+) -> Optional[SimulationReport]:
+    """대화 로그를 분석하여 시나리오별 보고서를 생성합니다.
+    
+    Args:
+        chat_logs: 대화 로그 리스트 (role, content 포함)
+        user_name: 사용자(본인) 이름
+        target_name: 페르소나 대상(상대방) 이름
+        scenario_type: 시나리오 유형 ("FUTURE" 또는 "PAST")
+    
+    Returns:
+        SimulationReport: 구조화된 시뮬레이션 분석 보고서
+    """
+    
+    logs_text = "\n".join([
+        f"{log.get('role', 'unknown')}: {log.get('content', '')}" 
+        for log in chat_logs
+    ])
+    
+    system_prompt = f"""당신은 인간 관계 시뮬레이션 및 대화 분석 전문가입니다.
+사용자와 AI 페르소나 간의 대화 로그를 분석하여, 제시된 시나리오 유형에 맞는 평가 지표를 기반으로 
+정량적 점수(0~100점)를 산출하고, 통찰력 있는 피드백 리포트를 작성해야 합니다.
+
+# Evaluation Guidelines
+
+{build_metric_guidelines(scenario_type)}
 
 [key_conversations 작성 규칙]
 - 각 metric의 점수 산정에 가장 큰 영향을 준 대화 내역을 2-4개 메시지로 구성
@@ -688,6 +852,65 @@ def analyze_chat_performance(
         return None
 
 
+def evaluate_turn(req: TurnReportRequest) -> Optional[TurnEvaluation]:
+    """새 대화 구간만 평가하고 누적 요약/분석/조언을 갱신합니다. (시뮬레이션 진행 중 백그라운드에서 호출)
+    
+    Args:
+        req: 새 대화 구간과 지금까지의 요약/분석/조언
+    
+    Returns:
+        TurnEvaluation: 이번 구간의 지표별 점수와 갱신된 요약/분석/조언
+    """
+    exchange_text = "\n".join([
+        f"{log.get('role', 'unknown')}: {log.get('content', '')}"
+        for log in req.exchange
+    ])
+
+    system_prompt = f"""당신은 인간 관계 시뮬레이션 및 대화 분석 전문가입니다.
+진행 중인 시뮬레이션 대화를 턴 단위로 평가합니다. 전체 대화가 아니라 **새 대화 구간만** 보고
+아래 평가 지표별로 이번 구간의 점수(0~100점)를 매기고, 지금까지의 요약/분석/조언을 이어서 갱신합니다.
+
+# Evaluation Guidelines
+
+{build_metric_guidelines(req.scenario_type)}
+
+[턴 평가 규칙]
+- metrics는 위 지표 순서대로 정확히 3개 작성
+- score는 새 대화 구간에서 {req.user_name}의 발언만 기준으로 평가
+- key는 이 구간이 해당 지표의 전체 평가에 특히 큰 영향을 줄 만한 대화이면 true
+- summary: 이전 요약에 새 대화 구간을 반영한 전체 대화 3줄 요약
+- analysis: 이전 분석에 새 대화 구간을 반영한 전반적인 대화 흐름과 사용자의 태도 분석 (200자 내외)
+- feedback: 이전 조언에 새 대화 구간을 반영한 구체적인 조언 (단계를 구분하지 않고 작성)"""
+
+    evaluation_prompt = f"""[참여자 정보]
+- 사용자: {req.user_name}
+- 상대방(페르소나): {req.target_name}
+
+[이전 요약]
+{req.previous_summary or '(없음)'}
+
+[이전 분석]
+{req.previous_analysis or '(없음)'}
+
+[이전 조언]
+{req.previous_feedback or '(없음)'}
+
+[새 대화 구간]
+{exchange_text}"""
+
+    try:
+        response = client.responses.parse(
+            model=DEFAULT_MODEL,
+            instructions=system_prompt,
+            input=evaluation_prompt,
+            text_format=TurnEvaluation,
+        )
+        return response.output_parsed
+    except Exception as e:
+        print(f"턴 평가 오류: {e}")
+        return None
+
+
 def extract_negative_triggers_from_recent(
     text_content: str,
     user_name: str,
@@ -816,6 +1039,7 @@ def chat_with_character(req: ChatRequest):
       - history_sum: 사용자와 상대간의 이야기 요약
       - purpose: 시뮬레이션 목적 (FUTURE/PAST)
       - category: 구체적인 상황 카테고리
+    - **conversation_summary**: history 이전 대화의 누적 요약 (선택사항)
     """
     if not req.user_message.strip():
         raise HTTPException(status_code=400, detail="메시지가 비어있습니다.")
@@ -824,7 +1048,8 @@ def chat_with_character(req: ChatRequest):
         req.persona, 
         req.user_message, 
         req.history,
-        req.simulation_context
+        req.simulation_context,
+        req.conversation_summary
     )
     return ChatResponse(reply=reply)
 
@@ -864,6 +1089,30 @@ def create_report(req: ReportRequest):
     return ReportResponse(report=report)
 
 
+@app.post("/report-turn", response_model=TurnEvaluation)
+def evaluate_turn_endpoint(req: TurnReportRequest):
+    """
+    진행 중인 시뮬레이션의 새 대화 구간만 평가합니다. (백엔드가 턴마다 누적해 두었다가 종료 시 바로 보고서를 만듦)
+    
+    - **exchange**: 새로 평가할 대화 구간 (role: user/assistant, content: 메시지)
+    - **user_name** / **target_name**: 사용자 / 상대방 이름
+    - **scenario_type**: 시나리오 유형 (FUTURE / PAST)
+    - **previous_summary** / **previous_analysis** / **previous_feedback**: 지금까지 누적된 요약 / 분석 / 조언
+    
+    Returns:
+        이번 구간의 지표별 점수와 갱신된 요약 / 분석 / 조언
+    """
+    if not req.exchange:
+        raise HTTPException(status_code=400, detail="평가할 대화가 비어있습니다.")
+    
+    evaluation = evaluate_turn(req)
+    
+    if not evaluation or len(evaluation.metrics) != 3:
+        raise HTTPException(status_code=500, detail="턴 평가에 실패했습니다.")
+    
+    return evaluation
+
+
 @app.post("/summarize-history", response_model=HistorySumResponse)
 def summarize_history_endpoint(req: HistorySumRequest):
     """
@@ -886,6 +1135,23 @@ def summarize_history_endpoint(req: HistorySumRequest):
     return HistorySumResponse(summary=summary)
 
 
+@app.post("/summarize-conversation", response_model=ConversationSummaryResponse)
+def summarize_conversation_endpoint(req: ConversationSummaryRequest):
+    """
+    시뮬레이션 대화의 누적 요약을 갱신합니다. (/chat에 보내는 대화 내역을 일정하게 유지하기 위함)
+    
+    - **previous_summary**: 지금까지의 대화 요약
+    - **messages**: 새로 반영할 대화 (role: user/assistant, content)
+    - **character_name**: 캐릭터 이름
+    """
+    if not req.messages:
+        raise HTTPException(status_code=400, detail="요약할 대화가 비어있습니다.")
+    
+    summary = summarize_conversation(req.previous_summary, req.messages, req.character_name)
+    
+    return ConversationSummaryResponse(summary=summary)
+
+
 @app.post("/extract-negative-triggers", response_model=ExtractNegativeTriggersResponse)
 def extract_negative_triggers(req: ExtractNegativeTriggersRequest):
     """
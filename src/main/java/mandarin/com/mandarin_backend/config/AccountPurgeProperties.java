@@ -0,0 +1,23 @@
+package mandarin.com.mandarin_backend.config;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+/**
+ * 회원 탈퇴 시 데이터 삭제 설정
+ * application.properties의 account.purge.* 값이 바인딩됩니다.
+ */
+@Getter
+@Setter
+@Component
+@ConfigurationProperties(prefix = "account.purge")
+public class AccountPurgeProperties {
+
+    // 시뮬레이션 메시지가 이보다 많은 계정은 탈퇴 처리만 하고 백그라운드에서 나눠 삭제
+    private long softDeleteThreshold = 5000;
+
+    // 백그라운드 삭제 시 한 트랜잭션에서 지울 시뮬레이션 수
+    private int batchSize = 50;
+}
@@ -0,0 +1,108 @@
+package mandarin.com.mandarin_backend.config;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * 관측된 지연 시간 기반 적응형 동시 요청 제한기 (Gradient + AIMD 방식)
+ *
+ * - 지연이 최소 RTT 근처에 머무르면 limit을 조금씩 올립니다. (sqrt(limit) 만큼의 여유 큐)
+ * - 지연이 늘어나면 gradient(= tolerance * minRtt / rtt)에 비례해 limit을 낮춥니다.
+ * - 타임아웃/5xx/429 같은 실패는 backoffRatio를 곱해 즉시 줄입니다.
+ * - 현재 동시 요청 수가 limit 이상이면 대기 없이 바로 거절합니다.
+ */
+public class AdaptiveConcurrencyLimiter {
+
+    private final AiClientProperties.Limiter config;
+    private final AtomicInteger inFlight = new AtomicInteger();
+
+    private volatile double limit;
+    private long minRttNanos = Long.MAX_VALUE;
+    private int samplesSinceReset = 0;
+
+    public AdaptiveConcurrencyLimiter(AiClientProperties.Limiter config) {
+        this.config = config;
+        this.limit = clamp(config.getInitialLimit());
+    }
+
+    /**
+     * 요청 슬롯 확보 시도
+     * @return 확보 성공 여부 (false면 즉시 거절해야 함)
+     */
+    public boolean tryAcquire() {
+        while (true) {
+            int current = inFlight.get();
+            if (current >= (int) limit) {
+                return false;
+            }
+            if (inFlight.compareAndSet(current, current + 1)) {
+                return true;
+            }
+        }
+    }
+
+    /**
+     * 요청 완료 시 슬롯 반환 및 limit 재계산
+     *
+     * @param rttNanos 요청 소요 시간
+     * @param dropped  실패(타임아웃/과부하) 여부
+     * @return limit 값이 바뀌었는지 여부
+     */
+    public boolean release(long rttNanos, boolean dropped) {
+        int inFlightAtRelease = inFlight.getAndDecrement();
+        return onSample(rttNanos, inFlightAtRelease, dropped);
+    }
+
+    /**
+     * 측정 없이 슬롯만 반환 (요청이 취소된 경우)
+     */
+    public void releaseWithoutSample() {
+        inFlight.decrementAndGet();
+    }
+
+    private synchronized boolean onSample(long rttNanos, int inFlightAtRelease, boolean dropped) {
+        double oldLimit = limit;
+        double newLimit;
+
+        if (dropped) {
+            // 실패는 곱셈 감소
+            newLimit = oldLimit * config.getBackoffRatio();
+        } else {
+            if (++samplesSinceReset >= config.getMinRttResetSamples()) {
+                minRttNanos = Long.MAX_VALUE;
+                samplesSinceReset = 0;
+            }
+            minRttNanos = Math.min(minRttNanos, Math.max(rttNanos, 1));
+
+            double gradient = Math.max(0.5, Math.min(1.0,
+                    config.getRttTolerance() * minRttNanos / Math.max(rttNanos, 1)));
+            double queueSize = Math.sqrt(oldLimit);
+            newLimit = oldLimit * gradient + queueSize;
+
+            // 여유가 많을 때(limit의 절반도 안 쓸 때)는 limit을 키우지 않음
+            if (inFlightAtRelease < oldLimit / 2) {
+                newLimit = Math.min(newLimit, oldLimit);
+            }
+
+            newLimit = oldLimit * (1 - config.getSmoothing()) + newLimit * config.getSmoothing();
+        }
+
+        limit = clamp(newLimit);
+        return (int) limit != (int) oldLimit;
+    }
+
+    private double clamp(double value) {
+        return Math.max(config.getMinLimit(), Math.min(config.getMaxLimit(), value));
+    }
+
+    public int getLimit() {
+        return (int) limit;
+    }
+
+    public int getInFlight() {
+        return inFlight.get();
+    }
+
+    public synchronized long getMinRttNanos() {
+        return minRttNanos == Long.MAX_VALUE ? 0 : minRttNanos;
+    }
+}
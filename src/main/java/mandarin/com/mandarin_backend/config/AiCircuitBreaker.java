@@ -0,0 +1,122 @@
+package mandarin.com.mandarin_backend.config;
+
+import java.time.Clock;
+
+/**
+ * AI 서버 엔드포인트별 서킷 브레이커 (최근 N건 기준 실패율)
+ *
+ * CLOSED    : 정상. 최근 windowSize건 중 실패율이 임계치를 넘으면 OPEN
+ * OPEN      : openDuration 동안 모든 요청을 즉시 실패 처리
+ * HALF_OPEN : 시험 요청 1건만 통과시켜 성공하면 CLOSED, 실패하면 다시 OPEN
+ */
+public class AiCircuitBreaker {
+
+    public enum State { CLOSED, OPEN, HALF_OPEN }
+
+    private final AiClientProperties.CircuitBreaker config;
+    private final Clock clock;
+
+    private final boolean[] failures;
+    private int index = 0;
+    private int recorded = 0;
+    private int failureCount = 0;
+
+    private State state = State.CLOSED;
+    private long openedAt = 0;
+    private boolean trialInProgress = false;
+
+    public AiCircuitBreaker(AiClientProperties.CircuitBreaker config) {
+        this(config, Clock.systemUTC());
+    }
+
+    AiCircuitBreaker(AiClientProperties.CircuitBreaker config, Clock clock) {
+        this.config = config;
+        this.clock = clock;
+        this.failures = new boolean[Math.max(1, config.getWindowSize())];
+    }
+
+    /**
+     * 요청을 보내도 되는지 확인
+     */
+    public synchronized boolean tryAcquirePermission() {
+        if (!config.isEnabled()) {
+            return true;
+        }
+        if (state == State.OPEN) {
+            if (clock.millis() - openedAt < config.getOpenDuration().toMillis()) {
+                return false;
+            }
+            state = State.HALF_OPEN;
+            trialInProgress = false;
+        }
+        if (state == State.HALF_OPEN) {
+            if (trialInProgress) {
+                return false;
+            }
+            trialInProgress = true;
+        }
+        return true;
+    }
+
+    public synchronized void onSuccess() {
+        if (state == State.HALF_OPEN) {
+            reset();
+            return;
+        }
+        record(false);
+    }
+
+    public synchronized void onFailure() {
+        if (state == State.HALF_OPEN) {
+            open();
+            return;
+        }
+        record(true);
+        if (recorded >= config.getMinimumCalls()
+                && failureCount * 100.0 / recorded >= config.getFailureRateThreshold()) {
+            open();
+        }
+    }
+
+    /**
+     * 서버 상태와 무관한 결과 (로컬 거절, 취소 등) - 시험 요청 슬롯만 반환
+     */
+    public synchronized void onIgnored() {
+        if (state == State.HALF_OPEN) {
+            trialInProgress = false;
+        }
+    }
+
+    private void record(boolean failed) {
+        if (recorded == failures.length) {
+            if (failures[index]) {
+                failureCount--;
+            }
+        } else {
+            recorded++;
+        }
+        failures[index] = failed;
+        if (failed) {
+            failureCount++;
+        }
+        index = (index + 1) % failures.length;
+    }
+
+    private void open() {
+        state = State.OPEN;
+        openedAt = clock.millis();
+        trialInProgress = false;
+    }
+
+    private void reset() {
+        state = State.CLOSED;
+        index = 0;
+        recorded = 0;
+        failureCount = 0;
+        trialInProgress = false;
+    }
+
+    public synchronized State getState() {
+        return state;
+    }
+}
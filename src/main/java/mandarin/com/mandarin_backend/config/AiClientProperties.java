@@ -0,0 +1,223 @@
+package mandarin.com.mandarin_backend.config;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.util.unit.DataSize;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Python AI 서버 호출(WebClient) 관련 설정
+ * application.properties의 ai.client.* 값이 바인딩됩니다.
+ */
+@Getter
+@Setter
+@ConfigurationProperties(prefix = "ai.client")
+public class AiClientProperties {
+
+    /**
+     * Python AI 서버 주소
+     */
+    private String baseUrl = "http://localhost:8000";
+
+    /**
+     * AI 서버 인스턴스 목록 (여러 대일 때 클라이언트에서 부하 분산)
+     * 비어 있으면 baseUrl 한 대만 사용
+     */
+    private List<String> endpoints = new ArrayList<>();
+
+    /**
+     * AI 서버 인스턴스 헬스 체크 (GET /) 설정
+     */
+    private HealthCheck healthCheck = new HealthCheck();
+
+    /**
+     * AI 서버 전용 커넥션 풀 설정
+     */
+    private Pool pool = new Pool();
+
+    /**
+     * 적응형 동시 요청 제한 설정
+     */
+    private Limiter limiter = new Limiter();
+
+    /**
+     * 요청/응답 gzip 압축 설정
+     */
+    private Compression compression = new Compression();
+
+    /**
+     * 독립적인 AI 호출 동시 실행(fan-out) 설정
+     */
+    private FanOut fanOut = new FanOut();
+
+    /**
+     * 엔드포인트별 호출 정책 (key: chat, analyze, report, summarize-history, extract-negative-triggers)
+     * 예) ai.client.policies.chat.timeout=60s
+     */
+    private Map<String, Policy> policies = new HashMap<>();
+
+    /**
+     * policies에 없는 엔드포인트에 적용할 기본 정책
+     */
+    private Policy defaultPolicy = new Policy();
+
+    /**
+     * URI 경로("/chat")에 해당하는 정책 조회
+     */
+    public Policy policyFor(String path) {
+        String key = path.startsWith("/") ? path.substring(1) : path;
+        return policies.getOrDefault(key, defaultPolicy);
+    }
+
+    /**
+     * 실제로 사용할 AI 서버 주소 목록
+     */
+    public List<String> resolveEndpoints() {
+        return endpoints.isEmpty() ? List.of(baseUrl) : endpoints;
+    }
+
+    @Getter
+    @Setter
+    public static class HealthCheck {
+
+        // 헬스 체크 주기 / 요청 타임아웃
+        private Duration interval = Duration.ofSeconds(10);
+        private Duration timeout = Duration.ofSeconds(2);
+
+        // 연속 실패 몇 번이면 제외할지, 연속 성공 몇 번이면 복귀시킬지
+        private int unhealthyThreshold = 2;
+        private int healthyThreshold = 1;
+    }
+
+    @Getter
+    @Setter
+    public static class Pool {
+
+        // 커넥션 풀 이름 (메트릭 태그 name으로 사용)
+        private String name = "ai-server";
+
+        // 최대 커넥션 수
+        private int maxConnections = 50;
+
+        // 커넥션을 기다릴 수 있는 최대 요청 수 / 최대 대기 시간
+        private int pendingAcquireMaxCount = 100;
+        private Duration pendingAcquireTimeout = Duration.ofSeconds(10);
+
+        // 유휴 커넥션 정리 시간 / 커넥션 최대 수명
+        private Duration maxIdleTime = Duration.ofSeconds(30);
+        private Duration maxLifeTime = Duration.ofMinutes(5);
+
+        // 백그라운드 정리 주기
+        private Duration evictInBackground = Duration.ofSeconds(30);
+
+        // reactor-netty Micrometer 메트릭 (active/idle/pending 커넥션, acquire 시간)
+        private boolean metricsEnabled = true;
+    }
+
+    @Getter
+    @Setter
+    public static class Limiter {
+
+        // false면 제한 없이 모든 요청을 그대로 보냄
+        private boolean enabled = true;
+
+        // 시작 시 허용할 동시 요청 수
+        private int initialLimit = 8;
+
+        // 동시 요청 수 하한 / 상한
+        private int minLimit = 1;
+        private int maxLimit = 64;
+
+        // 최소 RTT 대비 몇 배까지의 지연을 "정상"으로 볼지 (gradient 계산용)
+        private double rttTolerance = 2.0;
+
+        // 새 limit 반영 비율 (0~1, 클수록 빠르게 반응)
+        private double smoothing = 0.2;
+
+        // 실패(타임아웃/5xx/429) 시 limit에 곱할 감소 비율 (AIMD의 MD)
+        private double backoffRatio = 0.9;
+
+        // 이 횟수만큼 샘플이 쌓이면 최소 RTT를 다시 측정 (서버 성능 변화 반영)
+        private int minRttResetSamples = 500;
+    }
+
+    @Getter
+    @Setter
+    public static class Compression {
+
+        // 요청 본문 gzip 압축 (AI 서버에 요청 해제 미들웨어가 있어야 함)
+        private boolean requestEnabled = false;
+
+        // 이 크기 이상인 요청만 압축 (작은 /chat 요청은 압축 비용이 더 큼)
+        private DataSize minRequestSize = DataSize.ofKilobytes(8);
+
+        // Accept-Encoding: gzip 으로 압축된 응답 받기
+        private boolean responseEnabled = true;
+    }
+
+    @Getter
+    @Setter
+    public static class FanOut {
+
+        // 함께 실행한 호출 전체의 제한 시간 (넘으면 남은 호출을 모두 취소)
+        private Duration deadline = Duration.ofSeconds(600);
+    }
+
+    @Getter
+    @Setter
+    public static class Policy {
+
+        // 요청 1회당 응답 대기 시간
+        private Duration timeout = Duration.ofSeconds(600);
+
+        // 재시도 횟수 (0이면 재시도 안 함, 멱등한 호출에만 설정)
+        private int maxRetries = 0;
+
+        // 지수 백오프 첫 대기 시간 / 최대 대기 시간
+        private Duration retryBackoff = Duration.ofMillis(500);
+        private Duration retryMaxBackoff = Duration.ofSeconds(5);
+
+        // 백오프 지터 비율 (0~1)
+        private double retryJitter = 0.5;
+
+        // 서킷이 열렸거나 재시도까지 실패했을 때 대신 돌려줄 JSON (없으면 에러 그대로 전달)
+        private String fallbackBody;
+
+        // 같은 요청 본문으로 동시에 들어온 호출을 AI 서버 호출 1번으로 합칠지 (AiRequestCoalescer)
+        private boolean coalesce = false;
+
+        // 호출이 끝난 뒤에도 같은 요청에 결과를 재사용할 시간 (0이면 진행 중인 호출만 공유)
+        private Duration coalesceWindow = Duration.ZERO;
+
+        // 같은 요청 본문의 성공 응답을 캐시할 시간 (0이면 캐시 안 함) / 최대 보관 개수
+        private Duration resultCacheTtl = Duration.ZERO;
+        private int resultCacheMaxEntries = 500;
+
+        private CircuitBreaker circuitBreaker = new CircuitBreaker();
+    }
+
+    @Getter
+    @Setter
+    public static class CircuitBreaker {
+
+        private boolean enabled = true;
+
+        // 실패율 계산에 사용할 최근 호출 수
+        private int windowSize = 20;
+
+        // 최소 이만큼 호출이 쌓여야 실패율로 판단
+        private int minimumCalls = 10;
+
+        // 실패율(%)이 이 값 이상이면 서킷 OPEN
+        private double failureRateThreshold = 50;
+
+        // OPEN 상태 유지 시간 (이후 시험 요청 1건 허용)
+        private Duration openDuration = Duration.ofSeconds(30);
+    }
+}
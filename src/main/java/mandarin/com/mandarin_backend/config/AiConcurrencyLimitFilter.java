@@ -0,0 +1,109 @@
+package mandarin.com.mandarin_backend.config;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import mandarin.com.mandarin_backend.exception.AiServerBusyException;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.reactive.function.client.ClientRequest;
+import org.springframework.web.reactive.function.client.ClientResponse;
+import org.springframework.web.reactive.function.client.ExchangeFilterFunction;
+import org.springframework.web.reactive.function.client.ExchangeFunction;
+import reactor.core.publisher.Mono;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * AI 서버 호출에 적응형 동시 요청 제한을 거는 WebClient 필터
+ *
+ * 엔드포인트(/chat, /analyze ...)마다 응답 시간이 수 초~수 분으로 크게 다르므로
+ * URI 경로별로 limiter를 따로 둡니다.
+ * limit을 넘는 요청은 600초씩 기다리지 않고 AiServerBusyException(503)으로 바로 실패합니다.
+ *
+ * 메트릭
+ * - ai.client.concurrency.limit    (gauge, endpoint별 현재 limit)
+ * - ai.client.concurrency.inflight (gauge, endpoint별 처리 중 요청 수)
+ * - ai.client.concurrency.rejected (counter, 거절된 요청 수)
+ * - ai.client.concurrency.limit.changes (counter, limit 변경 횟수)
+ */
+public class AiConcurrencyLimitFilter implements ExchangeFilterFunction {
+
+    private final AiClientProperties.Limiter config;
+    private final MeterRegistry meterRegistry;
+    private final Map<String, AdaptiveConcurrencyLimiter> limiters = new ConcurrentHashMap<>();
+
+    public AiConcurrencyLimitFilter(AiClientProperties.Limiter config, MeterRegistry meterRegistry) {
+        this.config = config;
+        this.meterRegistry = meterRegistry;
+    }
+
+    @Override
+    public Mono<ClientResponse> filter(ClientRequest request, ExchangeFunction next) {
+        if (!config.isEnabled()) {
+            return next.exchange(request);
+        }
+
+        String endpoint = request.url().getPath();
+
+        return Mono.defer(() -> {
+            AdaptiveConcurrencyLimiter limiter = limiterFor(endpoint);
+
+            if (!limiter.tryAcquire()) {
+                meterRegistry.counter("ai.client.concurrency.rejected", "endpoint", endpoint).increment();
+                return Mono.error(new AiServerBusyException(
+                        "AI 서버가 혼잡합니다. 잠시 후 다시 시도해주세요. (" + endpoint + ", 동시 요청 제한: " + limiter.getLimit() + ")"));
+            }
+
+            long start = System.nanoTime();
+            AtomicBoolean released = new AtomicBoolean(false);
+
+            return next.exchange(request)
+                    .doOnSuccess(response -> {
+                        if (released.compareAndSet(false, true)) {
+                            boolean dropped = response != null && isOverloaded(response.statusCode().value());
+                            sample(endpoint, limiter, System.nanoTime() - start, dropped);
+                        }
+                    })
+                    .doOnError(e -> {
+                        if (released.compareAndSet(false, true)) {
+                            sample(endpoint, limiter, System.nanoTime() - start, true);
+                        }
+                    })
+                    .doOnCancel(() -> {
+                        if (released.compareAndSet(false, true)) {
+                            limiter.releaseWithoutSample();
+                        }
+                    });
+        });
+    }
+
+    private void sample(String endpoint, AdaptiveConcurrencyLimiter limiter, long rttNanos, boolean dropped) {
+        if (limiter.release(rttNanos, dropped)) {
+            Counter.builder("ai.client.concurrency.limit.changes")
+                    .tag("endpoint", endpoint)
+                    .register(meterRegistry)
+                    .increment();
+        }
+    }
+
+    private boolean isOverloaded(int status) {
+        return status == HttpStatus.TOO_MANY_REQUESTS.value() || status >= 500;
+    }
+
+    private AdaptiveConcurrencyLimiter limiterFor(String endpoint) {
+        return limiters.computeIfAbsent(endpoint, key -> {
+            AdaptiveConcurrencyLimiter limiter = new AdaptiveConcurrencyLimiter(config);
+            Gauge.builder("ai.client.concurrency.limit", limiter, AdaptiveConcurrencyLimiter::getLimit)
+                    .tag("endpoint", key)
+                    .description("AI 서버 엔드포인트별 현재 동시 요청 제한")
+                    .register(meterRegistry);
+            Gauge.builder("ai.client.concurrency.inflight", limiter, AdaptiveConcurrencyLimiter::getInFlight)
+                    .tag("endpoint", key)
+                    .description("AI 서버 엔드포인트별 처리 중 요청 수")
+                    .register(meterRegistry);
+            return limiter;
+        });
+    }
+}
@@ -0,0 +1,161 @@
+package mandarin.com.mandarin_backend.config;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import mandarin.com.mandarin_backend.exception.AiDeadlineExceededException;
+import org.springframework.stereotype.Component;
+import reactor.core.Disposable;
+import reactor.core.Disposables;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * 서로 독립적인 AI 호출을 동시에 실행하고 함께 기다리기 (structured concurrency)
+ *
+ * <pre>
+ * try (AiFanOut.Scope scope = aiFanOut.open("character-setup")) {
+ *     AiFanOut.Call&lt;A&gt; a = scope.fork("/summarize-history", monoA);
+ *     AiFanOut.Call&lt;B&gt; b = scope.fork("/extract-negative-triggers", monoB);
+ *     scope.join();
+ *     use(a.get(), b.get());
+ * }
+ * </pre>
+ *
+ * - fork하는 즉시 호출을 시작하고 join에서 전부 끝날 때까지 기다림 (호출 스레드는 join에서만 블록)
+ * - 하나가 실패하면 나머지 호출을 바로 취소하고 join이 그 예외를 던짐
+ * - 전체 제한 시간(deadline)을 넘으면 남은 호출을 모두 취소하고 AiDeadlineExceededException
+ * - scope를 닫으면 아직 실행 중인 호출은 취소 (scope 밖으로 새어 나가는 호출 없음)
+ * - 실패해도 나머지를 계속 진행해야 하는 호출은 fork 전에 onErrorResume으로 감싸서 넘김
+ *
+ * 메트릭: ai.client.fan-out.cancelled / ai.client.fan-out.deadline-exceeded (counter, scope 이름별)
+ */
+@Component
+public class AiFanOut {
+
+    private final AiClientProperties properties;
+    private final MeterRegistry meterRegistry;
+
+    public AiFanOut(AiClientProperties properties, MeterRegistry meterRegistry) {
+        this.properties = properties;
+        this.meterRegistry = meterRegistry;
+    }
+
+    /**
+     * 기본 제한 시간(ai.client.fan-out.deadline)으로 scope 열기
+     */
+    public Scope open(String name) {
+        return open(name, properties.getFanOut().getDeadline());
+    }
+
+    public Scope open(String name, Duration deadline) {
+        return new Scope(name, deadline);
+    }
+
+    /**
+     * 함께 실행하는 호출 묶음 (한 스레드에서 fork → join → get 순서로 사용)
+     */
+    public final class Scope implements AutoCloseable {
+
+        private final String name;
+        private final long deadlineAt;
+        private final Disposable.Composite running = Disposables.composite();
+        private final List<CompletableFuture<?>> calls = new ArrayList<>();
+        private final CompletableFuture<Void> failure = new CompletableFuture<>();
+        private final AtomicBoolean failed = new AtomicBoolean();
+
+        private Scope(String name, Duration deadline) {
+            this.name = name;
+            this.deadlineAt = System.nanoTime() + deadline.toNanos();
+        }
+
+        /**
+         * 호출 시작 (결과는 join 이후 Call.get으로 꺼냄, 빈 응답이면 null)
+         */
+        public <T> Call<T> fork(String endpoint, Mono<T> call) {
+            CompletableFuture<T> result = new CompletableFuture<>();
+            calls.add(result);
+            running.add(call.subscribe(
+                    result::complete,
+                    error -> {
+                        result.completeExceptionally(error);
+                        fail(endpoint, error);
+                    },
+                    () -> result.complete(null)));
+            return new Call<>(endpoint, result);
+        }
+
+        /**
+         * fork한 호출이 모두 끝날 때까지 대기
+         * 하나라도 실패하면 그 예외를, 제한 시간을 넘으면 AiDeadlineExceededException을 던짐
+         */
+        public void join() {
+            CompletableFuture<Void> all = CompletableFuture.allOf(calls.toArray(new CompletableFuture[0]));
+            try {
+                CompletableFuture.anyOf(all, failure)
+                        .get(Math.max(0, deadlineAt - System.nanoTime()), TimeUnit.NANOSECONDS);
+            } catch (TimeoutException e) {
+                running.dispose();
+                meterRegistry.counter("ai.client.fan-out.deadline-exceeded", "scope", name).increment();
+                System.err.println("[AiFanOut] " + name + " 제한 시간 초과 - 남은 호출 취소");
+                throw new AiDeadlineExceededException("AI 호출 제한 시간 초과: " + name);
+            } catch (InterruptedException e) {
+                running.dispose();
+                Thread.currentThread().interrupt();
+                throw new IllegalStateException("AI 호출 대기 중 인터럽트: " + name, e);
+            } catch (ExecutionException e) {
+                Throwable cause = e.getCause();
+                if (cause instanceof RuntimeException runtimeException) {
+                    throw runtimeException;
+                }
+                throw new IllegalStateException("AI 호출 실패: " + name, cause);
+            }
+        }
+
+        @Override
+        public void close() {
+            running.dispose();
+        }
+
+        private void fail(String endpoint, Throwable error) {
+            if (failed.compareAndSet(false, true)) {
+                // join이 깨어나기 전에 나머지 호출부터 취소
+                running.dispose();
+                meterRegistry.counter("ai.client.fan-out.cancelled", "scope", name).increment();
+                System.err.println("[AiFanOut] " + name + " - " + endpoint + " 실패로 나머지 호출 취소: "
+                        + error.getMessage());
+                failure.completeExceptionally(error);
+            }
+        }
+    }
+
+    /**
+     * fork한 호출 하나의 결과
+     */
+    public static final class Call<T> {
+
+        private final String endpoint;
+        private final CompletableFuture<T> result;
+
+        private Call(String endpoint, CompletableFuture<T> result) {
+            this.endpoint = endpoint;
+            this.result = result;
+        }
+
+        /**
+         * 호출 결과 (join이 정상적으로 끝난 뒤에만 사용)
+         */
+        public T get() {
+            if (!result.isDone() || result.isCompletedExceptionally()) {
+                throw new IllegalStateException("완료되지 않은 AI 호출: " + endpoint);
+            }
+            return result.join();
+        }
+    }
+}
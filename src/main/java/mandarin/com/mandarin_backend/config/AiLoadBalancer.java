@@ -0,0 +1,192 @@
+package mandarin.com.mandarin_backend.config;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.web.reactive.function.client.WebClient;
+import org.springframework.web.util.UriComponentsBuilder;
+import reactor.core.Disposable;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.net.URI;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
+
+/**
+ * 여러 AI 서버 인스턴스 사이의 클라이언트 측 부하 분산기
+ *
+ * - 선택 방식: 처리 중인 요청(outstanding)이 가장 적은 노드 (같으면 무작위)
+ * - 헬스 체크: 주기적으로 GET / 호출, 연속 실패 시 제외하고 연속 성공 시 복귀
+ * - 연결 실패가 이어져도 헬스 체크를 기다리지 않고 바로 제외
+ * - 모든 노드가 unhealthy면 전체 노드를 대상으로 선택 (헬스 체크 오판으로 전면 장애가 나지 않도록)
+ */
+public class AiLoadBalancer {
+
+    private final List<Node> nodes;
+    private final AiClientProperties.HealthCheck config;
+    private final WebClient healthClient;
+    private Disposable healthCheckTask;
+
+    public AiLoadBalancer(List<String> endpoints,
+                          AiClientProperties.HealthCheck config,
+                          WebClient healthClient,
+                          MeterRegistry meterRegistry) {
+        if (endpoints == null || endpoints.isEmpty()) {
+            throw new IllegalArgumentException("AI 서버 주소가 하나 이상 필요합니다.");
+        }
+        this.config = config;
+        this.healthClient = healthClient;
+        this.nodes = endpoints.stream()
+                .map(endpoint -> new Node(URI.create(endpoint)))
+                .collect(Collectors.toUnmodifiableList());
+
+        for (Node node : nodes) {
+            Gauge.builder("ai.client.lb.node.healthy", node, n -> n.isHealthy() ? 1 : 0)
+                    .tag("node", node.getUri().toString())
+                    .register(meterRegistry);
+            Gauge.builder("ai.client.lb.node.outstanding", node, Node::getOutstanding)
+                    .tag("node", node.getUri().toString())
+                    .register(meterRegistry);
+        }
+    }
+
+    /**
+     * 주기적 헬스 체크 시작
+     */
+    public void start() {
+        healthCheckTask = Flux.interval(Duration.ZERO, config.getInterval())
+                .onBackpressureDrop()
+                .concatMap(tick -> Flux.fromIterable(nodes).flatMap(this::check).then())
+                .subscribe();
+    }
+
+    public void stop() {
+        if (healthCheckTask != null) {
+            healthCheckTask.dispose();
+        }
+    }
+
+    /**
+     * 요청을 보낼 노드 선택 (least outstanding requests)
+     */
+    public Node choose() {
+        List<Node> candidates = nodes.stream().filter(Node::isHealthy).collect(Collectors.toList());
+        if (candidates.isEmpty()) {
+            candidates = nodes;
+        }
+
+        Node best = null;
+        int bestCount = Integer.MAX_VALUE;
+        int ties = 0;
+        for (Node node : candidates) {
+            int count = node.getOutstanding();
+            if (count < bestCount) {
+                best = node;
+                bestCount = count;
+                ties = 1;
+            } else if (count == bestCount && ThreadLocalRandom.current().nextInt(++ties) == 0) {
+                best = node;
+            }
+        }
+        return best;
+    }
+
+    /**
+     * 헬스 체크 1회 수행 (테스트 및 수동 점검용)
+     */
+    public Mono<Void> checkAll() {
+        return Flux.fromIterable(nodes).flatMap(this::check).then();
+    }
+
+    private Mono<Void> check(Node node) {
+        return healthClient.get()
+                .uri(node.resolve(URI.create("/")))
+                .retrieve()
+                .toBodilessEntity()
+                .timeout(config.getTimeout())
+                .map(response -> true)
+                .onErrorResume(e -> Mono.just(false))
+                .doOnNext(ok -> {
+                    if (ok) {
+                        onSuccess(node);
+                    } else {
+                        onFailure(node);
+                    }
+                })
+                .then();
+    }
+
+    void onSuccess(Node node) {
+        node.consecutiveFailures.set(0);
+        if (!node.healthy && node.consecutiveSuccesses.incrementAndGet() >= config.getHealthyThreshold()) {
+            node.healthy = true;
+            System.out.println("[AiLoadBalancer] 노드 복귀 - " + node.getUri());
+        }
+    }
+
+    /**
+     * 헬스 체크 실패 또는 연결 실패 기록
+     */
+    void onFailure(Node node) {
+        node.consecutiveSuccesses.set(0);
+        if (node.healthy && node.consecutiveFailures.incrementAndGet() >= config.getUnhealthyThreshold()) {
+            node.healthy = false;
+            System.out.println("[AiLoadBalancer] 노드 제외 - " + node.getUri());
+        }
+    }
+
+    public List<Node> getNodes() {
+        return nodes;
+    }
+
+    /**
+     * AI 서버 인스턴스 1대
+     */
+    public static class Node {
+
+        private final URI uri;
+        private final AtomicInteger outstanding = new AtomicInteger();
+        private final AtomicInteger consecutiveFailures = new AtomicInteger();
+        private final AtomicInteger consecutiveSuccesses = new AtomicInteger();
+        private volatile boolean healthy = true;
+
+        Node(URI uri) {
+            this.uri = uri;
+        }
+
+        /**
+         * 요청 URI의 scheme/host/port를 이 노드로 교체
+         */
+        public URI resolve(URI requestUri) {
+            return UriComponentsBuilder.fromUri(requestUri)
+                    .scheme(uri.getScheme())
+                    .host(uri.getHost())
+                    .port(uri.getPort())
+                    .build(true)
+                    .toUri();
+        }
+
+        void acquire() {
+            outstanding.incrementAndGet();
+        }
+
+        void release() {
+            outstanding.decrementAndGet();
+        }
+
+        public URI getUri() {
+            return uri;
+        }
+
+        public int getOutstanding() {
+            return outstanding.get();
+        }
+
+        public boolean isHealthy() {
+            return healthy;
+        }
+    }
+}
@@ -0,0 +1,39 @@
+package mandarin.com.mandarin_backend.config;
+
+import org.springframework.web.reactive.function.client.ClientRequest;
+import org.springframework.web.reactive.function.client.ClientResponse;
+import org.springframework.web.reactive.function.client.ExchangeFilterFunction;
+import org.springframework.web.reactive.function.client.ExchangeFunction;
+import org.springframework.web.reactive.function.client.WebClientRequestException;
+import reactor.core.publisher.Mono;
+
+/**
+ * 요청마다 AiLoadBalancer가 고른 AI 서버 인스턴스로 URL을 바꿔 보내는 WebClient 필터
+ *
+ * 가장 안쪽 필터로 등록해서 재시도할 때마다 노드를 다시 고르도록 함
+ * 연결 자체가 실패하면(WebClientRequestException) 해당 노드의 실패로 기록
+ */
+public class AiLoadBalancingFilter implements ExchangeFilterFunction {
+
+    private final AiLoadBalancer loadBalancer;
+
+    public AiLoadBalancingFilter(AiLoadBalancer loadBalancer) {
+        this.loadBalancer = loadBalancer;
+    }
+
+    @Override
+    public Mono<ClientResponse> filter(ClientRequest request, ExchangeFunction next) {
+        return Mono.defer(() -> {
+            AiLoadBalancer.Node node = loadBalancer.choose();
+            ClientRequest routed = ClientRequest.from(request)
+                    .url(node.resolve(request.url()))
+                    .build();
+
+            node.acquire();
+
+            return next.exchange(routed)
+                    .doOnError(WebClientRequestException.class, e -> loadBalancer.onFailure(node))
+                    .doFinally(signal -> node.release());
+        });
+    }
+}
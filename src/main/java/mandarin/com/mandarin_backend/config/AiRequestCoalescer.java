@@ -0,0 +1,168 @@
+package mandarin.com.mandarin_backend.config;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import mandarin.com.mandarin_backend.util.HashUtil;
+import reactor.core.publisher.Mono;
+import reactor.util.context.Context;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Supplier;
+
+/**
+ * 동일한 AI 요청의 중복 호출 제거 (single-flight + 결과 캐시)
+ *
+ * 더블 탭/클라이언트 재시도로 같은 요청 본문이 동시에 들어오면 AI 서버는 1번만 호출하고
+ * 나머지 호출은 진행 중인 Mono를 같이 구독합니다.
+ * 결과 캐시를 켠 엔드포인트는 성공 응답을 TTL 동안 보관해서 같은 입력이면 AI 서버를 호출하지 않습니다.
+ * - 키: 엔드포인트 + 요청 본문(JSON, 키 정렬) SHA-256
+ * - 엔드포인트별 ai.client.policies.{endpoint}.coalesce / coalesce-window 로 설정
+ * - 결과 캐시는 ai.client.policies.{endpoint}.result-cache-ttl / result-cache-max-entries 로 설정
+ * - 실패한 호출은 바로 제거해서 다음 요청이 새로 시도하도록 함 (fallback 응답도 캐시하지 않음)
+ * - 공유 중인 호출은 모든 구독자가 취소해야 AI 서버 호출이 취소됨 (한 구독자의 취소가 다른 구독자에 영향 없음)
+ */
+public class AiRequestCoalescer {
+
+    private final AiClientProperties properties;
+    private final ObjectWriter keyWriter;
+    private final MeterRegistry meterRegistry;
+    private final Map<String, Mono<?>> shared = new ConcurrentHashMap<>();
+    private final Map<String, AiResultCache> resultCaches = new ConcurrentHashMap<>();
+
+    public AiRequestCoalescer(AiClientProperties properties, ObjectMapper objectMapper, MeterRegistry meterRegistry) {
+        this.properties = properties;
+        this.keyWriter = objectMapper.writer().with(SerializationFeature.ORDER_MAP_ENTRIES_BY_KEYS);
+        this.meterRegistry = meterRegistry;
+
+        Gauge.builder("ai.client.coalesce.shared", shared, Map::size)
+                .description("공유 중인 AI 요청 수")
+                .register(meterRegistry);
+    }
+
+    /**
+     * 같은 엔드포인트 + 같은 요청 본문의 결과가 캐시에 있으면 바로 반환하고,
+     * 호출이 이미 진행 중이면 그 결과를 공유하고, 둘 다 아니면 call을 실행
+     *
+     * @param endpoint    AI 서버 경로 (예: "/analyze")
+     * @param requestBody AI 서버로 보낼 요청 본문
+     * @param call        실제 AI 서버 호출
+     */
+    @SuppressWarnings("unchecked")
+    public <T> Mono<T> execute(String endpoint, Object requestBody, Supplier<Mono<T>> call) {
+        AiClientProperties.Policy policy = properties.policyFor(endpoint);
+        boolean caching = isPositive(policy.getResultCacheTtl());
+        if (!policy.isCoalesce() && !caching) {
+            return Mono.defer(call);
+        }
+
+        return Mono.defer(() -> {
+            String key;
+            try {
+                key = endpoint + ":" + HashUtil.sha256Hex(keyWriter.writeValueAsBytes(requestBody));
+            } catch (JsonProcessingException e) {
+                // 키를 만들 수 없으면 공유하지 않고 그대로 호출
+                return call.get();
+            }
+
+            AiResultCache cache = caching ? resultCacheFor(endpoint, policy) : null;
+            if (cache != null) {
+                Optional<Object> cached = cache.get(key);
+                if (cached.isPresent()) {
+                    meterRegistry.counter("ai.client.result-cache.hits", "endpoint", endpoint).increment();
+                    System.out.println("[AiClient] 캐시된 결과 사용 - " + endpoint);
+                    return Mono.just((T) cached.get());
+                }
+                meterRegistry.counter("ai.client.result-cache.misses", "endpoint", endpoint).increment();
+            }
+
+            Mono<T> load = load(key, cache, call);
+            if (!policy.isCoalesce()) {
+                return load;
+            }
+
+            AtomicBoolean leader = new AtomicBoolean(false);
+            Mono<?> mono = shared.computeIfAbsent(key, k -> {
+                leader.set(true);
+                return share(k, policy.getCoalesceWindow(), load);
+            });
+
+            if (!leader.get()) {
+                meterRegistry.counter("ai.client.coalesced", "endpoint", endpoint).increment();
+                System.out.println("[AiClient] 동일 요청 공유 - " + endpoint);
+            }
+            return (Mono<T>) mono;
+        });
+    }
+
+    /**
+     * 실제 호출 + 성공 시 결과 캐시에 저장 (fallback 응답은 제외)
+     */
+    private <T> Mono<T> load(String key, AiResultCache cache, Supplier<Mono<T>> call) {
+        if (cache == null) {
+            return Mono.defer(call);
+        }
+
+        AtomicBoolean fallbackUsed = new AtomicBoolean(false);
+        return Mono.defer(call)
+                .doOnSuccess(result -> {
+                    if (result != null && !fallbackUsed.get()) {
+                        cache.put(key, result);
+                    }
+                })
+                .contextWrite(Context.of(AiResiliencePolicyFilter.FALLBACK_MARKER, fallbackUsed));
+    }
+
+    /**
+     * 진행 중인 호출을 구독자 수로 공유 (마지막 구독자가 취소하면 AI 서버 호출도 취소)
+     * 성공하면 공유 시간 동안은 완료된 결과로 바꿔 두고, 실패 / 취소되면 바로 제거
+     */
+    private <T> Mono<T> share(String key, Duration window, Mono<T> load) {
+        AtomicReference<Mono<T>> self = new AtomicReference<>();
+
+        Mono<T> mono = load
+                .doOnError(e -> shared.remove(key, self.get()))
+                .doOnCancel(() -> shared.remove(key, self.get()))
+                .doOnSuccess(result -> keepFor(key, self.get(), result, window))
+                .flux()
+                .publish()
+                .refCount(1)
+                .singleOrEmpty();
+
+        self.set(mono);
+        return mono;
+    }
+
+    private <T> void keepFor(String key, Mono<T> running, T result, Duration window) {
+        if (!isPositive(window)) {
+            shared.remove(key, running);
+            return;
+        }
+        Mono<T> done = result == null ? Mono.empty() : Mono.just(result);
+        if (shared.replace(key, running, done)) {
+            Mono.delay(window).subscribe(tick -> shared.remove(key, done));
+        }
+    }
+
+    private AiResultCache resultCacheFor(String endpoint, AiClientProperties.Policy policy) {
+        return resultCaches.computeIfAbsent(endpoint, key -> {
+            AiResultCache cache = new AiResultCache(policy.getResultCacheMaxEntries(), policy.getResultCacheTtl());
+            Gauge.builder("ai.client.result-cache.size", cache, AiResultCache::size)
+                    .tag("endpoint", key)
+                    .register(meterRegistry);
+            return cache;
+        });
+    }
+
+    private static boolean isPositive(Duration duration) {
+        return duration != null && !duration.isZero() && !duration.isNegative();
+    }
+}
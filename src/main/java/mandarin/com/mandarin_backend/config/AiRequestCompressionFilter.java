@@ -0,0 +1,105 @@
+package mandarin.com.mandarin_backend.config;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import org.reactivestreams.Publisher;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DataBufferUtils;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.client.reactive.ClientHttpRequest;
+import org.springframework.http.client.reactive.ClientHttpRequestDecorator;
+import org.springframework.web.reactive.function.client.ClientRequest;
+import org.springframework.web.reactive.function.client.ClientResponse;
+import org.springframework.web.reactive.function.client.ExchangeFilterFunction;
+import org.springframework.web.reactive.function.client.ExchangeFunction;
+import reactor.core.publisher.Mono;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * AI 서버로 보내는 요청 본문을 gzip으로 압축하는 WebClient 필터
+ *
+ * /analyze, /extract-negative-triggers(최대 15만 자), /report(전체 대화 로그)처럼 큰 요청만
+ * minRequestSize 이상일 때 압축하고 Content-Encoding: gzip 헤더를 붙임 (python/ai_server.py에서 해제)
+ * 압축해도 작아지지 않으면 원본 그대로 전송
+ *
+ * 메트릭
+ * - ai.client.compression.requests    (counter, endpoint별 압축해서 보낸 요청 수)
+ * - ai.client.compression.bytes-saved (counter, endpoint별 줄어든 요청 바이트 수)
+ */
+public class AiRequestCompressionFilter implements ExchangeFilterFunction {
+
+    private final AiClientProperties.Compression config;
+    private final MeterRegistry meterRegistry;
+
+    public AiRequestCompressionFilter(AiClientProperties.Compression config, MeterRegistry meterRegistry) {
+        this.config = config;
+        this.meterRegistry = meterRegistry;
+    }
+
+    @Override
+    public Mono<ClientResponse> filter(ClientRequest request, ExchangeFunction next) {
+        if (!config.isRequestEnabled()) {
+            return next.exchange(request);
+        }
+
+        String endpoint = request.url().getPath();
+        ClientRequest compressing = ClientRequest.from(request)
+                .body((outputMessage, context) ->
+                        request.body().insert(new CompressingRequest(outputMessage, endpoint), context))
+                .build();
+        return next.exchange(compressing);
+    }
+
+    static byte[] gzip(byte[] raw) {
+        ByteArrayOutputStream out = new ByteArrayOutputStream(Math.max(64, raw.length / 4));
+        try (GZIPOutputStream gzip = new GZIPOutputStream(out)) {
+            gzip.write(raw);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return out.toByteArray();
+    }
+
+    /**
+     * 인코더가 쓰는 본문을 모아서 크기를 보고 압축 여부를 결정
+     */
+    private class CompressingRequest extends ClientHttpRequestDecorator {
+
+        private final String endpoint;
+
+        CompressingRequest(ClientHttpRequest delegate, String endpoint) {
+            super(delegate);
+            this.endpoint = endpoint;
+        }
+
+        @Override
+        public Mono<Void> writeWith(Publisher<? extends DataBuffer> body) {
+            return DataBufferUtils.join(body)
+                    .defaultIfEmpty(bufferFactory().wrap(new byte[0]))
+                    .flatMap(buffer -> {
+                        byte[] raw = new byte[buffer.readableByteCount()];
+                        buffer.read(raw);
+                        DataBufferUtils.release(buffer);
+
+                        byte[] payload = raw;
+                        if (raw.length >= config.getMinRequestSize().toBytes()) {
+                            byte[] compressed = gzip(raw);
+                            if (compressed.length < raw.length) {
+                                payload = compressed;
+                                getHeaders().set(HttpHeaders.CONTENT_ENCODING, "gzip");
+                                meterRegistry.counter("ai.client.compression.requests", "endpoint", endpoint)
+                                        .increment();
+                                meterRegistry.counter("ai.client.compression.bytes-saved", "endpoint", endpoint)
+                                        .increment(raw.length - compressed.length);
+                            }
+                        }
+
+                        getHeaders().setContentLength(payload.length);
+                        return super.writeWith(Mono.just(bufferFactory().wrap(payload)));
+                    });
+        }
+    }
+}
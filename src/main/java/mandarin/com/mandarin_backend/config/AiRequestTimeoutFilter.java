@@ -0,0 +1,29 @@
+package mandarin.com.mandarin_backend.config;
+
+import org.springframework.web.reactive.function.client.ClientRequest;
+import org.springframework.web.reactive.function.client.ClientResponse;
+import org.springframework.web.reactive.function.client.ExchangeFilterFunction;
+import org.springframework.web.reactive.function.client.ExchangeFunction;
+import reactor.core.publisher.Mono;
+
+/**
+ * AI 서버 요청 1회당 응답 대기 시간 제한 (ai.client.policies.{endpoint}.timeout)
+ *
+ * AiConcurrencyLimitFilter 안쪽에 두어서 타임아웃이 limiter에 취소가 아닌 실패(TimeoutException)로 전달되게 함
+ * → 응답이 멈춘 AI 서버에서는 타임아웃이 drop으로 기록되어 limit이 줄어듦
+ * 재시도 / fallback은 바깥의 AiResiliencePolicyFilter가 이 TimeoutException을 보고 처리
+ */
+public class AiRequestTimeoutFilter implements ExchangeFilterFunction {
+
+    private final AiClientProperties properties;
+
+    public AiRequestTimeoutFilter(AiClientProperties properties) {
+        this.properties = properties;
+    }
+
+    @Override
+    public Mono<ClientResponse> filter(ClientRequest request, ExchangeFunction next) {
+        return next.exchange(request)
+                .timeout(properties.policyFor(request.url().getPath()).getTimeout());
+    }
+}
@@ -0,0 +1,54 @@
+package mandarin.com.mandarin_backend.config;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.io.SerializedString;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.util.RawValue;
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * AI 서버 요청 본문 직렬화
+ *
+ * - 요청 타입별 ObjectWriter를 한 번만 만들어 재사용 (루트 serializer 조회를 요청마다 반복하지 않음)
+ * - 바뀌지 않는 부분(페르소나 등)은 rawJson()으로 미리 UTF-8 JSON으로 만들어 두고 요청에 그대로 끼워 넣음
+ */
+@Component
+public class AiRequestWriter {
+
+    private final ObjectMapper objectMapper;
+    private final Map<Class<?>, ObjectWriter> writers = new ConcurrentHashMap<>();
+
+    public AiRequestWriter(ObjectMapper objectMapper) {
+        this.objectMapper = objectMapper;
+    }
+
+    /**
+     * 요청 객체를 JSON 바이트로 직렬화
+     */
+    public byte[] write(Object request) {
+        ObjectWriter writer = writers.computeIfAbsent(request.getClass(), objectMapper::writerFor);
+        try {
+            return writer.writeValueAsBytes(request);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("AI 요청 직렬화 실패: " + e.getMessage(), e);
+        }
+    }
+
+    /**
+     * 값을 한 번만 직렬화해서 요청에 그대로 끼워 넣을 수 있는 JSON 조각으로 변환
+     */
+    public RawValue rawJson(Object value) {
+        try {
+            SerializedString json = new SerializedString(objectMapper.writeValueAsString(value));
+            // UTF-8 바이트를 미리 만들어 두면 이후 요청에서는 복사만 함
+            json.asUnquotedUTF8();
+            return new RawValue(json);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("AI 요청 직렬화 실패: " + e.getMessage(), e);
+        }
+    }
+}
@@ -0,0 +1,169 @@
+package mandarin.com.mandarin_backend.config;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import mandarin.com.mandarin_backend.exception.AiCircuitOpenException;
+import mandarin.com.mandarin_backend.exception.AiServerBusyException;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.HttpStatusCode;
+import org.springframework.http.MediaType;
+import org.springframework.web.reactive.function.client.ClientRequest;
+import org.springframework.web.reactive.function.client.ClientResponse;
+import org.springframework.web.reactive.function.client.ExchangeFilterFunction;
+import org.springframework.web.reactive.function.client.ExchangeFunction;
+import org.springframework.web.reactive.function.client.WebClientRequestException;
+import org.springframework.web.reactive.function.client.WebClientResponseException;
+import reactor.core.publisher.Mono;
+import reactor.util.retry.Retry;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * AI 서버 호출에 엔드포인트별 정책(타임아웃, 재시도, 서킷 브레이커, fallback)을 적용하는 WebClient 필터
+ *
+ * - timeout      : 요청 1회당 응답 대기 시간. /chat이 멈춰도 /analyze처럼 10분씩 붙잡지 않음
+ *                  (동시 요청 제한 안쪽의 AiRequestTimeoutFilter가 적용하고, 여기서는 TimeoutException으로 받음)
+ * - maxRetries   : 연결 실패/타임아웃/5xx일 때 지터가 섞인 지수 백오프로 재시도 (멱등한 호출에만 설정)
+ * - circuit      : 최근 실패율이 높으면 일정 시간 동안 AI 서버를 호출하지 않고 즉시 실패
+ * - fallbackBody : 서킷이 열렸거나 재시도까지 실패하면 설정된 JSON을 정상 응답처럼 돌려줌
+ */
+public class AiResiliencePolicyFilter implements ExchangeFilterFunction {
+
+    /**
+     * Reactor Context 키 - 값(AtomicBoolean)이 있으면 fallback 응답을 돌려줄 때 true로 표시
+     * (AiRequestCoalescer가 fallback 응답을 결과 캐시에 넣지 않도록)
+     */
+    public static final String FALLBACK_MARKER = AiResiliencePolicyFilter.class.getName() + ".fallback";
+
+    private final AiClientProperties properties;
+    private final MeterRegistry meterRegistry;
+    private final Map<String, AiCircuitBreaker> breakers = new ConcurrentHashMap<>();
+
+    public AiResiliencePolicyFilter(AiClientProperties properties, MeterRegistry meterRegistry) {
+        this.properties = properties;
+        this.meterRegistry = meterRegistry;
+    }
+
+    @Override
+    public Mono<ClientResponse> filter(ClientRequest request, ExchangeFunction next) {
+        String endpoint = request.url().getPath();
+        AiClientProperties.Policy policy = properties.policyFor(endpoint);
+        AiCircuitBreaker breaker = breakerFor(endpoint, policy);
+
+        Mono<ClientResponse> attempt = Mono.defer(() -> {
+            if (!breaker.tryAcquirePermission()) {
+                return Mono.error(new AiCircuitOpenException(
+                        "AI 서버 장애로 요청을 일시적으로 차단했습니다. (" + endpoint + ")"));
+            }
+
+            AtomicBoolean recorded = new AtomicBoolean(false);
+
+            return next.exchange(request)
+                    .flatMap(response -> {
+                        if (response.statusCode().is5xxServerError()) {
+                            if (recorded.compareAndSet(false, true)) {
+                                breaker.onFailure();
+                            }
+                            // 재시도/에러 전환을 위해 응답 본문은 버리고 상태 코드만 전달
+                            return response.releaseBody()
+                                    .then(Mono.error(new ServerErrorStatusException(response.statusCode().value())));
+                        }
+                        if (recorded.compareAndSet(false, true)) {
+                            breaker.onSuccess();
+                        }
+                        return Mono.just(response);
+                    })
+                    .doOnError(e -> {
+                        if (recorded.compareAndSet(false, true)) {
+                            if (e instanceof AiServerBusyException) {
+                                breaker.onIgnored();
+                            } else {
+                                breaker.onFailure();
+                            }
+                        }
+                    })
+                    .doOnCancel(() -> {
+                        if (recorded.compareAndSet(false, true)) {
+                            breaker.onIgnored();
+                        }
+                    });
+        });
+
+        if (policy.getMaxRetries() > 0) {
+            attempt = attempt.retryWhen(Retry.backoff(policy.getMaxRetries(), policy.getRetryBackoff())
+                    .maxBackoff(policy.getRetryMaxBackoff())
+                    .jitter(policy.getRetryJitter())
+                    .filter(this::isRetryable)
+                    .doBeforeRetry(signal -> {
+                        meterRegistry.counter("ai.client.retries", "endpoint", endpoint).increment();
+                        System.out.println("[AiClient] 재시도 " + (signal.totalRetries() + 1) + "회 - " + endpoint
+                                + ", 원인: " + signal.failure());
+                    })
+                    .onRetryExhaustedThrow((spec, signal) -> signal.failure()));
+        }
+
+        return attempt
+                .onErrorResume(e -> fallback(endpoint, policy, e))
+                .onErrorMap(ServerErrorStatusException.class, e -> WebClientResponseException.create(
+                        HttpStatusCode.valueOf(e.status), "AI 서버 오류 (" + endpoint + ")",
+                        HttpHeaders.EMPTY, new byte[0], null, null));
+    }
+
+    /**
+     * 서킷 OPEN 또는 재시도 가능한 실패가 최종적으로 남았을 때 fallback 응답 생성
+     */
+    private Mono<ClientResponse> fallback(String endpoint, AiClientProperties.Policy policy, Throwable e) {
+        boolean fallbackable = e instanceof AiCircuitOpenException || isRetryable(e);
+        if (policy.getFallbackBody() == null || !fallbackable) {
+            return Mono.error(e);
+        }
+
+        meterRegistry.counter("ai.client.fallbacks", "endpoint", endpoint).increment();
+        System.out.println("[AiClient] fallback 응답 사용 - " + endpoint + ", 원인: " + e);
+
+        return Mono.deferContextual(context -> {
+            context.<AtomicBoolean>getOrEmpty(FALLBACK_MARKER).ifPresent(marker -> marker.set(true));
+            return Mono.just(ClientResponse.create(HttpStatus.OK)
+                    .header(HttpHeaders.CONTENT_TYPE, MediaType.APPLICATION_JSON_VALUE)
+                    .body(policy.getFallbackBody())
+                    .build());
+        });
+    }
+
+    /**
+     * 재시도해도 되는 실패인지 (연결 실패, 타임아웃, 5xx)
+     * 로컬 동시 요청 제한(AiServerBusyException)과 서킷 OPEN은 재시도하지 않음
+     */
+    private boolean isRetryable(Throwable e) {
+        return e instanceof ServerErrorStatusException
+                || e instanceof TimeoutException
+                || e instanceof WebClientRequestException;
+    }
+
+    private AiCircuitBreaker breakerFor(String endpoint, AiClientProperties.Policy policy) {
+        return breakers.computeIfAbsent(endpoint, key -> {
+            AiCircuitBreaker breaker = new AiCircuitBreaker(policy.getCircuitBreaker());
+            Gauge.builder("ai.client.circuit.state", breaker, b -> b.getState().ordinal())
+                    .tag("endpoint", key)
+                    .description("서킷 상태 (0: CLOSED, 1: OPEN, 2: HALF_OPEN)")
+                    .register(meterRegistry);
+            return breaker;
+        });
+    }
+
+    /**
+     * 5xx 응답을 재시도 대상으로 다루기 위한 내부 예외
+     */
+    private static class ServerErrorStatusException extends RuntimeException {
+        private final int status;
+
+        ServerErrorStatusException(int status) {
+            super("AI 서버 응답 상태 " + status, null, false, false);
+            this.status = status;
+        }
+    }
+}
@@ -0,0 +1,58 @@
+package mandarin.com.mandarin_backend.config;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * AI 응답 결과 캐시 (엔드포인트별, 크기 제한 + TTL)
+ *
+ * - 최대 maxEntries개까지 보관하고 넘치면 가장 오래 사용하지 않은 항목부터 제거 (LRU)
+ * - 저장 후 ttl이 지난 항목은 조회 시 제거
+ */
+public class AiResultCache {
+
+    private final Duration ttl;
+    private final Clock clock;
+    private final LinkedHashMap<String, Entry> entries;
+
+    public AiResultCache(int maxEntries, Duration ttl) {
+        this(maxEntries, ttl, Clock.systemUTC());
+    }
+
+    AiResultCache(int maxEntries, Duration ttl, Clock clock) {
+        this.ttl = ttl;
+        this.clock = clock;
+        this.entries = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, Entry> eldest) {
+                return size() > Math.max(1, maxEntries);
+            }
+        };
+    }
+
+    public synchronized Optional<Object> get(String key) {
+        Entry entry = entries.get(key);
+        if (entry == null) {
+            return Optional.empty();
+        }
+        if (clock.millis() >= entry.expiresAt) {
+            entries.remove(key);
+            return Optional.empty();
+        }
+        return Optional.of(entry.value);
+    }
+
+    public synchronized void put(String key, Object value) {
+        entries.put(key, new Entry(value, clock.millis() + ttl.toMillis()));
+    }
+
+    public synchronized int size() {
+        return entries.size();
+    }
+
+    private record Entry(Object value, long expiresAt) {
+    }
+}
@@ -0,0 +1,50 @@
+package mandarin.com.mandarin_backend.config;
+
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.annotation.EnableAsync;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+
+import java.util.concurrent.ThreadPoolExecutor;
+
+@Configuration
+@EnableAsync
+public class AsyncConfig {
+
+    /**
+     * 응답 경로와 무관한 백그라운드 작업용 스레드 풀 (대화 요약 등)
+     * 요청 처리 스레드보다 낮은 우선순위로 실행하고, 큐가 가득 차면 버림 (다음 기회에 다시 처리됨)
+     */
+    @Bean(name = "backgroundTaskExecutor")
+    public ThreadPoolTaskExecutor backgroundTaskExecutor() {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(2);
+        executor.setMaxPoolSize(4);
+        executor.setQueueCapacity(200);
+        executor.setThreadPriority(Thread.MIN_PRIORITY);
+        executor.setThreadNamePrefix("background-");
+        executor.setRejectedExecutionHandler(new ThreadPoolExecutor.DiscardPolicy());
+        executor.setWaitForTasksToCompleteOnShutdown(true);
+        executor.setAwaitTerminationSeconds(30);
+        return executor;
+    }
+
+    /**
+     * 탈퇴 사용자 데이터 / 업로드 파일 삭제용 스레드 풀
+     * 삭제 작업은 다시 실행할 기회가 없을 수 있으므로(파일 경로는 DB에서 이미 지워짐) 버리지 않음
+     * 큐가 가득 차면 이벤트를 발행한 스레드(커밋 직후의 요청 스레드)에서 바로 실행
+     */
+    @Bean(name = "purgeTaskExecutor")
+    public ThreadPoolTaskExecutor purgeTaskExecutor() {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(1);
+        executor.setMaxPoolSize(2);
+        executor.setQueueCapacity(500);
+        executor.setThreadPriority(Thread.MIN_PRIORITY);
+        executor.setThreadNamePrefix("purge-");
+        executor.setRejectedExecutionHandler(new ThreadPoolExecutor.CallerRunsPolicy());
+        executor.setWaitForTasksToCompleteOnShutdown(true);
+        executor.setAwaitTerminationSeconds(60);
+        return executor;
+    }
+}
@@ -0,0 +1,28 @@
+package mandarin.com.mandarin_backend.config;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+
+/**
+ * 한 턴에 여러 후보 메시지를 보내 응답을 비교하는 배치 턴 설정
+ * application.properties의 simulation.batch.* 값이 바인딩됩니다.
+ */
+@Getter
+@Setter
+@Component
+@ConfigurationProperties(prefix = "simulation.batch")
+public class ChatBatchProperties {
+
+    // 한 번에 보낼 수 있는 후보 메시지 최대 개수 (후보마다 /chat 호출 1회)
+    private int maxCandidates = 5;
+
+    // 배치 하나가 동시에 보내는 /chat 호출 수 (나머지 후보는 앞선 호출이 끝나면 이어서 보냄)
+    private int concurrency = 2;
+
+    // 후보 응답을 보관하는 시간 (지나면 선택할 수 없고 진행 중인 호출은 취소)
+    private Duration ttl = Duration.ofMinutes(10);
+}
@@ -0,0 +1,50 @@
+package mandarin.com.mandarin_backend.config;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+
+/**
+ * 시뮬레이션 대화 메모리(누적 요약 + 최근 대화 윈도우) 설정
+ * application.properties의 simulation.memory.* 값이 바인딩됩니다.
+ */
+@Getter
+@Setter
+@Component
+@ConfigurationProperties(prefix = "simulation.memory")
+public class ConversationMemoryProperties {
+
+    // false면 누적 요약을 만들지 않음 (최근 대화 윈도우만 전송)
+    private boolean summaryEnabled = true;
+
+    // /chat에 그대로 보낼 최근 메시지 최대 개수 / 토큰 예산
+    private int recentMaxMessages = 20;
+    private int recentTokenBudget = 1500;
+
+    // 최근 윈도우 밖으로 밀려난 메시지가 이만큼 쌓이면 요약 갱신
+    // 요약 전까지는 윈도우 밖 메시지도 /chat에 보내므로 평소 최대 recentMaxMessages + summarizeEvery - 1개
+    private int summarizeEvery = 10;
+
+    // 요약에 반영되지 않은 메시지를 /chat에 보낼 최대 개수 (요약이 계속 실패할 때의 상한)
+    private int unsummarizedMaxMessages = 60;
+
+    // 토큰 수 추정용 (글자 수 / charsPerToken + 메시지당 messageOverheadTokens)
+    private double charsPerToken = 1.5;
+    private int messageOverheadTokens = 4;
+
+    // 진행 중인 시뮬레이션의 대화 상태(페르소나/컨텍스트/최근 대화)를 메모리에 유지할 최대 개수와
+    // 마지막 사용 후 유지 시간 (서버가 여러 대면 다른 서버에서 바뀐 캐릭터 정보는 이 시간 안에 반영됨)
+    private int stateCacheMaxEntries = 1000;
+    private Duration stateCacheTtl = Duration.ofMinutes(30);
+
+    /**
+     * 대화 상태에 들고 있을 최근 메시지 수
+     * 요약을 켜면 요약 이후 메시지를 모두, 끄면 최근 윈도우만
+     */
+    public int unsummarizedCapacity() {
+        return Math.max(1, summaryEnabled ? Math.max(unsummarizedMaxMessages, recentMaxMessages) : recentMaxMessages);
+    }
+}
@@ -0,0 +1,28 @@
+package mandarin.com.mandarin_backend.config;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+
+/**
+ * 대화 턴 멱등성 키(Idempotency-Key 헤더) 저장소 설정
+ * application.properties의 simulation.idempotency.* 값이 바인딩됩니다.
+ */
+@Getter
+@Setter
+@Component
+@ConfigurationProperties(prefix = "simulation.idempotency")
+public class IdempotencyProperties {
+
+    // 시뮬레이션당 기억할 최근 키 개수 (넘치면 가장 오래된 키부터 제거)
+    private int keysPerSimulation = 50;
+
+    // 키를 기억할 시뮬레이션 최대 개수 (넘치면 가장 오래 사용하지 않은 시뮬레이션부터 제거)
+    private int maxSimulations = 10000;
+
+    // 키를 기억하는 시간 (클라이언트 재시도 간격보다 충분히 길게)
+    private Duration ttl = Duration.ofHours(1);
+}
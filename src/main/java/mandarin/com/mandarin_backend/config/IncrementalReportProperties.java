@@ -0,0 +1,31 @@
+package mandarin.com.mandarin_backend.config;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+
+/**
+ * 턴 단위 점진 평가(부분 보고서) 설정
+ * application.properties의 simulation.report.* 값이 바인딩됩니다.
+ */
+@Getter
+@Setter
+@Component
+@ConfigurationProperties(prefix = "simulation.report")
+public class IncrementalReportProperties {
+
+    // 턴마다 백그라운드에서 새 대화를 평가해 둘지 (끄면 종료 시 /report로 전체 대화를 한 번에 평가)
+    private boolean incrementalEnabled = true;
+
+    // /report-turn 한 번에 보낼 최대 메시지 수 (종료 시 이보다 많이 밀렸으면 /report로 전체 대화를 평가)
+    private int maxMessagesPerCall = 20;
+
+    // 종료 시 같은 시뮬레이션의 백그라운드 평가가 끝나길 기다리는 최대 시간 (넘으면 /report로 전체 대화를 평가)
+    private Duration catchUpWait = Duration.ofSeconds(30);
+
+    // 지표별로 보관할 주요 대화 구간 수 (구간당 메시지 최대 4개)
+    private int keyExchangesPerMetric = 2;
+}
@@ -1,26 +1,94 @@
 package mandarin.com.mandarin_backend.config;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.MeterRegistry;
 import io.netty.channel.ChannelOption;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.http.client.reactive.ReactorClientHttpConnector;
 import org.springframework.web.reactive.function.client.WebClient;
 import reactor.netty.http.client.HttpClient;
+import reactor.netty.resources.ConnectionProvider;
 
 import java.time.Duration;
+import java.util.function.Function;
 
 @Configuration
+@EnableConfigurationProperties(AiClientProperties.class)
 public class WebClientConfig {
 
+    /**
+     * AI 서버 전용 커넥션 풀
+     * 메트릭: reactor.netty.connection.provider.* (active/idle/pending 커넥션, 최대치)
+     *         reactor.netty.connection.provider.pending.connections.time (acquire 대기 시간)
+     */
+    @Bean(destroyMethod = "dispose")
+    public ConnectionProvider aiConnectionProvider(AiClientProperties properties) {
+        AiClientProperties.Pool pool = properties.getPool();
+
+        return ConnectionProvider.builder(pool.getName())
+                .maxConnections(pool.getMaxConnections())
+                .pendingAcquireMaxCount(pool.getPendingAcquireMaxCount())
+                .pendingAcquireTimeout(pool.getPendingAcquireTimeout())
+                .maxIdleTime(pool.getMaxIdleTime())
+                .maxLifeTime(pool.getMaxLifeTime())
+                .evictInBackground(pool.getEvictInBackground())
+                .metrics(pool.isMetricsEnabled())
+                .build();
+    }
+
+    /**
+     * AI 서버 인스턴스 부하 분산기 (ai.client.endpoints)
+     * 헬스 체크는 필터가 없는 별도 WebClient로 보내서 동시 요청 제한/서킷 브레이커에 섞이지 않게 함
+     */
+    @Bean(initMethod = "start", destroyMethod = "stop")
+    public AiLoadBalancer aiLoadBalancer(AiClientProperties properties,
+                                         ConnectionProvider aiConnectionProvider,
+                                         MeterRegistry meterRegistry) {
+        HttpClient healthHttpClient = HttpClient.create(aiConnectionProvider)
+                .option(ChannelOption.CONNECT_TIMEOUT_MILLIS,
+                        (int) properties.getHealthCheck().getTimeout().toMillis());
+
+        WebClient healthClient = WebClient.builder()
+                .clientConnector(new ReactorClientHttpConnector(healthHttpClient))
+                .build();
+
+        return new AiLoadBalancer(properties.resolveEndpoints(), properties.getHealthCheck(),
+                healthClient, meterRegistry);
+    }
+
+    /**
+     * 동일한 AI 요청 single-flight (ai.client.policies.*.coalesce)
+     */
+    @Bean
+    public AiRequestCoalescer aiRequestCoalescer(AiClientProperties properties,
+                                                 ObjectMapper objectMapper,
+                                                 MeterRegistry meterRegistry) {
+        return new AiRequestCoalescer(properties, objectMapper, meterRegistry);
+    }
+
     @Bean
-    public WebClient webClient() {
-        HttpClient httpClient = HttpClient.create()
+    public WebClient webClient(AiClientProperties properties,
+                               ConnectionProvider aiConnectionProvider,
+                               AiLoadBalancer aiLoadBalancer,
+                               MeterRegistry meterRegistry) {
+        HttpClient httpClient = HttpClient.create(aiConnectionProvider)
                 .option(ChannelOption.CONNECT_TIMEOUT_MILLIS, 5000)  // 연결 타임아웃 5초
-                .responseTimeout(Duration.ofSeconds(600));           // 응답 타임아웃 10분
+                .option(ChannelOption.SO_KEEPALIVE, true)            // TCP keep-alive
+                .keepAlive(true)                                     // HTTP keep-alive (커넥션 재사용)
+                .responseTimeout(Duration.ofSeconds(600))            // 응답 타임아웃 상한 10분 (엔드포인트별 타임아웃은 ai.client.policies.*)
+                .metrics(properties.getPool().isMetricsEnabled(), Function.identity())  // 요청 메트릭 (uri 태그는 고정 경로라 그대로 사용)
+                .compress(properties.getCompression().isResponseEnabled());           // Accept-Encoding: gzip + 응답 자동 해제
 
         return WebClient.builder()
-                .baseUrl("http://localhost:8000")
+                .baseUrl(properties.resolveEndpoints().get(0))  // 실제 호스트는 AiLoadBalancingFilter가 요청마다 결정
                 .clientConnector(new ReactorClientHttpConnector(httpClient))
+                .filter(new AiResiliencePolicyFilter(properties, meterRegistry))               // 엔드포인트별 재시도/서킷 브레이커/fallback
+                .filter(new AiConcurrencyLimitFilter(properties.getLimiter(), meterRegistry))  // 적응형 동시 요청 제한
+                .filter(new AiRequestTimeoutFilter(properties))                                // 엔드포인트별 타임아웃 (limiter가 drop으로 기록)
+                .filter(new AiLoadBalancingFilter(aiLoadBalancer))                             // 인스턴스 선택 (least outstanding)
+                .filter(new AiRequestCompressionFilter(properties.getCompression(), meterRegistry))  // 큰 요청 본문 gzip 압축
                 .codecs(configurer -> configurer.defaultCodecs()
                         .maxInMemorySize(10 * 1024 * 1024))  // 10MB까지 허용
                 .build();
@@ -5,17 +5,23 @@ import mandarin.com.mandarin_backend.entity.Simulation;
 import mandarin.com.mandarin_backend.entity.SimulationMessage;
 import mandarin.com.mandarin_backend.entity.User;
 import mandarin.com.mandarin_backend.entity.UserCharacter;
-import mandarin.com.mandarin_backend.entity.enums.SimulationCategory;
 import mandarin.com.mandarin_backend.repository.SimulationRepository;
-import mandarin.com.mandarin_backend.repository.SimulationMessageRepository;
 import mandarin.com.mandarin_backend.repository.UserRepository;
+import mandarin.com.mandarin_backend.service.ChatBatchService;
 import mandarin.com.mandarin_backend.service.ChatService;
+import mandarin.com.mandarin_backend.service.IncrementalReportService;
 import mandarin.com.mandarin_backend.service.ReportService;
+import mandarin.com.mandarin_backend.service.SimulationBranchService;
+import mandarin.com.mandarin_backend.service.SimulationMailbox;
+import mandarin.com.mandarin_backend.service.TurnIdempotencyService;
 import mandarin.com.mandarin_backend.service.KakaoTalkParseService;
 import lombok.RequiredArgsConstructor;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
+import org.springframework.http.codec.ServerSentEvent;
 import org.springframework.web.bind.annotation.*;
+import reactor.core.publisher.Flux;
 
 import java.nio.charset.StandardCharsets;
 import java.nio.file.Files;
@@ -30,10 +36,14 @@ import java.util.stream.Collectors;
 public class ChatController {
 
     private final ChatService chatService;
+    private final ChatBatchService chatBatchService;
+    private final TurnIdempotencyService turnIdempotencyService;
+    private final SimulationMailbox simulationMailbox;
+    private final SimulationBranchService simulationBranchService;
     private final ReportService reportService;
+    private final IncrementalReportService incrementalReportService;
     private final SimulationRepository simulationRepository;
     private final UserRepository userRepository;
-    private final SimulationMessageRepository simulationMessageRepository;
     private final KakaoTalkParseService kakaoTalkParseService;
     
     @Value("${file.upload-dir}")
@@ -46,11 +56,17 @@ public class ChatController {
      * simulationId를 통해 Simulation과 UserCharacter 정보를 조회하여
      * AI에게 컨텍스트(나이, 관계, 러브타입, 히스토리, 목적, 카테고리)를 전달합니다.
      * 
+     * Idempotency-Key 헤더를 보내면 같은 키로 재시도해도 AI 호출/메시지 저장은 한 번만 일어나고 같은 응답을 받습니다.
+     * 같은 시뮬레이션에 동시에 보낸 메시지는 도착 순서대로 하나씩 처리됩니다.
+     * 
      * @param request simulationId(시뮬레이션 ID), userMessage(사용자 메시지), history(대화 내역)
+     * @param idempotencyKey 재시도 구분용 키 (선택)
      * @return AI 응답
      */
     @PostMapping("/send")
-    public ResponseEntity<ChatResponseDto> sendMessage(@RequestBody ChatRequestDto request) {
+    public ResponseEntity<ChatResponseDto> sendMessage(
+            @RequestBody ChatRequestDto request,
+            @RequestHeader(value = "Idempotency-Key", required = false) String idempotencyKey) {
         
         // 필수 파라미터 검증
         if (request.getSimulationId() == null) {
@@ -63,15 +79,98 @@ public class ChatController {
         System.out.println("[Chat] 메시지 수신 - 시뮬레이션ID: " + request.getSimulationId() 
             + ", 메시지: " + request.getUserMessage());
         
-        ChatResponseDto response = chatService.chat(
+        ChatResponseDto response = turnIdempotencyService.execute(
             request.getSimulationId(),
+            idempotencyKey,
             request.getUserMessage(),
-            request.getHistory()
+            () -> simulationMailbox.submit(request.getSimulationId(), () -> chatService.chat(
+                request.getSimulationId(),
+                request.getUserMessage(),
+                request.getHistory()
+            )),
+            result -> result != null && result.getReply() != null
         );
         
         return ResponseEntity.ok(response);
     }
 
+    /**
+     * 배치 턴 - 후보 메시지 여러 개에 대한 AI 응답을 한 번에 받기
+     * POST /api/chat/send/batch
+     *
+     * 후보마다 /chat을 호출하고 (배치당 동시에 simulation.batch.concurrency개까지) 모두 끝나면 요청 순서대로 반환합니다. (아직 대화에 저장하지 않음)
+     * 마음에 드는 후보를 /send/batch/{batchId}/commit으로 골라야 대화에 저장됩니다.
+     *
+     * @param request simulationId(시뮬레이션 ID), candidates(후보 메시지 목록), history(대화 내역)
+     * @return batchId와 후보별 AI 응답
+     */
+    @PostMapping("/send/batch")
+    public ResponseEntity<ChatBatchResponseDto> sendBatch(@RequestBody ChatBatchRequestDto request) {
+        if (request.getSimulationId() == null) {
+            throw new IllegalArgumentException("simulationId는 필수입니다.");
+        }
+
+        ChatBatchService.Batch batch = chatBatchService.start(
+            request.getSimulationId(), request.getCandidates(), request.getHistory());
+
+        return ResponseEntity.ok(ChatBatchResponseDto.builder()
+            .batchId(batch.getBatchId())
+            .alternatives(chatBatchService.awaitAll(batch))
+            .build());
+    }
+
+    /**
+     * 배치 턴 - 후보별 AI 응답을 끝나는 순서대로 받기 (Server-Sent Events)
+     * POST /api/chat/send/batch/stream
+     *
+     * 첫 이벤트(batch)로 batchId를 보내고, 이후 후보 응답이 끝날 때마다 alternative 이벤트를 보냅니다.
+     * 모든 응답을 기다리지 않고 바로 commit하면 아직 진행 중인 호출은 취소됩니다.
+     */
+    @PostMapping(value = "/send/batch/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public Flux<ServerSentEvent<Object>> streamBatch(@RequestBody ChatBatchRequestDto request) {
+        if (request.getSimulationId() == null) {
+            throw new IllegalArgumentException("simulationId는 필수입니다.");
+        }
+
+        ChatBatchService.Batch batch = chatBatchService.start(
+            request.getSimulationId(), request.getCandidates(), request.getHistory());
+
+        ServerSentEvent<Object> started = ServerSentEvent.<Object>builder(
+                ChatBatchResponseDto.builder().batchId(batch.getBatchId()).alternatives(List.of()).build())
+            .event("batch")
+            .build();
+        return Flux.concat(
+            Flux.just(started),
+            chatBatchService.stream(batch)
+                .map(alternative -> ServerSentEvent.<Object>builder(alternative).event("alternative").build()));
+    }
+
+    /**
+     * 배치 턴 - 후보 하나를 골라 대화에 저장
+     * POST /api/chat/send/batch/{batchId}/commit
+     *
+     * 고른 후보의 사용자 메시지와 AI 응답만 저장하고, 아직 진행 중인 나머지 후보 호출은 취소합니다.
+     * 후보를 받은 뒤 같은 시뮬레이션에 다른 메시지가 저장됐으면 409를 반환합니다.
+     *
+     * @param batchId /send/batch 응답의 batchId
+     * @param request index(고른 후보 순서)
+     * @return 저장한 AI 응답
+     */
+    @PostMapping("/send/batch/{batchId}/commit")
+    public ResponseEntity<ChatResponseDto> commitBatch(
+            @PathVariable("batchId") String batchId,
+            @RequestBody ChatBatchCommitRequestDto request) {
+        if (request.getIndex() == null) {
+            throw new IllegalArgumentException("index는 필수입니다.");
+        }
+
+        // 같은 시뮬레이션의 /send와 섞이지 않도록 메일박스에서 저장
+        ChatResponseDto response = simulationMailbox.submit(chatBatchService.simulationIdOf(batchId),
+            () -> chatBatchService.commit(batchId, request.getIndex()));
+
+        return ResponseEntity.ok(response);
+    }
+
     /**
      * 대화 로그를 시나리오 유형에 따라 분석하여 보고서 생성 및 DB 저장
      * POST /api/chat/report
@@ -91,10 +190,10 @@ public class ChatController {
         }
 
         // 1. Simulation 조회
-        Simulation simulation = simulationRepository.findById(request.getSimulationId()).orElseThrow(() -> new IllegalArgumentException("시뮬레이션을 찾을 수 없습니다: " + request.getSimulationId()));
+        Simulation simulation = simulationRepository.findWithCharacterBySimulationId(request.getSimulationId()).orElseThrow(() -> new IllegalArgumentException("시뮬레이션을 찾을 수 없습니다: " + request.getSimulationId()));
 
         // 2. User 조회 및 검증증
-        User user = userRepository.findById(request.getId()).orElseThrow(() -> new IllegalArgumentException("사용자를 찾을 수 없습니다: " + request.getId()));
+        User user = userRepository.findByIdAndDeletedAtIsNull(request.getId()).orElseThrow(() -> new IllegalArgumentException("사용자를 찾을 수 없습니다: " + request.getId()));
 
         // 시뮬레이션의 사용자와 요청한 사용자 ID가 일치하는지 검증
         if (!simulation.getUser().getId().equals(user.getId())) {
@@ -107,8 +206,8 @@ public class ChatController {
             throw new IllegalArgumentException("시뮬레이견에 연결된 캐릭터를 찾을 수 없습니다.");
         }
 
-        // 4. SimulaitonMessage에서 chat_logs 가져오기
-        List<SimulationMessage> messages = simulationMessageRepository.findBySimulationSimulationIdOrderByTimestampAsc(request.getSimulationId());
+        // 4. SimulaitonMessage에서 chat_logs 가져오기 (분기 시뮬레이션이면 분기 지점 이전 대화 포함)
+        List<SimulationMessage> messages = simulationBranchService.loadHistory(request.getSimulationId());
 
         if (messages.isEmpty()) {
             throw new IllegalArgumentException("시뮬레이션에 대화 로그가 없습니다.");
@@ -136,19 +235,24 @@ public class ChatController {
         }
 
         // 7. scenario_type 가져오기 (Simulation.category 기반)
-        String scenarioType = determineScenarioType(simulation.getCategory());
+        String scenarioType = simulation.getCategory().scenarioType();
 
         System.out.println("[Report] 보고서 요청 - 시뮬레이션ID: " + request.getSimulationId()
             + ", 사용자: " + userName 
             + ", 대상: " + targetName
             + ", 시나리오: " + scenarioType);
         
+        // 8. 턴마다 누적해 둔 부분 보고서가 있으면 밀린 턴만 평가하고 합침 (없으면 /report로 전체 대화 평가)
+        SimulationReportDto mergedReport = incrementalReportService.mergeReport(request.getSimulationId())
+            .orElse(null);
+
         ReportResponseDto response = reportService.createReportAndSave(
             request.getSimulationId(),
             chatLogs,
             userName,
             targetName,
-            scenarioType
+            scenarioType,
+            mergedReport
         );
         
         return ResponseEntity.ok(response);
@@ -198,19 +302,5 @@ public class ChatController {
                 return null;
         }
     }
-    
-    /**
-     * SimulationCategory를 기반으로 scenario_type 결정
-     * PAST: EMOTIONAL_MISTAKE, MISCOMMUNICATION, CONTACT_ISSUE, BREAKUP_PROCESS, REALITY_PROBLEM
-     * FUTURE: RELATION_TENSION, PERSONAL_BOUNDARY, FAMILY_FRIEND_ISSUE, BREAKUP_FUTURE, EVENT_PREPARATION
-     */
-    private String determineScenarioType(SimulationCategory category) {
-        return switch (category) {
-            case EMOTIONAL_MISTAKE, MISCOMMUNICATION, CONTACT_ISSUE, 
-                 BREAKUP_PROCESS, REALITY_PROBLEM -> "PAST";
-            case RELATION_TENSION, PERSONAL_BOUNDARY, FAMILY_FRIEND_ISSUE, 
-                 BREAKUP_FUTURE, EVENT_PREPARATION -> "FUTURE";
-        };
-    }
 }
 
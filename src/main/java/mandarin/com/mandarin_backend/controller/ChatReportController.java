@@ -56,14 +56,20 @@ public class ChatReportController {
     }
 
     // 3. 유저별 리포트 조회
+    // cursor 또는 size를 보내면 최근 생성 순 페이지로, 둘 다 없으면 기존처럼 전체 목록으로 응답
     @GetMapping("/user/{id}")
-    public ResponseEntity<Map<String, Object>> getReportsByUserId(@PathVariable("id") Long userId) {
+    public ResponseEntity<Map<String, Object>> getReportsByUserId(
+            @PathVariable("id") Long userId,
+            @RequestParam(value = "cursor", required = false) String cursor,
+            @RequestParam(value = "size", required = false) Integer size) {
         try {
-            List<ChatReportResponseDto> list = chatReportService.getChatReportsByUserId(userId);
+            Object data = cursor == null && size == null
+                    ? chatReportService.getChatReportsByUserId(userId)
+                    : chatReportService.getChatReportPageByUserId(userId, cursor, size);
 
             Map<String, Object> response = new HashMap<>();
             response.put("code", 200);
-            response.put("data", list);
+            response.put("data", data);
 
             return ResponseEntity.ok(response);
         } catch (Exception e) {
@@ -75,14 +81,20 @@ public class ChatReportController {
     }
 
     // 4. 캐릭터별 리포트 조회
+    // cursor 또는 size를 보내면 최근 생성 순 페이지로, 둘 다 없으면 기존처럼 전체 목록으로 응답
     @GetMapping("/character/{character_id}")
-    public ResponseEntity<Map<String, Object>> getReportsByCharacterId(@PathVariable("character_id") Long characterId) {
+    public ResponseEntity<Map<String, Object>> getReportsByCharacterId(
+            @PathVariable("character_id") Long characterId,
+            @RequestParam(value = "cursor", required = false) String cursor,
+            @RequestParam(value = "size", required = false) Integer size) {
         try {
-            List<ChatReportResponseDto> list = chatReportService.getChatReportsByCharacterId(characterId);
+            Object data = cursor == null && size == null
+                    ? chatReportService.getChatReportsByCharacterId(characterId)
+                    : chatReportService.getChatReportPageByCharacterId(characterId, cursor, size);
 
             Map<String, Object> response = new HashMap<>();
             response.put("code", 200);
-            response.put("data", list);
+            response.put("data", data);
 
             return ResponseEntity.ok(response);
         } catch (Exception e) {
@@ -2,14 +2,18 @@ package mandarin.com.mandarin_backend.controller;
 
 import lombok.RequiredArgsConstructor;
 import mandarin.com.mandarin_backend.dto.ApiResponse;
+import mandarin.com.mandarin_backend.dto.SimulationForkRequestDto;
 import mandarin.com.mandarin_backend.dto.SimulationMessageRequestDto;
 import mandarin.com.mandarin_backend.dto.SimulationMessageResponseDto;
 import mandarin.com.mandarin_backend.dto.SimulationResponseDto;
+import mandarin.com.mandarin_backend.service.SimulationMailbox;
 import mandarin.com.mandarin_backend.service.SimulationService;
+import mandarin.com.mandarin_backend.service.TurnIdempotencyService;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
 
-import java.util.List;
+import java.util.Optional;
 
 @RestController
 @RequestMapping("/simulation")
@@ -17,15 +21,21 @@ import java.util.List;
 public class SimulationController {
 
     private final SimulationService simulationService;
+    private final TurnIdempotencyService turnIdempotencyService;
+    private final SimulationMailbox simulationMailbox;
 
     // 시뮬레이션 다건 조회 API
     // GET /simulation/character/{character_id}
+    // cursor 또는 size를 보내면 최근 수정 순 페이지(CursorPageResponseDto)로, 둘 다 없으면 기존처럼 전체 목록으로 응답
     @GetMapping("/character/{character_id}")
-    public ResponseEntity<ApiResponse<List<SimulationResponseDto>>> getSimulationsByCharacterId(
-            @PathVariable("character_id") Long characterId) {
+    public ResponseEntity<ApiResponse<?>> getSimulationsByCharacterId(
+            @PathVariable("character_id") Long characterId,
+            @RequestParam(value = "cursor", required = false) String cursor,
+            @RequestParam(value = "size", required = false) Integer size) {
 
-        ApiResponse<List<SimulationResponseDto>> response = 
-                simulationService.getSimulationsByCharacterId(characterId);
+        ApiResponse<?> response = cursor == null && size == null
+                ? simulationService.getSimulationsByCharacterId(characterId)
+                : simulationService.getSimulationPageByCharacterId(characterId, cursor, size);
 
         if (response.isSuccess()) {
             return ResponseEntity.ok(response); // 200 OK
@@ -59,16 +69,39 @@ public class SimulationController {
      * GET /simulation/message/{simulation_id}
      * 
      * simulation_id에 해당하는 시뮬레이션의 모든 대화 정보들을 반환합니다.
+     * cursor 또는 size를 보내면 시간순 페이지(CursorPageResponseDto)로 나눠 반환합니다. (다음 페이지는 nextCursor로 요청)
+     * since(가진 마지막 메시지의 sequenceNo)를 보내면 그 이후 메시지만 반환합니다.
+     *
+     * 응답에는 대화 버전(마지막 대화 시간 + 메시지 수)으로 만든 ETag가 붙고,
+     * If-None-Match가 같으면 시뮬레이션 1행만 확인하고 본문 없이 304를 반환합니다.
      */
     @GetMapping("/message/{simulation_id}")
-    public ResponseEntity<ApiResponse<List<SimulationMessageResponseDto>>> getMessagesBySimulationId(
-            @PathVariable("simulation_id") Long simulationId) {
+    public ResponseEntity<ApiResponse<?>> getMessagesBySimulationId(
+            @PathVariable("simulation_id") Long simulationId,
+            @RequestParam(value = "cursor", required = false) String cursor,
+            @RequestParam(value = "size", required = false) Integer size,
+            @RequestParam(value = "since", required = false) Long since,
+            WebRequest webRequest) {
+
+        // 버전을 먼저 읽으므로 그사이 메시지가 추가되면 ETag가 본문보다 오래된 값이 되어 다음 요청에서 다시 받음 (누락 없음)
+        Optional<String> eTag = simulationService.getMessageETag(simulationId);
+        if (eTag.isPresent() && webRequest.checkNotModified(eTag.get())) {
+            return null; // 304 Not Modified
+        }
 
-        ApiResponse<List<SimulationMessageResponseDto>> response = 
-                simulationService.getMessagesBySimulationId(simulationId);
+        ApiResponse<?> response;
+        if (since != null) {
+            response = simulationService.getMessagesSince(simulationId, since);
+        } else if (cursor == null && size == null) {
+            response = simulationService.getMessagesBySimulationId(simulationId);
+        } else {
+            response = simulationService.getMessagePageBySimulationId(simulationId, cursor, size);
+        }
 
         if (response.isSuccess()) {
-            return ResponseEntity.ok(response); // 200 OK
+            ResponseEntity.BodyBuilder ok = ResponseEntity.ok();
+            eTag.ifPresent(ok::eTag);
+            return ok.body(response); // 200 OK
         }
 
         return ResponseEntity.badRequest().body(response); // 실패 시 400
@@ -79,12 +112,21 @@ public class SimulationController {
      * POST /simulation/message
      * 
      * 사용자 메시지를 저장하고 AI 응답을 받아 반환합니다.
+     * Idempotency-Key 헤더를 보내면 같은 키로 재시도해도 AI 호출/메시지 저장은 한 번만 일어나고 같은 응답을 받습니다.
+     * 같은 시뮬레이션에 동시에 보낸 메시지는 도착 순서대로 하나씩 처리됩니다.
      */
     @PostMapping("/message")
     public ResponseEntity<ApiResponse<SimulationMessageResponseDto>> sendMessage(
-            @RequestBody SimulationMessageRequestDto request) {
+            @RequestBody SimulationMessageRequestDto request,
+            @RequestHeader(value = "Idempotency-Key", required = false) String idempotencyKey) {
 
-        ApiResponse<SimulationMessageResponseDto> response = simulationService.sendMessage(request);
+        ApiResponse<SimulationMessageResponseDto> response = turnIdempotencyService.execute(
+                request.getSimulationId(),
+                idempotencyKey,
+                request.getSender() + ":" + request.getContent(),
+                () -> simulationMailbox.submit(request.getSimulationId(),
+                        () -> simulationService.sendMessage(request)),
+                ApiResponse::isSuccess);
 
         if (response.isSuccess()) {
             return ResponseEntity.ok(response); // 200 OK
@@ -92,5 +134,27 @@ public class SimulationController {
 
         return ResponseEntity.badRequest().body(response); // 실패 시 400
     }
-}
 
+    /**
+     * 시뮬레이션 분기 API
+     * POST /simulation/{simulation_id}/fork
+     *
+     * messageIndex번째 메시지까지의 대화를 이어받는 새 시뮬레이션을 만듭니다. ("그때 다르게 말했다면?")
+     * 메시지 / 페르소나는 복사하지 않고 원본을 참조하므로 대화 길이와 관계없이 바로 생성됩니다.
+     * 원본 시뮬레이션에 진행 중인 턴이 있으면 끝난 뒤에 분기합니다.
+     */
+    @PostMapping("/{simulation_id}/fork")
+    public ResponseEntity<ApiResponse<SimulationResponseDto>> forkSimulation(
+            @PathVariable("simulation_id") Long simulationId,
+            @RequestBody SimulationForkRequestDto request) {
+
+        ApiResponse<SimulationResponseDto> response = simulationMailbox.submit(simulationId,
+                () -> simulationService.forkSimulation(simulationId, request));
+
+        if (response.isSuccess()) {
+            return ResponseEntity.ok(response); // 200 OK
+        }
+
+        return ResponseEntity.badRequest().body(response); // 실패 시 400
+    }
+}
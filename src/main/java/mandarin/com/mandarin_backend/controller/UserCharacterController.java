@@ -2,11 +2,15 @@ package mandarin.com.mandarin_backend.controller;
 
 import com.fasterxml.jackson.databind.ObjectMapper; // [추가] JSON 변환 라이브러리
 import lombok.RequiredArgsConstructor;
+import mandarin.com.mandarin_backend.dto.HistorySumRequestDto;
 import mandarin.com.mandarin_backend.dto.ParsedChatDataDto;
 import mandarin.com.mandarin_backend.dto.ReportCharacterResponseDto;
 import mandarin.com.mandarin_backend.dto.UserCharacterRequestDto;
 import mandarin.com.mandarin_backend.dto.UserCharacterResponseDto;
 import mandarin.com.mandarin_backend.entity.UserCharacter;
+import mandarin.com.mandarin_backend.exception.AiCircuitOpenException;
+import mandarin.com.mandarin_backend.exception.AiDeadlineExceededException;
+import mandarin.com.mandarin_backend.exception.AiServerBusyException;
 import mandarin.com.mandarin_backend.exception.CharacterNotFoundException;
 import mandarin.com.mandarin_backend.exception.UserNotFoundException;
 import mandarin.com.mandarin_backend.service.AnalysisService;
@@ -33,22 +37,32 @@ public class UserCharacterController {
     private final ReportCharacterService reportCharacterService;
     private final AnalysisService analysisService;
     private final KakaoTalkParseService kakaoTalkParseService;
+    // 요청마다 새로 만들지 않고 스프링이 등록한 ObjectMapper 재사용 (역직렬화기 캐시 공유)
+    private final ObjectMapper objectMapper;
 
     // ----------------- 캐릭터 다건 조회 -----------------
     // [수정] GET 요청에는 consumes = MediaType.MULTIPART_FORM_DATA_VALUE 가 필요 없습니다. 제거했습니다.
+    // cursor 또는 size를 보내면 최근 생성 순 페이지로, 둘 다 없으면 기존처럼 전체 목록으로 응답
     @GetMapping("/user/{id}") 
-    public ResponseEntity<?> getCharacters(@PathVariable Long id) {
+    public ResponseEntity<?> getCharacters(@PathVariable Long id,
+                                           @RequestParam(value = "cursor", required = false) String cursor,
+                                           @RequestParam(value = "size", required = false) Integer size) {
         try {
-            List<UserCharacterResponseDto> list = characterService.getCharactersByUserId(id);
+            Object data = cursor == null && size == null
+                    ? characterService.getCharactersByUserId(id)
+                    : characterService.getCharacterPageByUserId(id, cursor, size);
 
             Map<String, Object> result = new HashMap<>();
             result.put("code", 200);
-            result.put("data", list);
+            result.put("data", data);
 
             return ResponseEntity.ok(result);
 
         } catch (UserNotFoundException e) {
             return ResponseEntity.status(404).body(e.getMessage());
+        } catch (IllegalArgumentException e) {
+            // 잘못된 커서
+            return ResponseEntity.badRequest().body(e.getMessage());
         } catch (Exception e) {
             e.printStackTrace();
             return ResponseEntity.status(500).body("서버 에러 발생: " + e.getMessage());
@@ -78,8 +92,6 @@ public class UserCharacterController {
             @RequestPart(value = "character_img", required = false) MultipartFile characterImg,
             @RequestPart(value = "full_dialogue", required = false) MultipartFile fullDialogue
     ) {
-        // [수정 2] ObjectMapper 생성
-        ObjectMapper objectMapper = new ObjectMapper();
         UserCharacterRequestDto dto = null;
 
         try {
@@ -104,8 +116,10 @@ public class UserCharacterController {
                 }
             }
 
-            // 캐릭터 리포트 생성 (fullDialogue 파일이 있는 경우)
-            if (fullDialogueContent != null && !fullDialogueContent.isEmpty() && dto.getKakaoName() != null) {
+            // 캐릭터 분석 (히스토리 요약 / fullDialogue 기반 갈등 리포트를 동시에 실행)
+            String kakaoName = dto.getKakaoName();
+            String targetName = null;
+            if (fullDialogueContent != null && !fullDialogueContent.isEmpty() && kakaoName != null) {
                 try {
                     // 1. 대화 파일 파싱하여 참여자 목록 조회
                     ParsedChatDataDto parsedData = kakaoTalkParseService.parseInfo(fullDialogueContent);
@@ -114,32 +128,39 @@ public class UserCharacterController {
                     
                     // 2. 참여자 목록에서 상대방 찾기 (kakaoName 제외)
                     List<String> participants = parsedData.getParticipants();
-                    String kakaoName = dto.getKakaoName();
-                    String targetName = participants.stream()
+                    targetName = participants.stream()
                         .filter(name -> !name.equals(kakaoName))
                         .findFirst()
                         .orElse(null);
                     
-                    if (targetName != null) {
-                        // 3. 리포트 생성
-                        analysisService.createReportCharacterFromFullDialogue(
-                            savedCharacter,
-                            kakaoName,
-                            targetName,
-                            fullDialogueContent
-                        );
-                        System.out.println("[Create] 캐릭터 리포트 생성 완료 - 캐릭터ID: " + savedCharacter.getCharacterId());
-                    } else {
+                    if (targetName == null) {
                         System.out.println("[Create] 상대방을 찾을 수 없어 리포트를 생성하지 않습니다. 참여자: " + participants);
                     }
                 } catch (Exception e) {
-                    System.err.println("[Create] 캐릭터 리포트 생성 실패: " + e.getMessage());
-                    // 리포트 생성 실패해도 캐릭터 생성은 성공으로 처리
+                    System.err.println("[Create] 대화 파일 파싱 실패: " + e.getMessage());
                 }
             } else {
                 System.out.println("[create] 리포트 생성 조건을 충족하지 못했습니다: fullDialogueContent " + (fullDialogueContent != null ? "있음" : "없음"));
             }
 
+            boolean hasHistory = dto.getHistory() != null && !dto.getHistory().isBlank();
+            if (targetName != null || hasHistory) {
+                try {
+                    // 3. 히스토리 요약 + 리포트 생성
+                    characterService.analyzeCharacter(
+                        savedCharacter.getCharacterId(),
+                        dto.getHistory(),
+                        kakaoName,
+                        targetName,
+                        fullDialogueContent
+                    );
+                    System.out.println("[Create] 캐릭터 분석 완료 - 캐릭터ID: " + savedCharacter.getCharacterId());
+                } catch (Exception e) {
+                    System.err.println("[Create] 캐릭터 분석 실패: " + e.getMessage());
+                    // 분석 실패해도 캐릭터 생성은 성공으로 처리
+                }
+            }
+
             return ResponseEntity.ok(Map.of("code", 200));
 
         } catch (IOException e) {
@@ -158,7 +179,6 @@ public class UserCharacterController {
             @RequestPart(value = "character_img", required = false) MultipartFile characterImg,
             @RequestPart(value = "full_dialogue", required = false) MultipartFile fullDialogue
     ) {
-        ObjectMapper objectMapper = new ObjectMapper();
         UserCharacterRequestDto dto = null;
 
         try {
@@ -210,9 +230,12 @@ public class UserCharacterController {
  * POST /character/{characterId}/regenerate-report
  * 
  * DB에 저장된 fullDialogue 파일 경로를 사용하여 리포트를 재생성합니다.
+ * 본문에 history를 보내면 히스토리 요약도 함께(동시에) 다시 만듭니다.
  */
 @PostMapping("/{characterId}/regenerate-report")
-public ResponseEntity<?> regenerateReport(@PathVariable Long characterId) {
+public ResponseEntity<?> regenerateReport(
+        @PathVariable Long characterId,
+        @RequestBody(required = false) HistorySumRequestDto request) {
     try {
         // 1. 캐릭터 조회
         UserCharacter character = characterService.getCharacterById(characterId);
@@ -251,9 +274,10 @@ public ResponseEntity<?> regenerateReport(@PathVariable Long characterId) {
             return error("상대방을 찾을 수 없습니다. 참여자: " + participants);
         }
         
-        // 6. 리포트 재생성
-        analysisService.createReportCharacterFromFullDialogue(
-            character,
+        // 6. 리포트 재생성 (history가 있으면 히스토리 요약과 동시에 실행, 하나라도 실패하면 둘 다 취소)
+        characterService.analyzeCharacter(
+            characterId,
+            request != null ? request.getHistory() : null,
             kakaoName,
             targetName,
             fullDialogueContent
@@ -272,6 +296,10 @@ public ResponseEntity<?> regenerateReport(@PathVariable Long characterId) {
         
     } catch (CharacterNotFoundException e) {
         return error("캐릭터를 찾을 수 없습니다: " + characterId);
+    } catch (AiDeadlineExceededException | AiServerBusyException | AiCircuitOpenException e) {
+        // AI 서버 쪽 실패는 400이 아니라 예외에 지정된 상태 코드(504 / 503)로 응답
+        System.err.println("[RegenerateReport] 리포트 재생성 실패 (AI 서버): " + e.getMessage());
+        throw e;
     } catch (Exception e) {
         System.err.println("[RegenerateReport] 리포트 재생성 실패: " + e.getMessage());
         e.printStackTrace();
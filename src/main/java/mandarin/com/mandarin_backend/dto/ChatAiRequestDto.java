@@ -0,0 +1,21 @@
+package mandarin.com.mandarin_backend.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.fasterxml.jackson.annotation.JsonProperty;
+import com.fasterxml.jackson.databind.util.RawValue;
+
+import java.util.List;
+
+/**
+ * Python 서버 /chat 요청 (python/ai_server.py의 ChatRequest)
+ *
+ * persona / simulation_context는 시뮬레이션마다 한 번만 직렬화해 둔 JSON을 그대로 끼워 넣음
+ */
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public record ChatAiRequestDto(
+        RawValue persona,
+        @JsonProperty("user_message") String userMessage,
+        List<ChatLogDto> history,
+        @JsonProperty("conversation_summary") String conversationSummary,
+        @JsonProperty("simulation_context") RawValue simulationContext) {
+}
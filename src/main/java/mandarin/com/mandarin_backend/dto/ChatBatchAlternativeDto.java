@@ -0,0 +1,21 @@
+package mandarin.com.mandarin_backend.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * 배치 턴의 후보 하나에 대한 AI 응답
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class ChatBatchAlternativeDto {
+
+    private Integer index;          // 요청한 후보 순서 (선택할 때 사용)
+    private String userMessage;     // 후보 사용자 메시지
+    private String reply;           // AI 응답 (실패하면 null)
+    private String error;           // 실패 사유 (성공하면 null)
+}
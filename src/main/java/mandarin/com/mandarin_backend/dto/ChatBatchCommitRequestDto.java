@@ -0,0 +1,18 @@
+package mandarin.com.mandarin_backend.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * 배치 턴에서 후보 하나를 골라 대화에 저장하는 요청 DTO
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class ChatBatchCommitRequestDto {
+
+    private Integer index;   // 고른 후보 순서 (ChatBatchAlternativeDto.index)
+}
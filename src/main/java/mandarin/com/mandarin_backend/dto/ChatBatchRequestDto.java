@@ -0,0 +1,30 @@
+package mandarin.com.mandarin_backend.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * 배치 턴 요청 DTO (후보 메시지 여러 개에 대한 AI 응답을 한 번에 받아 비교)
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class ChatBatchRequestDto {
+
+    private Long simulationId;
+
+    /**
+     * 후보 사용자 메시지 목록 (후보마다 /chat을 호출, 배치당 동시 호출 수 제한)
+     */
+    @Builder.Default
+    private List<String> candidates = new ArrayList<>();
+
+    @Builder.Default
+    private List<ChatLogDto> history = new ArrayList<>();
+}
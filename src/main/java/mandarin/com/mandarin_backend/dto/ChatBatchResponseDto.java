@@ -0,0 +1,21 @@
+package mandarin.com.mandarin_backend.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * 배치 턴 응답 DTO
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class ChatBatchResponseDto {
+
+    private String batchId;                         // 선택(commit)할 때 사용
+    private List<ChatBatchAlternativeDto> alternatives;
+}
@@ -15,17 +15,20 @@ import java.time.LocalDateTime;
 public class ChatReportAvgResponseDto {
 
     private Long chatReportAvgId;       // PK
-    private Integer chatReportId;       // 연결된 ChatReport ID
+    private Integer chatReportId;       // 마지막으로 반영된 ChatReport ID
     private Long userId;                // 유저 ID
     private Integer avgMandarinScore;   // 만다린 전체 평균 점수
     private String totalLabelKey;       // 라벨 키 (F1~F6)
-    private Integer totalLabelScore;    // 해당 라벨 점수
-    private LocalDateTime createdAt;    // 생성 시간
+    private Integer totalLabelScore;    // 해당 라벨 평균 점수
+    private Integer reportCount;        // 해당 라벨 리포트 수
+    private LocalDateTime createdAt;    // 마지막 리포트 반영 시간
 
     /**
      * ChatReportAvg Entity → DTO 변환
+     *
+     * @param avgMandarinScore 사용자의 전체 라벨 합계로 계산한 만다린 전체 평균 점수
      */
-    public static ChatReportAvgResponseDto fromEntity(ChatReportAvg entity) {
+    public static ChatReportAvgResponseDto fromEntity(ChatReportAvg entity, Integer avgMandarinScore) {
         if (entity == null) {
             throw new IllegalArgumentException("ChatReportAvg entity cannot be null");
         }
@@ -33,10 +36,11 @@ public class ChatReportAvgResponseDto {
                 .chatReportAvgId(entity.getChatReportAvgId())
                 .chatReportId(entity.getChatReport() != null ? entity.getChatReport().getChatReportId() : null)
                 .userId(entity.getUser() != null ? entity.getUser().getId() : null)
-                .avgMandarinScore(entity.getAvgMandarinScore())
+                .avgMandarinScore(avgMandarinScore)
                 .totalLabelKey(entity.getTotalLabelKey() != null ? entity.getTotalLabelKey().name() : null)
                 .totalLabelScore(entity.getTotalLabelScore())
-                .createdAt(entity.getCreatedAt())
+                .reportCount(entity.getReportCount())
+                .createdAt(entity.getUpdatedAt())
                 .build();
     }
 }
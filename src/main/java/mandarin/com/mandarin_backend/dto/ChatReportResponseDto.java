@@ -7,6 +7,7 @@ import lombok.Builder;
 import lombok.Data;
 import lombok.NoArgsConstructor;
 import mandarin.com.mandarin_backend.entity.ChatReport;
+import mandarin.com.mandarin_backend.repository.ChatReportRepository;
 
 @Data
 @NoArgsConstructor
@@ -37,8 +38,24 @@ public class ChatReportResponseDto {
                 .scoreAvg(entity.getScoreAvg())
                 .labelKey(entity.getLabelKey())
                 .labelScore(entity.getLabelScore())
-                .reportContent(entity.getReportContent())
+                .reportContent(entity.getContent() != null ? entity.getContent().getReportContent() : null)
                 .createdAt(entity.getCreatedAt())
                 .build();
     }
+
+    /**
+     * 목록 조회 항목 + 리포트 내용 → DTO 변환
+     */
+    public static ChatReportResponseDto fromListItem(ChatReportRepository.ListItem item, String reportContent) {
+        return ChatReportResponseDto.builder()
+                .chatReportId(item.getChatReportId())
+                .simulationId(item.getSimulationId())
+                .characterId(item.getCharacterId())
+                .scoreAvg(item.getScoreAvg())
+                .labelKey(item.getLabelKey())
+                .labelScore(item.getLabelScore())
+                .reportContent(reportContent)
+                .createdAt(item.getCreatedAt())
+                .build();
+    }
 }
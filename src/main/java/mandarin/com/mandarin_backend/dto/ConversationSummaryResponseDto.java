@@ -0,0 +1,21 @@
+package mandarin.com.mandarin_backend.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * 시뮬레이션 대화 요약 응답 DTO (Python 서버 /summarize-conversation 응답)
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class ConversationSummaryResponseDto {
+
+    /**
+     * 갱신된 대화 요약
+     */
+    private String summary;
+}
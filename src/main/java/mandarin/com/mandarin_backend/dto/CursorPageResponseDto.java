@@ -0,0 +1,34 @@
+package mandarin.com.mandarin_backend.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.util.List;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * 커서 기반 페이지 응답
+ * 다음 페이지는 nextCursor를 cursor 파라미터로 넘겨 조회 (마지막 페이지면 null)
+ */
+@Getter
+@AllArgsConstructor
+public class CursorPageResponseDto<T> {
+
+    private List<T> items;
+
+    private String nextCursor;
+
+    private boolean hasNext;
+
+    /**
+     * size + 1개까지 조회한 행으로 페이지를 만듦 (넘친 한 개로 다음 페이지 여부 판단)
+     */
+    public static <R, T> CursorPageResponseDto<T> of(List<R> rows, int size,
+                                                     Function<R, T> mapper, Function<R, String> cursorOf) {
+        boolean hasNext = rows.size() > size;
+        List<R> page = hasNext ? rows.subList(0, size) : rows;
+        String nextCursor = hasNext ? cursorOf.apply(page.get(page.size() - 1)) : null;
+        return new CursorPageResponseDto<>(page.stream().map(mapper).collect(Collectors.toList()), nextCursor, hasNext);
+    }
+}
@@ -0,0 +1,60 @@
+package mandarin.com.mandarin_backend.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * 턴마다 누적하는 부분 보고서 (Simulation_Partial_Report.content에 JSON으로 저장)
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class PartialReportDto {
+
+    private String summary;
+
+    private String analysis;
+
+    private String feedback;
+
+    @Builder.Default
+    private List<Metric> metrics = new ArrayList<>();  // metric_1, metric_2, metric_3 순서
+
+    /**
+     * 지표 하나의 누적 점수
+     * 최종 점수 = scoreSum / turns (턴 수로 가중한 평균)
+     */
+    @Data
+    @Builder
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class Metric {
+        private String code;
+        private String name;
+        private long scoreSum;
+        private int turns;
+        private String reason;
+
+        @Builder.Default
+        private List<KeyExchange> keyExchanges = new ArrayList<>();  // 영향이 큰 대화 구간 (최대 keyExchangesPerMetric개)
+    }
+
+    /**
+     * 점수에 큰 영향을 준 대화 구간
+     */
+    @Data
+    @Builder
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class KeyExchange {
+        private Long lastMessageId;   // 구간의 마지막 메시지 ID (시간순 정렬용)
+        private int impact;           // 그때까지의 평균에서 벗어난 정도
+        private List<KeyConversationDto> conversations;
+    }
+}
@@ -0,0 +1,26 @@
+package mandarin.com.mandarin_backend.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * 시뮬레이션 분기 요청 DTO
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class SimulationForkRequestDto {
+
+    /**
+     * 이어받을 메시지 수 (N이면 N번째 메시지까지 이어받고 그 뒤부터 새로 진행, 0이면 대화 없이 시작)
+     */
+    private Long messageIndex;
+
+    /**
+     * 새 시뮬레이션 이름 (없으면 원본 이름 + " (분기)")
+     */
+    private String simulationName;
+}
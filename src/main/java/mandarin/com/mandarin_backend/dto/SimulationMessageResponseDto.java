@@ -17,5 +17,7 @@ public class SimulationMessageResponseDto {
     private String content;
 
     private LocalDateTime timestamp;
+
+    private Long sequenceNo;  // 대화 안에서의 순번 (분기 시뮬레이션은 이어받은 메시지부터 이어짐), since 파라미터로 사용
 }
 
@@ -25,5 +25,7 @@ public class SimulationResponseDto {
     private LocalDateTime time;
     private LocalDateTime lastUpdateTime;
     private Boolean isFinished;
+    private Long parentSimulationId;    // 분기 시뮬레이션이면 부모 시뮬레이션 ID
+    private Long branchMessageCount;    // 분기 시 이어받은 메시지 수
 }
 
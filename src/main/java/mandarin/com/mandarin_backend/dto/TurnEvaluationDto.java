@@ -0,0 +1,38 @@
+package mandarin.com.mandarin_backend.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * Python 서버 /report-turn 응답 (새 대화 구간에 대한 턴 단위 평가)
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class TurnEvaluationDto {
+
+    private List<TurnMetricScore> metrics;  // metric_1, metric_2, metric_3 순서
+
+    private String summary;   // 이번 구간까지 반영한 3줄 요약
+
+    private String analysis;  // 이번 구간까지 반영한 분석
+
+    private String feedback;  // 이번 구간까지 반영한 조언
+
+    /**
+     * 이번 구간의 개별 지표 점수
+     */
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class TurnMetricScore {
+        private String code;     // 지표 코드 (ECI, EVR, CCS 또는 RRI, EEQI, RPS)
+        private String name;     // 지표 이름
+        private int score;       // 이번 구간 점수 (0-100)
+        private String reason;   // 점수 산정 이유
+        private boolean key;     // 전체 평가에 큰 영향을 줄 만한 대화인지
+    }
+}
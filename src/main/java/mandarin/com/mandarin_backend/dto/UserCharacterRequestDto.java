@@ -16,5 +16,6 @@ public class UserCharacterRequestDto {
     private String meetDate; // 문자열로 받음
     private Integer loveType;
     private String historySum;
+    private String history;  // 요약 전 히스토리 (있으면 생성 시 AI 요약해서 historySum으로 저장)
     private String kakaoName;
 }
@@ -2,6 +2,7 @@ package mandarin.com.mandarin_backend.dto;
 
 import lombok.*;
 import mandarin.com.mandarin_backend.entity.UserCharacter;
+import mandarin.com.mandarin_backend.repository.UserCharacterRepository;
 
 import java.time.LocalDateTime;
 
@@ -41,4 +42,21 @@ public class UserCharacterResponseDto {
                 .historySum(c.getHistorySum())
                 .build();
     }
+
+    public static UserCharacterResponseDto fromListItem(UserCharacterRepository.ListItem c) {
+        return UserCharacterResponseDto.builder()
+                .characterId(c.getCharacterId())
+                .userId(c.getUserId())
+                .characterName(c.getCharacterName())
+                .characterAge(c.getCharacterAge())
+                .relationType(c.getRelationType())
+                .characterImg(c.getCharacterImg())
+                .meetDate(c.getMeetDate())
+                .loveType(c.getLoveType())
+                .kakaoName(c.getKakaoName())
+                .fullDialogue(c.getFullDialogue())
+                .createdAt(c.getCreatedAt())
+                .historySum(c.getHistorySum())
+                .build();
+    }
 }
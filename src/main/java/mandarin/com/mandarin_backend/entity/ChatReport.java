@@ -5,7 +5,12 @@ import lombok.*;
 import java.time.LocalDateTime;
 
 @Entity
-@Table(name = "Chat_Report")
+@Table(name = "Chat_Report",
+        // 유저별 / 캐릭터별 목록 페이지 (최근 생성 순 키셋)
+        indexes = {
+                @Index(name = "idx_chat_report_user_created", columnList = "id, created_at, chat_report_id"),
+                @Index(name = "idx_chat_report_character_created", columnList = "character_id, created_at, chat_report_id")
+        })
 @Getter
 @Setter
 @NoArgsConstructor
@@ -21,21 +26,21 @@ public class ChatReport {
     /**
      * FK → Simulation
      */
-    @ManyToOne
+    @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "simulation_id", nullable = false)
     private Simulation simulation;
 
     /**
      * FK → User
      */
-    @ManyToOne
+    @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "id", nullable = false)
     private User user;
 
     /**
      * FK → UserCharacter
      */
-    @ManyToOne
+    @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "character_id")
     private UserCharacter character;
 
@@ -48,8 +53,12 @@ public class ChatReport {
     @Column(name = "label_score", nullable = false) // 평가별 점수
     private Integer labelScore;
 
-    @Column(name = "report_content", nullable = false, columnDefinition = "LONGTEXT")
-    private String reportContent;
+    /**
+     * FK → ChatReportContent (같은 리포트의 지표별 행이 함께 참조)
+     */
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "chat_report_content_id", nullable = false)
+    private ChatReportContent content;
 
     @Column(name = "created_at", nullable = false)
     private LocalDateTime createdAt;
@@ -4,8 +4,16 @@ import jakarta.persistence.*;
 import lombok.*;
 import java.time.LocalDateTime;
 
+/**
+ * 사용자별 / 라벨별 리포트 점수 누적 합계
+ *
+ * 리포트가 저장될 때마다 같은 트랜잭션에서 합계 / 개수를 원자적으로 더함 (ChatReportAvgRepository.accumulate)
+ * 평균은 조회 시 합계 / 개수로 계산하므로 사용자의 전체 리포트를 다시 집계하지 않음
+ */
 @Entity
-@Table(name = "Chat_Report_Avg")
+@Table(name = "Chat_Report_Avg",
+        uniqueConstraints = @UniqueConstraint(name = "uk_chat_report_avg_user_label",
+                columnNames = {"id", "total_label_key"}))
 @Getter
 @Setter
 @NoArgsConstructor
@@ -19,25 +27,19 @@ public class ChatReportAvg {
     private Long chatReportAvgId;  // PK
 
     /**
-     * FK → ChatReport
+     * FK → ChatReport (이 라벨에 마지막으로 더해진 리포트)
      */
-    @ManyToOne
+    @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "chat_report_id", nullable = false)
     private ChatReport chatReport;
 
     /**
      * FK → User
      */
-    @ManyToOne
+    @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "id", nullable = false)
     private User user;
 
-    /**
-     * 만다린 전체 평균 점수
-     */
-    @Column(name = "avg_mandarin_score", nullable = false)
-    private Integer avgMandarinScore;
-
     /**
      * 6개 라벨(F1~F6)
      */
@@ -46,10 +48,22 @@ public class ChatReportAvg {
     private TotalLabelKey totalLabelKey;
 
     /**
-     * 해당 라벨 점수
+     * 해당 라벨 점수(label_score) 합계
+     */
+    @Column(name = "label_score_sum", nullable = false)
+    private Long labelScoreSum;
+
+    /**
+     * 해당 라벨 리포트의 만다린 전체 점수(score_avg) 합계
      */
-    @Column(name = "total_label_score", nullable = false)
-    private Integer totalLabelScore;
+    @Column(name = "score_avg_sum", nullable = false)
+    private Long scoreAvgSum;
+
+    /**
+     * 더해진 리포트 수
+     */
+    @Column(name = "report_count", nullable = false)
+    private Integer reportCount;
 
     /**
      * 생성 시간
@@ -57,17 +71,49 @@ public class ChatReportAvg {
     @Column(name = "created_at", nullable = false)
     private LocalDateTime createdAt;
 
+    /**
+     * 마지막 리포트가 더해진 시간
+     */
+    @Column(name = "updated_at", nullable = false)
+    private LocalDateTime updatedAt;
+
     @PrePersist
     protected void onCreate() {
         if (this.createdAt == null) {
             this.createdAt = LocalDateTime.now();
         }
+        if (this.updatedAt == null) {
+            this.updatedAt = this.createdAt;
+        }
+    }
+
+    /**
+     * 해당 라벨 평균 점수 (반올림)
+     */
+    public int getTotalLabelScore() {
+        return reportCount == null || reportCount == 0 ? 0 : (int) Math.round((double) labelScoreSum / reportCount);
     }
 
     /**
      * ENUM 정의 — F1~F6
      */
     public enum TotalLabelKey {
-        F1, F2, F3, P1, P2, P3
+        F1, F2, F3, P1, P2, P3;
+
+        /**
+         * ChatReport.labelKey (1~6)를 TotalLabelKey로 변환
+         * 1 → F1 (ECI/관계유지력)
+         * 2 → F2 (EVR/감정안정성)
+         * 3 → F3 (CCS/선택일관성)
+         * 4 → P1 (RRI/후회해소도)
+         * 5 → P2 (EEQI/감정표현성숙도)
+         * 6 → P3 (RPS/관계회복력)
+         */
+        public static TotalLabelKey fromLabelKey(int labelKey) {
+            if (labelKey < 1 || labelKey > values().length) {
+                throw new IllegalArgumentException("유효하지 않은 labelKey: " + labelKey);
+            }
+            return values()[labelKey - 1];
+        }
     }
 }
@@ -0,0 +1,49 @@
+package mandarin.com.mandarin_backend.entity;
+
+import jakarta.persistence.*;
+import lombok.*;
+import org.hibernate.annotations.BatchSize;
+
+import java.time.LocalDateTime;
+
+/**
+ * 리포트 전체 내용(JSON)
+ *
+ * 리포트 하나는 지표별 ChatReport 3행으로 저장되지만 내용은 같으므로 한 번만 저장하고 ChatReport가 참조함
+ * 리포트 목록 조회 시 지연 로딩된 내용을 ID 묶음(IN)으로 한 번씩만 읽음 (@BatchSize)
+ */
+@Entity
+@Table(name = "Chat_Report_Content")
+@BatchSize(size = 50)
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class ChatReportContent {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @Column(name = "chat_report_content_id")
+    private Long chatReportContentId;  // PK
+
+    /**
+     * FK → Simulation
+     */
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "simulation_id", nullable = false)
+    private Simulation simulation;
+
+    @Column(name = "report_content", nullable = false, columnDefinition = "LONGTEXT")
+    private String reportContent;
+
+    @Column(name = "created_at", nullable = false)
+    private LocalDateTime createdAt;
+
+    @PrePersist
+    protected void onCreate() {
+        if (this.createdAt == null) {
+            this.createdAt = LocalDateTime.now();
+        }
+    }
+}
@@ -0,0 +1,79 @@
+package mandarin.com.mandarin_backend.entity;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.time.LocalDateTime;
+
+/**
+ * /analyze 결과(페르소나) 캐시
+ * (대상 이름, 필터링된 대화 텍스트 SHA-256, 프롬프트 버전)이 같으면 LLM을 다시 호출하지 않고 재사용
+ */
+@Entity
+@Table(name = "Persona_Cache",
+        uniqueConstraints = @UniqueConstraint(
+                name = "uk_persona_cache_key",
+                columnNames = {"target_name", "context_hash", "prompt_version"}))
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class PersonaCache {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @Column(name = "persona_cache_id")
+    private Long personaCacheId;  // PK
+
+    /**
+     * FK → UserCharacter (대화 파일 변경/캐릭터 삭제 시 함께 정리)
+     */
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "character_id", nullable = false)
+    private UserCharacter character;
+
+    /**
+     * 분석 대상 인물 이름
+     */
+    @Column(name = "target_name", nullable = false, length = 50)
+    private String targetName;
+
+    /**
+     * 필터링된 대화 텍스트(fewShotContext)의 SHA-256
+     */
+    @Column(name = "context_hash", nullable = false, length = 64)
+    private String contextHash;
+
+    /**
+     * 페르소나 추출 프롬프트 버전 (ai.persona.prompt-version)
+     */
+    @Column(name = "prompt_version", nullable = false, length = 20)
+    private String promptVersion;
+
+    /**
+     * UserPersonaDto JSON
+     */
+    @Column(name = "persona_json", columnDefinition = "json", nullable = false)
+    private String personaJson;
+
+    @Column(name = "created_at", nullable = false)
+    private LocalDateTime createdAt;
+
+    @Column(name = "last_used_at", nullable = false)
+    private LocalDateTime lastUsedAt;
+
+    @Column(name = "hit_count", nullable = false)
+    @Builder.Default
+    private Integer hitCount = 0;
+
+    @PrePersist
+    public void prePersist() {
+        LocalDateTime now = LocalDateTime.now();
+        this.createdAt = now;
+        this.lastUsedAt = now;
+        if (this.hitCount == null) {
+            this.hitCount = 0;
+        }
+    }
+}
@@ -20,7 +20,7 @@ public class ReportCharacter {
     /**
      * FK → UserCharacter
      */
-    @ManyToOne
+    @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "character_id")
     private UserCharacter character;
 
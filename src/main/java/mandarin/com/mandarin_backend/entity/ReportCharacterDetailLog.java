@@ -35,7 +35,7 @@ public class ReportCharacterDetailLog {
     /**
      * FK → ReportCharacter
      */
-    @ManyToOne
+    @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "report_character_id", nullable = false)
     private ReportCharacter reportCharacter;
 }
@@ -8,7 +8,10 @@ import java.time.LocalDateTime;
 import org.hibernate.annotations.ColumnDefault;
 
 @Entity
-@Table(name = "Simulation")
+@Table(name = "Simulation",
+        // 캐릭터별 목록 페이지 (최근 수정 순 키셋)
+        indexes = @Index(name = "idx_simulation_character_updated",
+                columnList = "character_id, lastUpdateTime, simulation_id"))
 @Getter
 @Setter
 @NoArgsConstructor
@@ -21,11 +24,11 @@ public class Simulation {
     @Column(name = "simulation_id")
     private Long simulationId;  // PK
 
-    @ManyToOne
+    @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "id", nullable = false)
     private User user;  // 어떤 사용자의 시뮬레이션인지
 
-    @ManyToOne
+    @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "character_id", nullable = false)
     private UserCharacter character;  // 어떤 캐릭터와의 시뮬레이션인지
 
@@ -51,12 +54,52 @@ public class Simulation {
     @Builder.Default        // Java Builder 패턴 사용 시 Default
     private Boolean isFinished = false;
 
-    @Column(columnDefinition = "LONGTEXT", nullable = false)
+    // 분기 시뮬레이션은 null (origin의 값을 그대로 사용)
+    @Column(columnDefinition = "LONGTEXT")
     private String fewShotContext;
 
-    @Column(columnDefinition = "json", nullable = false)
+    // 분기 시뮬레이션은 null (origin의 값을 그대로 사용)
+    @Column(columnDefinition = "json")
     private String characterPersona;
 
+    // --- 분기 (copy-on-write) ---
+
+    /**
+     * 분기 원본 시뮬레이션 (null이면 처음부터 시작한 시뮬레이션)
+     * 부모 대화의 branchMessageId까지를 복사하지 않고 이어받음
+     */
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "parent_simulation_id")
+    private Simulation parent;
+
+    /**
+     * 분기 지점: 부모 시뮬레이션의 이 메시지(포함)까지가 이 시뮬레이션의 앞부분 대화
+     */
+    @Column(name = "branch_message_id")
+    private Long branchMessageId;
+
+    /**
+     * 이어받은 메시지 수 (이 시뮬레이션의 메시지 순번은 그다음부터 시작)
+     */
+    @Column(name = "branch_message_count")
+    private Long branchMessageCount;
+
+    /**
+     * 이 시뮬레이션에 저장된 메시지 수 (이어받은 메시지 제외)
+     * 메시지를 저장할 때 lastUpdateTime과 함께 갱신하며, 대화 조회 ETag를 메시지 행을 읽지 않고 만드는 데 사용
+     */
+    @Column(name = "message_count", nullable = false)
+    @ColumnDefault("0")
+    @Builder.Default
+    private Long messageCount = 0L;
+
+    /**
+     * 페르소나 / fewShotContext를 가진 최초 시뮬레이션 (분기를 거듭해도 한 번에 찾도록 직접 참조)
+     */
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "origin_simulation_id")
+    private Simulation origin;
+
     // --- 자동 시간 설정 로직 ---
 
     @PrePersist
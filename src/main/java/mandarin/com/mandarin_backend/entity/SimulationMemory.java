@@ -0,0 +1,58 @@
+package mandarin.com.mandarin_backend.entity;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.time.LocalDateTime;
+
+/**
+ * 시뮬레이션 대화 누적 요약 (시뮬레이션당 1행)
+ * /chat에는 이 요약 + 최근 대화 일부만 보내서 대화가 길어져도 요청 크기가 일정하게 유지됨
+ */
+@Entity
+@Table(name = "Simulation_Memory")
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class SimulationMemory {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @Column(name = "memory_id")
+    private Long memoryId;  // PK
+
+    @OneToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "simulation_id", nullable = false, unique = true)
+    private Simulation simulation;  // FK → Simulation
+
+    /**
+     * summarizedUntilMessageId까지의 대화 요약
+     */
+    @Column(name = "summary", columnDefinition = "TEXT")
+    private String summary;
+
+    /**
+     * 요약에 반영된 마지막 메시지 ID (이후 메시지는 아직 요약 안 됨)
+     */
+    @Column(name = "summarized_until_message_id", nullable = false)
+    @Builder.Default
+    private Long summarizedUntilMessageId = 0L;
+
+    /**
+     * 요약에 반영된 메시지 수
+     */
+    @Column(name = "summarized_message_count", nullable = false)
+    @Builder.Default
+    private Integer summarizedMessageCount = 0;
+
+    @Column(name = "updated_at", nullable = false)
+    private LocalDateTime updatedAt;
+
+    @PrePersist
+    @PreUpdate
+    public void touch() {
+        this.updatedAt = LocalDateTime.now();
+    }
+}
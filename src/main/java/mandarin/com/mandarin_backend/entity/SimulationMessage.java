@@ -5,7 +5,12 @@ import lombok.*;
 import java.time.LocalDateTime;
 
 @Entity
-@Table(name = "Simulation_Message")
+@Table(name = "Simulation_Message",
+        uniqueConstraints = @UniqueConstraint(name = "uk_simulation_message_sequence",
+                columnNames = {"simulation_id", "sequence_no"}),
+        // 대화 페이지 (시간순 키셋)
+        indexes = @Index(name = "idx_simulation_message_time",
+                columnList = "simulation_id, timestamp, message_id"))
 @Getter
 @Setter
 @NoArgsConstructor
@@ -18,7 +23,7 @@ public class SimulationMessage {
     @Column(name = "message_id")
     private Long messageId;  // PK
 
-    @ManyToOne
+    @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "simulation_id", nullable = false)
     private Simulation simulation;  // FK → Simulation
 
@@ -35,4 +40,12 @@ public class SimulationMessage {
 
     @Column(name = "timestamp", nullable = false)
     private LocalDateTime timestamp;
+
+    /**
+     * sequenceNo: 시뮬레이션 안에서의 메시지 순번 (1부터 1씩 증가)
+     * - 같은 시각에 저장된 메시지도 순서가 보장됨
+     * - 순번 도입 전에 저장된 메시지는 db/mysql/038_simulation_message_sequence.sql로 채움
+     */
+    @Column(name = "sequence_no")
+    private Long sequenceNo;
 }
@@ -0,0 +1,71 @@
+package mandarin.com.mandarin_backend.entity;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.time.LocalDateTime;
+
+/**
+ * 시뮬레이션 진행 중 턴마다 누적한 부분 보고서 (시뮬레이션당 1행)
+ * 시뮬레이션 종료 시 /report를 다시 호출하지 않고 이 값을 합쳐서 보고서를 만듦
+ */
+@Entity
+@Table(name = "Simulation_Partial_Report")
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class SimulationPartialReport {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @Column(name = "partial_report_id")
+    private Long partialReportId;  // PK
+
+    @OneToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "simulation_id", nullable = false, unique = true)
+    private Simulation simulation;  // FK → Simulation
+
+    /**
+     * 평가한 시나리오 유형 ("FUTURE" 또는 "PAST")
+     */
+    @Column(name = "scenario_type", nullable = false, length = 10)
+    private String scenarioType;
+
+    /**
+     * 누적 점수 / 요약 / 분석 / 주요 대화 (PartialReportDto JSON)
+     */
+    @Column(name = "content", columnDefinition = "LONGTEXT")
+    private String content;
+
+    /**
+     * 평가에 반영된 마지막 메시지 ID (이후 메시지는 아직 평가 안 됨)
+     */
+    @Column(name = "scored_until_message_id", nullable = false)
+    @Builder.Default
+    private Long scoredUntilMessageId = 0L;
+
+    /**
+     * 평가에 반영된 턴(사용자 메시지) 수
+     */
+    @Column(name = "scored_turn_count", nullable = false)
+    @Builder.Default
+    private Integer scoredTurnCount = 0;
+
+    /**
+     * 백그라운드 평가와 종료 시 평가가 겹치면 나중 저장을 실패시켜 같은 턴이 두 번 반영되지 않게 함
+     */
+    @Version
+    @Column(name = "version")
+    private Long version;
+
+    @Column(name = "updated_at", nullable = false)
+    private LocalDateTime updatedAt;
+
+    @PrePersist
+    @PreUpdate
+    public void touch() {
+        this.updatedAt = LocalDateTime.now();
+    }
+}
@@ -45,6 +45,10 @@ public class User {
     @Column(nullable = false, updatable = false)
     private LocalDateTime createdAt;
 
+    // 탈퇴 처리 시간 (null이 아니면 탈퇴한 사용자 - 데이터가 많아 백그라운드에서 나눠 삭제 중)
+    @Column(name = "deleted_at")
+    private LocalDateTime deletedAt;
+
     @PrePersist
     protected void onCreate() {
         this.createdAt = LocalDateTime.now(); // 자동 저장
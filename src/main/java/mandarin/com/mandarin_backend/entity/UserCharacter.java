@@ -5,7 +5,9 @@ import lombok.*;
 import java.time.LocalDateTime;
 
 @Entity
-@Table(name = "User_Character")
+@Table(name = "User_Character",
+        // 유저별 목록 페이지 (최근 생성 순 키셋)
+        indexes = @Index(name = "idx_user_character_user_created", columnList = "id, createdAt, characterId"))
 @Getter
 @Setter
 @NoArgsConstructor
@@ -18,7 +20,7 @@ public class UserCharacter {
     private Long characterId;   // 캐릭터 PK
 
     // 기존 ManyToOne 유지 (캐릭터는 반드시 User에 속함)
-    @ManyToOne
+    @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "id", nullable = false)
     private User user;
 
@@ -10,5 +10,17 @@ public enum SimulationCategory {
     PERSONAL_BOUNDARY, // 민감한 요구나 부탁 (미래)
     FAMILY_FRIEND_ISSUE, // 가족, 친구 문제 (미래)
     BREAKUP_FUTURE, // 이별 통보, 대처 (미래)
-    EVENT_PREPARATION // 기념일, 이벤트 계획 (미래)
+    EVENT_PREPARATION; // 기념일, 이벤트 계획 (미래)
+
+    /**
+     * 보고서 시나리오 유형 ("PAST": 과거 후회 시뮬레이션, "FUTURE": 미래 시뮬레이션)
+     */
+    public String scenarioType() {
+        return switch (this) {
+            case EMOTIONAL_MISTAKE, MISCOMMUNICATION, CONTACT_ISSUE,
+                 BREAKUP_PROCESS, REALITY_PROBLEM -> "PAST";
+            case RELATION_TENSION, PERSONAL_BOUNDARY, FAMILY_FRIEND_ISSUE,
+                 BREAKUP_FUTURE, EVENT_PREPARATION -> "FUTURE";
+        };
+    }
 }
\ No newline at end of file
@@ -0,0 +1,14 @@
+package mandarin.com.mandarin_backend.exception;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.ResponseStatus;
+
+/**
+ * AI 서버 장애로 서킷 브레이커가 열려 요청을 보내지 않고 즉시 실패한 경우
+ */
+@ResponseStatus(HttpStatus.SERVICE_UNAVAILABLE)
+public class AiCircuitOpenException extends RuntimeException {
+    public AiCircuitOpenException(String msg) {
+        super(msg);
+    }
+}
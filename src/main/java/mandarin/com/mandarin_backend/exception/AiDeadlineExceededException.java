@@ -0,0 +1,14 @@
+package mandarin.com.mandarin_backend.exception;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.ResponseStatus;
+
+/**
+ * 함께 실행한 AI 호출들이 전체 제한 시간 안에 끝나지 않아 취소한 경우
+ */
+@ResponseStatus(HttpStatus.GATEWAY_TIMEOUT)
+public class AiDeadlineExceededException extends RuntimeException {
+    public AiDeadlineExceededException(String msg) {
+        super(msg);
+    }
+}
@@ -0,0 +1,14 @@
+package mandarin.com.mandarin_backend.exception;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.ResponseStatus;
+
+/**
+ * AI 서버가 감당할 수 있는 동시 요청 수를 넘어 요청을 즉시 거절한 경우
+ */
+@ResponseStatus(HttpStatus.SERVICE_UNAVAILABLE)
+public class AiServerBusyException extends RuntimeException {
+    public AiServerBusyException(String msg) {
+        super(msg);
+    }
+}
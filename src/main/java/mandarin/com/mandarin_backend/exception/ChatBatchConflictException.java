@@ -0,0 +1,14 @@
+package mandarin.com.mandarin_backend.exception;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.ResponseStatus;
+
+/**
+ * 후보 응답을 만든 뒤 같은 시뮬레이션의 대화가 이미 진행된 경우 (후보가 최신 대화를 반영하지 못함)
+ */
+@ResponseStatus(HttpStatus.CONFLICT)
+public class ChatBatchConflictException extends RuntimeException {
+    public ChatBatchConflictException(String msg) {
+        super(msg);
+    }
+}
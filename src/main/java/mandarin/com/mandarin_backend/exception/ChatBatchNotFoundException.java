@@ -0,0 +1,14 @@
+package mandarin.com.mandarin_backend.exception;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.ResponseStatus;
+
+/**
+ * 없거나 이미 선택(만료)된 배치 턴
+ */
+@ResponseStatus(HttpStatus.NOT_FOUND)
+public class ChatBatchNotFoundException extends RuntimeException {
+    public ChatBatchNotFoundException(String msg) {
+        super(msg);
+    }
+}
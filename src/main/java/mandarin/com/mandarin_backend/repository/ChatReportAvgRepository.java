@@ -2,7 +2,12 @@ package mandarin.com.mandarin_backend.repository;
 
 import mandarin.com.mandarin_backend.entity.ChatReportAvg;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 
 public interface ChatReportAvgRepository extends JpaRepository<ChatReportAvg, Long> {
@@ -16,5 +21,57 @@ public interface ChatReportAvgRepository extends JpaRepository<ChatReportAvg, Lo
      * ChatReport ID로 ChatReportAvg 삭제
      */
     void deleteByChatReport_ChatReportId(Integer chatReportId);
-}
 
+    /**
+     * 리포트 하나의 점수를 사용자 / 라벨 합계에 더함 (행이 없으면 생성)
+     * (id, total_label_key) 유니크 키에 대한 INSERT ... ON DUPLICATE KEY UPDATE 한 문장이라
+     * 같은 사용자의 리포트가 동시에 저장돼도 합계가 빠지지 않음
+     */
+    @Modifying
+    @Query(value = "INSERT INTO Chat_Report_Avg " +
+                   "(chat_report_id, id, total_label_key, label_score_sum, score_avg_sum, report_count, created_at, updated_at) " +
+                   "VALUES (:chatReportId, :userId, :totalLabelKey, :labelScore, :scoreAvg, 1, :now, :now) " +
+                   "ON DUPLICATE KEY UPDATE " +
+                   "label_score_sum = label_score_sum + VALUES(label_score_sum), " +
+                   "score_avg_sum = score_avg_sum + VALUES(score_avg_sum), " +
+                   "report_count = report_count + 1, " +
+                   "chat_report_id = VALUES(chat_report_id), " +
+                   "updated_at = VALUES(updated_at)",
+           nativeQuery = true)
+    int accumulate(@Param("chatReportId") Integer chatReportId,
+                   @Param("userId") Long userId,
+                   @Param("totalLabelKey") String totalLabelKey,
+                   @Param("labelScore") int labelScore,
+                   @Param("scoreAvg") int scoreAvg,
+                   @Param("now") LocalDateTime now);
+
+    /**
+     * 사용자들의 남은 ChatReport로 합계를 다시 만듦 (리포트 일부가 삭제된 뒤 deleteByUserIds 다음에 호출)
+     */
+    @Modifying
+    @Query(value = "INSERT INTO Chat_Report_Avg " +
+                   "(chat_report_id, id, total_label_key, label_score_sum, score_avg_sum, report_count, created_at, updated_at) " +
+                   "SELECT MAX(cr.chat_report_id), cr.id, " +
+                   "CASE cr.label_key WHEN 1 THEN 'F1' WHEN 2 THEN 'F2' WHEN 3 THEN 'F3' " +
+                   "WHEN 4 THEN 'P1' WHEN 5 THEN 'P2' ELSE 'P3' END, " +
+                   "SUM(cr.label_score), SUM(cr.score_avg), COUNT(*), MIN(cr.created_at), MAX(cr.created_at) " +
+                   "FROM Chat_Report cr " +
+                   "WHERE cr.id IN (:userIds) AND cr.label_key BETWEEN 1 AND 6 " +
+                   "GROUP BY cr.id, cr.label_key",
+           nativeQuery = true)
+    int rebuildByUserIds(@Param("userIds") Collection<Long> userIds);
+
+    /**
+     * 여러 사용자의 ChatReportAvg 일괄 삭제
+     */
+    @Modifying
+    @Query("DELETE FROM ChatReportAvg a WHERE a.user.id IN :userIds")
+    int deleteByUserIds(@Param("userIds") Collection<Long> userIds);
+
+    /**
+     * 사용자의 ChatReportAvg 일괄 삭제
+     */
+    @Modifying
+    @Query("DELETE FROM ChatReportAvg a WHERE a.user.id = :userId")
+    int deleteByUserId(@Param("userId") Long userId);
+}
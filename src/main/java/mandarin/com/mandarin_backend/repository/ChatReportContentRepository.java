@@ -0,0 +1,44 @@
+package mandarin.com.mandarin_backend.repository;
+
+import mandarin.com.mandarin_backend.entity.ChatReportContent;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.util.Collection;
+import java.util.List;
+
+public interface ChatReportContentRepository extends JpaRepository<ChatReportContent, Long> {
+
+    /**
+     * 리포트 내용 (ID / JSON만)
+     */
+    interface ContentItem {
+        Long getChatReportContentId();
+        String getReportContent();
+    }
+
+    /**
+     * 여러 리포트 내용 조회 (목록의 지표별 행이 같은 내용을 참조해도 한 번씩만 읽음)
+     */
+    @Query("SELECT c.chatReportContentId AS chatReportContentId, c.reportContent AS reportContent " +
+           "FROM ChatReportContent c WHERE c.chatReportContentId IN :ids")
+    List<ContentItem> findContentItems(@Param("ids") Collection<Long> ids);
+
+    /**
+     * 여러 캐릭터의 시뮬레이션 리포트 내용 일괄 삭제 (ChatReport를 먼저 삭제해야 함)
+     */
+    @Modifying
+    @Query("DELETE FROM ChatReportContent c WHERE c.simulation.simulationId IN " +
+           "(SELECT s.simulationId FROM Simulation s WHERE s.character.characterId IN :characterIds)")
+    int deleteByCharacterIds(@Param("characterIds") Collection<Long> characterIds);
+
+    /**
+     * 사용자의 시뮬레이션 리포트 내용 일괄 삭제 (ChatReport를 먼저 삭제해야 함)
+     */
+    @Modifying
+    @Query("DELETE FROM ChatReportContent c WHERE c.simulation.simulationId IN " +
+           "(SELECT s.simulationId FROM Simulation s WHERE s.user.id = :userId)")
+    int deleteByUserId(@Param("userId") Long userId);
+}
@@ -2,7 +2,11 @@ package mandarin.com.mandarin_backend.repository;
 
 import mandarin.com.mandarin_backend.entity.ChatReportDetailLog;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 
+import java.util.Collection;
 import java.util.List;
 
 public interface ChatReportDetailLogRepository extends JpaRepository<ChatReportDetailLog, Long> {
@@ -16,4 +20,20 @@ public interface ChatReportDetailLogRepository extends JpaRepository<ChatReportD
      * 특정 ChatReport ID의 상세 로그 삭제
      */
     void deleteByChatReportId(Integer chatReportId);
+
+    /**
+     * 여러 캐릭터의 ChatReport 상세 로그 일괄 삭제
+     */
+    @Modifying
+    @Query("DELETE FROM ChatReportDetailLog l WHERE l.chatReportId IN " +
+           "(SELECT cr.chatReportId FROM ChatReport cr WHERE cr.character.characterId IN :characterIds)")
+    int deleteByCharacterIds(@Param("characterIds") Collection<Long> characterIds);
+
+    /**
+     * 사용자의 ChatReport 상세 로그 일괄 삭제
+     */
+    @Modifying
+    @Query("DELETE FROM ChatReportDetailLog l WHERE l.chatReportId IN " +
+           "(SELECT cr.chatReportId FROM ChatReport cr WHERE cr.user.id = :userId)")
+    int deleteByUserId(@Param("userId") Long userId);
 }
@@ -1,13 +1,72 @@
 package mandarin.com.mandarin_backend.repository;
 
 import mandarin.com.mandarin_backend.entity.ChatReport;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 
 public interface ChatReportRepository extends JpaRepository<ChatReport, Integer> {
 
+    /**
+     * 리포트 목록 항목 (리포트 내용은 contentId로 따로 한 번씩 조회)
+     */
+    interface ListItem {
+        Integer getChatReportId();
+        Long getSimulationId();
+        Long getCharacterId();
+        Integer getScoreAvg();
+        Integer getLabelKey();
+        Integer getLabelScore();
+        Long getContentId();
+        LocalDateTime getCreatedAt();
+    }
+
+    String LIST_ITEM_SELECT = "SELECT cr.chatReportId AS chatReportId, cr.simulation.simulationId AS simulationId, " +
+            "cr.character.characterId AS characterId, cr.scoreAvg AS scoreAvg, cr.labelKey AS labelKey, " +
+            "cr.labelScore AS labelScore, cr.content.chatReportContentId AS contentId, cr.createdAt AS createdAt " +
+            "FROM ChatReport cr ";
+
+    // 페이지 조회 조건 / 정렬 (최근 생성 순, (createdAt, chatReportId) 위치 다음부터)
+    String PAGE_AFTER = "AND (cr.createdAt < :time OR (cr.createdAt = :time AND cr.chatReportId < :id)) " +
+            "ORDER BY cr.createdAt DESC, cr.chatReportId DESC";
+
+    @Query(LIST_ITEM_SELECT + "WHERE cr.user.id = :userId")
+    List<ListItem> findListItemsByUserId(@Param("userId") Long userId);
+
+    @Query(LIST_ITEM_SELECT + "WHERE cr.character.characterId = :characterId")
+    List<ListItem> findListItemsByCharacterId(@Param("characterId") Long characterId);
+
+    @Query(LIST_ITEM_SELECT + "WHERE cr.user.id = :userId " + PAGE_AFTER)
+    List<ListItem> findListItemPageByUserId(@Param("userId") Long userId,
+                                            @Param("time") LocalDateTime time, @Param("id") Integer id,
+                                            Pageable pageable);
+
+    @Query(LIST_ITEM_SELECT + "WHERE cr.character.characterId = :characterId " + PAGE_AFTER)
+    List<ListItem> findListItemPageByCharacterId(@Param("characterId") Long characterId,
+                                                 @Param("time") LocalDateTime time, @Param("id") Integer id,
+                                                 Pageable pageable);
+
     List<ChatReport> findByUser_Id(Long userId);
 
     List<ChatReport> findByCharacter_CharacterId(Long characterId);
+
+    /**
+     * 여러 캐릭터의 ChatReport 일괄 삭제 (상세 로그 / 평균을 먼저 삭제해야 함)
+     */
+    @Modifying
+    @Query("DELETE FROM ChatReport cr WHERE cr.character.characterId IN :characterIds")
+    int deleteByCharacterIds(@Param("characterIds") Collection<Long> characterIds);
+
+    /**
+     * 사용자의 ChatReport 일괄 삭제 (상세 로그 / 평균을 먼저 삭제해야 함)
+     */
+    @Modifying
+    @Query("DELETE FROM ChatReport cr WHERE cr.user.id = :userId")
+    int deleteByUserId(@Param("userId") Long userId);
 }
@@ -0,0 +1,82 @@
+package mandarin.com.mandarin_backend.repository;
+
+import lombok.RequiredArgsConstructor;
+import mandarin.com.mandarin_backend.entity.ChatReportDetailLog;
+import mandarin.com.mandarin_backend.entity.ReportCharacterDetailLog;
+import org.springframework.jdbc.core.BatchPreparedStatementSetter;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.util.List;
+
+/**
+ * 상세 로그 일괄 INSERT
+ *
+ * 상세 로그 엔티티는 IDENTITY로 ID를 받으므로 Hibernate가 INSERT를 묶지 못하고 save() 한 번마다 DB를 왕복함
+ * 저장 후 ID를 쓰는 곳이 없으므로 JDBC batch 한 번으로 넣음
+ * (MySQL은 rewriteBatchedStatements=true로 다중 행 INSERT 한 문장으로 바뀜 - application.properties)
+ * 같은 트랜잭션의 커넥션을 사용하므로 JPA로 먼저 저장한 부모 행을 참조할 수 있음
+ */
+@Repository
+@RequiredArgsConstructor
+public class DetailLogBatchRepository {
+
+    private static final String INSERT_CHAT_REPORT_DETAIL_LOG =
+            "INSERT INTO chat_report_detaillog (chat_report_id, sender, message_simulation, timestamp) VALUES (?, ?, ?, ?)";
+
+    private static final String INSERT_REPORT_CHARACTER_DETAIL_LOG =
+            "INSERT INTO report_character_detaillog (report_character_id, sender, message_kakao, timestamp) VALUES (?, ?, ?, ?)";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    /**
+     * ChatReport 상세 로그(주요 대화) 일괄 저장
+     */
+    public void insertChatReportDetailLogs(List<ChatReportDetailLog> logs) {
+        if (logs.isEmpty()) {
+            return;
+        }
+        jdbcTemplate.batchUpdate(INSERT_CHAT_REPORT_DETAIL_LOG, new BatchPreparedStatementSetter() {
+            @Override
+            public void setValues(PreparedStatement ps, int i) throws SQLException {
+                ChatReportDetailLog log = logs.get(i);
+                ps.setInt(1, log.getChatReportId());
+                ps.setString(2, log.getSender());
+                ps.setString(3, log.getMessage());
+                ps.setTimestamp(4, Timestamp.valueOf(log.getTimestamp()));
+            }
+
+            @Override
+            public int getBatchSize() {
+                return logs.size();
+            }
+        });
+    }
+
+    /**
+     * 갈등 리포트 상세 로그(예시 대화) 일괄 저장
+     */
+    public void insertReportCharacterDetailLogs(List<ReportCharacterDetailLog> logs) {
+        if (logs.isEmpty()) {
+            return;
+        }
+        jdbcTemplate.batchUpdate(INSERT_REPORT_CHARACTER_DETAIL_LOG, new BatchPreparedStatementSetter() {
+            @Override
+            public void setValues(PreparedStatement ps, int i) throws SQLException {
+                ReportCharacterDetailLog log = logs.get(i);
+                ps.setInt(1, log.getReportCharacter().getReportCharacterId());
+                ps.setString(2, log.getSender());
+                ps.setString(3, log.getMessageKakao());
+                ps.setTimestamp(4, Timestamp.valueOf(log.getTimestamp()));
+            }
+
+            @Override
+            public int getBatchSize() {
+                return logs.size();
+            }
+        });
+    }
+}
@@ -0,0 +1,36 @@
+package mandarin.com.mandarin_backend.repository;
+
+import mandarin.com.mandarin_backend.entity.PersonaCache;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.util.Collection;
+import java.util.Optional;
+
+public interface PersonaCacheRepository extends JpaRepository<PersonaCache, Long> {
+
+    /**
+     * 캐시 키(대상 이름, 대화 해시, 프롬프트 버전)로 조회
+     */
+    Optional<PersonaCache> findByTargetNameAndContextHashAndPromptVersion(
+            String targetName, String contextHash, String promptVersion);
+
+    /**
+     * 특정 캐릭터의 캐시 전체 삭제 (대화 파일 변경, 캐릭터 삭제 시)
+     */
+    void deleteByCharacter_CharacterId(Long characterId);
+
+    /**
+     * 현재 프롬프트 버전이 아닌 캐시 삭제
+     */
+    long deleteByPromptVersionNot(String promptVersion);
+
+    /**
+     * 여러 캐릭터의 캐시 일괄 삭제
+     */
+    @Modifying
+    @Query("DELETE FROM PersonaCache p WHERE p.character.characterId IN :characterIds")
+    int deleteByCharacterIds(@Param("characterIds") Collection<Long> characterIds);
+}
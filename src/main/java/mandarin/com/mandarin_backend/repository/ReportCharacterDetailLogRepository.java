@@ -2,7 +2,11 @@ package mandarin.com.mandarin_backend.repository;
 
 import mandarin.com.mandarin_backend.entity.ReportCharacterDetailLog;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 
+import java.util.Collection;
 import java.util.List;
 
 public interface ReportCharacterDetailLogRepository extends JpaRepository<ReportCharacterDetailLog, Long> {
@@ -16,4 +20,12 @@ public interface ReportCharacterDetailLogRepository extends JpaRepository<Report
      * ReportCharacter ID로 상세 로그 삭제
      */
     void deleteByReportCharacter_ReportCharacterId(Integer reportCharacterId);
+
+    /**
+     * 여러 캐릭터의 갈등 리포트 상세 로그 일괄 삭제 (엔티티 조회 없이 DELETE 한 번)
+     */
+    @Modifying
+    @Query("DELETE FROM ReportCharacterDetailLog l WHERE l.reportCharacter.reportCharacterId IN " +
+           "(SELECT rc.reportCharacterId FROM ReportCharacter rc WHERE rc.character.characterId IN :characterIds)")
+    int deleteByCharacterIds(@Param("characterIds") Collection<Long> characterIds);
 }
@@ -2,7 +2,11 @@ package mandarin.com.mandarin_backend.repository;
 
 import mandarin.com.mandarin_backend.entity.ReportCharacter;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 
+import java.util.Collection;
 import java.util.List;
 
 public interface ReportCharacterRepository extends JpaRepository<ReportCharacter, Integer> {
@@ -11,5 +15,11 @@ public interface ReportCharacterRepository extends JpaRepository<ReportCharacter
      * 캐릭터 ID로 ReportCharacter 목록 조회
      */
     List<ReportCharacter> findByCharacter_CharacterId(Long characterId);
-}
 
+    /**
+     * 여러 캐릭터의 갈등 리포트 일괄 삭제 (상세 로그를 먼저 삭제해야 함)
+     */
+    @Modifying
+    @Query("DELETE FROM ReportCharacter rc WHERE rc.character.characterId IN :characterIds")
+    int deleteByCharacterIds(@Param("characterIds") Collection<Long> characterIds);
+}
@@ -0,0 +1,38 @@
+package mandarin.com.mandarin_backend.repository;
+
+import mandarin.com.mandarin_backend.entity.SimulationMemory;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.util.Collection;
+import java.util.Optional;
+
+public interface SimulationMemoryRepository extends JpaRepository<SimulationMemory, Long> {
+
+    /**
+     * 시뮬레이션 ID로 대화 요약 조회
+     */
+    Optional<SimulationMemory> findBySimulation_SimulationId(Long simulationId);
+
+    /**
+     * 특정 시뮬레이션 ID의 대화 요약 삭제
+     */
+    void deleteBySimulation_SimulationId(Long simulationId);
+
+    /**
+     * 여러 캐릭터의 모든 시뮬레이션 대화 요약 일괄 삭제
+     */
+    @Modifying
+    @Query("DELETE FROM SimulationMemory m WHERE m.simulation.simulationId IN " +
+           "(SELECT s.simulationId FROM Simulation s WHERE s.character.characterId IN :characterIds)")
+    int deleteByCharacterIds(@Param("characterIds") Collection<Long> characterIds);
+
+    /**
+     * 여러 시뮬레이션의 대화 요약 일괄 삭제
+     */
+    @Modifying
+    @Query("DELETE FROM SimulationMemory m WHERE m.simulation.simulationId IN :simulationIds")
+    int deleteBySimulationIds(@Param("simulationIds") Collection<Long> simulationIds);
+}
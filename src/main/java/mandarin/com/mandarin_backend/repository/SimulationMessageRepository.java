@@ -2,12 +2,72 @@ package mandarin.com.mandarin_backend.repository;
 
 import mandarin.com.mandarin_backend.entity.Simulation;
 import mandarin.com.mandarin_backend.entity.SimulationMessage;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 
 public interface SimulationMessageRepository extends JpaRepository<SimulationMessage, Long> {
 
+    /**
+     * 대화 기록 항목 (발신자 / 내용 / 시간 / 순번만)
+     */
+    interface HistoryItem {
+        String getSender();
+        String getContent();
+        LocalDateTime getTimestamp();
+        Long getSequenceNo();
+    }
+
+    /**
+     * 페이지 조회용 대화 기록 항목 (커서를 만들 메시지 ID 포함)
+     */
+    interface HistoryPageItem extends HistoryItem {
+        Long getMessageId();
+    }
+
+    /**
+     * 특정 시뮬레이션 ID의 대화 기록을 순번순으로 조회 (필요한 컬럼만)
+     */
+    @Query("SELECT m.sender AS sender, m.content AS content, m.timestamp AS timestamp, m.sequenceNo AS sequenceNo " +
+           "FROM SimulationMessage m WHERE m.simulation.simulationId = :simulationId " +
+           "ORDER BY m.sequenceNo ASC, m.messageId ASC")
+    List<HistoryItem> findHistory(@Param("simulationId") Long simulationId);
+
+    /**
+     * 특정 메시지(포함)까지의 대화 기록을 순번순으로 조회 (분기 시뮬레이션이 이어받은 구간, 필요한 컬럼만)
+     */
+    @Query("SELECT m.sender AS sender, m.content AS content, m.timestamp AS timestamp, m.sequenceNo AS sequenceNo " +
+           "FROM SimulationMessage m WHERE m.simulation.simulationId = :simulationId AND m.messageId <= :messageId " +
+           "ORDER BY m.sequenceNo ASC, m.messageId ASC")
+    List<HistoryItem> findHistoryUntil(@Param("simulationId") Long simulationId, @Param("messageId") Long messageId);
+
+    /**
+     * 특정 순번 다음부터의 대화 기록 (클라이언트가 이미 가진 마지막 순번 이후, 순번 유니크 키로 바로 찾음)
+     */
+    @Query("SELECT m.sender AS sender, m.content AS content, m.timestamp AS timestamp, m.sequenceNo AS sequenceNo " +
+           "FROM SimulationMessage m WHERE m.simulation.simulationId = :simulationId AND m.sequenceNo > :since " +
+           "ORDER BY m.sequenceNo ASC")
+    List<HistoryItem> findHistorySince(@Param("simulationId") Long simulationId, @Param("since") long since);
+
+    /**
+     * 특정 메시지(포함)까지의 대화 기록 페이지 조회 (시간순, (timestamp, messageId) 위치 다음부터)
+     */
+    @Query("SELECT m.messageId AS messageId, m.sender AS sender, m.content AS content, m.timestamp AS timestamp, " +
+           "m.sequenceNo AS sequenceNo " +
+           "FROM SimulationMessage m WHERE m.simulation.simulationId = :simulationId AND m.messageId <= :untilMessageId " +
+           "AND (m.timestamp > :time OR (m.timestamp = :time AND m.messageId > :id)) " +
+           "ORDER BY m.timestamp ASC, m.messageId ASC")
+    List<HistoryPageItem> findHistoryPage(@Param("simulationId") Long simulationId,
+                                          @Param("untilMessageId") Long untilMessageId,
+                                          @Param("time") LocalDateTime time, @Param("id") Long id,
+                                          Pageable pageable);
+
     /**
      * 특정 시뮬레이션의 모든 메시지를 시간순으로 조회
      */
@@ -18,6 +78,56 @@ public interface SimulationMessageRepository extends JpaRepository<SimulationMes
      */
     List<SimulationMessage> findBySimulationSimulationIdOrderByTimestampAsc(Long simulationId);
 
+    /**
+     * 특정 시뮬레이션 ID의 모든 메시지를 순번순으로 조회 (순번이 없는 이전 메시지는 messageId 순으로 앞에 위치)
+     */
+    List<SimulationMessage> findBySimulationSimulationIdOrderBySequenceNoAscMessageIdAsc(Long simulationId);
+
+    /**
+     * 특정 시뮬레이션 ID의 메시지를 순번순으로 페이지 조회 (분기 지점 메시지 찾기용)
+     */
+    List<SimulationMessage> findBySimulationSimulationIdOrderBySequenceNoAscMessageIdAsc(Long simulationId, Pageable pageable);
+
+    /**
+     * 특정 메시지(포함)까지의 메시지를 순번순으로 조회 (분기 시뮬레이션이 이어받은 구간)
+     */
+    List<SimulationMessage> findBySimulationSimulationIdAndMessageIdLessThanEqualOrderBySequenceNoAscMessageIdAsc(
+            Long simulationId, Long messageId);
+
+    /**
+     * 두 메시지 사이(after 제외, until 포함)의 메시지를 오래된 순으로 조회 (분기 시뮬레이션이 이어받은 구간의 대화 요약용)
+     */
+    List<SimulationMessage> findBySimulationSimulationIdAndMessageIdGreaterThanAndMessageIdLessThanEqualOrderByMessageIdAsc(
+            Long simulationId, Long afterMessageId, Long untilMessageId, Pageable pageable);
+
+    /**
+     * 특정 메시지(포함)까지의 메시지를 최근 것부터 조회 (분기 시뮬레이션의 최근 대화 윈도우용)
+     */
+    List<SimulationMessage> findBySimulationSimulationIdAndMessageIdLessThanEqualOrderByMessageIdDesc(
+            Long simulationId, Long messageId, Pageable pageable);
+
+    /**
+     * 특정 시뮬레이션의 마지막 메시지 순번 조회 (메시지가 없으면 0)
+     */
+    @Query("SELECT COALESCE(MAX(m.sequenceNo), 0) FROM SimulationMessage m WHERE m.simulation.simulationId = :simulationId")
+    long findMaxSequenceNo(@Param("simulationId") Long simulationId);
+
+    /**
+     * 특정 시뮬레이션의 최근 메시지부터 조회 (최근 대화 윈도우용)
+     */
+    List<SimulationMessage> findBySimulationSimulationIdOrderByMessageIdDesc(Long simulationId, Pageable pageable);
+
+    /**
+     * 특정 메시지 이후의 메시지를 오래된 순으로 조회 (대화 요약용)
+     */
+    List<SimulationMessage> findBySimulationSimulationIdAndMessageIdGreaterThanOrderByMessageIdAsc(
+            Long simulationId, Long messageId, Pageable pageable);
+
+    /**
+     * 특정 메시지 이후의 메시지 수 조회 (종료 시 밀린 대화 양 확인용)
+     */
+    long countBySimulationSimulationIdAndMessageIdGreaterThan(Long simulationId, Long messageId);
+
     /**
      * 특정 시뮬레이션의 메시지 수 조회
      */
@@ -32,4 +142,25 @@ public interface SimulationMessageRepository extends JpaRepository<SimulationMes
      * 특정 시뮬레이션 ID의 모든 메시지 삭제
      */
     void deleteBySimulation_SimulationId(Long simulationId);
+
+    /**
+     * 여러 캐릭터의 모든 시뮬레이션 메시지 일괄 삭제
+     */
+    @Modifying
+    @Query("DELETE FROM SimulationMessage m WHERE m.simulation.simulationId IN " +
+           "(SELECT s.simulationId FROM Simulation s WHERE s.character.characterId IN :characterIds)")
+    int deleteByCharacterIds(@Param("characterIds") Collection<Long> characterIds);
+
+    /**
+     * 여러 시뮬레이션의 메시지 일괄 삭제
+     */
+    @Modifying
+    @Query("DELETE FROM SimulationMessage m WHERE m.simulation.simulationId IN :simulationIds")
+    int deleteBySimulationIds(@Param("simulationIds") Collection<Long> simulationIds);
+
+    /**
+     * 사용자의 전체 시뮬레이션 메시지 수 (탈퇴 시 바로 삭제할지 백그라운드로 넘길지 판단)
+     */
+    @Query("SELECT COUNT(m) FROM SimulationMessage m WHERE m.simulation.user.id = :userId")
+    long countByUserId(@Param("userId") Long userId);
 }
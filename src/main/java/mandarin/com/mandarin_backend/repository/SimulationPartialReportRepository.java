@@ -0,0 +1,38 @@
+package mandarin.com.mandarin_backend.repository;
+
+import mandarin.com.mandarin_backend.entity.SimulationPartialReport;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.util.Collection;
+import java.util.Optional;
+
+public interface SimulationPartialReportRepository extends JpaRepository<SimulationPartialReport, Long> {
+
+    /**
+     * 시뮬레이션 ID로 부분 보고서 조회
+     */
+    Optional<SimulationPartialReport> findBySimulation_SimulationId(Long simulationId);
+
+    /**
+     * 특정 시뮬레이션 ID의 부분 보고서 삭제
+     */
+    void deleteBySimulation_SimulationId(Long simulationId);
+
+    /**
+     * 여러 캐릭터의 모든 시뮬레이션 부분 보고서 일괄 삭제
+     */
+    @Modifying
+    @Query("DELETE FROM SimulationPartialReport r WHERE r.simulation.simulationId IN " +
+           "(SELECT s.simulationId FROM Simulation s WHERE s.character.characterId IN :characterIds)")
+    int deleteByCharacterIds(@Param("characterIds") Collection<Long> characterIds);
+
+    /**
+     * 여러 시뮬레이션의 부분 보고서 일괄 삭제
+     */
+    @Modifying
+    @Query("DELETE FROM SimulationPartialReport r WHERE r.simulation.simulationId IN :simulationIds")
+    int deleteBySimulationIds(@Param("simulationIds") Collection<Long> simulationIds);
+}
@@ -3,13 +3,82 @@ package mandarin.com.mandarin_backend.repository;
 import mandarin.com.mandarin_backend.entity.Simulation;
 import mandarin.com.mandarin_backend.entity.User;
 import mandarin.com.mandarin_backend.entity.UserCharacter;
+import mandarin.com.mandarin_backend.entity.enums.SimulationCategory;
+import mandarin.com.mandarin_backend.entity.enums.SimulationPurpose;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
 public interface SimulationRepository extends JpaRepository<Simulation, Long> {
 
+    /**
+     * 시뮬레이션 목록 항목 (fewShotContext / characterPersona는 읽지 않음)
+     */
+    interface ListItem {
+        Long getSimulationId();
+        Long getCharacterId();
+        String getSimulationName();
+        SimulationPurpose getPurpose();
+        SimulationCategory getCategory();
+        LocalDateTime getTime();
+        LocalDateTime getLastUpdateTime();
+        Boolean getIsFinished();
+        Long getParentSimulationId();
+        Long getBranchMessageCount();
+    }
+
+    /**
+     * 분기 지점 (이어받은 구간 계산용)
+     */
+    interface BranchPoint {
+        Long getSimulationId();
+        Long getParentSimulationId();
+        Long getBranchMessageId();
+        Long getBranchMessageCount();
+    }
+
+    String LIST_ITEM_SELECT = "SELECT s.simulationId AS simulationId, s.character.characterId AS characterId, " +
+            "s.simulationName AS simulationName, s.purpose AS purpose, s.category AS category, " +
+            "s.time AS time, s.lastUpdateTime AS lastUpdateTime, s.isFinished AS isFinished, " +
+            "s.parent.simulationId AS parentSimulationId, s.branchMessageCount AS branchMessageCount " +
+            "FROM Simulation s ";
+
+    // 캐릭터 ID로 시뮬레이션 목록 조회 (목록에 필요한 컬럼만)
+    @Query(LIST_ITEM_SELECT + "WHERE s.character.characterId = :characterId")
+    List<ListItem> findListItemsByCharacterId(@Param("characterId") Long characterId);
+
+    /**
+     * 캐릭터 ID로 시뮬레이션 목록 페이지 조회 (최근 수정 순, (lastUpdateTime, simulationId) 위치 다음부터)
+     */
+    @Query(LIST_ITEM_SELECT + "WHERE s.character.characterId = :characterId " +
+           "AND (s.lastUpdateTime < :time OR (s.lastUpdateTime = :time AND s.simulationId < :id)) " +
+           "ORDER BY s.lastUpdateTime DESC, s.simulationId DESC")
+    List<ListItem> findListItemPageByCharacterId(@Param("characterId") Long characterId,
+                                                 @Param("time") LocalDateTime time, @Param("id") Long id,
+                                                 Pageable pageable);
+
+    // 분기 지점만 조회 (시뮬레이션 행 전체를 읽지 않고 부모를 따라감)
+    @Query("SELECT s.simulationId AS simulationId, s.parent.simulationId AS parentSimulationId, " +
+           "s.branchMessageId AS branchMessageId, s.branchMessageCount AS branchMessageCount " +
+           "FROM Simulation s WHERE s.simulationId = :simulationId")
+    Optional<BranchPoint> findBranchPoint(@Param("simulationId") Long simulationId);
+
+    // 캐릭터까지 한 번에 조회 (대화 요약 / 턴 평가 / 리포트 생성)
+    @EntityGraph(attributePaths = "character")
+    Optional<Simulation> findWithCharacterBySimulationId(Long simulationId);
+
+    // 캐릭터와 페르소나를 가진 최초 시뮬레이션(origin)까지 한 번에 조회 (대화 상태 생성)
+    @EntityGraph(attributePaths = {"character", "origin"})
+    Optional<Simulation> findWithCharacterAndOriginBySimulationId(Long simulationId);
+
     // 캐릭터의 모든 시뮬레이션 조회
     List<Simulation> findByCharacter(UserCharacter character);
 
@@ -27,5 +96,53 @@ public interface SimulationRepository extends JpaRepository<Simulation, Long> {
 
     // 유저 ID로 시뮬레이션 조회
     List<Simulation> findByUser_Id(Long userId);
-}
 
+    // 엔티티 조회 없이 마지막 대화 시간 / 메시지 수 갱신 (메시지 저장과 같은 트랜잭션에서 호출)
+    @Modifying
+    @Query("UPDATE Simulation s SET s.lastUpdateTime = :time, s.messageCount = s.messageCount + :added " +
+           "WHERE s.simulationId = :simulationId")
+    int recordMessages(@Param("simulationId") Long simulationId, @Param("time") LocalDateTime time,
+                       @Param("added") long added);
+
+    /**
+     * 대화 버전 (마지막 대화 시간, 이어받은 메시지 수, 자기 메시지 수)
+     */
+    interface MessageVersion {
+        LocalDateTime getLastUpdateTime();
+        Long getBranchMessageCount();
+        Long getMessageCount();
+    }
+
+    // 대화 버전만 조회 (시뮬레이션 1행, 메시지 행은 읽지 않음)
+    @Query("SELECT s.lastUpdateTime AS lastUpdateTime, s.branchMessageCount AS branchMessageCount, " +
+           "s.messageCount AS messageCount FROM Simulation s WHERE s.simulationId = :simulationId")
+    Optional<MessageVersion> findMessageVersion(@Param("simulationId") Long simulationId);
+
+    /**
+     * 여러 캐릭터의 시뮬레이션 사이 분기 참조(parent / origin) 해제
+     * 한 번의 DELETE로 부모와 분기를 함께 지울 때 행 순서에 따라 FK 위반이 나지 않도록 먼저 실행
+     */
+    @Modifying
+    @Query("UPDATE Simulation s SET s.parent = null, s.origin = null WHERE s.character.characterId IN :characterIds")
+    int detachBranchesByCharacterIds(@Param("characterIds") Collection<Long> characterIds);
+
+    /**
+     * 사용자의 시뮬레이션 사이 분기 참조(parent / origin) 해제 (나눠서 삭제하기 전에 실행)
+     */
+    @Modifying
+    @Query("UPDATE Simulation s SET s.parent = null, s.origin = null WHERE s.user.id = :userId")
+    int detachBranchesByUserId(@Param("userId") Long userId);
+
+    /**
+     * 여러 캐릭터의 시뮬레이션 일괄 삭제 (메시지 / 요약 / 부분 보고서 / ChatReport를 먼저 삭제해야 함)
+     */
+    @Modifying
+    @Query("DELETE FROM Simulation s WHERE s.character.characterId IN :characterIds")
+    int deleteByCharacterIds(@Param("characterIds") Collection<Long> characterIds);
+
+    /**
+     * 사용자의 시뮬레이션 ID를 오래된 것부터 조회 (나눠서 삭제할 때 한 묶음씩)
+     */
+    @Query("SELECT s.simulationId FROM Simulation s WHERE s.user.id = :userId ORDER BY s.simulationId")
+    List<Long> findIdsByUserId(@Param("userId") Long userId, Pageable pageable);
+}
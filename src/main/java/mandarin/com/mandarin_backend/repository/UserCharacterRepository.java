@@ -2,13 +2,55 @@ package mandarin.com.mandarin_backend.repository;
 
 import mandarin.com.mandarin_backend.entity.UserCharacter;
 import mandarin.com.mandarin_backend.entity.User;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 
+import java.time.LocalDateTime;
 import java.util.List;
 import java.util.Optional;
 
 public interface UserCharacterRepository extends JpaRepository<UserCharacter, Long> {
 
+    /**
+     * 캐릭터 목록 항목 (사용자 행은 읽지 않음)
+     */
+    interface ListItem {
+        Long getCharacterId();
+        Long getUserId();
+        String getCharacterName();
+        Integer getCharacterAge();
+        Integer getRelationType();
+        String getCharacterImg();
+        LocalDateTime getMeetDate();
+        Integer getLoveType();
+        String getKakaoName();
+        String getFullDialogue();
+        LocalDateTime getCreatedAt();
+        String getHistorySum();
+    }
+
+    String LIST_ITEM_SELECT = "SELECT c.characterId AS characterId, c.user.id AS userId, c.characterName AS characterName, " +
+            "c.characterAge AS characterAge, c.relationType AS relationType, c.characterImg AS characterImg, " +
+            "c.meetDate AS meetDate, c.loveType AS loveType, c.kakaoName AS kakaoName, " +
+            "c.fullDialogue AS fullDialogue, c.createdAt AS createdAt, c.historySum AS historySum " +
+            "FROM UserCharacter c ";
+
+    // 사용자 ID로 캐릭터 목록 조회 (목록에 필요한 컬럼만)
+    @Query(LIST_ITEM_SELECT + "WHERE c.user.id = :userId")
+    List<ListItem> findListItemsByUserId(@Param("userId") Long userId);
+
+    /**
+     * 사용자 ID로 캐릭터 목록 페이지 조회 (최근 생성 순, (createdAt, characterId) 위치 다음부터)
+     */
+    @Query(LIST_ITEM_SELECT + "WHERE c.user.id = :userId " +
+           "AND (c.createdAt < :time OR (c.createdAt = :time AND c.characterId < :id)) " +
+           "ORDER BY c.createdAt DESC, c.characterId DESC")
+    List<ListItem> findListItemPageByUserId(@Param("userId") Long userId,
+                                            @Param("time") LocalDateTime time, @Param("id") Long id,
+                                            Pageable pageable);
+
     // 사용자의 모든 캐릭터 조회
     List<UserCharacter> findByUser(User user);
 
@@ -2,14 +2,32 @@ package mandarin.com.mandarin_backend.repository;
 
 import mandarin.com.mandarin_backend.entity.User;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
 
+import java.util.List;
 import java.util.Optional;
 
 public interface UserRepository extends JpaRepository<User, Long> {
 
     Optional<User> findByUserId(String userId);
 
+    /**
+     * 탈퇴 처리되지 않은 사용자만 조회 (탈퇴 처리 후 백그라운드 삭제 중인 사용자는 없는 사용자로 취급)
+     * 로그인 / 데이터 생성 경로는 모두 이 조회를 사용
+     */
+    Optional<User> findByIdAndDeletedAtIsNull(Long id);
+
+    Optional<User> findByUserIdAndDeletedAtIsNull(String userId);
+
+    boolean existsByIdAndDeletedAtIsNull(Long id);
+
     boolean existsByUserId(String userId);
 
     void deleteByUserId(String userId);
-}
\ No newline at end of file
+
+    /**
+     * 탈퇴 처리 후 아직 데이터를 다 지우지 못한 사용자 ID (재시작 시 이어서 삭제)
+     */
+    @Query("SELECT u.id FROM User u WHERE u.deletedAt IS NOT NULL")
+    List<Long> findIdsByDeletedAtIsNotNull();
+}
@@ -0,0 +1,289 @@
+package mandarin.com.mandarin_backend.service;
+
+import mandarin.com.mandarin_backend.config.AccountPurgeProperties;
+import mandarin.com.mandarin_backend.entity.UserCharacter;
+import mandarin.com.mandarin_backend.repository.*;
+import mandarin.com.mandarin_backend.util.FileUtil;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Async;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * 캐릭터 / 회원 데이터 일괄 삭제
+ *
+ * 엔티티를 하나씩 조회해 지우지 않고 테이블마다 DELETE ... WHERE ... IN (subquery) 한 번씩 실행
+ * (참조하는 쪽부터: 리포트 상세 로그 → 리포트 → 리포트 내용 → 메시지/요약/부분 보고서 → 시뮬레이션 → 캐릭터 → 사용자)
+ * 데이터 양과 관계없이 실행하는 SQL 수가 일정함
+ *
+ * - 데이터가 많은 계정은 탈퇴 처리(deletedAt)만 하고 커밋 후 백그라운드에서 시뮬레이션 batchSize개씩 나눠 삭제
+ *   (서버가 재시작되면 다음 시작 시 이어서 삭제)
+ * - 업로드 파일은 DB 삭제가 커밋된 뒤 백그라운드에서 삭제 (롤백되면 파일도 그대로 남음)
+ * - 삭제 작업은 purgeTaskExecutor에서 실행 (큐가 가득 차도 버리지 않음, 파일 경로는 커밋 후 DB에 남지 않으므로)
+ */
+@Service
+public class AccountPurgeService {
+
+    private final UserRepository userRepository;
+    private final UserCharacterRepository userCharacterRepository;
+    private final SimulationRepository simulationRepository;
+    private final SimulationMessageRepository simulationMessageRepository;
+    private final SimulationMemoryRepository simulationMemoryRepository;
+    private final SimulationPartialReportRepository simulationPartialReportRepository;
+    private final ChatReportRepository chatReportRepository;
+    private final ChatReportDetailLogRepository chatReportDetailLogRepository;
+    private final ChatReportAvgRepository chatReportAvgRepository;
+    private final ChatReportContentRepository chatReportContentRepository;
+    private final ReportCharacterRepository reportCharacterRepository;
+    private final ReportCharacterDetailLogRepository reportCharacterDetailLogRepository;
+    private final PersonaCacheRepository personaCacheRepository;
+    private final ConversationStateCache conversationStateCache;
+    private final FileUtil fileUtil;
+    private final AccountPurgeProperties properties;
+    private final ApplicationEventPublisher eventPublisher;
+    private final TransactionTemplate transactionTemplate;
+
+    // 같은 사용자의 백그라운드 삭제가 동시에 두 번 돌지 않도록
+    private final Set<Long> purging = ConcurrentHashMap.newKeySet();
+
+    public AccountPurgeService(UserRepository userRepository,
+                               UserCharacterRepository userCharacterRepository,
+                               SimulationRepository simulationRepository,
+                               SimulationMessageRepository simulationMessageRepository,
+                               SimulationMemoryRepository simulationMemoryRepository,
+                               SimulationPartialReportRepository simulationPartialReportRepository,
+                               ChatReportRepository chatReportRepository,
+                               ChatReportDetailLogRepository chatReportDetailLogRepository,
+                               ChatReportAvgRepository chatReportAvgRepository,
+                               ChatReportContentRepository chatReportContentRepository,
+                               ReportCharacterRepository reportCharacterRepository,
+                               ReportCharacterDetailLogRepository reportCharacterDetailLogRepository,
+                               PersonaCacheRepository personaCacheRepository,
+                               ConversationStateCache conversationStateCache,
+                               FileUtil fileUtil,
+                               AccountPurgeProperties properties,
+                               ApplicationEventPublisher eventPublisher,
+                               PlatformTransactionManager transactionManager) {
+        this.userRepository = userRepository;
+        this.userCharacterRepository = userCharacterRepository;
+        this.simulationRepository = simulationRepository;
+        this.simulationMessageRepository = simulationMessageRepository;
+        this.simulationMemoryRepository = simulationMemoryRepository;
+        this.simulationPartialReportRepository = simulationPartialReportRepository;
+        this.chatReportRepository = chatReportRepository;
+        this.chatReportDetailLogRepository = chatReportDetailLogRepository;
+        this.chatReportAvgRepository = chatReportAvgRepository;
+        this.chatReportContentRepository = chatReportContentRepository;
+        this.reportCharacterRepository = reportCharacterRepository;
+        this.reportCharacterDetailLogRepository = reportCharacterDetailLogRepository;
+        this.personaCacheRepository = personaCacheRepository;
+        this.conversationStateCache = conversationStateCache;
+        this.fileUtil = fileUtil;
+        this.properties = properties;
+        this.eventPublisher = eventPublisher;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+    }
+
+    /**
+     * 탈퇴 처리된 사용자의 데이터를 백그라운드에서 삭제하라는 이벤트
+     */
+    public record AccountSoftDeleted(Long userId) {
+    }
+
+    /**
+     * 커밋 후 삭제할 업로드 파일 (DB 경로)
+     */
+    public record FilesReleased(List<String> paths) {
+    }
+
+    /**
+     * 탈퇴 시 바로 지우기에는 데이터가 많은 계정인지 (시뮬레이션 메시지 수 기준)
+     */
+    public boolean exceedsSoftDeleteThreshold(Long userId) {
+        return simulationMessageRepository.countByUserId(userId) > properties.getSoftDeleteThreshold();
+    }
+
+    /**
+     * 캐릭터와 캐릭터에 딸린 모든 데이터 삭제 (호출한 트랜잭션 안에서 실행)
+     */
+    @Transactional
+    public void deleteCharacters(List<UserCharacter> characters) {
+        deleteCharacterData(characters);
+    }
+
+    /**
+     * 사용자와 사용자의 모든 데이터를 현재 트랜잭션에서 바로 삭제
+     */
+    @Transactional
+    public void deleteUserNow(Long userId) {
+        deleteUserData(userId);
+    }
+
+    /**
+     * 탈퇴 처리된 사용자의 데이터를 나눠서 삭제 (트랜잭션 밖에서 호출)
+     * 시뮬레이션 batchSize개와 그 메시지/요약/부분 보고서를 트랜잭션 하나로 묶어 반복하고
+     * 시뮬레이션이 다 지워지면 남은 캐릭터 / 사용자를 삭제
+     */
+    public void purgeUser(Long userId) {
+        if (!purging.add(userId)) {
+            return;
+        }
+        try {
+            // ChatReport가 시뮬레이션을 참조하므로 먼저 삭제하고, 묶음 경계에서 FK 위반이 없도록 분기 참조 해제
+            transactionTemplate.executeWithoutResult(status -> {
+                deleteChatReportsOfUser(userId);
+                simulationRepository.detachBranchesByUserId(userId);
+            });
+
+            int batches = 0;
+            while (true) {
+                Boolean deleted = transactionTemplate.execute(status -> {
+                    List<Long> simulationIds = simulationRepository.findIdsByUserId(
+                            userId, PageRequest.of(0, properties.getBatchSize()));
+                    if (simulationIds.isEmpty()) {
+                        return false;
+                    }
+                    simulationMessageRepository.deleteBySimulationIds(simulationIds);
+                    simulationMemoryRepository.deleteBySimulationIds(simulationIds);
+                    simulationPartialReportRepository.deleteBySimulationIds(simulationIds);
+                    simulationRepository.deleteAllByIdInBatch(simulationIds);
+                    return true;
+                });
+                if (!Boolean.TRUE.equals(deleted)) {
+                    break;
+                }
+                batches++;
+            }
+
+            transactionTemplate.executeWithoutResult(status -> deleteUserData(userId));
+            System.out.println("[AccountPurge] 탈퇴 사용자 데이터 삭제 완료 - userId: " + userId
+                    + ", 시뮬레이션 묶음: " + batches);
+        } finally {
+            purging.remove(userId);
+        }
+    }
+
+    /**
+     * 탈퇴 처리가 커밋된 뒤 백그라운드에서 삭제
+     */
+    @Async("purgeTaskExecutor")
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT)
+    public void onAccountSoftDeleted(AccountSoftDeleted event) {
+        try {
+            purgeUser(event.userId());
+        } catch (Exception e) {
+            // 남은 데이터는 다음 시작 시 이어서 삭제
+            System.err.println("[AccountPurge] 탈퇴 사용자 데이터 삭제 실패 - userId: " + event.userId()
+                    + ", " + e.getMessage());
+        }
+    }
+
+    /**
+     * 시작 시 삭제가 끝나지 않은 탈퇴 사용자 데이터를 이어서 삭제
+     */
+    @Async("purgeTaskExecutor")
+    @EventListener(ApplicationReadyEvent.class)
+    public void resumePendingPurges() {
+        List<Long> userIds;
+        try {
+            userIds = userRepository.findIdsByDeletedAtIsNotNull();
+        } catch (Exception e) {
+            System.err.println("[AccountPurge] 탈퇴 사용자 조회 실패 - " + e.getMessage());
+            return;
+        }
+        for (Long userId : userIds) {
+            try {
+                purgeUser(userId);
+            } catch (Exception e) {
+                System.err.println("[AccountPurge] 탈퇴 사용자 데이터 삭제 실패 - userId: " + userId
+                        + ", " + e.getMessage());
+            }
+        }
+    }
+
+    /**
+     * DB 삭제가 커밋된 뒤 백그라운드에서 업로드 파일 삭제
+     */
+    @Async("purgeTaskExecutor")
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT)
+    public void onFilesReleased(FilesReleased event) {
+        for (String path : event.paths()) {
+            try {
+                fileUtil.deleteFile(path);
+            } catch (Exception e) {
+                System.err.println("[AccountPurge] 파일 삭제 실패 - " + path + ", " + e.getMessage());
+            }
+        }
+    }
+
+    private void deleteUserData(Long userId) {
+        // 캐릭터 없이 남은 리포트도 함께 삭제
+        deleteChatReportsOfUser(userId);
+        deleteCharacterData(userCharacterRepository.findByUser_Id(userId));
+        userRepository.deleteAllByIdInBatch(List.of(userId));
+    }
+
+    private void deleteChatReportsOfUser(Long userId) {
+        chatReportDetailLogRepository.deleteByUserId(userId);
+        chatReportAvgRepository.deleteByUserId(userId);
+        chatReportRepository.deleteByUserId(userId);
+        chatReportContentRepository.deleteByUserId(userId);
+    }
+
+    private void deleteCharacterData(List<UserCharacter> characters) {
+        if (characters.isEmpty()) {
+            return;
+        }
+        List<Long> characterIds = new ArrayList<>();
+        Set<Long> userIds = new HashSet<>();
+        List<String> files = new ArrayList<>();
+        for (UserCharacter character : characters) {
+            characterIds.add(character.getCharacterId());
+            userIds.add(character.getUser().getId());
+            files.add(character.getCharacterImg());
+            files.add(character.getFullDialogue());
+        }
+
+        // 1. 갈등 리포트
+        reportCharacterDetailLogRepository.deleteByCharacterIds(characterIds);
+        reportCharacterRepository.deleteByCharacterIds(characterIds);
+
+        // 2. ChatReport (시뮬레이션을 참조하므로 시뮬레이션보다 먼저)
+        //    누적 합계는 지운 리포트를 참조할 수 있으므로 지우고 남은 리포트로 다시 만듦
+        chatReportDetailLogRepository.deleteByCharacterIds(characterIds);
+        chatReportAvgRepository.deleteByUserIds(userIds);
+        chatReportRepository.deleteByCharacterIds(characterIds);
+        chatReportContentRepository.deleteByCharacterIds(characterIds);
+        chatReportAvgRepository.rebuildByUserIds(userIds);
+
+        // 3. 시뮬레이션과 메시지 / 대화 요약 / 부분 보고서
+        simulationMessageRepository.deleteByCharacterIds(characterIds);
+        simulationMemoryRepository.deleteByCharacterIds(characterIds);
+        simulationPartialReportRepository.deleteByCharacterIds(characterIds);
+        simulationRepository.detachBranchesByCharacterIds(characterIds);
+        simulationRepository.deleteByCharacterIds(characterIds);
+
+        // 4. 페르소나 캐시 / 캐릭터
+        personaCacheRepository.deleteByCharacterIds(characterIds);
+        userCharacterRepository.deleteAllByIdInBatch(characterIds);
+
+        // 메모리의 대화 상태 제거, 파일은 커밋 후 삭제
+        characterIds.forEach(conversationStateCache::evictCharacter);
+        eventPublisher.publishEvent(new FilesReleased(files.stream()
+                .filter(path -> path != null && !path.isEmpty())
+                .toList()));
+    }
+}
@@ -2,6 +2,8 @@ package mandarin.com.mandarin_backend.service;
 
 import com.fasterxml.jackson.core.JsonProcessingException;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import mandarin.com.mandarin_backend.config.AiFanOut;
+import mandarin.com.mandarin_backend.config.AiRequestCoalescer;
 import mandarin.com.mandarin_backend.dto.ParseInfoResponseDto;
 import mandarin.com.mandarin_backend.dto.ParsedChatDataDto;
 import mandarin.com.mandarin_backend.dto.ParsedDialogueDto;
@@ -14,6 +16,7 @@ import mandarin.com.mandarin_backend.entity.User;
 import mandarin.com.mandarin_backend.entity.UserCharacter;
 import mandarin.com.mandarin_backend.entity.enums.SimulationCategory;
 import mandarin.com.mandarin_backend.entity.enums.SimulationPurpose;
+import mandarin.com.mandarin_backend.repository.DetailLogBatchRepository;
 import mandarin.com.mandarin_backend.repository.ReportCharacterDetailLogRepository;
 import mandarin.com.mandarin_backend.repository.ReportCharacterRepository;
 import mandarin.com.mandarin_backend.repository.SimulationRepository;
@@ -26,6 +29,7 @@ import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 import org.springframework.core.ParameterizedTypeReference;
 import org.springframework.web.reactive.function.client.WebClient;
+import reactor.core.publisher.Mono;
 
 import java.io.IOException;
 import java.nio.charset.StandardCharsets;
@@ -34,6 +38,7 @@ import java.nio.file.Path;
 import java.nio.file.Paths;
 import java.time.LocalDate;
 import java.time.LocalDateTime;
+import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
@@ -44,12 +49,16 @@ import java.util.stream.Collectors;
 public class AnalysisService {
 
     private final WebClient webClient;
+    private final AiRequestCoalescer aiRequestCoalescer;
+    private final AiFanOut aiFanOut;
     private final UserCharacterRepository userCharacterRepository;
     private final UserRepository userRepository;
     private final SimulationRepository simulationRepository;
     private final ReportCharacterRepository reportCharacterRepository;
     private final ReportCharacterDetailLogRepository reportCharacterDetailLogRepository;
+    private final DetailLogBatchRepository detailLogBatchRepository;
     private final KakaoTalkParseService kakaoTalkParseService;
+    private final PersonaCacheService personaCacheService;
     private final ObjectMapper objectMapper;
 
     @Value("${file.upload-dir}")
@@ -128,8 +137,43 @@ public class AnalysisService {
             + ", 버퍼: " + effectiveBufferDays + "일"
             + ", 상대방메시지수: " + preprocessed.getTargetMessageCount());
 
-        // 5. Python 서버로 AI 분석 요청 (상대방 페르소나 추출)
-        UserPersonaDto persona = analyzePersonaWithText(preprocessed.getText(), targetName);
+        // 5. 페르소나 캐시 조회 → 없을 때만 Python 서버로 AI 분석 요청 (상대방 페르소나 추출)
+        //    캐릭터 생성 때 갈등 리포트를 만들지 못했으면 같은 대화로 트리거 추출도 함께 실행
+        UserPersonaDto persona = personaCacheService.find(targetName, preprocessed.getText()).orElse(null);
+        boolean needsReport = kakaoName != null
+                && reportCharacterRepository.findByCharacter_CharacterId(characterId).isEmpty();
+
+        List<ReactionTriggerDto> backfilledTriggers = null;
+        if (persona == null || needsReport) {
+            try (AiFanOut.Scope scope = aiFanOut.open("analyze")) {
+                AiFanOut.Call<UserPersonaDto> personaCall = persona == null
+                        ? scope.fork("/analyze", requestPersona(preprocessed.getText(), targetName))
+                        : null;
+                // 리포트 보충은 부가 작업이라 실패해도 시뮬레이션 생성은 계속 (페르소나 추출이 실패하면 같이 취소됨)
+                AiFanOut.Call<List<ReactionTriggerDto>> triggerCall = needsReport
+                        ? scope.fork("/extract-negative-triggers",
+                                requestNegativeTriggers(dialogueJson, kakaoName, targetName)
+                                        .onErrorResume(e -> {
+                                            System.err.println("[Analyze] 갈등 리포트 보충 실패: " + e.getMessage());
+                                            return Mono.empty();
+                                        }))
+                        : null;
+                scope.join();
+
+                if (personaCall != null) {
+                    persona = personaCall.get();
+                    try {
+                        personaCacheService.save(character, targetName, preprocessed.getText(), persona);
+                    } catch (Exception e) {
+                        // 캐시 저장 실패(동시 저장으로 인한 키 충돌 등)는 시뮬레이션 생성에 영향 없음
+                        System.err.println("[Analyze] 페르소나 캐시 저장 실패: " + e.getMessage());
+                    }
+                }
+                if (triggerCall != null) {
+                    backfilledTriggers = triggerCall.get();
+                }
+            }
+        }
 
         // 6. Simulation 생성 및 저장
         String personaJson;
@@ -139,7 +183,7 @@ public class AnalysisService {
             throw new RuntimeException("페르소나 JSON 변환 실패: " + e.getMessage(), e);
         }
 
-        User user = userRepository.findById(id).orElseThrow(() -> new IllegalArgumentException("사용자를 찾을 수 없습니다: " + id));
+        User user = userRepository.findByIdAndDeletedAtIsNull(id).orElseThrow(() -> new IllegalArgumentException("사용자를 찾을 수 없습니다: " + id));
 
         Simulation simulation = Simulation.builder()
                 .user(user)
@@ -155,7 +199,10 @@ public class AnalysisService {
 
         System.out.println("[Analyze] 시뮬레이션 저장 완료 - ID: " + savedSimulation.getSimulationId());
 
-        // 6. ReportCharacter 생성 로직 제거 (UserCharacter 생성 시점으로 이동)
+        // 6. ReportCharacter 생성은 UserCharacter 생성 시점에서 수행 (그때 실패했으면 여기서 보충)
+        if (backfilledTriggers != null) {
+            saveReportCharacter(character, backfilledTriggers, kakaoName, targetName);
+        }
 
         return AnalysisResult.builder()
                 .simulation(savedSimulation)
@@ -225,6 +272,13 @@ public class AnalysisService {
      * @return 추출된 페르소나 정보
      */
     public UserPersonaDto analyzePersonaWithText(String filteredText, String targetName) {
+        return requestPersona(filteredText, targetName).block();
+    }
+
+    /**
+     * /analyze 호출 (구독할 때 시작, 다른 AI 호출과 함께 실행할 때 사용)
+     */
+    public Mono<UserPersonaDto> requestPersona(String filteredText, String targetName) {
         // Python 서버로 보낼 데이터 준비 (이미 필터링된 텍스트)
         Map<String, Object> requestBody = new HashMap<>();
         requestBody.put("text_content", filteredText);
@@ -234,14 +288,12 @@ public class AnalysisService {
         requestBody.put("buffer_days", 0);
 
         // Python 서버 호출 (POST /analyze) - AI 분석만 Python에서 수행
-        UserPersonaDto response = webClient.post()
-                .uri("/analyze")
-                .bodyValue(requestBody)
-                .retrieve()
-                .bodyToMono(UserPersonaDto.class)
-                .block();
-        
-        return response;
+        // 같은 대화/대상으로 동시에 들어온 분석 요청은 1번만 호출하고 결과를 공유
+        return aiRequestCoalescer.execute("/analyze", requestBody, () -> webClient.post()
+                        .uri("/analyze")
+                        .bodyValue(requestBody)
+                        .retrieve()
+                        .bodyToMono(UserPersonaDto.class));
     }
 
     /**
@@ -311,14 +363,13 @@ public class AnalysisService {
             String targetName) {
         
         // 기존 ReportCharacter 삭제 (새로 분석된 결과로 교체)
-        List<ReportCharacter> existingReports = reportCharacterRepository.findByCharacter_CharacterId(character.getCharacterId());
-        for (ReportCharacter existing : existingReports) {
-            reportCharacterDetailLogRepository.deleteByReportCharacter_ReportCharacterId(existing.getReportCharacterId());
-        }
-        reportCharacterRepository.deleteAll(existingReports);
+        List<Long> characterIds = List.of(character.getCharacterId());
+        reportCharacterDetailLogRepository.deleteByCharacterIds(characterIds);
+        reportCharacterRepository.deleteByCharacterIds(characterIds);
         
         LocalDateTime baseTime = LocalDateTime.now();
         int messageOrder = 0;  // 전체 메시지 순서 (모든 ReportCharacter의 DetailLog에 걸쳐 순차 증가)
+        List<ReportCharacterDetailLog> detailLogs = new ArrayList<>();  // 마지막에 한 번에 저장
         
         // [수정] 하드코딩된 위험도 배열 제거, AI가 반환한 dangerLevel 사용
         for (ReactionTriggerDto trigger : negativeTriggers) {
@@ -338,16 +389,20 @@ public class AnalysisService {
             
             // 2. ReportCharacterDetailLog 저장 (example 문장 파싱)
             if (trigger.getExample() != null && !trigger.getExample().isEmpty()) {
-                messageOrder = saveExampleAsDetailLogs(
+                messageOrder = addExampleAsDetailLogs(
                     savedReport, 
                     trigger.getExample(), 
                     userName, 
                     targetName, 
                     baseTime, 
-                    messageOrder
+                    messageOrder,
+                    detailLogs
                 );
             }
         }
+
+        // 상세 로그 전체를 JDBC batch 한 번으로 저장
+        detailLogBatchRepository.insertReportCharacterDetailLogs(detailLogs);
         
         System.out.println("[Analyze] ReportCharacter 저장 완료 - 캐릭터ID: " + character.getCharacterId() 
             + ", 갈등요소 개수: " + negativeTriggers.size());
@@ -395,8 +450,8 @@ public class AnalysisService {
     }
 
     /**
-     * example 문장을 파싱하여 ReportCharacterDetailLog로 저장
-     * 대화 형식의 예시를 개별 메시지로 분리하여 저장
+     * example 문장을 파싱하여 ReportCharacterDetailLog 목록에 추가
+     * 대화 형식의 예시를 개별 메시지로 분리
      * 
      * @param reportCharacter 연결할 ReportCharacter
      * @param example 예시 대화 문자열
@@ -404,15 +459,17 @@ public class AnalysisService {
      * @param targetName 상대방 이름
      * @param baseTime 기준 시간
      * @param startOrder 시작 순서 번호
+     * @param detailLogs 저장할 상세 로그 목록
      * @return 다음 순서 번호
      */
-    private int saveExampleAsDetailLogs(
+    private int addExampleAsDetailLogs(
             ReportCharacter reportCharacter,
             String example,
             String userName,
             String targetName,
             LocalDateTime baseTime,
-            int startOrder) {
+            int startOrder,
+            List<ReportCharacterDetailLog> detailLogs) {
         
         int order = startOrder;
         
@@ -435,7 +492,7 @@ public class AnalysisService {
                     .timestamp(baseTime.plusSeconds(order))
                     .build();
             
-            reportCharacterDetailLogRepository.save(detailLog);
+            detailLogs.add(detailLog);
             order++;
         }
         
@@ -451,7 +508,7 @@ public class AnalysisService {
                         .timestamp(baseTime.plusSeconds(order))
                         .build();
                 
-                reportCharacterDetailLogRepository.save(detailLog);
+                detailLogs.add(detailLog);
                 order++;
             }
         }
@@ -517,87 +574,104 @@ public class AnalysisService {
 
     /**
      * UserCharacter 생성 시 fullDialogue에서 부정적 반응 트리거 추출 및 ReportCharacter 저장
+     * (실패해도 예외를 던지지 않음 - 리포트 생성 실패해도 UserCharacter 저장은 성공으로 처리)
      * 
      * @param character 저장된 UserCharacter
      * @param kakaoName 사용자 이름 (카카오톡 본인)
      * @param targetName 상대방 이름 (분석 대상)
+     * @param directContent 대화 내용
      */
     @Transactional
     public void createReportCharacterFromFullDialogue(
         UserCharacter character,
         String kakaoName,
         String targetName,
-        String directContent // [수정 1] 내용을 직접 받습니다!
+        String directContent
     ) {
-        
-    // [삭제] 파일 경로 가져오기 & 파일 읽기 로직 전부 삭제 ❌
-    /* String filePath = character.getFullDialogue();
-    Path path = Paths.get(filePath);
-    String jsonContent = new String(Files.readAllBytes(path), StandardCharsets.UTF_8);
-    */
-
-    // [확인] 내용이 없으면 중단
-    if (directContent == null || directContent.isEmpty()) {
-        System.out.println("[ReportCharacter] 전달받은 대화 내용이 없습니다.");
-        return;
+        // 내용이 없으면 중단
+        if (directContent == null || directContent.isEmpty()) {
+            System.out.println("[ReportCharacter] 전달받은 대화 내용이 없습니다.");
+            return;
+        }
+
+        try {
+            List<ReactionTriggerDto> negativeTriggers =
+                requestNegativeTriggers(directContent, kakaoName, targetName).block();
+            saveReportCharacter(character, negativeTriggers, kakaoName, targetName);
+        } catch (Exception e) {
+            System.err.println("[ReportCharacter] 리포트 생성 실패: " + e.getMessage());
+            e.printStackTrace();
+            // 리포트 생성 실패해도 UserCharacter 저장은 성공으로 처리
+        }
     }
-    
-    try {
-        // 1. JSON을 텍스트로 변환
-        // [수정 2] 파일에서 읽은 것 대신, 인자로 받은 directContent를 바로 사용!
+
+    /**
+     * /extract-negative-triggers 호출 (구독할 때 시작, 다른 AI 호출과 함께 실행할 때 사용)
+     * 트리거가 없으면 빈 목록
+     * 
+     * @param directContent 대화 내용 (maxChars보다 길면 최근 대화만 사용)
+     * @param kakaoName 사용자 이름 (카카오톡 본인)
+     * @param targetName 상대방 이름 (분석 대상)
+     */
+    public Mono<List<ReactionTriggerDto>> requestNegativeTriggers(
+        String directContent,
+        String kakaoName,
+        String targetName
+    ) {
+        // 1. 너무 길면 최근 대화만 남기기
         int maxChars = KakaoTalkParseService.getDefaultMaxChars();
-        
-        // directContent가 이미 JSON 형식이든 텍스트 형식이든
-        // kakaoTalkParseService.convertJsonToText()나 parseAndConvertToJson() 로직에 따라 처리됨
-        // 만약 directContent가 "Raw Text"라면 이 메서드가 아니라, 바로 로직을 수행해야 할 수도 있습니다.
-        // 하지만 앞서 Controller 로직을 보면 rawTextContent는 '카톡 원본 텍스트'입니다.
-        
-        // ★ 중요: Controller에서 넘겨주는게 '카톡 원본 텍스트'라면 
-        // 굳이 convertJsonToText를 호출할 필요가 없습니다. (이미 텍스트니까요)
-        // 바로 마스킹/분석 로직으로 넘어가거나, 필요한 전처리만 하세요.
-        
-        // 만약 여기서 JSON 변환이 꼭 필요하다면:
-        // String jsonStr = kakaoTalkParseService.parseAndConvertToJson(directContent);
-        // String dialogueText = kakaoTalkParseService.convertJsonToText(jsonStr, maxChars);
-        
-        // 일단 기존 흐름대로 '텍스트'를 가지고 분석을 요청한다고 가정합니다.
-        String dialogueText = directContent; 
-        
-        // 만약 directContent가 너무 길다면 자르기 (JSON 변환 로직이 있다면 거기서 처리됨)
+        String dialogueText = directContent;
         if (dialogueText.length() > maxChars) {
             dialogueText = dialogueText.substring(dialogueText.length() - maxChars);
         }
 
-        // 2. Python 서버 요청 (이하 동일)
+        // 2. Python 서버 요청
         Map<String, Object> requestBody = new HashMap<>();
         requestBody.put("text_content", dialogueText);
         requestBody.put("user_name", kakaoName);
         requestBody.put("target_name", targetName);
         requestBody.put("max_chars", maxChars);
-        
-        Map<String, Object> response = webClient.post()
-                .uri("/extract-negative-triggers")
-                .bodyValue(requestBody)
-                .retrieve()
-                .bodyToMono(new ParameterizedTypeReference<Map<String, Object>>() {})
-                .block();
-        
-        if (response == null || !response.containsKey("negative_triggers")) {
-            System.out.println("[ReportCharacter] 부정적 반응 트리거를 찾을 수 없습니다.");
+
+        // 대화 내용이 그대로면(regenerate-report 등) 캐시된 트리거로 ReportCharacter만 다시 만들고 AI 호출은 생략
+        return aiRequestCoalescer.execute("/extract-negative-triggers", requestBody, () -> webClient.post()
+                        .uri("/extract-negative-triggers")
+                        .bodyValue(requestBody)
+                        .retrieve()
+                        .bodyToMono(new ParameterizedTypeReference<Map<String, Object>>() {}))
+                .map(this::toNegativeTriggers)
+                .defaultIfEmpty(List.of());
+    }
+
+    /**
+     * 추출한 트리거로 ReportCharacter 및 ReportCharacterDetailLog 저장 (트리거가 없으면 기존 리포트 유지)
+     */
+    @Transactional
+    public void saveReportCharacter(
+        UserCharacter character,
+        List<ReactionTriggerDto> negativeTriggers,
+        String kakaoName,
+        String targetName
+    ) {
+        if (negativeTriggers == null || negativeTriggers.isEmpty()) {
+            System.out.println("[ReportCharacter] 부정적 반응 트리거가 없습니다.");
             return;
         }
-        
+        saveReportCharacterFromNegativeTriggers(character, negativeTriggers, kakaoName, targetName);
+    }
+
+    /**
+     * /extract-negative-triggers 응답을 DTO 목록으로 변환
+     */
+    private List<ReactionTriggerDto> toNegativeTriggers(Map<String, Object> response) {
         @SuppressWarnings("unchecked")
-        List<Map<String, Object>> negativeTriggersList = 
+        List<Map<String, Object>> negativeTriggersList =
             (List<Map<String, Object>>) response.get("negative_triggers");
-        
-        if (negativeTriggersList == null || negativeTriggersList.isEmpty()) {
-            System.out.println("[ReportCharacter] 부정적 반응 트리거가 없습니다.");
-            return;
+
+        if (negativeTriggersList == null) {
+            return List.of();
         }
-        
-        // 4. DTO로 변환
-        List<ReactionTriggerDto> negativeTriggers = negativeTriggersList.stream()
+
+        return negativeTriggersList.stream()
             .map(triggerMap -> ReactionTriggerDto.builder()
                 .keyword((String) triggerMap.get("keyword"))
                 .trigger((String) triggerMap.get("trigger"))
@@ -608,19 +682,5 @@ public class AnalysisService {
                 .dangerLevel(triggerMap.get("danger_level") != null ? ((Number) triggerMap.get("danger_level")).intValue() : null)
                 .build())
             .collect(Collectors.toList());
-        
-        // 5. ReportCharacter 및 ReportCharacterDetailLog 저장
-        saveReportCharacterFromNegativeTriggers(
-            character,
-            negativeTriggers,
-            kakaoName,
-            targetName
-        );
-        
-    } catch (Exception e) {
-        System.err.println("[ReportCharacter] 리포트 생성 실패: " + e.getMessage());
-        e.printStackTrace();
-        // 리포트 생성 실패해도 UserCharacter 저장은 성공으로 처리
     }
 }
-}
@@ -13,7 +13,7 @@ public class AuthService {
     private final UserRepository userRepository;
 
     public User login(LoginRequest request) {
-        return userRepository.findByUserId(request.getUserId())
+        return userRepository.findByUserIdAndDeletedAtIsNull(request.getUserId())
                 .filter(user -> user.getPassword().equals(request.getPassword()))
                 .orElse(null);
     }
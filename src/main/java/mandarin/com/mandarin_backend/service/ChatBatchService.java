@@ -0,0 +1,271 @@
+package mandarin.com.mandarin_backend.service;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import mandarin.com.mandarin_backend.config.ChatBatchProperties;
+import mandarin.com.mandarin_backend.dto.ChatBatchAlternativeDto;
+import mandarin.com.mandarin_backend.dto.ChatLogDto;
+import mandarin.com.mandarin_backend.dto.ChatResponseDto;
+import mandarin.com.mandarin_backend.exception.ChatBatchConflictException;
+import mandarin.com.mandarin_backend.exception.ChatBatchNotFoundException;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+import reactor.core.Disposable;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.time.Clock;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * 배치 턴 - 후보 메시지 K개에 대한 AI 응답을 동시에 받아 비교하고 하나만 대화에 저장
+ *
+ * - start: 후보마다 /chat 호출을 시작 (배치당 동시에 concurrency개까지, 나머지는 앞선 호출이 끝나면 이어서 보냄)
+ *   후보 K개가 /chat 동시 요청 제한을 한꺼번에 차지해서 다른 사용자의 턴이 503을 받지 않게 함
+ * - awaitAll / stream: 전부 끝난 뒤 한꺼번에, 또는 끝나는 순서대로 응답을 받음
+ * - commit: 고른 후보의 사용자 메시지 + AI 응답만 저장하고 아직 진행 중인 나머지 호출은 취소
+ *
+ * 후보 응답은 메모리에만 보관 (TTL이 지나거나 commit하면 제거, 만료된 배치는 start / stream / commit 때마다 정리)
+ * 후보를 만든 뒤 같은 시뮬레이션의 대화가 진행됐으면 commit은 409 (후보가 최신 대화를 반영하지 못함)
+ *
+ * 메트릭: chat.batch.cancelled (counter, commit/만료로 취소한 후보 호출 수, 아직 보내지 않은 후보 포함), chat.batch.active (gauge)
+ */
+@Service
+public class ChatBatchService {
+
+    private final ChatService chatService;
+    private final ConversationStateCache conversationStateCache;
+    private final ChatBatchProperties properties;
+    private final Clock clock;
+    private final Counter cancelledCounter;
+    private final ConcurrentHashMap<String, Batch> batches = new ConcurrentHashMap<>();
+
+    @Autowired
+    public ChatBatchService(ChatService chatService, ConversationStateCache conversationStateCache,
+                            ChatBatchProperties properties, MeterRegistry meterRegistry) {
+        this(chatService, conversationStateCache, properties, meterRegistry, Clock.systemUTC());
+    }
+
+    ChatBatchService(ChatService chatService, ConversationStateCache conversationStateCache,
+                     ChatBatchProperties properties, MeterRegistry meterRegistry, Clock clock) {
+        this.chatService = chatService;
+        this.conversationStateCache = conversationStateCache;
+        this.properties = properties;
+        this.clock = clock;
+        this.cancelledCounter = Counter.builder("chat.batch.cancelled")
+                .description("후보를 고르거나 만료되어 취소한 /chat 호출 수 (보내기 전 후보 포함)")
+                .register(meterRegistry);
+        Gauge.builder("chat.batch.active", batches, ConcurrentHashMap::size)
+                .description("선택을 기다리는 배치 턴 수")
+                .register(meterRegistry);
+    }
+
+    /**
+     * 후보 메시지마다 /chat 호출을 시작 (동시에 concurrency개까지)
+     *
+     * @param simulationId 시뮬레이션 ID
+     * @param candidates   후보 사용자 메시지 (1 ~ maxCandidates개)
+     * @param history      이전 대화 내역 (/send와 동일)
+     */
+    public Batch start(Long simulationId, List<String> candidates, List<ChatLogDto> history) {
+        if (candidates == null || candidates.isEmpty()) {
+            throw new IllegalArgumentException("candidates는 필수입니다.");
+        }
+        if (candidates.size() > properties.getMaxCandidates()) {
+            throw new IllegalArgumentException("후보는 최대 " + properties.getMaxCandidates() + "개까지 보낼 수 있습니다.");
+        }
+        if (candidates.stream().anyMatch(candidate -> candidate == null || candidate.trim().isEmpty())) {
+            throw new IllegalArgumentException("빈 후보 메시지는 보낼 수 없습니다.");
+        }
+        evictExpired();
+
+        ConversationStateCache.ConversationState state = conversationStateCache.get(simulationId);
+        Batch batch = new Batch(UUID.randomUUID().toString(), simulationId, List.copyOf(candidates),
+                state.currentSequence(), clock.millis());
+        List<Mono<Void>> calls = new ArrayList<>();
+        for (String candidate : batch.candidates) {
+            CompletableFuture<ChatResponseDto> reply = new CompletableFuture<>();
+            batch.replies.add(reply);
+            // 후보 하나가 실패해도 나머지 후보 호출은 계속 진행
+            calls.add(chatService.requestReply(state, candidate, history)
+                    .doOnNext(reply::complete)
+                    .doOnSuccess(response -> reply.complete(null))
+                    .doOnError(reply::completeExceptionally)
+                    .onErrorResume(error -> Mono.empty())
+                    .then());
+        }
+        batch.calls = Flux.merge(Flux.fromIterable(calls), Math.max(1, properties.getConcurrency())).subscribe();
+        batches.put(batch.batchId, batch);
+
+        System.out.println("[ChatBatch] 후보 " + candidates.size() + "개 요청 - 시뮬레이션ID: " + simulationId
+                + ", batchId: " + batch.batchId);
+        return batch;
+    }
+
+    /**
+     * 모든 후보의 응답이 끝날 때까지 기다렸다가 요청 순서대로 반환 (실패한 후보는 error에 사유)
+     * 각 호출은 /chat 정책의 타임아웃을 받으므로 무한히 기다리지 않음
+     */
+    public List<ChatBatchAlternativeDto> awaitAll(Batch batch) {
+        CompletableFuture.allOf(batch.replies.toArray(new CompletableFuture[0]))
+                .handle((ignored, error) -> null)
+                .join();
+        List<ChatBatchAlternativeDto> alternatives = new ArrayList<>();
+        for (int i = 0; i < batch.replies.size(); i++) {
+            alternatives.add(toAlternative(batch, i, batch.replies.get(i)));
+        }
+        return alternatives;
+    }
+
+    /**
+     * 후보 응답을 끝나는 순서대로 내보냄
+     * 스트림 구독을 끊어도 호출은 취소되지 않음 (commit 또는 만료 때 취소)
+     */
+    public Flux<ChatBatchAlternativeDto> stream(Batch batch) {
+        evictExpired();
+        List<Mono<ChatBatchAlternativeDto>> alternatives = new ArrayList<>();
+        for (int i = 0; i < batch.replies.size(); i++) {
+            int index = i;
+            CompletableFuture<ChatResponseDto> reply = batch.replies.get(i);
+            alternatives.add(Mono.fromFuture(reply, true)
+                    .then(Mono.fromCallable(() -> toAlternative(batch, index, reply)))
+                    .onErrorResume(error -> Mono.fromCallable(() -> toAlternative(batch, index, reply))));
+        }
+        return Flux.merge(alternatives);
+    }
+
+    /**
+     * 후보 하나를 골라 대화에 저장하고 나머지 호출은 취소
+     * 고른 후보의 응답이 아직 오지 않았으면 그 응답만 기다림
+     * (같은 시뮬레이션의 다른 턴과 섞이지 않도록 SimulationMailbox 안에서 호출)
+     *
+     * @return 저장한 AI 응답
+     */
+    public ChatResponseDto commit(String batchId, int index) {
+        evictExpired();
+        Batch batch = batches.get(batchId);
+        if (batch == null || isExpired(batch)) {
+            throw new ChatBatchNotFoundException("배치 턴을 찾을 수 없거나 만료되었습니다: " + batchId);
+        }
+        if (index < 0 || index >= batch.candidates.size()) {
+            throw new IllegalArgumentException("없는 후보입니다: " + index);
+        }
+
+        ChatResponseDto reply;
+        try {
+            reply = batch.replies.get(index).join();
+        } catch (CompletionException e) {
+            // 고른 후보가 실패한 경우 배치는 그대로 두고 다른 후보를 고를 수 있게 함
+            if (e.getCause() instanceof RuntimeException runtimeException) {
+                throw runtimeException;
+            }
+            throw e;
+        }
+        if (reply == null || reply.getReply() == null) {
+            throw new IllegalStateException("선택한 후보에 AI 응답이 없습니다: " + index);
+        }
+
+        if (!batches.remove(batchId, batch)) {
+            throw new ChatBatchNotFoundException("이미 선택된 배치 턴입니다: " + batchId);
+        }
+        cancel(batch);
+
+        long current = conversationStateCache.get(batch.simulationId).currentSequence();
+        if (current != batch.baseSequence) {
+            throw new ChatBatchConflictException("후보를 만든 뒤 대화가 진행되었습니다. 다시 요청해 주세요.");
+        }
+
+        System.out.println("[ChatBatch] 후보 선택 - 시뮬레이션ID: " + batch.simulationId
+                + ", batchId: " + batchId + ", index: " + index);
+        return chatService.commitTurn(batch.simulationId, batch.candidates.get(index), reply);
+    }
+
+    /**
+     * 배치 턴의 시뮬레이션 ID (commit을 SimulationMailbox에 넣을 때 사용)
+     */
+    public Long simulationIdOf(String batchId) {
+        Batch batch = batches.get(batchId);
+        if (batch == null) {
+            throw new ChatBatchNotFoundException("배치 턴을 찾을 수 없거나 만료되었습니다: " + batchId);
+        }
+        return batch.simulationId;
+    }
+
+    /**
+     * 선택을 기다리는 배치 턴 수
+     */
+    public int activeCount() {
+        return batches.size();
+    }
+
+    private void evictExpired() {
+        batches.values().removeIf(batch -> {
+            if (!isExpired(batch)) {
+                return false;
+            }
+            cancel(batch);
+            return true;
+        });
+    }
+
+    private boolean isExpired(Batch batch) {
+        return clock.millis() - batch.createdAt >= properties.getTtl().toMillis();
+    }
+
+    private void cancel(Batch batch) {
+        // 진행 중인 호출과 아직 보내지 않은 후보를 함께 취소
+        batch.calls.dispose();
+        for (CompletableFuture<ChatResponseDto> reply : batch.replies) {
+            if (reply.cancel(false)) {
+                cancelledCounter.increment();
+            }
+        }
+    }
+
+    private static ChatBatchAlternativeDto toAlternative(Batch batch, int index,
+                                                         CompletableFuture<ChatResponseDto> reply) {
+        ChatBatchAlternativeDto.ChatBatchAlternativeDtoBuilder alternative = ChatBatchAlternativeDto.builder()
+                .index(index)
+                .userMessage(batch.candidates.get(index));
+        try {
+            ChatResponseDto response = reply.join();
+            return alternative.reply(response != null ? response.getReply() : null).build();
+        } catch (Exception e) {
+            Throwable cause = e instanceof CompletionException && e.getCause() != null ? e.getCause() : e;
+            return alternative.error(cause.getMessage() != null ? cause.getMessage() : cause.getClass().getSimpleName())
+                    .build();
+        }
+    }
+
+    /**
+     * 진행 중인 배치 턴 하나 (후보 / 응답 future / 후보 호출 전체의 구독)
+     */
+    public static final class Batch {
+
+        private final String batchId;
+        private final Long simulationId;
+        private final List<String> candidates;
+        private final long baseSequence;
+        private final long createdAt;
+        private final List<CompletableFuture<ChatResponseDto>> replies = new ArrayList<>();
+        private Disposable calls;
+
+        private Batch(String batchId, Long simulationId, List<String> candidates, long baseSequence, long createdAt) {
+            this.batchId = batchId;
+            this.simulationId = simulationId;
+            this.candidates = candidates;
+            this.baseSequence = baseSequence;
+            this.createdAt = createdAt;
+        }
+
+        public String getBatchId() {
+            return batchId;
+        }
+    }
+}
@@ -3,13 +3,19 @@ package mandarin.com.mandarin_backend.service;
 import lombok.RequiredArgsConstructor;
 import mandarin.com.mandarin_backend.dto.ChatReportCreateRequestDto;
 import mandarin.com.mandarin_backend.dto.ChatReportResponseDto;
+import mandarin.com.mandarin_backend.dto.CursorPageResponseDto;
 import mandarin.com.mandarin_backend.entity.*;
 import mandarin.com.mandarin_backend.repository.*;
+import mandarin.com.mandarin_backend.util.KeysetCursor;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
 import mandarin.com.mandarin_backend.dto.ChatReportAvgResponseDto;
 
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
 import java.util.stream.Collectors;
 
 @Service
@@ -20,10 +26,12 @@ public class ChatReportService {
     private final SimulationRepository simulationRepository;
     private final UserRepository userRepository;
     private final ChatReportAvgRepository chatReportAvgRepository;
+    private final ChatReportContentRepository chatReportContentRepository;
 
     // ----------------------------
     // 1. ChatReport 단건 조회
     // ----------------------------
+    @Transactional(readOnly = true)
     public ChatReportResponseDto getChatReportById(Integer id) {
         ChatReport report = chatReportRepository.findById(id)
                 .orElseThrow(() -> new IllegalArgumentException("리포트 정보가 없습니다."));
@@ -34,35 +42,89 @@ public class ChatReportService {
     // 2. 유저별 ChatReport 리스트 조회
     // ----------------------------
     public List<ChatReportResponseDto> getChatReportsByUserId(Long userId) {
-        List<ChatReport> list = chatReportRepository.findByUser_Id(userId);
+        List<ChatReportRepository.ListItem> list = chatReportRepository.findListItemsByUserId(userId);
 
         if (list.isEmpty()) {
             throw new IllegalArgumentException("해당 유저의 리포트가 없습니다.");
         }
 
-        return list.stream()
-                .map(ChatReportResponseDto::fromEntity)
-                .collect(Collectors.toList());
+        return withContents(list);
     }
 
     // ----------------------------
     // 3. 캐릭터별 ChatReport 리스트 조회
     // ----------------------------
     public List<ChatReportResponseDto> getChatReportsByCharacterId(Long characterId) {
-        List<ChatReport> list = chatReportRepository.findByCharacter_CharacterId(characterId);
+        List<ChatReportRepository.ListItem> list = chatReportRepository.findListItemsByCharacterId(characterId);
 
         if (list.isEmpty()) {
             throw new IllegalArgumentException("해당 캐릭터의 리포트가 없습니다.");
         }
 
+        return withContents(list);
+    }
+
+    /**
+     * 목록 항목에 리포트 내용을 붙임
+     * 지표별 행 3개가 같은 내용을 참조하므로 서로 다른 내용만 한 번의 IN 조회로 읽음
+     */
+    private List<ChatReportResponseDto> withContents(List<ChatReportRepository.ListItem> list) {
+        Map<Long, String> contents = contentsOf(list);
+
         return list.stream()
-                .map(ChatReportResponseDto::fromEntity)
+                .map(item -> ChatReportResponseDto.fromListItem(item, contents.get(item.getContentId())))
                 .collect(Collectors.toList());
     }
 
+    private Map<Long, String> contentsOf(List<ChatReportRepository.ListItem> list) {
+        if (list.isEmpty()) {
+            return Map.of();
+        }
+        Set<Long> contentIds = list.stream()
+                .map(ChatReportRepository.ListItem::getContentId)
+                .collect(Collectors.toSet());
+        return chatReportContentRepository.findContentItems(contentIds).stream()
+                .collect(Collectors.toMap(ChatReportContentRepository.ContentItem::getChatReportContentId,
+                        ChatReportContentRepository.ContentItem::getReportContent));
+    }
+
+    // ----------------------------
+    // 유저별 / 캐릭터별 ChatReport 페이지 조회 (최근 생성 순, 커서 기반)
+    // 리포트 하나의 지표 행이 페이지 경계에서 나뉠 수 있으며 다음 페이지에서 이어서 받음
+    // ----------------------------
+    @Transactional(readOnly = true)
+    public CursorPageResponseDto<ChatReportResponseDto> getChatReportPageByUserId(Long userId, String cursor, Integer size) {
+        KeysetCursor.Position after = KeysetCursor.decode(cursor, true);
+        int pageSize = KeysetCursor.pageSize(size);
+        return toPage(chatReportRepository.findListItemPageByUserId(
+                userId, after.time(), toReportId(after), PageRequest.of(0, pageSize + 1)), pageSize);
+    }
+
+    @Transactional(readOnly = true)
+    public CursorPageResponseDto<ChatReportResponseDto> getChatReportPageByCharacterId(Long characterId, String cursor,
+                                                                                     Integer size) {
+        KeysetCursor.Position after = KeysetCursor.decode(cursor, true);
+        int pageSize = KeysetCursor.pageSize(size);
+        return toPage(chatReportRepository.findListItemPageByCharacterId(
+                characterId, after.time(), toReportId(after), PageRequest.of(0, pageSize + 1)), pageSize);
+    }
+
+    private CursorPageResponseDto<ChatReportResponseDto> toPage(List<ChatReportRepository.ListItem> rows, int pageSize) {
+        Map<Long, String> contents = contentsOf(rows);
+        return CursorPageResponseDto.of(rows, pageSize,
+                item -> ChatReportResponseDto.fromListItem(item, contents.get(item.getContentId())),
+                item -> KeysetCursor.encode(item.getCreatedAt(), item.getChatReportId()));
+    }
+
+    // chatReportId는 Integer (첫 페이지 기준 위치는 Integer 최댓값으로)
+    private static Integer toReportId(KeysetCursor.Position position) {
+        return (int) Math.min(position.id(), Integer.MAX_VALUE);
+    }
+
     // ----------------------------
     // 4. Chat Report 생성 (POST)
     // ----------------------------
+    @Transactional
     public ChatReportResponseDto createChatReport(ChatReportCreateRequestDto request) {
 
         // 1. Simulation 조회
@@ -70,7 +132,7 @@ public class ChatReportService {
                 .orElseThrow(() -> new IllegalArgumentException("Simulation not found"));
 
         // 2. User 조회
-        User user = userRepository.findById(request.getId())
+        User user = userRepository.findByIdAndDeletedAtIsNull(request.getId())
                 .orElseThrow(() -> new IllegalArgumentException("User not found"));
 
         UserCharacter character = simulation.getCharacter();
@@ -83,7 +145,10 @@ public class ChatReportService {
                 .scoreAvg(80)             // TODO: 점수 계산 후 적용
                 .labelKey(1)              // TODO
                 .labelScore(50)           // TODO
-                .reportContent("{}")
+                .content(chatReportContentRepository.save(ChatReportContent.builder()
+                        .simulation(simulation)
+                        .reportContent("{}")
+                        .build()))
                 .build();
 
         chatReportRepository.save(report);
@@ -92,40 +157,14 @@ public class ChatReportService {
         simulation.setIsFinished(true);
         simulationRepository.save(simulation);
 
-        // 5. ChatReportAvg 처리
-        List<ChatReportAvg> avgList = chatReportAvgRepository.findByUser_Id(user.getId());
-
-        // labelKey를 안전하게 F1~F6으로 변환
+        // 5. 사용자 / 라벨별 누적 합계에 더함
         Integer labelKey = report.getLabelKey();
         if (labelKey == null || labelKey < 1 || labelKey > 6) {
             labelKey = 1; // 기본값
         }
-        ChatReportAvg.TotalLabelKey totalLabelKey = ChatReportAvg.TotalLabelKey.valueOf("F" + labelKey);
-
-        if (avgList.isEmpty()) {
-            // 새로 생성
-            ChatReportAvg newAvg = ChatReportAvg.builder()
-                    .chatReport(report)
-                    .user(user)
-                    .avgMandarinScore(report.getScoreAvg())
-                    .totalLabelKey(totalLabelKey)
-                    .totalLabelScore(report.getLabelScore())
-                    .build();
-
-            chatReportAvgRepository.save(newAvg);
-        } else {
-            // 기존 평균 업데이트 (첫 번째 항목 사용)
-            ChatReportAvg avgRow = avgList.get(0);
-
-            int newAvgScore = (avgRow.getAvgMandarinScore() + report.getScoreAvg()) / 2;
-
-            avgRow.setAvgMandarinScore(newAvgScore);
-            avgRow.setChatReport(report);
-            avgRow.setTotalLabelKey(totalLabelKey);
-            avgRow.setTotalLabelScore(report.getLabelScore());
-
-            chatReportAvgRepository.save(avgRow);
-        }
+        chatReportAvgRepository.accumulate(report.getChatReportId(), user.getId(),
+                ChatReportAvg.TotalLabelKey.fromLabelKey(labelKey).name(),
+                report.getLabelScore(), report.getScoreAvg(), report.getCreatedAt());
 
         return ChatReportResponseDto.fromEntity(report);
     }
@@ -140,8 +179,17 @@ public class ChatReportService {
             throw new IllegalArgumentException("해당 유저의 리포트 평균 정보가 없습니다.");
         }
 
+        // 만다린 전체 평균 = 모든 라벨의 score_avg 합계 / 리포트 수 (라벨별 행만 읽고 ChatReport는 다시 집계하지 않음)
+        long scoreAvgSum = 0;
+        long reportCount = 0;
+        for (ChatReportAvg avg : avgList) {
+            scoreAvgSum += avg.getScoreAvgSum();
+            reportCount += avg.getReportCount();
+        }
+        int avgMandarinScore = reportCount == 0 ? 0 : (int) Math.round((double) scoreAvgSum / reportCount);
+
         return avgList.stream()
-                .map(ChatReportAvgResponseDto::fromEntity)
+                .map(avg -> ChatReportAvgResponseDto.fromEntity(avg, avgMandarinScore))
                 .collect(Collectors.toList());
     }
 }
@@ -0,0 +1,257 @@
+package mandarin.com.mandarin_backend.service;
+
+import lombok.RequiredArgsConstructor;
+import mandarin.com.mandarin_backend.config.ConversationMemoryProperties;
+import mandarin.com.mandarin_backend.dto.ChatLogDto;
+import mandarin.com.mandarin_backend.dto.ConversationSummaryResponseDto;
+import mandarin.com.mandarin_backend.entity.Simulation;
+import mandarin.com.mandarin_backend.entity.SimulationMemory;
+import mandarin.com.mandarin_backend.entity.SimulationMessage;
+import mandarin.com.mandarin_backend.repository.SimulationMemoryRepository;
+import mandarin.com.mandarin_backend.repository.SimulationRepository;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.scheduling.annotation.Async;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.web.reactive.function.client.WebClient;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Collectors;
+
+/**
+ * 시뮬레이션 대화 메모리
+ *
+ * /chat에 전체 대화를 보내지 않고 (누적 요약 + 요약 이후 대화)만 보내서
+ * 대화가 길어져도 턴당 DB 조회량/요청 크기/LLM 토큰이 일정하게 유지되도록 함
+ * - 요약 이후 메시지는 모두 보내므로 모든 메시지는 요약이나 윈도우 중 한 곳에 들어 있음
+ * - 최근 윈도우(recentMaxMessages + 토큰 예산) 밖으로 밀려난 메시지가 summarizeEvery개 쌓이면
+ *   백그라운드에서 그 메시지들을 요약에 반영
+ * - 요약은 시뮬레이션별로 Simulation_Memory에 저장
+ */
+@Service
+@RequiredArgsConstructor
+public class ConversationMemoryService {
+
+    private final SimulationRepository simulationRepository;
+    private final SimulationMemoryRepository simulationMemoryRepository;
+    private final SimulationBranchService simulationBranchService;
+    private final WebClient webClient;
+    private final ConversationMemoryProperties properties;
+    private final ApplicationEventPublisher eventPublisher;
+
+    // 같은 시뮬레이션의 요약이 동시에 두 번 돌지 않도록
+    private final Set<Long> summarizing = ConcurrentHashMap.newKeySet();
+
+    /**
+     * /chat에 보낼 대화 맥락
+     *
+     * @param summary 최근 윈도우 이전 대화의 누적 요약 (없으면 null)
+     * @param recent  최근 대화 (오래된 순)
+     */
+    public record ConversationContext(String summary, List<ChatLogDto> recent) {
+    }
+
+    /**
+     * 대화 상태에 들고 있는 메시지 한 개 (요약이 갱신되면 messageId로 요약된 메시지를 덜어냄)
+     */
+    public record Turn(Long messageId, ChatLogDto log) {
+    }
+
+    /**
+     * 새 메시지가 저장됐음을 알리는 이벤트 (트랜잭션 커밋 후 요약 갱신 여부 판단)
+     */
+    public record MessagesAppended(Long simulationId) {
+    }
+
+    /**
+     * 대화 요약이 갱신됐음을 알리는 이벤트 (메모리에 올려 둔 대화 상태에 반영)
+     *
+     * @param summarizedUntilMessageId 요약에 반영된 마지막 메시지 ID
+     */
+    public record SummaryUpdated(Long simulationId, String summary, Long summarizedUntilMessageId) {
+    }
+
+    /**
+     * 누적 요약 + 요약 이후 대화 조회
+     */
+    public ConversationContext load(Long simulationId) {
+        Optional<SimulationMemory> memory = findMemory(simulationId);
+        List<ChatLogDto> unsummarized = loadUnsummarizedTurns(simulationId,
+                memory.map(SimulationMemory::getSummarizedUntilMessageId).orElse(0L)).stream()
+                .map(Turn::log)
+                .collect(Collectors.toList());
+        return window(new ConversationContext(memory.map(SimulationMemory::getSummary).orElse(null), unsummarized));
+    }
+
+    /**
+     * 누적 요약 조회 (없으면 empty)
+     */
+    public Optional<SimulationMemory> findMemory(Long simulationId) {
+        return simulationMemoryRepository.findBySimulation_SimulationId(simulationId);
+    }
+
+    /**
+     * summarizedUntilMessageId 이후 메시지 조회 (오래된 순, 최근 unsummarizedCapacity개까지)
+     * 분기 시뮬레이션이면 모자란 만큼 분기 지점 이전 대화에서 채움
+     */
+    public List<Turn> loadUnsummarizedTurns(Long simulationId, long summarizedUntilMessageId) {
+        List<SimulationMessage> latest = simulationBranchService.loadRecentMessages(
+                simulationId, properties.unsummarizedCapacity());
+
+        List<Turn> turns = new ArrayList<>();
+        for (SimulationMessage message : latest) {
+            if (message.getMessageId() <= summarizedUntilMessageId) {
+                break;
+            }
+            turns.add(new Turn(message.getMessageId(), toChatLog(message)));
+        }
+        Collections.reverse(turns);
+        return turns;
+    }
+
+    /**
+     * /chat에 보낼 대화 윈도우
+     * 요약을 켜면 요약 이후 메시지를 모두 보내고 (요약에도 윈도우에도 없는 메시지가 생기지 않게),
+     * 요약을 끄면 토큰 예산 안의 최근 대화만 보냄
+     */
+    public ConversationContext window(ConversationContext context) {
+        if (properties.isSummaryEnabled()) {
+            return context;
+        }
+        return new ConversationContext(null, fitRecentWindow(context.recent()));
+    }
+
+    /**
+     * 오래된 순 대화 중 토큰 예산 안에 들어가는 최근 부분만 반환 (오래된 순, 요약을 끈 경우 / 요약 시점 판단용)
+     * 가장 최근 메시지는 예산을 넘더라도 항상 포함
+     */
+    public List<ChatLogDto> fitRecentWindow(List<ChatLogDto> turns) {
+        int from = turns.size();
+        int usedTokens = 0;
+        while (from > 0) {
+            int tokens = estimateTokens(turns.get(from - 1).getContent());
+            if (from < turns.size() && usedTokens + tokens > properties.getRecentTokenBudget()) {
+                break;
+            }
+            usedTokens += tokens;
+            from--;
+        }
+        return new ArrayList<>(turns.subList(from, turns.size()));
+    }
+
+    /**
+     * 메시지 저장 트랜잭션이 커밋된 뒤 백그라운드에서 요약 갱신
+     */
+    @Async("backgroundTaskExecutor")
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT)
+    public void onMessagesAppended(MessagesAppended event) {
+        if (!properties.isSummaryEnabled() || !summarizing.add(event.simulationId())) {
+            return;
+        }
+        try {
+            // 요약이 밀려 있으면 (이전 실패 등) 윈도우 밖 메시지가 summarizeEvery개 미만이 될 때까지 이어서 반영
+            boolean updated;
+            do {
+                updated = summarizeIfNeeded(event.simulationId());
+            } while (updated);
+        } catch (Exception e) {
+            // 요약 실패는 대화에 영향 없음 (다음 턴에 다시 시도)
+            System.err.println("[ConversationMemory] 요약 갱신 실패 - 시뮬레이션ID: " + event.simulationId()
+                    + ", 오류: " + e.getMessage());
+        } finally {
+            summarizing.remove(event.simulationId());
+        }
+    }
+
+    /**
+     * 요약 이후 메시지(분기로 이어받은 구간 포함) 중 최근 윈도우(recentMaxMessages개 + 토큰 예산) 밖에 있는 것이 summarizeEvery개 이상이면
+     * 그 메시지를 모두 요약에 반영 (윈도우에 남는 메시지만 요약 밖에 남음)
+     * LLM 호출 동안 트랜잭션/커넥션을 잡고 있지 않도록 조회와 저장을 나눠서 수행
+     *
+     * @return 요약을 갱신했으면 true
+     */
+    public boolean summarizeIfNeeded(Long simulationId) {
+        SimulationMemory memory = simulationMemoryRepository.findBySimulation_SimulationId(simulationId).orElse(null);
+        long lastMessageId = memory != null ? memory.getSummarizedUntilMessageId() : 0L;
+
+        // 분기 시뮬레이션이면 이어받은 구간 중 요약에 없는 부분부터
+        List<SimulationMessage> unsummarized = simulationBranchService.loadMessagesAfter(
+                simulationId, lastMessageId, properties.unsummarizedCapacity());
+        int foldable = unsummarized.size() - recentWindowSize(unsummarized);
+        if (foldable < properties.getSummarizeEvery()) {
+            return false;
+        }
+        List<SimulationMessage> toFold = unsummarized.subList(0, foldable);
+
+        Simulation simulation = simulationRepository.findWithCharacterBySimulationId(simulationId)
+                .orElseThrow(() -> new IllegalArgumentException("시뮬레이션을 찾을 수 없습니다: " + simulationId));
+
+        Map<String, Object> requestBody = new HashMap<>();
+        requestBody.put("previous_summary", memory != null ? memory.getSummary() : null);
+        requestBody.put("character_name", simulation.getCharacter().getCharacterName());
+        requestBody.put("messages", toFold.stream()
+                .map(ConversationMemoryService::toChatLog)
+                .map(log -> Map.of("role", log.getRole(), "content", log.getContent()))
+                .collect(Collectors.toList()));
+
+        ConversationSummaryResponseDto response = webClient.post()
+                .uri("/summarize-conversation")
+                .bodyValue(requestBody)
+                .retrieve()
+                .bodyToMono(ConversationSummaryResponseDto.class)
+                .block();
+
+        if (response == null || response.getSummary() == null) {
+            throw new RuntimeException("대화 요약 응답이 없습니다.");
+        }
+
+        if (memory == null) {
+            memory = SimulationMemory.builder().simulation(simulation).build();
+        }
+        memory.setSummary(response.getSummary());
+        memory.setSummarizedUntilMessageId(toFold.get(toFold.size() - 1).getMessageId());
+        memory.setSummarizedMessageCount(memory.getSummarizedMessageCount() + toFold.size());
+        simulationMemoryRepository.save(memory);
+        eventPublisher.publishEvent(new SummaryUpdated(simulationId, memory.getSummary(),
+                memory.getSummarizedUntilMessageId()));
+
+        System.out.println("[ConversationMemory] 요약 갱신 - 시뮬레이션ID: " + simulationId
+                + ", 반영 메시지: " + toFold.size() + ", 누적: " + memory.getSummarizedMessageCount());
+        return true;
+    }
+
+    /**
+     * 오래된 순 메시지 중 최근 윈도우(최근 recentMaxMessages개 중 토큰 예산 안)에 들어가는 개수
+     */
+    private int recentWindowSize(List<SimulationMessage> messages) {
+        List<ChatLogDto> latest = messages
+                .subList(Math.max(0, messages.size() - properties.getRecentMaxMessages()), messages.size())
+                .stream()
+                .map(ConversationMemoryService::toChatLog)
+                .collect(Collectors.toList());
+        return fitRecentWindow(latest).size();
+    }
+
+    private static ChatLogDto toChatLog(SimulationMessage message) {
+        return ChatLogDto.builder()
+                .role("assistant".equals(message.getSender()) ? "assistant" : "user")
+                .content(message.getContent())
+                .build();
+    }
+
+    /**
+     * 토큰 수 추정 (정확한 토크나이저 대신 글자 수 기반)
+     */
+    int estimateTokens(String content) {
+        int length = content != null ? content.length() : 0;
+        return (int) Math.ceil(length / properties.getCharsPerToken()) + properties.getMessageOverheadTokens();
+    }
+}
@@ -0,0 +1,454 @@
+package mandarin.com.mandarin_backend.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.util.RawValue;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import mandarin.com.mandarin_backend.config.AiRequestWriter;
+import mandarin.com.mandarin_backend.config.ConversationMemoryProperties;
+import mandarin.com.mandarin_backend.dto.ChatLogDto;
+import mandarin.com.mandarin_backend.dto.SpeechStyleDto;
+import mandarin.com.mandarin_backend.dto.UserPersonaDto;
+import mandarin.com.mandarin_backend.entity.Simulation;
+import mandarin.com.mandarin_backend.entity.SimulationMemory;
+import mandarin.com.mandarin_backend.entity.UserCharacter;
+import mandarin.com.mandarin_backend.repository.SimulationMessageRepository;
+import mandarin.com.mandarin_backend.repository.SimulationRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Clock;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Collectors;
+
+/**
+ * 진행 중인 시뮬레이션의 대화 상태 캐시 (크기 제한 + 마지막 사용 후 TTL)
+ *
+ * 턴마다 Simulation/UserCharacter 조회, 페르소나 JSON 파싱/변환, 최근 대화 조회를 반복하지 않도록
+ * Python 형식으로 변환 + 직렬화해 둔 persona / simulation_context JSON, 누적 요약, 요약 이후 대화를 메모리에 유지
+ * - 캐시 히트면 한 턴 동안 DB 조회 없이 메시지 INSERT + lastUpdateTime UPDATE만 수행
+ * - 메시지는 DB에 먼저 저장하고 트랜잭션이 커밋된 뒤 링 버퍼에 추가 (롤백되면 상태를 버리고 다음 턴에 다시 로드)
+ * - 캐릭터 정보가 바뀌거나 삭제되면 해당 캐릭터의 상태를 제거
+ * - 메시지 순번(sequenceNo)은 로드할 때 DB의 마지막 순번에서 이어서 발급 (같은 시뮬레이션의 턴은 SimulationMailbox로 직렬화)
+ */
+@Service
+public class ConversationStateCache {
+
+    private final SimulationRepository simulationRepository;
+    private final SimulationMessageRepository simulationMessageRepository;
+    private final ConversationMemoryService conversationMemoryService;
+    private final ObjectMapper objectMapper;
+    private final AiRequestWriter aiRequestWriter;
+    private final ConversationMemoryProperties properties;
+    private final MeterRegistry meterRegistry;
+    private final Clock clock;
+    private final LinkedHashMap<Long, ConversationState> states;
+
+    @Autowired
+    public ConversationStateCache(SimulationRepository simulationRepository,
+                                  SimulationMessageRepository simulationMessageRepository,
+                                  ConversationMemoryService conversationMemoryService,
+                                  ObjectMapper objectMapper,
+                                  AiRequestWriter aiRequestWriter,
+                                  ConversationMemoryProperties properties,
+                                  MeterRegistry meterRegistry) {
+        this(simulationRepository, simulationMessageRepository, conversationMemoryService, objectMapper, aiRequestWriter, properties, meterRegistry,
+                Clock.systemUTC());
+    }
+
+    ConversationStateCache(SimulationRepository simulationRepository,
+                           SimulationMessageRepository simulationMessageRepository,
+                           ConversationMemoryService conversationMemoryService,
+                           ObjectMapper objectMapper,
+                           AiRequestWriter aiRequestWriter,
+                           ConversationMemoryProperties properties,
+                           MeterRegistry meterRegistry,
+                           Clock clock) {
+        this.simulationRepository = simulationRepository;
+        this.simulationMessageRepository = simulationMessageRepository;
+        this.conversationMemoryService = conversationMemoryService;
+        this.objectMapper = objectMapper;
+        this.aiRequestWriter = aiRequestWriter;
+        this.properties = properties;
+        this.meterRegistry = meterRegistry;
+        this.clock = clock;
+        this.states = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Long, ConversationState> eldest) {
+                return size() > Math.max(1, properties.getStateCacheMaxEntries());
+            }
+        };
+        Gauge.builder("simulation.state-cache.size", this, ConversationStateCache::size)
+                .description("메모리에 올려 둔 시뮬레이션 대화 상태 수")
+                .register(meterRegistry);
+    }
+
+    /**
+     * 시뮬레이션의 대화 상태 조회 (없거나 만료됐으면 DB에서 로드)
+     */
+    public ConversationState get(Long simulationId) {
+        ConversationState state = lookup(simulationId);
+        if (state != null) {
+            meterRegistry.counter("simulation.state-cache.hits").increment();
+            return state;
+        }
+        meterRegistry.counter("simulation.state-cache.misses").increment();
+
+        // DB 조회 / 파싱 동안 다른 시뮬레이션의 턴을 막지 않도록 락 밖에서 로드
+        ConversationState loaded = load(simulationId);
+        synchronized (this) {
+            ConversationState existing = states.get(simulationId);
+            if (existing != null && !isExpired(existing)) {
+                existing.touch(clock.millis());
+                return existing;
+            }
+            states.put(simulationId, loaded);
+        }
+        return loaded;
+    }
+
+    /**
+     * 저장한 메시지를 최근 대화에 추가
+     * 트랜잭션 안이면 커밋된 뒤에 추가하고, 롤백되면 상태를 제거해서 DB와 어긋나지 않게 함
+     */
+    public void appendAfterCommit(Long simulationId, Long messageId, String role, String content) {
+        ConversationMemoryService.Turn turn = new ConversationMemoryService.Turn(messageId,
+                ChatLogDto.builder().role(role).content(content).build());
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            append(simulationId, turn);
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCompletion(int status) {
+                if (status == STATUS_COMMITTED) {
+                    append(simulationId, turn);
+                } else {
+                    evict(simulationId);
+                }
+            }
+        });
+    }
+
+    /**
+     * 시뮬레이션 상태 제거
+     */
+    public synchronized void evict(Long simulationId) {
+        states.remove(simulationId);
+    }
+
+    /**
+     * 캐릭터 정보가 바뀌거나 삭제될 때 해당 캐릭터의 시뮬레이션 상태 제거
+     * 커밋 전에 다른 턴이 이전 값을 다시 올려 둘 수 있으므로 트랜잭션 안이면 커밋 후에도 한 번 더 제거
+     */
+    public void evictCharacter(Long characterId) {
+        removeCharacter(characterId);
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCompletion(int status) {
+                    removeCharacter(characterId);
+                }
+            });
+        }
+    }
+
+    /**
+     * 백그라운드에서 대화 요약이 갱신되면 메모리의 요약도 교체하고 요약된 대화는 덜어냄
+     */
+    @EventListener
+    public void onSummaryUpdated(ConversationMemoryService.SummaryUpdated event) {
+        ConversationState state;
+        synchronized (this) {
+            state = states.get(event.simulationId());
+        }
+        if (state != null) {
+            state.summarized(event.summary(), event.summarizedUntilMessageId());
+        }
+    }
+
+    public synchronized int size() {
+        return states.size();
+    }
+
+    private synchronized ConversationState lookup(Long simulationId) {
+        ConversationState state = states.get(simulationId);
+        if (state == null) {
+            return null;
+        }
+        if (isExpired(state)) {
+            states.remove(simulationId);
+            return null;
+        }
+        state.touch(clock.millis());
+        return state;
+    }
+
+    private void append(Long simulationId, ConversationMemoryService.Turn turn) {
+        ConversationState state;
+        synchronized (this) {
+            state = states.get(simulationId);
+        }
+        if (state != null) {
+            state.append(turn);
+        }
+    }
+
+    private synchronized void removeCharacter(Long characterId) {
+        states.values().removeIf(state -> characterId.equals(state.getCharacterId()));
+    }
+
+    private boolean isExpired(ConversationState state) {
+        return clock.millis() - state.lastAccessAt >= properties.getStateCacheTtl().toMillis();
+    }
+
+    private ConversationState load(Long simulationId) {
+        Simulation simulation = simulationRepository.findWithCharacterAndOriginBySimulationId(simulationId)
+                .orElseThrow(() -> new IllegalArgumentException("시뮬레이션을 찾을 수 없습니다: " + simulationId));
+        UserCharacter character = simulation.getCharacter();
+
+        // 분기 시뮬레이션은 페르소나를 복사하지 않고 최초 시뮬레이션(origin)의 것을 사용
+        Simulation personaSource = simulation.getOrigin() != null ? simulation.getOrigin() : simulation;
+        UserPersonaDto persona = parsePersonaFromJson(personaSource.getCharacterPersona());
+
+        ConversationState state = new ConversationState(
+                simulationId,
+                character.getCharacterId(),
+                aiRequestWriter.rawJson(convertPersonaForPython(persona)),
+                aiRequestWriter.rawJson(buildSimulationContext(simulation, character)),
+                properties.unsummarizedCapacity(),
+                clock.millis());
+        Optional<SimulationMemory> memory = conversationMemoryService.findMemory(simulationId);
+        state.summarized(memory.map(SimulationMemory::getSummary).orElse(null),
+                memory.map(SimulationMemory::getSummarizedUntilMessageId).orElse(0L));
+        conversationMemoryService.loadUnsummarizedTurns(simulationId, state.summarizedUntilMessageId)
+                .forEach(state::append);
+        // 분기 시뮬레이션의 순번은 이어받은 메시지 수 다음부터
+        long inherited = simulation.getBranchMessageCount() != null ? simulation.getBranchMessageCount() : 0L;
+        state.lastSequence.set(Math.max(simulationMessageRepository.findMaxSequenceNo(simulationId), inherited));
+        return state;
+    }
+
+    /**
+     * JSON 문자열에서 UserPersonaDto 파싱
+     */
+    private UserPersonaDto parsePersonaFromJson(String personaJson) {
+        try {
+            return objectMapper.readValue(personaJson, UserPersonaDto.class);
+        } catch (JsonProcessingException e) {
+            throw new RuntimeException("페르소나 JSON 파싱 실패: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Python 서버 규격에 맞춰 페르소나 데이터를 변환 (이름, 말투 + Null 안전 리액션)
+     */
+    private Map<String, Object> convertPersonaForPython(UserPersonaDto personaDto) {
+        Map<String, Object> map = new HashMap<>();
+        map.put("name", personaDto.getName());
+
+        if (personaDto.getSpeechStyle() != null) {
+            Map<String, Object> speechStyleMap = new HashMap<>();
+            SpeechStyleDto style = personaDto.getSpeechStyle();
+
+            speechStyleMap.put("politeness_level", style.getPolitenessLevel());
+            speechStyleMap.put("tone", style.getTone());
+            speechStyleMap.put("common_endings", style.getCommonEndings());
+            speechStyleMap.put("frequent_interjections", style.getFrequentInterjections());
+            speechStyleMap.put("distinctive_habits", style.getDistinctiveHabits());
+            speechStyleMap.put("sample_sentences", style.getSampleSentences());
+
+            if (style.getEmojiUsage() != null) {
+                Map<String, Object> emojiMap = new HashMap<>();
+                emojiMap.put("frequency", style.getEmojiUsage().getFrequency());
+                emojiMap.put("preferred_type", style.getEmojiUsage().getPreferredType());
+                emojiMap.put("laugh_sound", style.getEmojiUsage().getLaughSound());
+                speechStyleMap.put("emoji_usage", emojiMap);
+            }
+            map.put("speech_style", speechStyleMap);
+        }
+
+        // 반응 패턴 - Python ReactionTrigger 모델에 맞춰 필드 모두 전송, null이면 빈 값으로 대치
+        if (personaDto.getReactionPatterns() != null) {
+            Map<String, Object> reactionPatterns = new HashMap<>();
+
+            List<Map<String, Object>> positiveList = new ArrayList<>();
+            if (personaDto.getReactionPatterns().getPositiveTriggers() != null) {
+                for (var item : personaDto.getReactionPatterns().getPositiveTriggers()) {
+                    Map<String, Object> pyItem = new HashMap<>();
+                    pyItem.put("keyword", item.getKeyword() != null ? item.getKeyword() : "");
+                    pyItem.put("trigger", item.getTrigger() != null ? item.getTrigger() : "");
+                    pyItem.put("reaction", item.getReaction() != null ? item.getReaction() : "");
+                    pyItem.put("cause", item.getCause() != null ? item.getCause() : "");
+                    pyItem.put("solution", item.getSolution() != null ? item.getSolution() : "");
+                    pyItem.put("example", item.getExample() != null ? item.getExample() : "");
+                    pyItem.put("danger_level", item.getDangerLevel() != null ? item.getDangerLevel() : 0);
+                    positiveList.add(pyItem);
+                }
+            }
+            reactionPatterns.put("positive_triggers", positiveList);
+
+            List<Map<String, Object>> negativeList = new ArrayList<>();
+            if (personaDto.getReactionPatterns().getNegativeTriggers() != null) {
+                for (var item : personaDto.getReactionPatterns().getNegativeTriggers()) {
+                    Map<String, Object> pyItem = new HashMap<>();
+                    pyItem.put("keyword", item.getKeyword() != null ? item.getKeyword() : "");
+                    pyItem.put("trigger", item.getTrigger() != null ? item.getTrigger() : "");
+                    pyItem.put("reaction", item.getReaction() != null ? item.getReaction() : "");
+                    pyItem.put("cause", item.getCause() != null ? item.getCause() : "");
+                    pyItem.put("solution", item.getSolution() != null ? item.getSolution() : "");
+                    pyItem.put("example", item.getExample() != null ? item.getExample() : "");
+                    pyItem.put("danger_level", item.getDangerLevel() != null ? item.getDangerLevel() : 0);
+                    negativeList.add(pyItem);
+                }
+            }
+            reactionPatterns.put("negative_triggers", negativeList);
+
+            map.put("reaction_patterns", reactionPatterns);
+        }
+
+        return map;
+    }
+
+    /**
+     * /chat의 simulation_context (Python이 기대하는 타입/기본값에 맞춤)
+     */
+    private Map<String, Object> buildSimulationContext(Simulation simulation, UserCharacter character) {
+        // 대화 요약(history_sum)은 개인 대화 내용이므로 로그에 남기지 않음
+        System.out.println("[Chat] 시뮬레이션 컨텍스트 - 시뮬레이션ID: " + simulation.getSimulationId()
+            + ", 나이: " + character.getCharacterAge()
+            + ", 관계: " + character.getRelationType()
+            + ", 만난 날짜: " + character.getMeetDate()
+            + ", 러브타입: " + character.getLoveType()
+            + ", 목적: " + simulation.getPurpose()
+            + ", 카테고리: " + simulation.getCategory());
+
+        Map<String, Object> simulationContext = new HashMap<>();
+        simulationContext.put("character_age", character.getCharacterAge());
+        simulationContext.put("relation_type", character.getRelationType());
+        simulationContext.put("meet_date",
+                character.getMeetDate() != null ? character.getMeetDate().toString() : null);
+        simulationContext.put("love_type",
+                character.getLoveType() != null ? character.getLoveType() : 16);
+        simulationContext.put("history_sum", character.getHistorySum());
+        simulationContext.put("purpose",
+                simulation.getPurpose() != null ? simulation.getPurpose().name() : "FUTURE");
+        simulationContext.put("category",
+                simulation.getCategory() != null ? simulation.getCategory().name() : "RELATION_TENSION");
+        return simulationContext;
+    }
+
+    /**
+     * 시뮬레이션 하나의 대화 상태
+     * persona / simulationContext는 로드할 때 한 번만 직렬화한 JSON (요청마다 그대로 끼워 넣음)
+     * 요약 이후 대화는 capacity개까지만 유지 (오래된 것부터 밀려남, 요약이 갱신되면 요약된 만큼 덜어냄)
+     */
+    public static final class ConversationState {
+
+        private final Long simulationId;
+        private final Long characterId;
+        private final RawValue persona;
+        private final RawValue simulationContext;
+        private final int capacity;
+        private final ArrayDeque<ConversationMemoryService.Turn> recent;
+        private final AtomicLong lastSequence = new AtomicLong();
+        private String summary;
+        private long summarizedUntilMessageId;
+        private volatile long lastAccessAt;
+
+        ConversationState(Long simulationId, Long characterId, RawValue persona,
+                          RawValue simulationContext, int capacity, long now) {
+            this.simulationId = simulationId;
+            this.characterId = characterId;
+            this.persona = persona;
+            this.simulationContext = simulationContext;
+            this.capacity = Math.max(1, capacity);
+            this.recent = new ArrayDeque<>(this.capacity);
+            this.lastAccessAt = now;
+        }
+
+        public Long getSimulationId() {
+            return simulationId;
+        }
+
+        public Long getCharacterId() {
+            return characterId;
+        }
+
+        public RawValue getPersona() {
+            return persona;
+        }
+
+        public RawValue getSimulationContext() {
+            return simulationContext;
+        }
+
+        public synchronized String getSummary() {
+            return summary;
+        }
+
+        /**
+         * 최근 대화 스냅샷 (오래된 순)
+         */
+        public synchronized List<ChatLogDto> recentTurns() {
+            return recent.stream().map(ConversationMemoryService.Turn::log).collect(Collectors.toList());
+        }
+
+        /**
+         * 누적 요약 + 요약 이후 대화 스냅샷 (요약 갱신과 섞이지 않게 함께 읽음)
+         */
+        public synchronized ConversationMemoryService.ConversationContext context() {
+            return new ConversationMemoryService.ConversationContext(summary, recentTurns());
+        }
+
+        /**
+         * 저장할 메시지의 다음 순번 발급
+         * 롤백되면 상태가 제거되고 다시 로드할 때 DB의 마지막 순번부터 이어감 (중간 번호가 비어도 순서는 유지)
+         */
+        public long nextSequence() {
+            return lastSequence.incrementAndGet();
+        }
+
+        /**
+         * 마지막으로 발급한 순번 (그 사이 대화가 진행됐는지 확인용)
+         */
+        public long currentSequence() {
+            return lastSequence.get();
+        }
+
+        synchronized void append(ConversationMemoryService.Turn turn) {
+            if (isSummarized(turn)) {
+                return;
+            }
+            if (recent.size() == capacity) {
+                recent.pollFirst();
+            }
+            recent.addLast(turn);
+        }
+
+        synchronized void summarized(String summary, Long untilMessageId) {
+            this.summary = summary;
+            this.summarizedUntilMessageId = untilMessageId != null ? untilMessageId : 0L;
+            recent.removeIf(this::isSummarized);
+        }
+
+        private boolean isSummarized(ConversationMemoryService.Turn turn) {
+            return turn.messageId() != null && turn.messageId() <= summarizedUntilMessageId;
+        }
+
+        void touch(long now) {
+            lastAccessAt = now;
+        }
+    }
+}
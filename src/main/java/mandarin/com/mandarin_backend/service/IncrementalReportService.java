@@ -0,0 +1,389 @@
+package mandarin.com.mandarin_backend.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.RequiredArgsConstructor;
+import mandarin.com.mandarin_backend.config.IncrementalReportProperties;
+import mandarin.com.mandarin_backend.dto.*;
+import mandarin.com.mandarin_backend.entity.Simulation;
+import mandarin.com.mandarin_backend.entity.SimulationMessage;
+import mandarin.com.mandarin_backend.entity.SimulationPartialReport;
+import mandarin.com.mandarin_backend.entity.UserCharacter;
+import mandarin.com.mandarin_backend.repository.SimulationMessageRepository;
+import mandarin.com.mandarin_backend.repository.SimulationPartialReportRepository;
+import mandarin.com.mandarin_backend.repository.SimulationRepository;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Async;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.web.reactive.function.client.WebClient;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.stream.Collectors;
+
+/**
+ * 턴 단위 점진 평가 (시뮬레이션 종료 시 보고서를 바로 만들기 위함)
+ *
+ * 종료 시 전체 대화를 /report로 한 번에 평가하면 마지막 화면이 큰 LLM 호출 하나를 기다려야 하므로
+ * 턴이 저장될 때마다 백그라운드(낮은 우선순위)에서 새 대화 구간만 /report-turn으로 평가해 부분 보고서에 누적
+ * - 지표별 점수: 구간 점수를 턴 수로 가중해 누적 (최종 점수 = 가중 평균)
+ * - 요약 / 분석 / 조언: 이전 값에 새 구간을 반영해 LLM이 갱신
+ * - 주요 대화: 지표별로 영향이 큰 구간 keyExchangesPerMetric개만 보관
+ * 종료 시에는 밀린 구간(보통 마지막 턴 하나)만 평가하고 누적 값을 합쳐서 보고서를 만듦
+ *
+ * 부분 보고서는 @Version으로 보호해서 백그라운드 평가와 종료 시 평가가 겹쳐도 같은 구간이 두 번 반영되지 않음
+ * 분기 시뮬레이션은 이어받은 대화가 평가되어 있지 않으므로 기존처럼 /report로 전체 대화를 평가
+ */
+@Service
+@RequiredArgsConstructor
+public class IncrementalReportService {
+
+    // 주요 대화 구간 하나에 담는 최대 메시지 수 (/report의 key_conversations 규칙과 동일)
+    private static final int MAX_MESSAGES_PER_KEY_EXCHANGE = 4;
+
+    // LLM이 key로 표시한 구간을 그렇지 않은 구간보다 항상 앞에 두기 위한 가산점
+    private static final int KEY_BONUS = 100;
+
+    // 종료 시 백그라운드 평가와 겹쳤을 때 다시 시도하는 횟수
+    private static final int MAX_CATCH_UP_ATTEMPTS = 3;
+
+    // 시나리오별 지표 코드 (metric_1, metric_2, metric_3 순서)
+    private static final Map<String, List<String>> METRIC_CODES = Map.of(
+            "FUTURE", List.of("ECI", "EVR", "CCS"),
+            "PAST", List.of("RRI", "EEQI", "RPS"));
+
+    private final SimulationRepository simulationRepository;
+    private final SimulationMessageRepository simulationMessageRepository;
+    private final SimulationPartialReportRepository partialReportRepository;
+    private final WebClient webClient;
+    private final ObjectMapper objectMapper;
+    private final IncrementalReportProperties properties;
+
+    // 같은 시뮬레이션의 평가(백그라운드 / 종료 시)가 동시에 두 번 돌지 않도록 (평가가 끝나면 complete)
+    private final Map<Long, CompletableFuture<Void>> scoring = new ConcurrentHashMap<>();
+
+    /**
+     * 메시지 저장 트랜잭션이 커밋된 뒤 백그라운드에서 새 대화 구간 평가
+     */
+    @Async("backgroundTaskExecutor")
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT)
+    public void onMessagesAppended(ConversationMemoryService.MessagesAppended event) {
+        CompletableFuture<Void> claim = new CompletableFuture<>();
+        if (!properties.isIncrementalEnabled() || scoring.putIfAbsent(event.simulationId(), claim) != null) {
+            return;
+        }
+        try {
+            scorePending(event.simulationId());
+        } catch (Exception e) {
+            // 평가 실패는 대화에 영향 없음 (다음 턴이나 종료 시 다시 시도)
+            System.err.println("[IncrementalReport] 턴 평가 실패 - 시뮬레이션ID: " + event.simulationId()
+                    + ", 오류: " + e.getMessage());
+        } finally {
+            release(event.simulationId(), claim);
+        }
+    }
+
+    /**
+     * 아직 평가하지 않은 대화 중 AI 응답까지 끝난 구간을 /report-turn으로 평가해 부분 보고서에 반영
+     * LLM 호출 동안 트랜잭션/커넥션을 잡고 있지 않도록 조회와 저장을 나눠서 수행
+     *
+     * @return 반영한 메시지 수 (평가할 구간이 없으면 0)
+     */
+    public int scorePending(Long simulationId) {
+        SimulationPartialReport partial = partialReportRepository.findBySimulation_SimulationId(simulationId)
+                .orElse(null);
+        long lastMessageId = partial != null ? partial.getScoredUntilMessageId() : 0L;
+
+        List<SimulationMessage> pending = simulationMessageRepository
+                .findBySimulationSimulationIdAndMessageIdGreaterThanOrderByMessageIdAsc(
+                        simulationId, lastMessageId, PageRequest.of(0, properties.getMaxMessagesPerCall()));
+        // 응답을 기다리는 사용자 메시지는 다음에 평가
+        int end = pending.size();
+        while (end > 0 && !"assistant".equals(pending.get(end - 1).getSender())) {
+            end--;
+        }
+        if (end == 0) {
+            return 0;
+        }
+        List<SimulationMessage> exchange = pending.subList(0, end);
+
+        Simulation simulation = simulationRepository.findWithCharacterBySimulationId(simulationId)
+                .orElseThrow(() -> new IllegalArgumentException("시뮬레이션을 찾을 수 없습니다: " + simulationId));
+        PartialReportDto report = partial != null ? readContent(partial.getContent()) : new PartialReportDto();
+        String scenarioType = simulation.getCategory().scenarioType();
+        UserCharacter character = simulation.getCharacter();
+
+        Map<String, Object> requestBody = new HashMap<>();
+        requestBody.put("exchange", exchange.stream()
+                .map(message -> Map.of(
+                        "role", "assistant".equals(message.getSender()) ? "assistant" : "user",
+                        "content", message.getContent()))
+                .collect(Collectors.toList()));
+        requestBody.put("user_name", character.getKakaoName() != null ? character.getKakaoName() : "사용자");
+        requestBody.put("target_name", character.getCharacterName());
+        requestBody.put("scenario_type", scenarioType);
+        requestBody.put("previous_summary", report.getSummary());
+        requestBody.put("previous_analysis", report.getAnalysis());
+        requestBody.put("previous_feedback", report.getFeedback());
+
+        TurnEvaluationDto evaluation = webClient.post()
+                .uri("/report-turn")
+                .bodyValue(requestBody)
+                .retrieve()
+                .bodyToMono(TurnEvaluationDto.class)
+                .block();
+
+        if (evaluation == null || evaluation.getMetrics() == null || evaluation.getMetrics().size() != 3) {
+            throw new RuntimeException("턴 평가 응답이 없거나 지표가 3개가 아닙니다.");
+        }
+
+        int turns = (int) Math.max(1, exchange.stream().filter(message -> !"assistant".equals(message.getSender())).count());
+        merge(report, evaluation, exchange, turns, scenarioType);
+
+        if (partial == null) {
+            partial = SimulationPartialReport.builder()
+                    .simulation(simulation)
+                    .scenarioType(scenarioType)
+                    .build();
+        }
+        partial.setContent(writeContent(report));
+        partial.setScoredUntilMessageId(exchange.get(exchange.size() - 1).getMessageId());
+        partial.setScoredTurnCount(partial.getScoredTurnCount() + turns);
+        partialReportRepository.save(partial);
+
+        System.out.println("[IncrementalReport] 턴 평가 반영 - 시뮬레이션ID: " + simulationId
+                + ", 반영 메시지: " + exchange.size() + ", 누적 턴: " + partial.getScoredTurnCount());
+        return exchange.size();
+    }
+
+    /**
+     * 밀린 구간만 평가한 뒤 누적한 부분 보고서를 합쳐서 최종 보고서 생성 (/report 호출 없음)
+     * 트랜잭션 밖에서 호출 (진행 중인 백그라운드 평가가 끝나길 기다린 뒤 이어서 평가)
+     *
+     * @return 부분 보고서로 만들 수 없으면 (비활성 / 분기 시뮬레이션 / 밀린 대화가 많음 / 평가 실패) empty
+     *         → /report로 전체 대화 평가
+     */
+    public Optional<SimulationReportDto> mergeReport(Long simulationId) {
+        if (!properties.isIncrementalEnabled()) {
+            return Optional.empty();
+        }
+        Simulation simulation = simulationRepository.findById(simulationId)
+                .orElseThrow(() -> new IllegalArgumentException("시뮬레이션을 찾을 수 없습니다: " + simulationId));
+        if (simulation.getParent() != null) {
+            return Optional.empty();
+        }
+
+        CompletableFuture<Void> claim = new CompletableFuture<>();
+        try {
+            awaitScoring(simulationId, claim);
+            if (!catchUp(simulationId)) {
+                System.out.println("[IncrementalReport] 밀린 대화가 " + properties.getMaxMessagesPerCall()
+                        + "개를 넘어 전체 대화로 평가 - 시뮬레이션ID: " + simulationId);
+                return Optional.empty();
+            }
+        } catch (Exception e) {
+            if (e instanceof InterruptedException) {
+                Thread.currentThread().interrupt();
+            }
+            System.err.println("[IncrementalReport] 밀린 턴 평가 실패, 전체 대화로 평가 - 시뮬레이션ID: " + simulationId
+                    + ", 오류: " + e.getMessage());
+            return Optional.empty();
+        } finally {
+            release(simulationId, claim);
+        }
+
+        Optional<SimulationPartialReport> partial = partialReportRepository.findBySimulation_SimulationId(simulationId);
+        if (partial.isEmpty()) {
+            return Optional.empty();
+        }
+        PartialReportDto report = readContent(partial.get().getContent());
+        // 코드 기준으로 시나리오의 세 지표가 모두 있어야 합칠 수 있음
+        List<String> codes = METRIC_CODES.get(partial.get().getScenarioType());
+        if (codes == null || report.getMetrics().size() != codes.size() || !report.getMetrics().stream()
+                .map(PartialReportDto.Metric::getCode).collect(Collectors.toSet()).containsAll(codes)) {
+            return Optional.empty();
+        }
+
+        System.out.println("[IncrementalReport] 부분 보고서 합치기 - 시뮬레이션ID: " + simulationId
+                + ", 누적 턴: " + partial.get().getScoredTurnCount());
+        return Optional.of(toReport(report, partial.get().getScenarioType()));
+    }
+
+    /**
+     * 같은 시뮬레이션을 평가 중인 작업이 있으면 끝날 때까지 기다렸다가 평가 권한을 가져옴
+     *
+     * @throws TimeoutException catchUpWait 안에 끝나지 않으면
+     */
+    private void awaitScoring(Long simulationId, CompletableFuture<Void> claim)
+            throws InterruptedException, ExecutionException, TimeoutException {
+        long deadline = System.nanoTime() + properties.getCatchUpWait().toNanos();
+        CompletableFuture<Void> running;
+        while ((running = scoring.putIfAbsent(simulationId, claim)) != null) {
+            running.get(Math.max(0, deadline - System.nanoTime()), TimeUnit.NANOSECONDS);
+        }
+    }
+
+    private void release(Long simulationId, CompletableFuture<Void> claim) {
+        scoring.remove(simulationId, claim);
+        claim.complete(null);
+    }
+
+    /**
+     * 밀린 구간을 /report-turn 한 번으로 평가 (응답을 기다리는 사용자 메시지는 평가하지 않음)
+     *
+     * @return 밀린 메시지가 maxMessagesPerCall개보다 많으면 평가하지 않고 false
+     *         (여러 번 나눠 부르기보다 /report 한 번으로 전체 대화를 평가하는 편이 빠름)
+     */
+    private boolean catchUp(Long simulationId) {
+        for (int attempt = 1; ; attempt++) {
+            try {
+                long lastMessageId = partialReportRepository.findBySimulation_SimulationId(simulationId)
+                        .map(SimulationPartialReport::getScoredUntilMessageId)
+                        .orElse(0L);
+                if (simulationMessageRepository.countBySimulationSimulationIdAndMessageIdGreaterThan(
+                        simulationId, lastMessageId) > properties.getMaxMessagesPerCall()) {
+                    return false;
+                }
+                scorePending(simulationId);
+                return true;
+            } catch (OptimisticLockingFailureException | DataIntegrityViolationException e) {
+                // 같은 구간을 백그라운드 평가가 먼저 저장함 → 다시 읽어서 남은 구간만 평가
+                if (attempt >= MAX_CATCH_UP_ATTEMPTS) {
+                    throw e;
+                }
+            }
+        }
+    }
+
+    /**
+     * 이번 구간 평가를 누적 값에 반영
+     * 지표는 응답 순서가 아니라 코드로 맞춰서 누적 (누적 값은 항상 시나리오의 metric_1 ~ metric_3 순서)
+     *
+     * @throws IllegalStateException 응답 지표 코드가 시나리오의 세 지표와 다르면 (누적 값은 바꾸지 않음)
+     */
+    void merge(PartialReportDto report, TurnEvaluationDto evaluation, List<SimulationMessage> exchange, int turns,
+               String scenarioType) {
+        List<String> codes = METRIC_CODES.get(scenarioType);
+        if (codes == null) {
+            throw new IllegalStateException("알 수 없는 시나리오 유형입니다: " + scenarioType);
+        }
+        Map<String, TurnEvaluationDto.TurnMetricScore> scores = new HashMap<>();
+        for (TurnEvaluationDto.TurnMetricScore score : evaluation.getMetrics()) {
+            if (!codes.contains(score.getCode()) || scores.putIfAbsent(score.getCode(), score) != null) {
+                throw new IllegalStateException("턴 평가 지표 코드가 시나리오(" + scenarioType + ")와 맞지 않습니다: "
+                        + score.getCode());
+            }
+        }
+        if (scores.size() != codes.size()) {
+            throw new IllegalStateException("턴 평가 지표가 " + codes.size() + "개가 아닙니다: " + scores.keySet());
+        }
+
+        if (evaluation.getSummary() != null) {
+            report.setSummary(evaluation.getSummary());
+        }
+        if (evaluation.getAnalysis() != null) {
+            report.setAnalysis(evaluation.getAnalysis());
+        }
+        if (evaluation.getFeedback() != null) {
+            report.setFeedback(evaluation.getFeedback());
+        }
+
+        List<KeyConversationDto> conversations = exchange
+                .subList(Math.max(0, exchange.size() - MAX_MESSAGES_PER_KEY_EXCHANGE), exchange.size())
+                .stream()
+                .map(message -> new KeyConversationDto(
+                        "assistant".equals(message.getSender()) ? "assistant" : "user", message.getContent()))
+                .collect(Collectors.toList());
+        Long lastMessageId = exchange.get(exchange.size() - 1).getMessageId();
+
+        for (String code : codes) {
+            TurnEvaluationDto.TurnMetricScore score = scores.get(code);
+            PartialReportDto.Metric metric = report.getMetrics().stream()
+                    .filter(found -> code.equals(found.getCode()))
+                    .findFirst()
+                    .orElseGet(() -> {
+                        PartialReportDto.Metric added = PartialReportDto.Metric.builder()
+                                .code(code)
+                                .name(score.getName())
+                                .build();
+                        report.getMetrics().add(added);
+                        return added;
+                    });
+
+            // 그때까지의 평균에서 많이 벗어난 구간일수록 점수에 영향이 큰 대화
+            int average = metric.getTurns() > 0 ? Math.round((float) metric.getScoreSum() / metric.getTurns()) : 50;
+            metric.setScoreSum(metric.getScoreSum() + (long) score.getScore() * turns);
+            metric.setTurns(metric.getTurns() + turns);
+            if (score.isKey() || metric.getReason() == null) {
+                metric.setReason(score.getReason());
+            }
+
+            metric.getKeyExchanges().add(PartialReportDto.KeyExchange.builder()
+                    .lastMessageId(lastMessageId)
+                    .impact(Math.abs(score.getScore() - average) + (score.isKey() ? KEY_BONUS : 0))
+                    .conversations(conversations)
+                    .build());
+            metric.getKeyExchanges().sort(Comparator.comparingInt(PartialReportDto.KeyExchange::getImpact).reversed());
+            while (metric.getKeyExchanges().size() > Math.max(1, properties.getKeyExchangesPerMetric())) {
+                metric.getKeyExchanges().remove(metric.getKeyExchanges().size() - 1);
+            }
+        }
+    }
+
+    /**
+     * 누적 값을 /report 응답과 같은 형태로 변환 (metric_1 ~ metric_3은 지표 코드 순서로)
+     */
+    SimulationReportDto toReport(PartialReportDto report, String scenarioType) {
+        List<MetricScoreDto> metrics = new ArrayList<>();
+        List<String> codes = METRIC_CODES.getOrDefault(scenarioType, List.of());
+        List<PartialReportDto.Metric> ordered = new ArrayList<>(report.getMetrics());
+        ordered.sort(Comparator.comparingInt(metric -> codes.indexOf(metric.getCode())));
+        for (PartialReportDto.Metric metric : ordered) {
+            List<KeyConversationDto> keyConversations = metric.getKeyExchanges().stream()
+                    .sorted(Comparator.comparing(PartialReportDto.KeyExchange::getLastMessageId))
+                    .flatMap(keyExchange -> keyExchange.getConversations().stream())
+                    .collect(Collectors.toList());
+            int score = metric.getTurns() > 0 ? Math.round((float) metric.getScoreSum() / metric.getTurns()) : 0;
+            metrics.add(new MetricScoreDto(metric.getCode(), metric.getName(), score, metric.getReason(), keyConversations));
+        }
+        int overallRating = Math.round((float) metrics.stream().mapToInt(MetricScoreDto::getScore).sum() / metrics.size());
+
+        return new SimulationReportDto(
+                report.getSummary(),
+                scenarioType,
+                new ScenarioScoresDto(metrics.get(0), metrics.get(1), metrics.get(2)),
+                new ReportContentDto(report.getAnalysis(), report.getFeedback(), overallRating));
+    }
+
+    private PartialReportDto readContent(String content) {
+        if (content == null || content.isBlank()) {
+            return new PartialReportDto();
+        }
+        try {
+            return objectMapper.readValue(content, PartialReportDto.class);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("부분 보고서 JSON 파싱 실패: " + e.getMessage(), e);
+        }
+    }
+
+    private String writeContent(PartialReportDto report) {
+        try {
+            return objectMapper.writeValueAsString(report);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("부분 보고서 JSON 변환 실패: " + e.getMessage(), e);
+        }
+    }
+}
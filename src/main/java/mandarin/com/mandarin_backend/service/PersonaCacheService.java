@@ -0,0 +1,97 @@
+package mandarin.com.mandarin_backend.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.RequiredArgsConstructor;
+import mandarin.com.mandarin_backend.dto.UserPersonaDto;
+import mandarin.com.mandarin_backend.entity.PersonaCache;
+import mandarin.com.mandarin_backend.entity.UserCharacter;
+import mandarin.com.mandarin_backend.repository.PersonaCacheRepository;
+import mandarin.com.mandarin_backend.util.HashUtil;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.Optional;
+
+/**
+ * 페르소나 추출(/analyze) 결과 캐시
+ *
+ * 키: (대상 이름, 필터링된 대화 텍스트 SHA-256, 프롬프트 버전)
+ * - 대화 파일이 바뀌면 필터링된 텍스트가 달라져 자연히 미스 (이전 캐시는 캐릭터 수정 시 삭제)
+ * - 프롬프트를 바꾸면 ai.persona.prompt-version을 올려서 기존 캐시를 무효화 (기동 시 이전 버전 삭제)
+ */
+@Service
+@RequiredArgsConstructor
+public class PersonaCacheService {
+
+    private final PersonaCacheRepository personaCacheRepository;
+    private final ObjectMapper objectMapper;
+
+    @Value("${ai.persona.prompt-version:v1}")
+    private String promptVersion;
+
+    /**
+     * 캐시된 페르소나 조회 (있으면 사용 횟수/시각 갱신)
+     */
+    @Transactional
+    public Optional<UserPersonaDto> find(String targetName, String filteredText) {
+        Optional<PersonaCache> cached = personaCacheRepository.findByTargetNameAndContextHashAndPromptVersion(
+                targetName, HashUtil.sha256Hex(filteredText), promptVersion);
+
+        if (cached.isEmpty()) {
+            return Optional.empty();
+        }
+
+        PersonaCache cache = cached.get();
+        try {
+            UserPersonaDto persona = objectMapper.readValue(cache.getPersonaJson(), UserPersonaDto.class);
+            cache.setHitCount(cache.getHitCount() + 1);
+            cache.setLastUsedAt(LocalDateTime.now());
+            System.out.println("[PersonaCache] 캐시 사용 - 대상: " + targetName + ", 사용 횟수: " + cache.getHitCount());
+            return Optional.of(persona);
+        } catch (JsonProcessingException e) {
+            // DTO 구조가 바뀌어 읽을 수 없는 캐시는 버리고 새로 분석
+            personaCacheRepository.delete(cache);
+            return Optional.empty();
+        }
+    }
+
+    /**
+     * 페르소나 캐시 저장
+     * 시뮬레이션 생성 트랜잭션과 분리해서, 동시에 같은 키를 저장하다 충돌해도 시뮬레이션 생성은 실패하지 않도록 함
+     */
+    @Transactional(propagation = Propagation.REQUIRES_NEW)
+    public void save(UserCharacter character, String targetName, String filteredText, UserPersonaDto persona) {
+        String personaJson;
+        try {
+            personaJson = objectMapper.writeValueAsString(persona);
+        } catch (JsonProcessingException e) {
+            throw new RuntimeException("페르소나 JSON 변환 실패: " + e.getMessage(), e);
+        }
+
+        personaCacheRepository.save(PersonaCache.builder()
+                .character(character)
+                .targetName(targetName)
+                .contextHash(HashUtil.sha256Hex(filteredText))
+                .promptVersion(promptVersion)
+                .personaJson(personaJson)
+                .build());
+    }
+
+    /**
+     * 이전 프롬프트 버전으로 만든 캐시 삭제
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    @Transactional
+    public void purgeStalePromptVersions() {
+        long deleted = personaCacheRepository.deleteByPromptVersionNot(promptVersion);
+        if (deleted > 0) {
+            System.out.println("[PersonaCache] 이전 프롬프트 버전 캐시 삭제 - " + deleted + "건");
+        }
+    }
+}
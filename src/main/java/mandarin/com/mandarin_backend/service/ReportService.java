@@ -5,12 +5,14 @@ import com.fasterxml.jackson.databind.ObjectMapper;
 import mandarin.com.mandarin_backend.dto.*;
 import mandarin.com.mandarin_backend.entity.ChatReport;
 import mandarin.com.mandarin_backend.entity.ChatReportAvg;
+import mandarin.com.mandarin_backend.entity.ChatReportContent;
 import mandarin.com.mandarin_backend.entity.ChatReportDetailLog;
 import mandarin.com.mandarin_backend.entity.Simulation;
 import mandarin.com.mandarin_backend.entity.User;
 import mandarin.com.mandarin_backend.entity.UserCharacter;
 import mandarin.com.mandarin_backend.repository.ChatReportAvgRepository;
-import mandarin.com.mandarin_backend.repository.ChatReportDetailLogRepository;
+import mandarin.com.mandarin_backend.repository.ChatReportContentRepository;
+import mandarin.com.mandarin_backend.repository.DetailLogBatchRepository;
 import mandarin.com.mandarin_backend.repository.ReportRepository;
 import mandarin.com.mandarin_backend.repository.SimulationRepository;
 import lombok.RequiredArgsConstructor;
@@ -19,6 +21,7 @@ import org.springframework.transaction.annotation.Transactional;
 import org.springframework.web.reactive.function.client.WebClient;
 
 import java.time.LocalDateTime;
+import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
@@ -30,8 +33,9 @@ public class ReportService {
 
     private final WebClient webClient;
     private final ReportRepository reportRepository;
-    private final ChatReportDetailLogRepository chatReportDetailLogRepository;
+    private final DetailLogBatchRepository detailLogBatchRepository;
     private final ChatReportAvgRepository chatReportAvgRepository;
+    private final ChatReportContentRepository chatReportContentRepository;
     private final SimulationRepository simulationRepository;
     private final ObjectMapper objectMapper;
 
@@ -49,27 +53,45 @@ public class ReportService {
     @Transactional
     public ReportResponseDto createReportAndSave(Long simulationId, List<ChatLogDto> chatLogs, 
                                                   String userName, String targetName, String scenarioType) {
+        return createReportAndSave(simulationId, chatLogs, userName, targetName, scenarioType, null);
+    }
+
+    /**
+     * 턴마다 누적해 둔 부분 보고서(IncrementalReportService.mergeReport)가 있으면 /report를 호출하지 않고 그대로 저장
+     *
+     * @param mergedReport 부분 보고서를 합친 보고서 (null이면 Python 서버 /report로 전체 대화 평가)
+     */
+    @Transactional
+    public ReportResponseDto createReportAndSave(Long simulationId, List<ChatLogDto> chatLogs,
+                                                  String userName, String targetName, String scenarioType,
+                                                  SimulationReportDto mergedReport) {
         
         // 1. 시뮬레이션 조회
-        Simulation simulation = simulationRepository.findById(simulationId)
+        Simulation simulation = simulationRepository.findWithCharacterBySimulationId(simulationId)
                 .orElseThrow(() -> new IllegalArgumentException("시뮬레이션을 찾을 수 없습니다: " + simulationId));
         
         UserCharacter character = simulation.getCharacter();
-        User user = character.getUser();
+        User user = simulation.getUser();
 
-        Map<String, Object> requestBody = new HashMap<>();
-        requestBody.put("chat_logs", convertChatLogsToList(chatLogs));
-        requestBody.put("user_name", userName);
-        requestBody.put("target_name", targetName);
-        requestBody.put("scenario_type", scenarioType);
+        // 2. Python 서버 호출 (부분 보고서를 합친 보고서가 있으면 생략)
+        ReportResponseDto response;
+        if (mergedReport != null) {
+            response = new ReportResponseDto(mergedReport);
+            System.out.println("[Report] 부분 보고서 사용 (/report 생략) - 시뮬레이션ID: " + simulationId);
+        } else {
+            Map<String, Object> requestBody = new HashMap<>();
+            requestBody.put("chat_logs", convertChatLogsToList(chatLogs));
+            requestBody.put("user_name", userName);
+            requestBody.put("target_name", targetName);
+            requestBody.put("scenario_type", scenarioType);
 
-        // 2. Python 서버 호출
-        ReportResponseDto response = webClient.post()
-                .uri("/report")
-                .bodyValue(requestBody)
-                .retrieve()
-                .bodyToMono(ReportResponseDto.class)
-                .block();
+            response = webClient.post()
+                    .uri("/report")
+                    .bodyValue(requestBody)
+                    .retrieve()
+                    .bodyToMono(ReportResponseDto.class)
+                    .block();
+        }
 
         // 3. 리포트 DB 저장 및 시뮬레이션 종료 표시
         if (response != null && response.getReport() != null) {
@@ -79,10 +101,6 @@ public class ReportService {
             simulation.setIsFinished(true);
             simulationRepository.save(simulation);
             System.out.println("[Report] 시뮬레이션 종료 표시 완료 - 시뮬레이션ID: " + simulationId);
-
-            // 4. 평균 점수 계산 및 ChatReportAvg 저장
-            updateReportAverage(user);
-            System.out.println("[Report] 평균 점수 업데이트 완료 - 사용자ID: " + user.getId());
         }
 
         return response;
@@ -108,9 +126,6 @@ public class ReportService {
         int overallRating = report.getReport().getOverallRating();
         LocalDateTime now = LocalDateTime.now();
         
-        // 전체 리포트 내용을 JSON으로 변환
-        String reportContentJson = convertReportToJson(report);
-        
         // Null 체크: 각 metric
         MetricScoreDto metric1 = scores.getMetric1();
         MetricScoreDto metric2 = scores.getMetric2();
@@ -121,26 +136,41 @@ public class ReportService {
                 "metric1=" + (metric1 != null) + ", metric2=" + (metric2 != null) + ", metric3=" + (metric3 != null));
         }
         
-        // 각 metric별로 저장 (3개의 레코드)
+        // 전체 리포트 내용(JSON)은 한 번만 저장하고 지표별 레코드가 참조
+        ChatReportContent content = chatReportContentRepository.save(ChatReportContent.builder()
+                .simulation(simulation)
+                .reportContent(convertReportToJson(report))
+                .createdAt(now)
+                .build());
+
+        // 각 metric별로 저장 (3개의 레코드), 주요 대화는 모아서 마지막에 한 번에 저장
+        List<ChatReportDetailLog> detailLogs = new ArrayList<>();
+
         // metric_1: ECI(관계유지력) 또는 RRI(후회해소도)
         saveMetricReport(simulation, user, character, metric1, 
-                        getLabelKey(metric1.getCode()), overallRating, reportContentJson, now);
+                        getLabelKey(metric1.getCode()), overallRating, content, now, detailLogs);
         
         // metric_2: EVR(감정안정성) 또는 EEQI(감정표현성숙도)
         saveMetricReport(simulation, user, character, metric2,
-                        getLabelKey(metric2.getCode()), overallRating, reportContentJson, now);
+                        getLabelKey(metric2.getCode()), overallRating, content, now, detailLogs);
         
         // metric_3: CCS(선택일관성) 또는 RPS(관계회복력)
         saveMetricReport(simulation, user, character, metric3,
-                        getLabelKey(metric3.getCode()), overallRating, reportContentJson, now);
+                        getLabelKey(metric3.getCode()), overallRating, content, now, detailLogs);
+
+        // 보고서 하나의 주요 대화 전체를 JDBC batch 한 번으로 저장
+        detailLogBatchRepository.insertChatReportDetailLogs(detailLogs);
+        System.out.println("[Report] KeyConversation 저장 완료 - 시뮬레이션ID: " + simulation.getSimulationId()
+            + ", 개수: " + detailLogs.size());
     }
 
     /**
-     * 개별 metric 리포트 저장 및 KeyConversation을 DetailLog에 저장
+     * 개별 metric 리포트 저장, 누적 합계 반영 및 KeyConversation을 DetailLog 목록에 추가
      */
     private void saveMetricReport(Simulation simulation, User user, UserCharacter character,
                                   MetricScoreDto metric, int labelKey, int scoreAvg, 
-                                  String reportContent, LocalDateTime createdAt) {
+                                  ChatReportContent content, LocalDateTime createdAt,
+                                  List<ChatReportDetailLog> detailLogs) {
         // 1. ChatReport 저장
         ChatReport chatReport = ChatReport.builder()
                 .simulation(simulation)
@@ -149,42 +179,44 @@ public class ReportService {
                 .scoreAvg(scoreAvg)
                 .labelKey(labelKey)
                 .labelScore(metric.getScore())
-                .reportContent(reportContent)
+                .content(content)
                 .createdAt(createdAt)
                 .build();
         
         ChatReport savedReport = reportRepository.save(chatReport);
+
+        // 2. 사용자 / 라벨별 누적 합계에 더함 (알 수 없는 지표 코드는 제외)
+        if (labelKey >= 1 && labelKey <= 6) {
+            chatReportAvgRepository.accumulate(savedReport.getChatReportId(), user.getId(),
+                    ChatReportAvg.TotalLabelKey.fromLabelKey(labelKey).name(), metric.getScore(), scoreAvg, createdAt);
+        }
         
-        // 2. KeyConversation을 ChatReportDetailLog에 저장
+        // 3. KeyConversation을 ChatReportDetailLog 목록에 추가
         if (metric.getKeyConversations() != null && !metric.getKeyConversations().isEmpty()) {
-            saveKeyConversations(savedReport.getChatReportId(), metric.getKeyConversations(), createdAt);
+            addKeyConversations(savedReport.getChatReportId(), metric.getKeyConversations(), createdAt, detailLogs);
         }
     }
 
     /**
-     * KeyConversation 목록을 ChatReportDetailLog에 저장
+     * KeyConversation 목록을 ChatReportDetailLog로 변환해 저장할 목록에 추가
      * 
      * @param chatReportId ChatReport ID
      * @param keyConversations 주요 대화 목록
      * @param baseTime 기준 시간
+     * @param detailLogs 저장할 상세 로그 목록
      */
-    private void saveKeyConversations(Integer chatReportId, List<KeyConversationDto> keyConversations, 
-                                      LocalDateTime baseTime) {
+    private void addKeyConversations(Integer chatReportId, List<KeyConversationDto> keyConversations, 
+                                     LocalDateTime baseTime, List<ChatReportDetailLog> detailLogs) {
         for (int i = 0; i < keyConversations.size(); i++) {
             KeyConversationDto conversation = keyConversations.get(i);
             
-            ChatReportDetailLog detailLog = ChatReportDetailLog.builder()
+            detailLogs.add(ChatReportDetailLog.builder()
                     .chatReportId(chatReportId)
                     .sender(conversation.getRole())  // "user" 또는 "assistant"
                     .message(conversation.getContent())
                     .timestamp(baseTime.plusSeconds(i))  // 순서대로 약간의 시간차 부여
-                    .build();
-            
-            chatReportDetailLogRepository.save(detailLog);
+                    .build());
         }
-        
-        System.out.println("[Report] KeyConversation 저장 완료 - ChatReportID: " + chatReportId 
-            + ", 개수: " + keyConversations.size());
     }
 
     /**
@@ -257,6 +289,7 @@ public class ReportService {
     /**
      * 캐릭터 ID 기준 최신 리포트 조회
      */
+    @Transactional(readOnly = true)
     public ApiResponse<ChatReportResponseDto> getChatReport(Long characterId) {
 
         // Repository에서 단일 최신 리포트 1개 조회
@@ -276,6 +309,7 @@ public class ReportService {
     /**
      * 시뮬레이션 ID 기준 리포트 조회
      */
+    @Transactional(readOnly = true)
     public ApiResponse<ChatReportResponseDto> getChatReportBySimulationId(Long simulationId) {
 
         return reportRepository.findBySimulationId(simulationId)
@@ -285,85 +319,4 @@ public class ReportService {
                 })
                 .orElse(ApiResponse.fail("해당 시뮬레이션의 리포트가 존재하지 않습니다."));
     }
-
-    /**
-     * 사용자의 전체 리포트 평균 점수 계산 및 ChatReportAvg에 저장
-     * - score_avg 전체 평균 → avg_mandarin_score
-     * - label_key별 label_score 평균 → total_label_score (각 total_label_key별)
-     * 
-     * @param user 사용자 엔티티
-     */
-    private void updateReportAverage(User user) {
-        Long userId = user.getId();
-        
-        // 1. 사용자의 최신 리포트 조회 (FK 연결용)
-        ChatReport latestReport = reportRepository.findFirstByUser_IdOrderByCreatedAtDesc(userId);
-        if (latestReport == null) {
-            System.out.println("[ReportAvg] 사용자의 리포트가 없어 평균 계산을 건너뜁니다.");
-            return;
-        }
-        
-        // 2. 전체 score_avg 평균 계산
-        Double avgMandarinScore = reportRepository.calculateAvgScoreByUserId(userId);
-        if (avgMandarinScore == null) {
-            avgMandarinScore = 0.0;
-        }
-        int avgMandarinScoreInt = (int) Math.round(avgMandarinScore);
-        
-        // 3. 기존 사용자의 ChatReportAvg 삭제 (새로 계산된 값으로 교체)
-        List<ChatReportAvg> existingAvgs = chatReportAvgRepository.findByUser_Id(userId);
-        if (!existingAvgs.isEmpty()) {
-            chatReportAvgRepository.deleteAll(existingAvgs);
-        }
-        
-        LocalDateTime now = LocalDateTime.now();
-        
-        // 4. 각 label_key(1~6)별 평균 계산 및 저장
-        for (int labelKey = 1; labelKey <= 6; labelKey++) {
-            Double avgLabelScore = reportRepository.calculateAvgLabelScoreByUserIdAndLabelKey(userId, labelKey);
-            
-            // 해당 label_key에 대한 데이터가 없으면 건너뜀
-            if (avgLabelScore == null) {
-                continue;
-            }
-            
-            int avgLabelScoreInt = (int) Math.round(avgLabelScore);
-            ChatReportAvg.TotalLabelKey totalLabelKey = convertToTotalLabelKey(labelKey);
-            
-            ChatReportAvg chatReportAvg = ChatReportAvg.builder()
-                    .chatReport(latestReport)
-                    .user(user)
-                    .avgMandarinScore(avgMandarinScoreInt)
-                    .totalLabelKey(totalLabelKey)
-                    .totalLabelScore(avgLabelScoreInt)
-                    .createdAt(now)
-                    .build();
-            
-            chatReportAvgRepository.save(chatReportAvg);
-        }
-        
-        System.out.println("[ReportAvg] 평균 저장 완료 - 사용자ID: " + userId + 
-            ", avgMandarinScore: " + avgMandarinScoreInt);
-    }
-
-    /**
-     * label_key (1~6)를 TotalLabelKey enum으로 변환
-     * 1 → F1 (ECI/관계유지력)
-     * 2 → F2 (EVR/감정안정성)
-     * 3 → F3 (CCS/선택일관성)
-     * 4 → P1 (RRI/후회해소도)
-     * 5 → P2 (EEQI/감정표현성숙도)
-     * 6 → P3 (RPS/관계회복력)
-     */
-    private ChatReportAvg.TotalLabelKey convertToTotalLabelKey(int labelKey) {
-        return switch (labelKey) {
-            case 1 -> ChatReportAvg.TotalLabelKey.F1;
-            case 2 -> ChatReportAvg.TotalLabelKey.F2;
-            case 3 -> ChatReportAvg.TotalLabelKey.F3;
-            case 4 -> ChatReportAvg.TotalLabelKey.P1;
-            case 5 -> ChatReportAvg.TotalLabelKey.P2;
-            case 6 -> ChatReportAvg.TotalLabelKey.P3;
-            default -> throw new IllegalArgumentException("유효하지 않은 labelKey: " + labelKey);
-        };
-    }
 }
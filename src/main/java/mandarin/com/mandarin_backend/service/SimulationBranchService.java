@@ -0,0 +1,296 @@
+package mandarin.com.mandarin_backend.service;
+
+import lombok.RequiredArgsConstructor;
+import mandarin.com.mandarin_backend.entity.Simulation;
+import mandarin.com.mandarin_backend.entity.SimulationMemory;
+import mandarin.com.mandarin_backend.entity.SimulationMessage;
+import mandarin.com.mandarin_backend.repository.SimulationMemoryRepository;
+import mandarin.com.mandarin_backend.repository.SimulationMessageRepository;
+import mandarin.com.mandarin_backend.repository.SimulationRepository;
+import mandarin.com.mandarin_backend.repository.UserRepository;
+import mandarin.com.mandarin_backend.util.KeysetCursor;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Optional;
+import java.util.stream.Collectors;
+
+/**
+ * 시뮬레이션 분기 ("그때 다르게 말했다면?") 및 분기를 고려한 대화 조회
+ *
+ * 분기는 메시지 / 페르소나 / fewShotContext를 복사하지 않고 Simulation 1행만 추가 (copy-on-write)
+ * - parent + branchMessageId: 부모 대화의 분기 지점까지를 이어받음
+ * - origin: 페르소나 / fewShotContext를 가진 최초 시뮬레이션
+ * - 분기 후 메시지는 분기 시뮬레이션에만 저장되므로 부모 대화는 그대로 유지
+ *
+ * 대화 조회는 조상 방향으로 (시뮬레이션, 분기 지점) 구간을 모아 오래된 구간부터 이어 붙임
+ * messageId는 전역으로 증가하고 분기 후 메시지는 항상 분기 지점보다 뒤에 저장되므로 구간을 이어 붙이면 시간순이 유지됨
+ */
+@Service
+@RequiredArgsConstructor
+public class SimulationBranchService {
+
+    private final SimulationRepository simulationRepository;
+    private final SimulationMessageRepository simulationMessageRepository;
+    private final SimulationMemoryRepository simulationMemoryRepository;
+    private final UserRepository userRepository;
+    private final ApplicationEventPublisher eventPublisher;
+
+    /**
+     * 이어받은 대화 구간 (simulationId의 untilMessageId까지)
+     */
+    record Segment(Long simulationId, Long untilMessageId) {
+    }
+
+    /**
+     * 시뮬레이션을 messageIndex번째 메시지 뒤에서 분기
+     *
+     * @param simulationId   분기할 시뮬레이션 ID
+     * @param messageIndex   이어받을 메시지 수 (1이면 첫 메시지까지, 0이면 대화 없이 같은 페르소나로 새로 시작)
+     * @param simulationName 새 시뮬레이션 이름 (없으면 원본 이름 + " (분기)")
+     * @return 새로 만든 분기 시뮬레이션
+     */
+    @Transactional
+    public Simulation fork(Long simulationId, long messageIndex, String simulationName) {
+        Simulation simulation = simulationRepository.findById(simulationId)
+                .orElseThrow(() -> new IllegalArgumentException("시뮬레이션을 찾을 수 없습니다: " + simulationId));
+        if (messageIndex < 0) {
+            throw new IllegalArgumentException("messageIndex는 0 이상이어야 합니다.");
+        }
+        // 탈퇴 처리된(백그라운드 삭제 중인) 사용자의 시뮬레이션은 분기하지 않음 (삭제 중에 새 데이터가 생기지 않게)
+        if (!userRepository.existsByIdAndDeletedAtIsNull(simulation.getUser().getId())) {
+            throw new IllegalArgumentException("사용자를 찾을 수 없습니다: " + simulation.getUser().getId());
+        }
+
+        // 분기 지점 메시지가 조상 구간에 있으면 그 메시지를 가진 시뮬레이션에서 바로 분기 (체인이 불필요하게 길어지지 않게)
+        Simulation owner = simulation;
+        while (owner.getParent() != null && messageIndex <= inheritedCount(owner)) {
+            owner = owner.getParent();
+        }
+
+        Long branchMessageId = 0L;
+        if (messageIndex > 0) {
+            long ownIndex = messageIndex - inheritedCount(owner) - 1;
+            List<SimulationMessage> found = simulationMessageRepository
+                    .findBySimulationSimulationIdOrderBySequenceNoAscMessageIdAsc(
+                            owner.getSimulationId(), PageRequest.of(Math.toIntExact(ownIndex), 1));
+            if (found.isEmpty()) {
+                throw new IllegalArgumentException("분기할 메시지를 찾을 수 없습니다: " + messageIndex + "번째");
+            }
+            branchMessageId = found.get(0).getMessageId();
+        }
+
+        String name = simulationName != null && !simulationName.isBlank()
+                ? simulationName
+                : simulation.getSimulationName() + " (분기)";
+
+        Simulation branch = simulationRepository.save(Simulation.builder()
+                .user(simulation.getUser())
+                .character(simulation.getCharacter())
+                .simulationName(name.length() > 50 ? name.substring(0, 50) : name)
+                .purpose(simulation.getPurpose())
+                .category(simulation.getCategory())
+                .parent(owner)
+                .branchMessageId(branchMessageId)
+                .branchMessageCount(messageIndex)
+                .origin(owner.getOrigin() != null ? owner.getOrigin() : owner)
+                .build());
+
+        // 부모의 누적 요약이 분기 지점 이전까지만 요약한 것이면 그대로 이어받음 (요약문 1행)
+        // 요약 이후 ~ 분기 지점의 이어받은 대화는 분기의 요약이 이어서 반영 (부모 요약이 분기 지점을 지났으면 처음부터)
+        Optional<SimulationMemory> parentMemory =
+                simulationMemoryRepository.findBySimulation_SimulationId(owner.getSimulationId());
+        if (parentMemory.isPresent() && parentMemory.get().getSummary() != null
+                && parentMemory.get().getSummarizedUntilMessageId() <= branchMessageId) {
+            simulationMemoryRepository.save(SimulationMemory.builder()
+                    .simulation(branch)
+                    .summary(parentMemory.get().getSummary())
+                    .summarizedUntilMessageId(parentMemory.get().getSummarizedUntilMessageId())
+                    .summarizedMessageCount(parentMemory.get().getSummarizedMessageCount())
+                    .build());
+        }
+        if (messageIndex > 0) {
+            // 이어받은 대화가 길면 첫 턴 전에 커밋 후 백그라운드에서 미리 요약
+            eventPublisher.publishEvent(new ConversationMemoryService.MessagesAppended(branch.getSimulationId()));
+        }
+
+        System.out.println("[Branch] 시뮬레이션 분기 - 원본ID: " + simulationId
+                + ", 부모ID: " + owner.getSimulationId()
+                + ", 이어받은 메시지 수: " + messageIndex
+                + ", 분기ID: " + branch.getSimulationId());
+        return branch;
+    }
+
+    /**
+     * 분기로 이어받은 구간을 포함한 전체 대화 (오래된 순)
+     */
+    @Transactional(readOnly = true)
+    public List<SimulationMessage> loadHistory(Long simulationId) {
+        Simulation simulation = simulationRepository.findById(simulationId)
+                .orElseThrow(() -> new IllegalArgumentException("시뮬레이션을 찾을 수 없습니다: " + simulationId));
+        List<Segment> inherited = inheritedSegments(simulation);
+        List<SimulationMessage> messages = new ArrayList<>();
+        for (int i = inherited.size() - 1; i >= 0; i--) {
+            Segment segment = inherited.get(i);
+            messages.addAll(simulationMessageRepository
+                    .findBySimulationSimulationIdAndMessageIdLessThanEqualOrderBySequenceNoAscMessageIdAsc(
+                            segment.simulationId(), segment.untilMessageId()));
+        }
+        messages.addAll(simulationMessageRepository
+                .findBySimulationSimulationIdOrderBySequenceNoAscMessageIdAsc(simulation.getSimulationId()));
+        return messages;
+    }
+
+    /**
+     * 분기로 이어받은 구간을 포함한 전체 대화 기록 (오래된 순, 발신자 / 내용 / 시간만)
+     */
+    @Transactional(readOnly = true)
+    public List<SimulationMessageRepository.HistoryItem> loadHistoryItems(Long simulationId) {
+        List<Segment> inherited = inheritedSegmentsById(simulationId);
+        List<SimulationMessageRepository.HistoryItem> items = new ArrayList<>();
+        for (int i = inherited.size() - 1; i >= 0; i--) {
+            Segment segment = inherited.get(i);
+            items.addAll(simulationMessageRepository.findHistoryUntil(segment.simulationId(), segment.untilMessageId()));
+        }
+        items.addAll(simulationMessageRepository.findHistory(simulationId));
+        return items;
+    }
+
+    /**
+     * 순번이 since보다 큰 대화 기록 (클라이언트가 가진 대화 이후만, 오래된 순)
+     * 보통은 이어받은 구간을 이미 가지고 있으므로 자기 메시지만 조회하고,
+     * 이어받은 구간 일부가 없을 때만 전체 기록에서 순번으로 거름
+     */
+    @Transactional(readOnly = true)
+    public List<SimulationMessageRepository.HistoryItem> loadHistoryItemsSince(Long simulationId, long since) {
+        SimulationRepository.BranchPoint point = simulationRepository.findBranchPoint(simulationId)
+                .orElseThrow(() -> new IllegalArgumentException("시뮬레이션을 찾을 수 없습니다: " + simulationId));
+        if (point.getParentSimulationId() == null || point.getBranchMessageCount() == null
+                || since >= point.getBranchMessageCount()) {
+            return simulationMessageRepository.findHistorySince(simulationId, since);
+        }
+        return loadHistoryItems(simulationId).stream()
+                .filter(item -> item.getSequenceNo() != null && item.getSequenceNo() > since)
+                .collect(Collectors.toList());
+    }
+
+    /**
+     * 분기로 이어받은 구간을 포함한 대화 기록 중 (timestamp, messageId) 위치 다음부터 limit개 (시간순)
+     * 오래된 구간부터 채우며, 커서보다 앞선 구간은 빈 결과로 끝남
+     */
+    @Transactional(readOnly = true)
+    public List<SimulationMessageRepository.HistoryPageItem> loadHistoryPage(Long simulationId,
+                                                                            KeysetCursor.Position after, int limit) {
+        List<Segment> segments = inheritedSegmentsById(simulationId);
+        Collections.reverse(segments);
+        segments.add(new Segment(simulationId, Long.MAX_VALUE));
+
+        List<SimulationMessageRepository.HistoryPageItem> items = new ArrayList<>();
+        for (Segment segment : segments) {
+            int remaining = limit - items.size();
+            if (remaining <= 0) {
+                break;
+            }
+            items.addAll(simulationMessageRepository.findHistoryPage(segment.simulationId(), segment.untilMessageId(),
+                    after.time(), after.id(), PageRequest.of(0, remaining)));
+        }
+        return items;
+    }
+
+    /**
+     * afterMessageId 이후 대화를 오래된 순으로 limit개 (분기로 이어받은 구간 포함, 대화 요약용)
+     * messageId는 이어받은 구간 → 자기 메시지 순으로 커지므로 메시지 ID 하나로 어디까지 요약했는지 표시할 수 있음
+     */
+    @Transactional(readOnly = true)
+    public List<SimulationMessage> loadMessagesAfter(Long simulationId, long afterMessageId, int limit) {
+        List<Segment> segments = inheritedSegmentsById(simulationId);
+        Collections.reverse(segments);
+
+        List<SimulationMessage> messages = new ArrayList<>();
+        for (Segment segment : segments) {
+            int remaining = limit - messages.size();
+            if (remaining <= 0) {
+                return messages;
+            }
+            if (segment.untilMessageId() > afterMessageId) {
+                messages.addAll(simulationMessageRepository
+                        .findBySimulationSimulationIdAndMessageIdGreaterThanAndMessageIdLessThanEqualOrderByMessageIdAsc(
+                                segment.simulationId(), afterMessageId, segment.untilMessageId(),
+                                PageRequest.of(0, remaining)));
+            }
+        }
+        int remaining = limit - messages.size();
+        if (remaining > 0) {
+            messages.addAll(simulationMessageRepository.findBySimulationSimulationIdAndMessageIdGreaterThanOrderByMessageIdAsc(
+                    simulationId, afterMessageId, PageRequest.of(0, remaining)));
+        }
+        return messages;
+    }
+
+    /**
+     * 이어받은 구간 (가까운 부모부터)
+     * 시뮬레이션 행 대신 분기 지점만 읽으며 부모를 따라감
+     */
+    private List<Segment> inheritedSegmentsById(Long simulationId) {
+        SimulationRepository.BranchPoint point = simulationRepository.findBranchPoint(simulationId)
+                .orElseThrow(() -> new IllegalArgumentException("시뮬레이션을 찾을 수 없습니다: " + simulationId));
+        List<Segment> inherited = new ArrayList<>();
+        while (point.getParentSimulationId() != null) {
+            inherited.add(new Segment(point.getParentSimulationId(), point.getBranchMessageId()));
+            Long parentId = point.getParentSimulationId();
+            point = simulationRepository.findBranchPoint(parentId)
+                    .orElseThrow(() -> new IllegalStateException("분기 원본 시뮬레이션이 없습니다: " + parentId));
+        }
+        return inherited;
+    }
+
+    /**
+     * 최근 메시지 limit개 (최근 것부터)
+     * 자기 메시지로 채워지면 조상은 보지 않고, 모자랄 때만 이어받은 구간에서 채움
+     */
+    @Transactional(readOnly = true)
+    public List<SimulationMessage> loadRecentMessages(Long simulationId, int limit) {
+        List<SimulationMessage> latest = new ArrayList<>(simulationMessageRepository
+                .findBySimulationSimulationIdOrderByMessageIdDesc(simulationId, PageRequest.of(0, limit)));
+        if (latest.size() >= limit) {
+            return latest;
+        }
+
+        Optional<Simulation> simulation = simulationRepository.findById(simulationId);
+        if (simulation.isEmpty()) {
+            return latest;
+        }
+        for (Segment segment : inheritedSegments(simulation.get())) {
+            int remaining = limit - latest.size();
+            if (remaining <= 0) {
+                break;
+            }
+            latest.addAll(simulationMessageRepository
+                    .findBySimulationSimulationIdAndMessageIdLessThanEqualOrderByMessageIdDesc(
+                            segment.simulationId(), segment.untilMessageId(), PageRequest.of(0, remaining)));
+        }
+        return latest;
+    }
+
+    /**
+     * 이어받은 구간 목록 (가까운 조상부터)
+     */
+    private List<Segment> inheritedSegments(Simulation simulation) {
+        List<Segment> segments = new ArrayList<>();
+        Simulation current = simulation;
+        while (current.getParent() != null) {
+            segments.add(new Segment(current.getParent().getSimulationId(), current.getBranchMessageId()));
+            current = current.getParent();
+        }
+        return segments;
+    }
+
+    private static long inheritedCount(Simulation simulation) {
+        return simulation.getBranchMessageCount() != null ? simulation.getBranchMessageCount() : 0L;
+    }
+}
@@ -0,0 +1,81 @@
+package mandarin.com.mandarin_backend.service;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.stereotype.Service;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+/**
+ * 시뮬레이션별 메일박스 (같은 시뮬레이션의 대화 턴을 도착 순서대로 하나씩 실행)
+ *
+ * 같은 시뮬레이션에 메시지가 동시에 들어오면 최근 대화 스냅샷 / 메시지 순번이 섞이므로
+ * 시뮬레이션마다 마지막 작업의 완료 future(tail)만 들고, 새 작업은 tail을 자기 것으로 바꾼 뒤 이전 작업이 끝나길 기다림
+ * - 전역 락 없음: tail 교체는 ConcurrentHashMap의 키 단위 원자 연산이라 다른 시뮬레이션은 완전히 병렬로 진행
+ * - 작업은 호출한 요청 스레드에서 그대로 실행 (별도 스레드 풀 / 큐 없음, 트랜잭션도 호출 스레드에 그대로 묶임)
+ * - 앞 작업이 예외로 끝나도 다음 작업은 실행됨
+ * - 대기 중인 작업이 없으면 tail을 제거해서 쉬는 시뮬레이션은 메모리를 차지하지 않음
+ *
+ * 인스턴스 안에서만 순서를 보장 (여러 대로 띄우면 같은 시뮬레이션은 같은 인스턴스로 보내거나 순번 unique 제약으로 충돌을 감지)
+ *
+ * 메트릭: simulation.mailbox.wait (timer), simulation.mailbox.queued (counter), simulation.mailbox.active (gauge)
+ */
+@Service
+public class SimulationMailbox {
+
+    private final ConcurrentHashMap<Long, CompletableFuture<Void>> tails = new ConcurrentHashMap<>();
+    private final Timer waitTimer;
+    private final Counter queuedCounter;
+
+    public SimulationMailbox(MeterRegistry meterRegistry) {
+        this.waitTimer = Timer.builder("simulation.mailbox.wait")
+                .description("같은 시뮬레이션의 앞선 턴이 끝나길 기다린 시간")
+                .register(meterRegistry);
+        this.queuedCounter = Counter.builder("simulation.mailbox.queued")
+                .description("앞선 턴이 진행 중이라 대기한 요청 수")
+                .register(meterRegistry);
+        Gauge.builder("simulation.mailbox.active", tails, ConcurrentHashMap::size)
+                .description("턴을 처리 중인 시뮬레이션 수")
+                .register(meterRegistry);
+    }
+
+    /**
+     * 같은 시뮬레이션의 앞선 작업이 모두 끝난 뒤 task를 실행하고 결과를 반환
+     *
+     * @param simulationId 시뮬레이션 ID (null이면 순서 보장 없이 바로 실행)
+     * @param task         실행할 작업 (트랜잭션 커밋까지 끝나야 다음 작업이 최신 상태를 봄)
+     */
+    public <T> T submit(Long simulationId, Supplier<T> task) {
+        if (simulationId == null) {
+            return task.get();
+        }
+
+        CompletableFuture<Void> done = new CompletableFuture<>();
+        CompletableFuture<Void> previous = tails.put(simulationId, done);
+        try {
+            if (previous != null) {
+                queuedCounter.increment();
+                long start = System.nanoTime();
+                // previous는 항상 정상 완료되므로 join은 예외 없이 반환 (AI 호출 타임아웃이 대기 시간의 상한)
+                previous.join();
+                waitTimer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+            }
+            return task.get();
+        } finally {
+            done.complete(null);
+            tails.remove(simulationId, done);
+        }
+    }
+
+    /**
+     * 턴을 처리 중이거나 대기 중인 시뮬레이션 수
+     */
+    public int activeCount() {
+        return tails.size();
+    }
+}
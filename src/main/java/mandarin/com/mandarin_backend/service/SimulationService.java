@@ -1,22 +1,24 @@
 package mandarin.com.mandarin_backend.service;
 
-import com.fasterxml.jackson.core.JsonProcessingException;
-import com.fasterxml.jackson.databind.ObjectMapper;
 import lombok.RequiredArgsConstructor;
+import mandarin.com.mandarin_backend.config.AiRequestWriter;
 import mandarin.com.mandarin_backend.dto.*;
 import mandarin.com.mandarin_backend.entity.Simulation;
 import mandarin.com.mandarin_backend.entity.SimulationMessage;
-import mandarin.com.mandarin_backend.entity.UserCharacter;
 import mandarin.com.mandarin_backend.repository.SimulationMessageRepository;
 import mandarin.com.mandarin_backend.repository.SimulationRepository;
+import mandarin.com.mandarin_backend.util.KeysetCursor;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.http.MediaType;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.interceptor.TransactionAspectSupport;
 import org.springframework.web.reactive.function.client.WebClient;
 
 import java.time.LocalDateTime;
-import java.util.HashMap;
 import java.util.List;
-import java.util.Map;
+import java.util.Optional;
 import java.util.stream.Collectors;
 
 @Service
@@ -26,34 +28,65 @@ public class SimulationService {
     private final SimulationRepository simulationRepository;
     private final SimulationMessageRepository simulationMessageRepository;
     private final WebClient webClient;
-    private final ObjectMapper objectMapper;
+    private final ConversationMemoryService conversationMemoryService;
+    private final ConversationStateCache conversationStateCache;
+    private final SimulationBranchService simulationBranchService;
+    private final AiRequestWriter aiRequestWriter;
+    private final ApplicationEventPublisher eventPublisher;
 
     // character_id로 시뮬레이션 다건 조회
     public ApiResponse<List<SimulationResponseDto>> getSimulationsByCharacterId(Long characterId) {
 
-        List<Simulation> simulations = simulationRepository.findByCharacterCharacterId(characterId);
+        // 목록에 필요한 컬럼만 조회 (fewShotContext / characterPersona는 읽지 않음)
+        List<SimulationRepository.ListItem> simulations = simulationRepository.findListItemsByCharacterId(characterId);
 
         if (simulations.isEmpty()) {
             return ApiResponse.success("해당 캐릭터의 시뮬레이션이 없습니다.", List.of());
         }
 
-        // Simulation 엔티티를 SimulationResponseDto로 변환
         List<SimulationResponseDto> responseDtos = simulations.stream()
-                .map(simulation -> SimulationResponseDto.builder()
-                        .simulationId(simulation.getSimulationId())
-                        .characterId(simulation.getCharacter().getCharacterId())
-                        .simulationName(simulation.getSimulationName())
-                        .purpose(simulation.getPurpose())
-                        .category(simulation.getCategory())
-                        .time(simulation.getTime())
-                        .lastUpdateTime(simulation.getLastUpdateTime())
-                        .isFinished(simulation.getIsFinished())
-                        .build())
+                .map(SimulationService::toResponseDto)
                 .collect(Collectors.toList());
 
         return ApiResponse.success("시뮬레이션 정보 조회 성공", responseDtos);
     }
 
+    /**
+     * character_id로 시뮬레이션 목록 페이지 조회 (최근 수정 순, 커서 기반)
+     * 대화가 오가면 lastUpdateTime이 바뀌므로 페이지를 넘기는 사이 수정된 시뮬레이션은 다음 목록 새로고침 때 맨 앞에 보임
+     */
+    public ApiResponse<CursorPageResponseDto<SimulationResponseDto>> getSimulationPageByCharacterId(
+            Long characterId, String cursor, Integer size) {
+        try {
+            KeysetCursor.Position after = KeysetCursor.decode(cursor, true);
+            int pageSize = KeysetCursor.pageSize(size);
+            List<SimulationRepository.ListItem> rows = simulationRepository.findListItemPageByCharacterId(
+                    characterId, after.time(), after.id(), PageRequest.of(0, pageSize + 1));
+
+            return ApiResponse.success("시뮬레이션 정보 조회 성공", CursorPageResponseDto.of(rows, pageSize,
+                    SimulationService::toResponseDto,
+                    row -> KeysetCursor.encode(row.getLastUpdateTime(), row.getSimulationId())));
+
+        } catch (IllegalArgumentException e) {
+            return ApiResponse.fail(e.getMessage());
+        }
+    }
+
+    private static SimulationResponseDto toResponseDto(SimulationRepository.ListItem simulation) {
+        return SimulationResponseDto.builder()
+                .simulationId(simulation.getSimulationId())
+                .characterId(simulation.getCharacterId())
+                .simulationName(simulation.getSimulationName())
+                .purpose(simulation.getPurpose())
+                .category(simulation.getCategory())
+                .time(simulation.getTime())
+                .lastUpdateTime(simulation.getLastUpdateTime())
+                .isFinished(simulation.getIsFinished())
+                .parentSimulationId(simulation.getParentSimulationId())
+                .branchMessageCount(simulation.getBranchMessageCount())
+                .build();
+    }
+
     /**
      * 시뮬레이션 단건 조회 API
      */
@@ -70,56 +103,155 @@ public class SimulationService {
                 .time(simulation.getTime())
                 .lastUpdateTime(simulation.getLastUpdateTime())
                 .isFinished(simulation.getIsFinished())
+                .parentSimulationId(simulation.getParent() != null
+                        ? simulation.getParent().getSimulationId() : null)
+                .branchMessageCount(simulation.getBranchMessageCount())
                 .build();
 
         return ApiResponse.success("시뮬레이션 정보 조회 성공", responseDto);
     }
 
+    /**
+     * 시뮬레이션 분기 API
+     * messageIndex번째 메시지까지의 대화를 이어받는 새 시뮬레이션 생성 (메시지 / 페르소나는 복사하지 않음)
+     */
+    public ApiResponse<SimulationResponseDto> forkSimulation(Long simulationId, SimulationForkRequestDto request) {
+        if (request == null || request.getMessageIndex() == null) {
+            return ApiResponse.fail("messageIndex는 필수입니다.");
+        }
+        try {
+            Simulation branch = simulationBranchService.fork(
+                    simulationId, request.getMessageIndex(), request.getSimulationName());
+
+            SimulationResponseDto responseDto = SimulationResponseDto.builder()
+                    .simulationId(branch.getSimulationId())
+                    .characterId(branch.getCharacter().getCharacterId())
+                    .simulationName(branch.getSimulationName())
+                    .purpose(branch.getPurpose())
+                    .category(branch.getCategory())
+                    .time(branch.getTime())
+                    .lastUpdateTime(branch.getLastUpdateTime())
+                    .isFinished(branch.getIsFinished())
+                    .parentSimulationId(branch.getParent().getSimulationId())
+                    .branchMessageCount(branch.getBranchMessageCount())
+                    .build();
+
+            return ApiResponse.success("시뮬레이션 분기 성공", responseDto);
+
+        } catch (Exception e) {
+            return ApiResponse.fail("시뮬레이션 분기 실패: " + e.getMessage());
+        }
+    }
+
     /**
      * simulation_id로 시뮬레이션 대화 다건 조회
      * 해당 시뮬레이션의 모든 대화 메시지를 시간순으로 반환
      */
     public ApiResponse<List<SimulationMessageResponseDto>> getMessagesBySimulationId(Long simulationId) {
         try {
-            // 1. 시뮬레이션 존재 여부 확인
-            boolean exists = simulationRepository.existsById(simulationId);
-            if (!exists) {
-                return ApiResponse.fail("시뮬레이션을 찾을 수 없습니다: " + simulationId);
-            }
-
-            // 2. 해당 시뮬레이션의 모든 메시지 조회 (시간순)
-            List<SimulationMessage> messages = simulationMessageRepository
-                    .findBySimulationSimulationIdOrderByTimestampAsc(simulationId);
+            // 해당 시뮬레이션의 대화 기록 조회 (순번순, 분기 시뮬레이션이면 분기 지점 이전 대화 포함)
+            // 발신자 / 내용 / 시간 / 순번 컬럼만 읽고, 시뮬레이션이 없으면 IllegalArgumentException
+            List<SimulationMessageRepository.HistoryItem> messages = simulationBranchService.loadHistoryItems(simulationId);
 
-            // 3. SimulationMessage 엔티티를 SimulationMessageResponseDto로 변환
             List<SimulationMessageResponseDto> responseDtos = messages.stream()
-                    .map(message -> SimulationMessageResponseDto.builder()
-                            .sender(message.getSender())
-                            .content(message.getContent())
-                            .timestamp(message.getTimestamp())
-                            .build())
+                    .map(SimulationService::toMessageDto)
                     .collect(Collectors.toList());
 
             return ApiResponse.success("대화 정보 조회 성공", responseDtos);
 
+        } catch (IllegalArgumentException e) {
+            return ApiResponse.fail(e.getMessage());
         } catch (Exception e) {
             return ApiResponse.fail("대화 정보 조회 실패: " + e.getMessage());
         }
     }
 
+    /**
+     * simulation_id로 시뮬레이션 대화 페이지 조회 (시간순, 커서 기반)
+     * 분기 시뮬레이션이면 이어받은 구간부터 이어서 넘김
+     */
+    public ApiResponse<CursorPageResponseDto<SimulationMessageResponseDto>> getMessagePageBySimulationId(
+            Long simulationId, String cursor, Integer size) {
+        try {
+            KeysetCursor.Position after = KeysetCursor.decode(cursor, false);
+            int pageSize = KeysetCursor.pageSize(size);
+            List<SimulationMessageRepository.HistoryPageItem> rows =
+                    simulationBranchService.loadHistoryPage(simulationId, after, pageSize + 1);
+
+            return ApiResponse.success("대화 정보 조회 성공", CursorPageResponseDto.of(rows, pageSize,
+                    SimulationService::toMessageDto,
+                    message -> KeysetCursor.encode(message.getTimestamp(), message.getMessageId())));
+
+        } catch (IllegalArgumentException e) {
+            return ApiResponse.fail(e.getMessage());
+        } catch (Exception e) {
+            return ApiResponse.fail("대화 정보 조회 실패: " + e.getMessage());
+        }
+    }
+
+    /**
+     * simulation_id로 클라이언트가 가진 대화 이후의 메시지만 조회
+     * since: 클라이언트가 가진 마지막 메시지의 순번 (응답의 sequenceNo)
+     */
+    public ApiResponse<List<SimulationMessageResponseDto>> getMessagesSince(Long simulationId, long since) {
+        try {
+            List<SimulationMessageResponseDto> responseDtos = simulationBranchService
+                    .loadHistoryItemsSince(simulationId, since).stream()
+                    .map(SimulationService::toMessageDto)
+                    .collect(Collectors.toList());
+
+            return ApiResponse.success("대화 정보 조회 성공", responseDtos);
+
+        } catch (IllegalArgumentException e) {
+            return ApiResponse.fail(e.getMessage());
+        } catch (Exception e) {
+            return ApiResponse.fail("대화 정보 조회 실패: " + e.getMessage());
+        }
+    }
+
+    /**
+     * 대화 조회 ETag (시뮬레이션 1행만 읽음, 시뮬레이션이 없으면 빈 값)
+     * 메시지를 저장할 때마다 lastUpdateTime과 메시지 수가 함께 바뀌므로 둘이 같으면 대화도 같음
+     * (분기 시뮬레이션은 이어받은 메시지 수를 더함 - 부모 대화의 분기 지점 이후는 이어받지 않으므로 영향 없음)
+     */
+    public Optional<String> getMessageETag(Long simulationId) {
+        return simulationRepository.findMessageVersion(simulationId)
+                .map(version -> {
+                    long inherited = version.getBranchMessageCount() != null ? version.getBranchMessageCount() : 0L;
+                    return simulationId + "-" + (inherited + version.getMessageCount()) + "-" + version.getLastUpdateTime();
+                });
+    }
+
+    private static SimulationMessageResponseDto toMessageDto(SimulationMessageRepository.HistoryItem message) {
+        return SimulationMessageResponseDto.builder()
+                .sender(message.getSender())
+                .content(message.getContent())
+                .timestamp(message.getTimestamp())
+                .sequenceNo(message.getSequenceNo())
+                .build();
+    }
+
     /**
      * 시뮬레이션 메시지 저장 및 AI 응답 받기
      * 1. 사용자 메시지를 SimulationMessage 테이블에 저장
      * 2. Simulation 테이블의 lastUpdateTime 업데이트
      * 3. AI 응답을 받아서 DB에 저장
      * 4. AI 응답을 프론트에 전송
+     *
+     * 페르소나/컨텍스트/최근 대화는 메모리의 대화 상태에서 가져오고 (캐시 히트면 DB 조회 없음)
+     * 저장은 DB에 바로 반영(write-through)
+     * AI 응답을 받지 못하면 사용자 메시지 저장도 롤백 (실패 응답은 멱등성 키에 남지 않아 재시도하면 처음부터 다시 실행)
      */
     @Transactional
     public ApiResponse<SimulationMessageResponseDto> sendMessage(SimulationMessageRequestDto request) {
         try {
-            // 1. 시뮬레이션 조회
-            Simulation simulation = simulationRepository.findById(request.getSimulationId())
-                    .orElseThrow(() -> new IllegalArgumentException("시뮬레이션을 찾을 수 없습니다: " + request.getSimulationId()));
+            // 1. 대화 상태 조회 (persona, simulation_context, 누적 요약, 최근 대화)
+            ConversationStateCache.ConversationState state = conversationStateCache.get(request.getSimulationId());
+            Simulation simulation = simulationRepository.getReferenceById(request.getSimulationId());
+
+            // 이전 대화 내역 (전체 대신 요약 이후 대화만, 그 이전은 요약으로 전달)
+            // 이번 메시지는 user_message로 따로 전달하므로 저장 전에 스냅샷
+            ConversationMemoryService.ConversationContext context = conversationMemoryService.window(state.context());
 
             LocalDateTime now = LocalDateTime.now();
 
@@ -129,52 +261,33 @@ public class SimulationService {
                     .sender(request.getSender())  // "user" 또는 "assistant"
                     .content(request.getContent())
                     .timestamp(now)
+                    .sequenceNo(state.nextSequence())
                     .build();
             simulationMessageRepository.save(userMessage);
+            conversationStateCache.appendAfterCommit(request.getSimulationId(), userMessage.getMessageId(),
+                    "assistant".equals(request.getSender()) ? "assistant" : "user", request.getContent());
 
-            // 3. Simulation 테이블의 lastUpdateTime 업데이트
-            simulation.setLastUpdateTime(now);
-            simulationRepository.save(simulation);
+            // 3. Simulation 테이블의 lastUpdateTime / 메시지 수 업데이트
+            simulationRepository.recordMessages(request.getSimulationId(), now, 1);
 
-            // 4. 이전 대화 내역 조회
-            List<SimulationMessage> messageHistory = simulationMessageRepository
-                    .findBySimulationSimulationIdOrderByTimestampAsc(request.getSimulationId());
+            // 4. AI에게 보낼 요청 준비 (persona / simulation_context는 미리 직렬화해 둔 JSON을 그대로 사용)
+            ChatAiRequestDto chatRequest = new ChatAiRequestDto(
+                    state.getPersona(),
+                    request.getContent(),
+                    context.recent(),
+                    context.summary(),
+                    state.getSimulationContext());
 
-            List<ChatLogDto> history = messageHistory.stream()
-                    .map(msg -> ChatLogDto.builder()
-                            .role("assistant".equals(msg.getSender()) ? "assistant" : "user")
-                            .content(msg.getContent())
-                            .build())
-                    .collect(Collectors.toList());
-
-            // 5. AI에게 보낼 요청 준비
-            UserCharacter character = simulation.getCharacter();
-            UserPersonaDto persona = parsePersonaFromJson(simulation.getCharacterPersona());
-
-            Map<String, Object> requestBody = new HashMap<>();
-            requestBody.put("persona", convertPersonaToMap(persona));
-            requestBody.put("user_message", request.getContent());
-            requestBody.put("history", convertHistoryToList(history));
-
-            // 시뮬레이션 컨텍스트 추가
-            Map<String, Object> simulationContext = new HashMap<>();
-            simulationContext.put("character_age", character.getCharacterAge());
-            simulationContext.put("relation_type", character.getRelationType());
-            simulationContext.put("love_type", character.getLoveType());
-            simulationContext.put("history_sum", character.getHistorySum());
-            simulationContext.put("purpose", simulation.getPurpose().name());
-            simulationContext.put("category", simulation.getCategory().name());
-            requestBody.put("simulation_context", simulationContext);
-
-            // 6. Python AI 서버 호출
+            // 5. Python AI 서버 호출
             ChatResponseDto aiResponse = webClient.post()
                     .uri("/chat")
-                    .bodyValue(requestBody)
+                    .contentType(MediaType.APPLICATION_JSON)
+                    .bodyValue(aiRequestWriter.write(chatRequest))
                     .retrieve()
                     .bodyToMono(ChatResponseDto.class)
                     .block();
 
-            // 7. AI 응답 저장 (sender: true = AI)
+            // 6. AI 응답 저장 (sender: true = AI)
             if (aiResponse != null && aiResponse.getReply() != null) {
                 LocalDateTime aiTimestamp = LocalDateTime.now();
 
@@ -183,14 +296,19 @@ public class SimulationService {
                         .sender("assistant")  // "assistant" = AI (캐릭터)
                         .content(aiResponse.getReply())
                         .timestamp(aiTimestamp)
+                        .sequenceNo(state.nextSequence())
                         .build();
                 simulationMessageRepository.save(aiMessage);
+                conversationStateCache.appendAfterCommit(request.getSimulationId(), aiMessage.getMessageId(),
+                        "assistant", aiResponse.getReply());
 
                 // Simulation의 lastUpdateTime도 AI 응답 시간으로 업데이트
-                simulation.setLastUpdateTime(aiTimestamp);
-                simulationRepository.save(simulation);
+                simulationRepository.recordMessages(request.getSimulationId(), aiTimestamp, 1);
+
+                // 커밋 후 백그라운드에서 대화 요약 갱신 여부 판단 / 새 턴 평가
+                eventPublisher.publishEvent(new ConversationMemoryService.MessagesAppended(request.getSimulationId()));
 
-                // 8. 응답 반환
+                // 7. 응답 반환
                 SimulationMessageResponseDto responseDto = SimulationMessageResponseDto.builder()
                         .sender("assistant")  // "assistant" = AI (캐릭터)
                         .content(aiResponse.getReply())
@@ -199,104 +317,14 @@ public class SimulationService {
                 return ApiResponse.success("메시지 전송 성공", responseDto);
             }
 
+            // AI 응답이 없으면 사용자 메시지도 저장하지 않음 (재시도 시 같은 메시지가 두 번 저장되지 않게)
+            TransactionAspectSupport.currentTransactionStatus().setRollbackOnly();
             return ApiResponse.fail("AI 응답을 받지 못했습니다.");
 
         } catch (Exception e) {
+            TransactionAspectSupport.currentTransactionStatus().setRollbackOnly();
             return ApiResponse.fail("메시지 전송 실패: " + e.getMessage());
         }
     }
 
-    /**
-     * JSON 문자열에서 UserPersonaDto 파싱
-     */
-    private UserPersonaDto parsePersonaFromJson(String personaJson) {
-        try {
-            return objectMapper.readValue(personaJson, UserPersonaDto.class);
-        } catch (JsonProcessingException e) {
-            throw new RuntimeException("페르소나 JSON 파싱 실패: " + e.getMessage());
-        }
-    }
-
-    /**
-     * UserPersonaDto를 Python 서버 형식의 Map으로 변환
-     */
-    private Map<String, Object> convertPersonaToMap(UserPersonaDto persona) {
-        Map<String, Object> personaMap = new HashMap<>();
-        personaMap.put("name", persona.getName());
-
-        if (persona.getSpeechStyle() != null) {
-            Map<String, Object> speechStyleMap = new HashMap<>();
-            SpeechStyleDto style = persona.getSpeechStyle();
-
-            speechStyleMap.put("politeness_level", style.getPolitenessLevel());
-            speechStyleMap.put("tone", style.getTone());
-            speechStyleMap.put("common_endings", style.getCommonEndings());
-            speechStyleMap.put("frequent_interjections", style.getFrequentInterjections());
-            speechStyleMap.put("distinctive_habits", style.getDistinctiveHabits());
-            speechStyleMap.put("sample_sentences", style.getSampleSentences());
-
-            if (style.getEmojiUsage() != null) {
-                Map<String, Object> emojiMap = new HashMap<>();
-                emojiMap.put("frequency", style.getEmojiUsage().getFrequency());
-                emojiMap.put("preferred_type", style.getEmojiUsage().getPreferredType());
-                emojiMap.put("laugh_sound", style.getEmojiUsage().getLaughSound());
-                speechStyleMap.put("emoji_usage", emojiMap);
-            }
-
-            personaMap.put("speech_style", speechStyleMap);
-        }
-
-        // 긍정/부정 반응 패턴 추가
-        if (persona.getReactionPatterns() != null) {
-            Map<String, Object> reactionMap = new HashMap<>();
-            ReactionAnalysisDto reactions = persona.getReactionPatterns();
-
-            if (reactions.getPositiveTriggers() != null) {
-                reactionMap.put("positive_triggers", reactions.getPositiveTriggers().stream()
-                        .map(trigger -> {
-                            Map<String, String> triggerMap = new HashMap<>();
-                            triggerMap.put("trigger", trigger.getTrigger());
-                            triggerMap.put("reaction", trigger.getReaction());
-                            triggerMap.put("example", trigger.getExample());
-                            return triggerMap;
-                        })
-                        .collect(Collectors.toList()));
-            }
-
-            if (reactions.getNegativeTriggers() != null) {
-                reactionMap.put("negative_triggers", reactions.getNegativeTriggers().stream()
-                        .map(trigger -> {
-                            Map<String, String> triggerMap = new HashMap<>();
-                            triggerMap.put("trigger", trigger.getTrigger());
-                            triggerMap.put("reaction", trigger.getReaction());
-                            triggerMap.put("example", trigger.getExample());
-                            return triggerMap;
-                        })
-                        .collect(Collectors.toList()));
-            }
-
-            personaMap.put("reaction_patterns", reactionMap);
-        }
-
-        return personaMap;
-    }
-
-    /**
-     * 대화 내역을 Python 서버 형식의 List로 변환
-     */
-    private List<Map<String, String>> convertHistoryToList(List<ChatLogDto> history) {
-        if (history == null) {
-            return List.of();
-        }
-
-        return history.stream()
-                .map(log -> {
-                    Map<String, String> map = new HashMap<>();
-                    map.put("role", log.getRole());
-                    map.put("content", log.getContent());
-                    return map;
-                })
-                .collect(Collectors.toList());
-    }
 }
-
@@ -0,0 +1,146 @@
+package mandarin.com.mandarin_backend.service;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import mandarin.com.mandarin_backend.config.IdempotencyProperties;
+import mandarin.com.mandarin_backend.exception.IdempotencyKeyConflictException;
+import mandarin.com.mandarin_backend.util.HashUtil;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+
+import java.time.Clock;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.function.Predicate;
+import java.util.function.Supplier;
+
+/**
+ * 대화 턴 멱등성 처리 (Idempotency-Key 헤더)
+ *
+ * 모바일 네트워크에서 타임아웃 후 같은 요청을 다시 보내도 LLM 호출과 메시지 저장이 한 번만 일어나도록
+ * 시뮬레이션별로 최근 키와 결과를 메모리에 보관 (시뮬레이션당 keysPerSimulation개, 시뮬레이션 maxSimulations개, TTL)
+ * - 원래 요청이 처리 중이면 재시도는 그 결과를 기다렸다가 같은 응답을 받음
+ * - 이미 끝났으면 AI 서버를 호출하지 않고 저장된 응답을 그대로 돌려줌
+ * - 실패한 요청은 저장하지 않으므로 재시도하면 다시 실행 (action은 실패 시 저장한 내용을 롤백해야 함)
+ * - 같은 키로 다른 내용을 보내면 409
+ *
+ * 메트릭: simulation.idempotency.replayed / attached (counter), simulation.idempotency.simulations (gauge)
+ */
+@Service
+public class TurnIdempotencyService {
+
+    private final IdempotencyProperties properties;
+    private final MeterRegistry meterRegistry;
+    private final Clock clock;
+    private final LinkedHashMap<Long, LinkedHashMap<String, Entry>> simulations;
+
+    @Autowired
+    public TurnIdempotencyService(IdempotencyProperties properties, MeterRegistry meterRegistry) {
+        this(properties, meterRegistry, Clock.systemUTC());
+    }
+
+    TurnIdempotencyService(IdempotencyProperties properties, MeterRegistry meterRegistry, Clock clock) {
+        this.properties = properties;
+        this.meterRegistry = meterRegistry;
+        this.clock = clock;
+        this.simulations = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Long, LinkedHashMap<String, Entry>> eldest) {
+                return size() > Math.max(1, properties.getMaxSimulations());
+            }
+        };
+        Gauge.builder("simulation.idempotency.simulations", this, TurnIdempotencyService::size)
+                .register(meterRegistry);
+    }
+
+    /**
+     * 멱등성 키가 있으면 같은 키의 요청을 한 번만 실행
+     *
+     * @param simulationId 시뮬레이션 ID (키는 시뮬레이션 안에서만 유일하면 됨)
+     * @param key          클라이언트가 보낸 Idempotency-Key (없으면 그냥 실행)
+     * @param payload      요청 내용 (같은 키로 다른 내용이 오는지 확인용)
+     * @param action       실제 처리 (트랜잭션 커밋까지 끝난 결과를 돌려줘야 함)
+     * @param storeIf      저장해서 재사용할 결과인지 (실패 응답은 저장하지 않음, 이때 action이 저장한 데이터는 롤백되어 있어야 함)
+     */
+    @SuppressWarnings("unchecked")
+    public <T> T execute(Long simulationId, String key, String payload, Supplier<T> action, Predicate<T> storeIf) {
+        if (key == null || key.isBlank()) {
+            return action.get();
+        }
+
+        String fingerprint = HashUtil.sha256Hex(payload != null ? payload : "");
+        CompletableFuture<Object> mine = new CompletableFuture<>();
+        Entry existing;
+        synchronized (this) {
+            LinkedHashMap<String, Entry> keys = simulations.computeIfAbsent(simulationId, id -> newKeyMap());
+            existing = keys.get(key);
+            if (existing != null && clock.millis() - existing.createdAt >= properties.getTtl().toMillis()) {
+                keys.remove(key);
+                existing = null;
+            }
+            if (existing == null) {
+                keys.put(key, new Entry(fingerprint, mine, clock.millis()));
+            }
+        }
+
+        if (existing != null) {
+            if (!existing.fingerprint.equals(fingerprint)) {
+                throw new IdempotencyKeyConflictException("이미 다른 요청에 사용한 Idempotency-Key입니다: " + key);
+            }
+            meterRegistry.counter(existing.result.isDone()
+                    ? "simulation.idempotency.replayed"
+                    : "simulation.idempotency.attached").increment();
+            System.out.println("[Idempotency] 중복 요청 - 시뮬레이션ID: " + simulationId + ", 키: " + key
+                    + (existing.result.isDone() ? " (저장된 응답 반환)" : " (처리 중인 요청 대기)"));
+            try {
+                return (T) existing.result.join();
+            } catch (CompletionException e) {
+                if (e.getCause() instanceof RuntimeException runtime) {
+                    throw runtime;
+                }
+                throw e;
+            }
+        }
+
+        try {
+            T result = action.get();
+            if (!storeIf.test(result)) {
+                remove(simulationId, key, mine);
+            }
+            mine.complete(result);
+            return result;
+        } catch (RuntimeException e) {
+            remove(simulationId, key, mine);
+            mine.completeExceptionally(e);
+            throw e;
+        }
+    }
+
+    public synchronized int size() {
+        return simulations.size();
+    }
+
+    private synchronized void remove(Long simulationId, String key, CompletableFuture<Object> result) {
+        LinkedHashMap<String, Entry> keys = simulations.get(simulationId);
+        if (keys != null) {
+            Entry entry = keys.get(key);
+            if (entry != null && entry.result == result) {
+                keys.remove(key);
+            }
+        }
+    }
+
+    private LinkedHashMap<String, Entry> newKeyMap() {
+        return new LinkedHashMap<>() {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, Entry> eldest) {
+                return size() > Math.max(1, properties.getKeysPerSimulation());
+            }
+        };
+    }
+
+    private record Entry(String fingerprint, CompletableFuture<Object> result, long createdAt) {
+    }
+}
@@ -1,7 +1,11 @@
 package mandarin.com.mandarin_backend.service;
 
 import lombok.RequiredArgsConstructor;
+import mandarin.com.mandarin_backend.config.AiFanOut;
+import mandarin.com.mandarin_backend.config.AiRequestCoalescer;
+import mandarin.com.mandarin_backend.dto.CursorPageResponseDto;
 import mandarin.com.mandarin_backend.dto.HistorySumResponseDto;
+import mandarin.com.mandarin_backend.dto.ReactionTriggerDto;
 import mandarin.com.mandarin_backend.dto.UserCharacterRequestDto;
 import mandarin.com.mandarin_backend.dto.UserCharacterResponseDto;
 import mandarin.com.mandarin_backend.entity.*;
@@ -9,10 +13,15 @@ import mandarin.com.mandarin_backend.exception.CharacterNotFoundException;
 import mandarin.com.mandarin_backend.exception.UserNotFoundException;
 import mandarin.com.mandarin_backend.repository.*;
 import mandarin.com.mandarin_backend.util.FileUtil;
+import mandarin.com.mandarin_backend.util.KeysetCursor;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 import org.springframework.web.multipart.MultipartFile;
 import org.springframework.web.reactive.function.client.WebClient;
+import reactor.core.publisher.Mono;
 
 import java.io.IOException;
 import java.time.LocalDateTime;
@@ -24,27 +33,42 @@ import java.util.stream.Collectors;
 public class UserCharacterService {
 
     private final WebClient webClient;
+    private final AiRequestCoalescer aiRequestCoalescer;
+    private final AiFanOut aiFanOut;
+    private final AnalysisService analysisService;
     private final UserRepository userRepository;
     private final UserCharacterRepository characterRepository;
-    private final SimulationRepository simulationRepository;
-    private final SimulationMessageRepository simulationMessageRepository;
-    private final ChatReportRepository chatReportRepository;
-    private final ChatReportDetailLogRepository chatReportDetailLogRepository;
-    private final ChatReportAvgRepository chatReportAvgRepository;
-    private final ReportCharacterRepository reportCharacterRepository;
-    private final ReportCharacterDetailLogRepository reportCharacterDetailLogRepository;
+    private final PersonaCacheRepository personaCacheRepository;
+    private final ConversationStateCache conversationStateCache;
+    private final AccountPurgeService accountPurgeService;
     private final FileUtil fileUtil;
+    private final PlatformTransactionManager transactionManager;
 
     // 1. 다건 조회 (기존 동일)
     public List<UserCharacterResponseDto> getCharactersByUserId(Long userId) {
-        User user = userRepository.findById(userId)
-                .orElseThrow(() -> new UserNotFoundException("회원 정보가 없습니다."));
-        List<UserCharacter> characters = characterRepository.findByUser(user);
-        return characters.stream()
-                .map(UserCharacterResponseDto::fromEntity)
+        if (!userRepository.existsByIdAndDeletedAtIsNull(userId)) {
+            throw new UserNotFoundException("회원 정보가 없습니다.");
+        }
+        // 목록에 필요한 컬럼만 조회 (사용자 행은 읽지 않음)
+        return characterRepository.findListItemsByUserId(userId).stream()
+                .map(UserCharacterResponseDto::fromListItem)
                 .collect(Collectors.toList());
     }
 
+    // 1-1. 다건 페이지 조회 (최근 생성 순, 커서 기반)
+    public CursorPageResponseDto<UserCharacterResponseDto> getCharacterPageByUserId(Long userId, String cursor,
+                                                                                  Integer size) {
+        KeysetCursor.Position after = KeysetCursor.decode(cursor, true);
+        int pageSize = KeysetCursor.pageSize(size);
+        if (!userRepository.existsByIdAndDeletedAtIsNull(userId)) {
+            throw new UserNotFoundException("회원 정보가 없습니다.");
+        }
+        List<UserCharacterRepository.ListItem> rows = characterRepository.findListItemPageByUserId(
+                userId, after.time(), after.id(), PageRequest.of(0, pageSize + 1));
+        return CursorPageResponseDto.of(rows, pageSize, UserCharacterResponseDto::fromListItem,
+                row -> KeysetCursor.encode(row.getCreatedAt(), row.getCharacterId()));
+    }
+
     // 2. 단건 조회 (기존 동일)
     public UserCharacterResponseDto getCharacter(Long characterId) {
         UserCharacter character = characterRepository.findById(characterId)
@@ -60,7 +84,7 @@ public class UserCharacterService {
                                 MultipartFile characterImg,
                                 MultipartFile fullDialogueFile) throws IOException {
 
-        User user = userRepository.findById(dto.getId())
+        User user = userRepository.findByIdAndDeletedAtIsNull(dto.getId())
                 .orElseThrow(() -> new UserNotFoundException("회원 정보가 없습니다."));
 
         // [수정] 폴더 이름을 명시해서 저장합니다.
@@ -114,50 +138,21 @@ public class UserCharacterService {
         if (fullDialogueFile != null && !fullDialogueFile.isEmpty()) {
             fileUtil.deleteFile(character.getFullDialogue());
             character.setFullDialogue(fileUtil.saveFile(fullDialogueFile, "dialogue"));
+            // 대화가 바뀌었으므로 이전 대화로 만든 페르소나 캐시 삭제
+            personaCacheRepository.deleteByCharacter_CharacterId(characterId);
         }
+
+        // 진행 중인 시뮬레이션의 simulation_context가 바뀌었으므로 메모리의 대화 상태 제거
+        conversationStateCache.evictCharacter(characterId);
     }
 
-    // 5. 삭제 (연관된 모든 데이터 먼저 삭제)
+    // 5. 삭제 (연관된 모든 데이터를 테이블별 일괄 DELETE로 삭제, 파일은 커밋 후 삭제)
     @Transactional
     public void deleteCharacter(Long characterId) {
         UserCharacter character = characterRepository.findById(characterId)
                 .orElseThrow(() -> new CharacterNotFoundException("캐릭터 정보가 없습니다."));
 
-        // 1. ReportCharacter 관련 데이터 삭제
-        List<ReportCharacter> reportCharacters = reportCharacterRepository.findByCharacter_CharacterId(characterId);
-        for (ReportCharacter rc : reportCharacters) {
-            // ReportCharacterDetailLog 삭제
-            reportCharacterDetailLogRepository.deleteByReportCharacter_ReportCharacterId(rc.getReportCharacterId());
-        }
-        // ReportCharacter 삭제
-        reportCharacterRepository.deleteAll(reportCharacters);
-
-        // 2. ChatReport 관련 데이터 삭제
-        List<ChatReport> chatReports = chatReportRepository.findByCharacter_CharacterId(characterId);
-        for (ChatReport cr : chatReports) {
-            // ChatReportDetailLog 삭제
-            chatReportDetailLogRepository.deleteByChatReportId(cr.getChatReportId());
-            // ChatReportAvg 삭제
-            chatReportAvgRepository.deleteByChatReport_ChatReportId(cr.getChatReportId());
-        }
-        // ChatReport 삭제
-        chatReportRepository.deleteAll(chatReports);
-
-        // 3. Simulation 관련 데이터 삭제
-        List<Simulation> simulations = simulationRepository.findByCharacterCharacterId(characterId);
-        for (Simulation sim : simulations) {
-            // SimulationMessage 삭제
-            simulationMessageRepository.deleteBySimulation_SimulationId(sim.getSimulationId());
-        }
-        // Simulation 삭제
-        simulationRepository.deleteAll(simulations);
-
-        // 4. 파일 삭제
-        fileUtil.deleteFile(character.getCharacterImg());
-        fileUtil.deleteFile(character.getFullDialogue());
-
-        // 5. UserCharacter 삭제
-        characterRepository.delete(character);
+        accountPurgeService.deleteCharacters(List.of(character));
     }
 
     // ================================
@@ -172,18 +167,14 @@ public class UserCharacterService {
         body.put("history", history);
         body.put("character_name", character.getCharacterName());
 
-        HistorySumResponseDto response = webClient.post()
-                .uri("/summarize-history")
-                .bodyValue(body)
-                .retrieve()
-                .bodyToMono(HistorySumResponseDto.class)
-                .block();
+        HistorySumResponseDto response = requestHistorySummary(body);
 
         if (response == null || response.getSummary() == null) {
             throw new RuntimeException("히스토리 요약 실패.");
         }
 
         character.setHistorySum(response.getSummary());
+        conversationStateCache.evictCharacter(characterId);
         return characterRepository.save(character);
     }
 
@@ -196,12 +187,7 @@ public class UserCharacterService {
         body.put("history", history);
         body.put("character_name", characterName);
 
-        HistorySumResponseDto response = webClient.post()
-                .uri("/summarize-history")
-                .bodyValue(body)
-                .retrieve()
-                .bodyToMono(HistorySumResponseDto.class)
-                .block();
+        HistorySumResponseDto response = requestHistorySummary(body);
 
         if (response == null || response.getSummary() == null) {
             throw new RuntimeException("히스토리 요약 실패.");
@@ -210,6 +196,100 @@ public class UserCharacterService {
         return response.getSummary();
     }
 
+    // ================================
+    // 8. 캐릭터 초기 분석 (히스토리 요약 + 갈등 리포트를 동시에)
+    // ================================
+    /**
+     * 캐릭터 생성 / 리포트 재생성 시 서로 독립적인 AI 호출을 동시에 실행하고 결과를 함께 저장
+     * - history가 있으면 /summarize-history → historySum 저장
+     * - 대화 내용과 상대방이 있으면 /extract-negative-triggers → ReportCharacter 저장
+     * 하나가 실패하면 다른 호출은 취소하고 아무것도 저장하지 않음 (전체 제한 시간: ai.client.fan-out.deadline)
+     *
+     * AI 호출 동안 트랜잭션/커넥션을 잡고 있지 않도록 조회와 저장을 나눠서 수행
+     * (결과 저장만 join 이후 짧은 트랜잭션 하나로 묶음)
+     */
+    public void analyzeCharacter(Long characterId,
+                                 String history,
+                                 String kakaoName,
+                                 String targetName,
+                                 String dialogueContent) {
+        UserCharacter character = characterRepository.findById(characterId)
+                .orElseThrow(() -> new CharacterNotFoundException("캐릭터를 찾을 수 없습니다: " + characterId));
+
+        String historySum = null;
+        List<ReactionTriggerDto> triggers = null;
+        try (AiFanOut.Scope scope = aiFanOut.open("character-setup")) {
+            AiFanOut.Call<HistorySumResponseDto> summaryCall = null;
+            if (history != null && !history.isBlank()) {
+                Map<String, String> body = new HashMap<>();
+                body.put("history", history);
+                body.put("character_name", character.getCharacterName());
+                summaryCall = scope.fork("/summarize-history", historySummaryCall(body));
+            }
+
+            AiFanOut.Call<List<ReactionTriggerDto>> triggerCall = null;
+            if (dialogueContent != null && !dialogueContent.isEmpty() && kakaoName != null && targetName != null) {
+                triggerCall = scope.fork("/extract-negative-triggers",
+                        analysisService.requestNegativeTriggers(dialogueContent, kakaoName, targetName));
+            }
+
+            scope.join();
+
+            if (summaryCall != null) {
+                HistorySumResponseDto response = summaryCall.get();
+                if (response == null || response.getSummary() == null) {
+                    throw new RuntimeException("히스토리 요약 실패.");
+                }
+                historySum = response.getSummary();
+            }
+            if (triggerCall != null) {
+                triggers = triggerCall.get();
+            }
+        }
+
+        if (historySum == null && triggers == null) {
+            return;
+        }
+        saveAnalysis(characterId, historySum, triggers, kakaoName, targetName);
+        if (historySum != null) {
+            conversationStateCache.evictCharacter(characterId);
+        }
+    }
+
+    /**
+     * 분석 결과(historySum / ReportCharacter)를 한 트랜잭션으로 저장
+     * AI 호출 사이에 바뀌었을 수 있으므로 캐릭터는 다시 읽어서 요약만 바꿈
+     */
+    private void saveAnalysis(Long characterId, String historySum, List<ReactionTriggerDto> triggers,
+                              String kakaoName, String targetName) {
+        new TransactionTemplate(transactionManager).executeWithoutResult(status -> {
+            UserCharacter character = characterRepository.findById(characterId)
+                    .orElseThrow(() -> new CharacterNotFoundException("캐릭터를 찾을 수 없습니다: " + characterId));
+            if (historySum != null) {
+                character.setHistorySum(historySum);
+                characterRepository.save(character);
+            }
+            if (triggers != null) {
+                analysisService.saveReportCharacter(character, triggers, kakaoName, targetName);
+            }
+        });
+    }
+
+    /**
+     * /summarize-history 호출 (히스토리/이름이 같으면 캐시된 요약 재사용)
+     */
+    private HistorySumResponseDto requestHistorySummary(Map<String, String> body) {
+        return historySummaryCall(body).block();
+    }
+
+    private Mono<HistorySumResponseDto> historySummaryCall(Map<String, String> body) {
+        return aiRequestCoalescer.execute("/summarize-history", body, () -> webClient.post()
+                        .uri("/summarize-history")
+                        .bodyValue(body)
+                        .retrieve()
+                        .bodyToMono(HistorySumResponseDto.class));
+    }
+
     public UserCharacter getCharacterById(Long characterId) {
         return characterRepository.findById(characterId)
                 .orElseThrow(() -> new CharacterNotFoundException("캐릭터를 찾을 수 없습니다: " + characterId));
@@ -6,29 +6,21 @@ import mandarin.com.mandarin_backend.dto.LoginRequest;
 import mandarin.com.mandarin_backend.dto.SignUpRequest;
 import mandarin.com.mandarin_backend.dto.UserResponseDto;
 import mandarin.com.mandarin_backend.dto.UserUpdateRequestDto;
-import mandarin.com.mandarin_backend.entity.*;
-import mandarin.com.mandarin_backend.repository.*;
-import mandarin.com.mandarin_backend.util.FileUtil;
+import mandarin.com.mandarin_backend.entity.User;
+import mandarin.com.mandarin_backend.repository.UserRepository;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.time.LocalDateTime;
-import java.util.List;
 
 @Service
 @RequiredArgsConstructor
 public class UserService {
 
     private final UserRepository userRepository;
-    private final UserCharacterRepository userCharacterRepository;
-    private final SimulationRepository simulationRepository;
-    private final SimulationMessageRepository simulationMessageRepository;
-    private final ChatReportRepository chatReportRepository;
-    private final ChatReportDetailLogRepository chatReportDetailLogRepository;
-    private final ChatReportAvgRepository chatReportAvgRepository;
-    private final ReportCharacterRepository reportCharacterRepository;
-    private final ReportCharacterDetailLogRepository reportCharacterDetailLogRepository;
-    private final FileUtil fileUtil;
+    private final AccountPurgeService accountPurgeService;
+    private final ApplicationEventPublisher eventPublisher;
 
     // 1. 회원가입 기능
     public ApiResponse<Long> signUp(SignUpRequest request) {
@@ -56,7 +48,7 @@ public class UserService {
     // 2. 로그인 기능 + loveType 업데이트
     public ApiResponse<Long> login(LoginRequest request) {
 
-        User user = userRepository.findByUserId(request.getUserId())
+        User user = userRepository.findByUserIdAndDeletedAtIsNull(request.getUserId())
                 .orElse(null);
 
         if (user == null || !user.getPassword().equals(request.getPassword())) {
@@ -86,61 +78,25 @@ public class UserService {
         return ApiResponse.success("사용 가능한 아이디입니다.", false); // false = 사용 가능
     }
 
-    // 4. 사용자 탈퇴 기능 (연관된 모든 데이터 먼저 삭제)
+    // 4. 사용자 탈퇴 기능 (연관된 모든 데이터를 테이블별 일괄 DELETE로 삭제)
     @Transactional
     public ApiResponse<Void> deleteUser(Long id) {
 
-        User user = userRepository.findById(id).orElse(null);
+        User user = findActiveUser(id);
 
         if (user == null) {
             return ApiResponse.fail("존재하지 않는 사용자입니다.");
         }
 
-        // 1. 유저의 모든 캐릭터 조회
-        List<UserCharacter> characters = userCharacterRepository.findByUser_Id(id);
-
-        for (UserCharacter character : characters) {
-            Long characterId = character.getCharacterId();
-
-            // 1-1. ReportCharacter 관련 데이터 삭제
-            List<ReportCharacter> reportCharacters = reportCharacterRepository.findByCharacter_CharacterId(characterId);
-            for (ReportCharacter rc : reportCharacters) {
-                // ReportCharacterDetailLog 삭제
-                reportCharacterDetailLogRepository.deleteByReportCharacter_ReportCharacterId(rc.getReportCharacterId());
-            }
-            // ReportCharacter 삭제
-            reportCharacterRepository.deleteAll(reportCharacters);
-
-            // 1-2. ChatReport 관련 데이터 삭제 (캐릭터 기준)
-            List<ChatReport> chatReportsByCharacter = chatReportRepository.findByCharacter_CharacterId(characterId);
-            for (ChatReport cr : chatReportsByCharacter) {
-                // ChatReportDetailLog 삭제
-                chatReportDetailLogRepository.deleteByChatReportId(cr.getChatReportId());
-                // ChatReportAvg 삭제
-                chatReportAvgRepository.deleteByChatReport_ChatReportId(cr.getChatReportId());
-            }
-            // ChatReport 삭제
-            chatReportRepository.deleteAll(chatReportsByCharacter);
-
-            // 1-3. Simulation 관련 데이터 삭제
-            List<Simulation> simulations = simulationRepository.findByCharacterCharacterId(characterId);
-            for (Simulation sim : simulations) {
-                // SimulationMessage 삭제
-                simulationMessageRepository.deleteBySimulation_SimulationId(sim.getSimulationId());
-            }
-            // Simulation 삭제
-            simulationRepository.deleteAll(simulations);
-
-            // 1-4. 캐릭터 파일 삭제
-            fileUtil.deleteFile(character.getCharacterImg());
-            fileUtil.deleteFile(character.getFullDialogue());
+        // 데이터가 많은 계정은 탈퇴 처리만 하고 커밋 후 백그라운드에서 나눠 삭제
+        if (accountPurgeService.exceedsSoftDeleteThreshold(id)) {
+            user.setDeletedAt(LocalDateTime.now());
+            userRepository.save(user);
+            eventPublisher.publishEvent(new AccountPurgeService.AccountSoftDeleted(id));
+            return ApiResponse.success("탈퇴가 완료되었습니다.", null);
         }
 
-        // 2. 유저의 모든 캐릭터 삭제
-        userCharacterRepository.deleteAll(characters);
-
-        // 3. 유저 삭제
-        userRepository.delete(user);
+        accountPurgeService.deleteUserNow(id);
 
         return ApiResponse.success("탈퇴가 완료되었습니다.", null);
     }
@@ -148,7 +104,7 @@ public class UserService {
     // 5. Love Type 업데이트 기능
     public ApiResponse<Void> updateLoveType(Long id, Integer loveType) {
 
-        User user = userRepository.findById(id).orElse(null);
+        User user = findActiveUser(id);
 
         if (user == null) {
             return ApiResponse.fail("존재하지 않는 사용자입니다.");
@@ -172,8 +128,7 @@ public class UserService {
             return ApiResponse.fail("userId와 password는 필수입니다.");
         }
 
-        User user = userRepository.findById(userId)
-                .orElse(null);
+        User user = findActiveUser(userId);
 
         if (user == null) {
             return ApiResponse.fail("존재하지 않는 사용자입니다.");
@@ -192,8 +147,7 @@ public class UserService {
     // 7. 회원 정보 조회 기능 (User 테이블의 기본키로 조회)
     public ApiResponse<UserResponseDto> getUserById(Long id) {
 
-        User user = userRepository.findById(id)
-                .orElse(null);
+        User user = findActiveUser(id);
 
         if (user == null) {
             return ApiResponse.fail("존재하지 않는 사용자입니다.");
@@ -214,8 +168,7 @@ public class UserService {
     // 8. 회원 정보 수정 기능
     public ApiResponse<UserResponseDto> updateUser(Long id, UserUpdateRequestDto request) {
 
-        User user = userRepository.findById(id)
-                .orElse(null);
+        User user = findActiveUser(id);
 
         if (user == null) {
             return ApiResponse.fail("존재하지 않는 사용자입니다.");
@@ -260,4 +213,9 @@ public class UserService {
 
         return ApiResponse.success("회원 정보가 수정되었습니다.", responseDto);
     }
+
+    // 탈퇴 처리된(백그라운드 삭제 중인) 사용자는 없는 사용자로 취급
+    private User findActiveUser(Long id) {
+        return userRepository.findByIdAndDeletedAtIsNull(id).orElse(null);
+    }
 }
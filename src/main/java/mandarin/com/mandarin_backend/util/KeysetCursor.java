@@ -0,0 +1,66 @@
+package mandarin.com.mandarin_backend.util;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.Base64;
+
+/**
+ * 키셋 페이지네이션 커서 (정렬 기준 시간, ID)
+ *
+ * 커서는 마지막으로 받은 항목의 (시간, ID)를 base64url로 감싼 문자열이며 클라이언트는 내용을 해석하지 않고 그대로 돌려줌
+ * OFFSET 없이 "이 위치 다음"부터 읽으므로 페이지가 뒤로 가도 조회 비용이 같고, 사이에 항목이 추가돼도 중복 / 누락이 없음
+ */
+public class KeysetCursor {
+
+    public static final int DEFAULT_PAGE_SIZE = 20;
+    public static final int MAX_PAGE_SIZE = 100;
+
+    private static final String VERSION = "v1";
+
+    // 첫 페이지 기준 위치 (MySQL DATETIME 범위의 양 끝)
+    private static final Position FIRST_ASC = new Position(LocalDateTime.of(1000, 1, 1, 0, 0), 0L);
+    private static final Position FIRST_DESC = new Position(LocalDateTime.of(9999, 12, 31, 23, 59, 59), Long.MAX_VALUE);
+
+    private KeysetCursor() {
+    }
+
+    /**
+     * 정렬 위치 (이 위치 "다음" 항목부터 조회)
+     */
+    public record Position(LocalDateTime time, long id) {
+    }
+
+    public static String encode(LocalDateTime time, long id) {
+        String raw = VERSION + "|" + time + "|" + id;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * 커서를 정렬 위치로 변환 (커서가 없으면 정렬 방향의 첫 위치)
+     */
+    public static Position decode(String cursor, boolean descending) {
+        if (cursor == null || cursor.isBlank()) {
+            return descending ? FIRST_DESC : FIRST_ASC;
+        }
+        try {
+            String[] parts = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8).split("\\|");
+            if (parts.length == 3 && VERSION.equals(parts[0])) {
+                return new Position(LocalDateTime.parse(parts[1]), Long.parseLong(parts[2]));
+            }
+        } catch (IllegalArgumentException | DateTimeParseException e) {
+            // base64 / 숫자 / 시간 형식 오류는 아래에서 한 메시지로 처리
+        }
+        throw new IllegalArgumentException("잘못된 커서입니다.");
+    }
+
+    /**
+     * 요청한 페이지 크기를 1 ~ MAX_PAGE_SIZE로 제한 (없으면 기본값)
+     */
+    public static int pageSize(Integer size) {
+        if (size == null) {
+            return DEFAULT_PAGE_SIZE;
+        }
+        return Math.max(1, Math.min(size, MAX_PAGE_SIZE));
+    }
+}
@@ -0,0 +1,24 @@
+-- 시뮬레이션 메시지 순번(sequence_no) 채우기
+-- ddl-auto=update가 컬럼을 추가해도 기존 메시지는 NULL로 남아 순번 기준 조회(since 이후 메시지)에서 빠지므로 한 번 실행
+-- 캐시된 마지막 순번이 어긋나지 않도록 sequence_no / branch_message_count 컬럼이 추가된 뒤 서버를 내린 상태에서 실행
+-- 기존 메시지는 시뮬레이션별로 (timestamp, message_id) 순서대로 1부터 (분기 시뮬레이션은 이어받은 메시지 수 다음부터)
+-- 배포 후 순번이 붙은 메시지는 기존 메시지 뒤로 밀어냄 (유니크 키가 겹치지 않도록 음수로 옮겼다가 되돌림)
+UPDATE Simulation_Message m
+JOIN (SELECT simulation_id, COUNT(*) AS legacy_count
+      FROM Simulation_Message
+      WHERE sequence_no IS NULL
+      GROUP BY simulation_id) l ON l.simulation_id = m.simulation_id
+SET m.sequence_no = -(m.sequence_no + l.legacy_count)
+WHERE m.sequence_no IS NOT NULL;
+
+UPDATE Simulation_Message
+SET sequence_no = -sequence_no
+WHERE sequence_no < 0;
+
+UPDATE Simulation_Message m
+JOIN (SELECT message_id,
+             ROW_NUMBER() OVER (PARTITION BY simulation_id ORDER BY timestamp, message_id) AS row_no
+      FROM Simulation_Message
+      WHERE sequence_no IS NULL) n ON n.message_id = m.message_id
+JOIN Simulation s ON s.simulation_id = m.simulation_id
+SET m.sequence_no = n.row_no + COALESCE(s.branch_message_count, 0);
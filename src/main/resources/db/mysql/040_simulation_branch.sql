@@ -0,0 +1,6 @@
+-- 시뮬레이션 분기 (copy-on-write)
+-- 분기 시뮬레이션은 페르소나 / fewShotContext를 복사하지 않고 origin_simulation_id로 참조하므로 NULL 허용
+-- ddl-auto=update는 새 컬럼(parent_simulation_id, branch_message_id, branch_message_count, origin_simulation_id)만 추가하고
+-- 기존 컬럼의 NOT NULL은 바꾸지 않으므로 배포 전에 한 번 실행
+ALTER TABLE Simulation MODIFY fewShotContext LONGTEXT NULL;
+ALTER TABLE Simulation MODIFY characterPersona JSON NULL;
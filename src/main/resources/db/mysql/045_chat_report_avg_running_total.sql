@@ -0,0 +1,24 @@
+-- 리포트 평균을 사용자 / 라벨별 누적 합계로 변경
+-- 기존 행에는 다시 계산한 평균만 있어 합계 / 개수를 알 수 없으므로 비우고 Chat_Report에서 다시 만듦
+-- 평균 컬럼(avg_mandarin_score, total_label_score)은 조회 시 합계로 계산하므로 삭제 (NOT NULL이라 남겨두면 INSERT 실패)
+-- 리포트 저장 시 INSERT ... ON DUPLICATE KEY UPDATE가 (id, total_label_key) 유니크 키를 사용하므로 배포 전에 한 번 실행
+DELETE FROM Chat_Report_Avg;
+
+ALTER TABLE Chat_Report_Avg
+    DROP COLUMN avg_mandarin_score,
+    DROP COLUMN total_label_score,
+    ADD COLUMN label_score_sum BIGINT NOT NULL,
+    ADD COLUMN score_avg_sum BIGINT NOT NULL,
+    ADD COLUMN report_count INT NOT NULL,
+    ADD COLUMN updated_at DATETIME(6) NOT NULL,
+    ADD CONSTRAINT uk_chat_report_avg_user_label UNIQUE (id, total_label_key);
+
+INSERT INTO Chat_Report_Avg
+    (chat_report_id, id, total_label_key, label_score_sum, score_avg_sum, report_count, created_at, updated_at)
+SELECT MAX(cr.chat_report_id), cr.id,
+       CASE cr.label_key WHEN 1 THEN 'F1' WHEN 2 THEN 'F2' WHEN 3 THEN 'F3'
+                         WHEN 4 THEN 'P1' WHEN 5 THEN 'P2' ELSE 'P3' END,
+       SUM(cr.label_score), SUM(cr.score_avg), COUNT(*), MIN(cr.created_at), MAX(cr.created_at)
+FROM Chat_Report cr
+WHERE cr.label_key BETWEEN 1 AND 6
+GROUP BY cr.id, cr.label_key;
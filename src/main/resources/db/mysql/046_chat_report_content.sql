@@ -0,0 +1,29 @@
+-- 리포트 내용(JSON)을 Chat_Report_Content로 분리
+-- 리포트 하나가 지표별 Chat_Report 3행으로 저장되면서 같은 report_content(LONGTEXT)를 3번씩 저장하고 읽었으므로
+-- 같은 리포트(같은 simulation_id / created_at)의 행을 내용 한 행으로 합치고 chat_report_content_id로 참조
+-- ddl-auto=update는 기존 report_content(NOT NULL)를 지우지 않아 새 리포트 INSERT가 실패하므로 배포 전에 한 번 실행
+CREATE TABLE Chat_Report_Content (
+    chat_report_content_id BIGINT NOT NULL AUTO_INCREMENT,
+    simulation_id BIGINT NOT NULL,
+    report_content LONGTEXT NOT NULL,
+    created_at DATETIME(6) NOT NULL,
+    PRIMARY KEY (chat_report_content_id),
+    CONSTRAINT fk_chat_report_content_simulation FOREIGN KEY (simulation_id) REFERENCES Simulation (simulation_id)
+);
+
+INSERT INTO Chat_Report_Content (simulation_id, report_content, created_at)
+SELECT simulation_id, ANY_VALUE(report_content), created_at
+FROM Chat_Report
+GROUP BY simulation_id, created_at;
+
+ALTER TABLE Chat_Report ADD COLUMN chat_report_content_id BIGINT NULL;
+
+UPDATE Chat_Report cr
+JOIN Chat_Report_Content c ON c.simulation_id = cr.simulation_id AND c.created_at = cr.created_at
+SET cr.chat_report_content_id = c.chat_report_content_id;
+
+ALTER TABLE Chat_Report
+    DROP COLUMN report_content,
+    MODIFY chat_report_content_id BIGINT NOT NULL,
+    ADD CONSTRAINT fk_chat_report_content FOREIGN KEY (chat_report_content_id)
+        REFERENCES Chat_Report_Content (chat_report_content_id);
@@ -0,0 +1,7 @@
+-- 대화 조회 ETag용 시뮬레이션별 메시지 수
+-- ddl-auto=update가 컬럼을 추가해도 기존 시뮬레이션은 0으로 남아 ETag가 실제 대화와 어긋나므로 배포 전에 한 번 실행
+-- (이어받은 메시지는 branch_message_count로 따로 더하므로 자기 메시지만 셈)
+ALTER TABLE Simulation ADD COLUMN message_count BIGINT NOT NULL DEFAULT 0;
+
+UPDATE Simulation s
+SET s.message_count = (SELECT COUNT(*) FROM Simulation_Message m WHERE m.simulation_id = s.simulation_id);
@@ -0,0 +1,174 @@
+package mandarin.com.mandarin_backend.benchmark;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.util.RawValue;
+import mandarin.com.mandarin_backend.config.AiRequestWriter;
+import mandarin.com.mandarin_backend.dto.ChatAiRequestDto;
+import mandarin.com.mandarin_backend.dto.ChatLogDto;
+import mandarin.com.mandarin_backend.dto.ReactionTriggerDto;
+import mandarin.com.mandarin_backend.dto.SpeechStyleDto;
+import mandarin.com.mandarin_backend.dto.UserPersonaDto;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * /chat 요청 본문 직렬화 벤치마크
+ *
+ * - perTurnMaps: 이전 방식 (턴마다 페르소나 JSON 파싱 → 중첩 HashMap 구성 → ObjectMapper로 직렬화)
+ * - preSerialized: 현재 방식 (미리 직렬화해 둔 persona / simulation_context + 타입 있는 요청 + 미리 만든 ObjectWriter)
+ *
+ * 실행: mvn -B test-compile 후
+ * java -cp "target/test-classes:target/classes:$(mvn -q dependency:build-classpath -Dmdep.outputFile=/dev/stdout)" \
+ *   mandarin.com.mandarin_backend.benchmark.ChatPayloadBenchmark
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ChatPayloadBenchmark {
+
+    private ObjectMapper objectMapper;
+    private AiRequestWriter aiRequestWriter;
+    private String personaJson;
+    private Map<String, Object> contextSource;
+    private RawValue cachedPersona;
+    private RawValue cachedContext;
+    private List<ChatLogDto> history;
+
+    @Setup
+    public void setUp() throws Exception {
+        objectMapper = new ObjectMapper();
+        aiRequestWriter = new AiRequestWriter(objectMapper);
+
+        UserPersonaDto persona = objectMapper.readValue("""
+                {"name":"철수",
+                 "speech_style":{"politeness_level":"반말","tone":"장난스러움",
+                   "common_endings":["~냐","~지","~거든"],"frequent_interjections":["ㅋㅋ","헐","아"],
+                   "emoji_usage":{"frequency":"자주","preferred_type":"이모티콘","laugh_sound":"ㅋㅋㅋ"},
+                   "distinctive_habits":["말끝 흐리기","질문으로 답하기"],
+                   "sample_sentences":["뭐해 지금?","아 진짜 웃기네ㅋㅋ","오늘 뭐 먹었어?"]},
+                 "reaction_patterns":{
+                   "positive_triggers":[
+                     {"keyword":"칭찬","trigger":"외모 칭찬","reaction":"쑥스러워함","cause":"인정 욕구","solution":"자주 칭찬","example":"오늘 멋있다","danger_level":0},
+                     {"keyword":"관심","trigger":"일상 질문","reaction":"길게 답함","cause":"관심 받고 싶음","solution":"먼저 질문","example":"오늘 어땠어?","danger_level":0}],
+                   "negative_triggers":[
+                     {"keyword":"연락","trigger":"답장 늦음","reaction":"서운해함","cause":"불안","solution":"미리 알리기","example":"왜 이제 봐?","danger_level":3},
+                     {"keyword":"비교","trigger":"남과 비교","reaction":"화냄","cause":"자존심","solution":"비교하지 않기","example":"걔는 안 그러던데","danger_level":5}]}}
+                """, UserPersonaDto.class);
+        personaJson = objectMapper.writeValueAsString(persona);
+
+        contextSource = new HashMap<>();
+        contextSource.put("character_age", 25);
+        contextSource.put("relation_type", 1);
+        contextSource.put("meet_date", "2024-03-01T00:00");
+        contextSource.put("love_type", 16);
+        contextSource.put("history_sum", "대학 동기로 만나 2년째 연애 중. 최근 연락 문제로 자주 다툼.");
+        contextSource.put("purpose", "FUTURE");
+        contextSource.put("category", "RELATION_TENSION");
+
+        cachedPersona = aiRequestWriter.rawJson(toPythonPersona(persona));
+        cachedContext = aiRequestWriter.rawJson(contextSource);
+
+        history = new ArrayList<>();
+        for (int i = 0; i < 20; i++) {
+            history.add(ChatLogDto.builder()
+                    .role(i % 2 == 0 ? "user" : "assistant")
+                    .content("최근 대화 메시지 " + i + " - 오늘 뭐 했는지 이야기하는 중이야")
+                    .build());
+        }
+    }
+
+    @Benchmark
+    public byte[] perTurnMaps() throws Exception {
+        UserPersonaDto persona = objectMapper.readValue(personaJson, UserPersonaDto.class);
+
+        Map<String, Object> requestBody = new HashMap<>();
+        requestBody.put("persona", toPythonPersona(persona));
+        requestBody.put("user_message", "오늘 뭐해?");
+        List<Map<String, String>> historyList = new ArrayList<>();
+        for (ChatLogDto log : history) {
+            Map<String, String> map = new HashMap<>();
+            map.put("role", log.getRole());
+            map.put("content", log.getContent());
+            historyList.add(map);
+        }
+        requestBody.put("history", historyList);
+        requestBody.put("simulation_context", new HashMap<>(contextSource));
+        return objectMapper.writeValueAsBytes(requestBody);
+    }
+
+    @Benchmark
+    public byte[] preSerialized() {
+        return aiRequestWriter.write(new ChatAiRequestDto(cachedPersona, "오늘 뭐해?", history, null, cachedContext));
+    }
+
+    /**
+     * 이전 ChatService.convertPersonaForPython과 같은 형태의 Map
+     */
+    private static Map<String, Object> toPythonPersona(UserPersonaDto persona) {
+        Map<String, Object> map = new HashMap<>();
+        map.put("name", persona.getName());
+
+        SpeechStyleDto style = persona.getSpeechStyle();
+        Map<String, Object> speechStyleMap = new HashMap<>();
+        speechStyleMap.put("politeness_level", style.getPolitenessLevel());
+        speechStyleMap.put("tone", style.getTone());
+        speechStyleMap.put("common_endings", style.getCommonEndings());
+        speechStyleMap.put("frequent_interjections", style.getFrequentInterjections());
+        speechStyleMap.put("distinctive_habits", style.getDistinctiveHabits());
+        speechStyleMap.put("sample_sentences", style.getSampleSentences());
+        Map<String, Object> emojiMap = new HashMap<>();
+        emojiMap.put("frequency", style.getEmojiUsage().getFrequency());
+        emojiMap.put("preferred_type", style.getEmojiUsage().getPreferredType());
+        emojiMap.put("laugh_sound", style.getEmojiUsage().getLaughSound());
+        speechStyleMap.put("emoji_usage", emojiMap);
+        map.put("speech_style", speechStyleMap);
+
+        Map<String, Object> reactionPatterns = new HashMap<>();
+        reactionPatterns.put("positive_triggers", toPythonTriggers(persona.getReactionPatterns().getPositiveTriggers()));
+        reactionPatterns.put("negative_triggers", toPythonTriggers(persona.getReactionPatterns().getNegativeTriggers()));
+        map.put("reaction_patterns", reactionPatterns);
+        return map;
+    }
+
+    private static List<Map<String, Object>> toPythonTriggers(List<ReactionTriggerDto> triggers) {
+        List<Map<String, Object>> list = new ArrayList<>();
+        for (ReactionTriggerDto item : triggers) {
+            Map<String, Object> pyItem = new HashMap<>();
+            pyItem.put("keyword", item.getKeyword());
+            pyItem.put("trigger", item.getTrigger());
+            pyItem.put("reaction", item.getReaction());
+            pyItem.put("cause", item.getCause());
+            pyItem.put("solution", item.getSolution());
+            pyItem.put("example", item.getExample());
+            pyItem.put("danger_level", item.getDangerLevel());
+            list.add(pyItem);
+        }
+        return list;
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+                .include(ChatPayloadBenchmark.class.getSimpleName())
+                .build()).run();
+    }
+}
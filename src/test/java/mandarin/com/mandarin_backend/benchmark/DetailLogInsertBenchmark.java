@@ -0,0 +1,159 @@
+package mandarin.com.mandarin_backend.benchmark;
+
+import jakarta.persistence.EntityManager;
+import mandarin.com.mandarin_backend.entity.ChatReportDetailLog;
+import mandarin.com.mandarin_backend.entity.ReportCharacter;
+import mandarin.com.mandarin_backend.entity.ReportCharacterDetailLog;
+import mandarin.com.mandarin_backend.entity.User;
+import mandarin.com.mandarin_backend.entity.UserCharacter;
+import mandarin.com.mandarin_backend.repository.ChatReportDetailLogRepository;
+import mandarin.com.mandarin_backend.repository.DetailLogBatchRepository;
+import mandarin.com.mandarin_backend.repository.ReportCharacterDetailLogRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Import;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * 상세 로그 저장 시 DB 왕복(JDBC execute 호출) 수 비교
+ *
+ * - perRowSave: 이전 방식 (repository.save() 한 번마다 INSERT 한 번, IDENTITY라 Hibernate batch 불가)
+ * - batchInsert: 현재 방식 (DetailLogBatchRepository - JDBC batch 한 번, MySQL은 rewriteBatchedStatements로 다중 행 INSERT 한 문장)
+ *
+ * 실행: mvn -B test -Dtest=DetailLogInsertBenchmark
+ */
+@DataJpaTest
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Import({DetailLogBatchRepository.class, DetailLogInsertBenchmark.CountingDataSourceConfig.class})
+class DetailLogInsertBenchmark {
+
+    private static final AtomicInteger executions = new AtomicInteger();
+
+    @Autowired
+    private EntityManager entityManager;
+
+    @Autowired
+    private ChatReportDetailLogRepository chatReportDetailLogRepository;
+
+    @Autowired
+    private ReportCharacterDetailLogRepository reportCharacterDetailLogRepository;
+
+    @Autowired
+    private DetailLogBatchRepository detailLogBatchRepository;
+
+    @Test
+    void chatReportDetailLogs() {
+        System.out.println("[Benchmark] ChatReport 상세 로그 - 행 수 / perRowSave / batchInsert (JDBC execute 수)");
+        for (int rows : new int[]{6, 24, 240}) {
+            List<ChatReportDetailLog> logs = chatReportLogs(rows);
+            int perRow = count(() -> logs.forEach(log -> chatReportDetailLogRepository.save(copy(log))));
+            int batch = count(() -> detailLogBatchRepository.insertChatReportDetailLogs(logs));
+            System.out.println("[Benchmark] " + rows + " / " + perRow + " / " + batch);
+
+            assertEquals(rows, perRow);
+            assertEquals(1, batch);
+        }
+    }
+
+    @Test
+    void reportCharacterDetailLogs() {
+        ReportCharacter reportCharacter = persistReportCharacter();
+        System.out.println("[Benchmark] 갈등 리포트 상세 로그 - 행 수 / perRowSave / batchInsert (JDBC execute 수)");
+        for (int rows : new int[]{6, 24, 240}) {
+            List<ReportCharacterDetailLog> logs = reportCharacterLogs(reportCharacter, rows);
+            int perRow = count(() -> logs.forEach(log -> reportCharacterDetailLogRepository.save(copy(log))));
+            int batch = count(() -> detailLogBatchRepository.insertReportCharacterDetailLogs(logs));
+            System.out.println("[Benchmark] " + rows + " / " + perRow + " / " + batch);
+
+            assertEquals(rows, perRow);
+            assertEquals(1, batch);
+        }
+    }
+
+    private int count(Runnable action) {
+        entityManager.flush();
+        executions.set(0);
+        action.run();
+        entityManager.flush();
+        return executions.get();
+    }
+
+    private static List<ChatReportDetailLog> chatReportLogs(int rows) {
+        List<ChatReportDetailLog> logs = new ArrayList<>();
+        LocalDateTime now = LocalDateTime.now();
+        for (int i = 0; i < rows; i++) {
+            logs.add(ChatReportDetailLog.builder()
+                    .chatReportId(1).sender(i % 2 == 0 ? "user" : "assistant").message("주요 대화 " + i)
+                    .timestamp(now.plusSeconds(i))
+                    .build());
+        }
+        return logs;
+    }
+
+    private static ChatReportDetailLog copy(ChatReportDetailLog log) {
+        return ChatReportDetailLog.builder()
+                .chatReportId(log.getChatReportId()).sender(log.getSender()).message(log.getMessage())
+                .timestamp(log.getTimestamp())
+                .build();
+    }
+
+    private static List<ReportCharacterDetailLog> reportCharacterLogs(ReportCharacter reportCharacter, int rows) {
+        List<ReportCharacterDetailLog> logs = new ArrayList<>();
+        LocalDateTime now = LocalDateTime.now();
+        for (int i = 0; i < rows; i++) {
+            logs.add(ReportCharacterDetailLog.builder()
+                    .reportCharacter(reportCharacter).sender(i % 2 == 0 ? "user" : "character")
+                    .messageKakao("예시 대화 " + i).timestamp(now.plusSeconds(i))
+                    .build());
+        }
+        return logs;
+    }
+
+    private static ReportCharacterDetailLog copy(ReportCharacterDetailLog log) {
+        return ReportCharacterDetailLog.builder()
+                .reportCharacter(log.getReportCharacter()).sender(log.getSender())
+                .messageKakao(log.getMessageKakao()).timestamp(log.getTimestamp())
+                .build();
+    }
+
+    private ReportCharacter persistReportCharacter() {
+        User user = User.builder().userId("bench").username("벤치").password("pw").build();
+        entityManager.persist(user);
+        UserCharacter character = UserCharacter.builder()
+                .user(user).characterName("상대").characterAge(25).relationType(1).kakaoName("상대").fullDialogue("")
+                .build();
+        entityManager.persist(character);
+        ReportCharacter reportCharacter = ReportCharacter.builder()
+                .character(character).conflictName("연락").dangerLevel(50).description("설명").solution("해결")
+                .build();
+        entityManager.persist(reportCharacter);
+        return reportCharacter;
+    }
+
+    /**
+     * DataSource를 감싸 Statement의 execute* 호출 수를 셈 (executeBatch는 한 번으로 셈)
+     */
+    @TestConfiguration
+    static class CountingDataSourceConfig {
+
+        @Bean
+        static BeanPostProcessor countingDataSourcePostProcessor() {
+            return JdbcProxies.dataSourcePostProcessor((type, method, args, result) -> {
+                if (method.getName().startsWith("execute")) {
+                    executions.incrementAndGet();
+                }
+            });
+        }
+    }
+}
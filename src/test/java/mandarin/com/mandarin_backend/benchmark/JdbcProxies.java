@@ -0,0 +1,66 @@
+package mandarin.com.mandarin_backend.benchmark;
+
+import org.springframework.beans.factory.config.BeanPostProcessor;
+
+import javax.sql.DataSource;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.Statement;
+
+/**
+ * 벤치마크용 DataSource 감싸기
+ * DataSource에서 나온 Connection / Statement / PreparedStatement / ResultSet을 JDK 프록시로 감싸고
+ * 호출이 끝날 때마다 listener에 알림 (무엇을 셀지는 벤치마크마다 listener로 정함)
+ */
+final class JdbcProxies {
+
+    /**
+     * JDBC 호출 하나가 끝난 뒤 호출됨 (예외로 끝난 호출은 제외)
+     */
+    @FunctionalInterface
+    interface CallListener {
+        void onCall(Class<?> type, Method method, Object[] args, Object result);
+    }
+
+    private JdbcProxies() {
+    }
+
+    /**
+     * 컨텍스트의 DataSource 빈을 감싸는 BeanPostProcessor (@TestConfiguration의 static @Bean으로 등록)
+     */
+    static BeanPostProcessor dataSourcePostProcessor(CallListener listener) {
+        return new BeanPostProcessor() {
+            @Override
+            public Object postProcessAfterInitialization(Object bean, String beanName) {
+                return bean instanceof DataSource ? wrap(bean, DataSource.class, listener) : bean;
+            }
+        };
+    }
+
+    private static <T> T wrap(Object target, Class<T> type, CallListener listener) {
+        return type.cast(Proxy.newProxyInstance(type.getClassLoader(), new Class<?>[]{type}, (proxy, method, args) -> {
+            Object result;
+            try {
+                result = method.invoke(target, args);
+            } catch (InvocationTargetException e) {
+                throw e.getCause();
+            }
+            listener.onCall(type, method, args, result);
+
+            Class<?> returnType = method.getReturnType();
+            if (result instanceof PreparedStatement && returnType == Statement.class) {
+                // ResultSet.getStatement()처럼 Statement로 선언됐어도 실제 타입으로 감쌈 (Hibernate가 캐스팅함)
+                returnType = PreparedStatement.class;
+            }
+            if (result != null && (returnType == Connection.class || returnType == PreparedStatement.class
+                    || returnType == Statement.class || returnType == ResultSet.class)) {
+                return wrap(result, returnType, listener);
+            }
+            return result;
+        }));
+    }
+}
@@ -0,0 +1,229 @@
+package mandarin.com.mandarin_backend.benchmark;
+
+import jakarta.persistence.EntityManager;
+import mandarin.com.mandarin_backend.dto.ChatReportResponseDto;
+import mandarin.com.mandarin_backend.dto.UserCharacterResponseDto;
+import mandarin.com.mandarin_backend.entity.ChatReport;
+import mandarin.com.mandarin_backend.entity.ChatReportContent;
+import mandarin.com.mandarin_backend.entity.Simulation;
+import mandarin.com.mandarin_backend.entity.SimulationMessage;
+import mandarin.com.mandarin_backend.entity.User;
+import mandarin.com.mandarin_backend.entity.UserCharacter;
+import mandarin.com.mandarin_backend.entity.enums.SimulationCategory;
+import mandarin.com.mandarin_backend.entity.enums.SimulationPurpose;
+import mandarin.com.mandarin_backend.repository.ChatReportContentRepository;
+import mandarin.com.mandarin_backend.repository.ChatReportRepository;
+import mandarin.com.mandarin_backend.repository.SimulationRepository;
+import mandarin.com.mandarin_backend.repository.UserCharacterRepository;
+import mandarin.com.mandarin_backend.repository.UserRepository;
+import mandarin.com.mandarin_backend.service.SimulationBranchService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Import;
+
+import java.nio.charset.StandardCharsets;
+import java.sql.ResultSet;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * 목록 조회 시 DB에서 받아오는 데이터 양 비교
+ *
+ * - entity: 이전 방식 (엔티티 전체를 읽은 뒤 DTO로 변환)
+ * - projection: 현재 방식 (DTO에 필요한 컬럼만 SELECT)
+ *
+ * 테스트 환경에는 MySQL이 없으므로 ResultSet에서 꺼낸 값의 크기로 전송량을 셈
+ * (문자열은 UTF-8 바이트 수, byte[]는 길이, 숫자 / 날짜는 8, boolean은 1)
+ *
+ * 실행: mvn -B test -Dtest=ProjectionTransferBenchmark
+ */
+@DataJpaTest
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Import({SimulationBranchService.class, ProjectionTransferBenchmark.MeasuringDataSourceConfig.class})
+class ProjectionTransferBenchmark {
+
+    private static final AtomicLong bytes = new AtomicLong();
+
+    private static final int SIMULATIONS = 20;
+    private static final int MESSAGES = 100;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    @Autowired
+    private SimulationRepository simulationRepository;
+
+    @Autowired
+    private SimulationBranchService simulationBranchService;
+
+    @Autowired
+    private ChatReportRepository chatReportRepository;
+
+    @Autowired
+    private ChatReportContentRepository chatReportContentRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private UserCharacterRepository characterRepository;
+
+    private User user;
+    private UserCharacter character;
+    private Simulation branch;
+
+    @BeforeEach
+    void setUp() {
+        user = User.builder().userId("bench").username("벤치").password("pw").build();
+        entityManager.persist(user);
+        for (int c = 0; c < 3; c++) {
+            character = UserCharacter.builder()
+                    .user(user).characterName("상대" + c).characterAge(25).relationType(1).kakaoName("나")
+                    .fullDialogue("dialogue/" + c + ".txt").historySum("요약 ".repeat(50))
+                    .build();
+            entityManager.persist(character);
+        }
+
+        Simulation root = null;
+        Long branchMessageId = null;
+        for (int s = 0; s < SIMULATIONS; s++) {
+            // 실제 시뮬레이션처럼 few-shot 예시와 페르소나 JSON이 수 KB
+            Simulation simulation = Simulation.builder()
+                    .user(user).character(character).simulationName("시뮬레이션" + s)
+                    .purpose(SimulationPurpose.FUTURE).category(SimulationCategory.RELATION_TENSION)
+                    .fewShotContext("user: 오늘 뭐 해?\nassistant: 그냥 집에 있어\n".repeat(100))
+                    .characterPersona("{\"tone\":\"다정함\",\"habits\":[\"ㅋㅋ\",\"ㅎㅎ\"]}".repeat(40))
+                    .parent(root).origin(root).branchMessageId(branchMessageId)
+                    .build();
+            entityManager.persist(simulation);
+            int messages = s == 0 ? MESSAGES : 10;
+            for (int i = 0; i < messages; i++) {
+                SimulationMessage message = SimulationMessage.builder()
+                        .simulation(simulation).sender(i % 2 == 0 ? "user" : "assistant").content("메시지 내용 " + i)
+                        .timestamp(LocalDateTime.now().plusSeconds(i))
+                        .build();
+                entityManager.persist(message);
+                if (s == 0) {
+                    branchMessageId = message.getMessageId();
+                }
+            }
+            ChatReportContent content = ChatReportContent.builder()
+                    .simulation(simulation).reportContent("{\"summary\":\"" + "요약 ".repeat(200) + "\"}")
+                    .build();
+            entityManager.persist(content);
+            for (int labelKey = 1; labelKey <= 3; labelKey++) {
+                entityManager.persist(ChatReport.builder()
+                        .simulation(simulation).user(user).character(character)
+                        .scoreAvg(70).labelKey(labelKey).labelScore(60 + labelKey).content(content)
+                        .build());
+            }
+            root = s == 0 ? simulation : root;
+            branch = simulation;
+        }
+        entityManager.flush();
+    }
+
+    @Test
+    void simulationsByCharacter() {
+        long entity = measure(() -> simulationRepository.findByCharacterCharacterId(character.getCharacterId()));
+        long projection = measure(() -> simulationRepository.findListItemsByCharacterId(character.getCharacterId()));
+        report("/simulation/character/{id}", entity, projection);
+    }
+
+    @Test
+    void messagesBySimulation() {
+        long entity = measure(() -> simulationBranchService.loadHistory(branch.getSimulationId()));
+        long projection = measure(() -> simulationBranchService.loadHistoryItems(branch.getSimulationId()));
+        assertEquals(simulationBranchService.loadHistory(branch.getSimulationId()).size(),
+                simulationBranchService.loadHistoryItems(branch.getSimulationId()).size());
+        report("/simulation/message/{id}", entity, projection);
+    }
+
+    @Test
+    void chatReportsByUser() {
+        long entity = measure(() -> chatReportRepository.findByUser_Id(user.getId()).stream()
+                .map(ChatReportResponseDto::fromEntity)
+                .collect(Collectors.toList()));
+        long projection = measure(() -> {
+            List<ChatReportRepository.ListItem> items = chatReportRepository.findListItemsByUserId(user.getId());
+            Set<Long> contentIds = items.stream()
+                    .map(ChatReportRepository.ListItem::getContentId)
+                    .collect(Collectors.toSet());
+            return chatReportContentRepository.findContentItems(contentIds);
+        });
+        report("/chat/report/user/{id}", entity, projection);
+    }
+
+    @Test
+    void charactersByUser() {
+        long entity = measure(() -> characterRepository.findByUser(userRepository.findById(user.getId()).orElseThrow())
+                .stream()
+                .map(UserCharacterResponseDto::fromEntity)
+                .collect(Collectors.toList()));
+        long projection = measure(() -> {
+            userRepository.existsById(user.getId());
+            return characterRepository.findListItemsByUserId(user.getId()).stream()
+                    .map(UserCharacterResponseDto::fromListItem)
+                    .collect(Collectors.toList());
+        });
+        report("/character/user/{id}", entity, projection);
+    }
+
+    private long measure(Supplier<?> action) {
+        entityManager.clear();
+        bytes.set(0);
+        action.get();
+        return bytes.get();
+    }
+
+    private static void report(String endpoint, long entity, long projection) {
+        System.out.println("[Benchmark] " + endpoint + " - entity / projection (bytes): " + entity + " / " + projection);
+        assertTrue(projection < entity, endpoint + ": " + entity + " -> " + projection);
+    }
+
+    /**
+     * DataSource를 감싸 ResultSet에서 꺼낸 값의 크기를 합산
+     */
+    @TestConfiguration
+    static class MeasuringDataSourceConfig {
+
+        @Bean
+        static BeanPostProcessor measuringDataSourcePostProcessor() {
+            return JdbcProxies.dataSourcePostProcessor((type, method, args, result) -> {
+                // 컬럼 값을 꺼내는 getXxx(컬럼) 호출만 셈 (getMetaData() 등 제외)
+                if (type == ResultSet.class && method.getName().startsWith("get") && args != null) {
+                    bytes.addAndGet(sizeOf(result));
+                }
+            });
+        }
+    }
+
+    private static long sizeOf(Object value) {
+        if (value == null) {
+            return 0;
+        }
+        if (value instanceof String string) {
+            return string.getBytes(StandardCharsets.UTF_8).length;
+        }
+        if (value instanceof byte[] array) {
+            return array.length;
+        }
+        if (value instanceof Boolean) {
+            return 1;
+        }
+        return 8;
+    }
+}
@@ -0,0 +1,87 @@
+package mandarin.com.mandarin_backend.config;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("AdaptiveConcurrencyLimiter 테스트")
+class AdaptiveConcurrencyLimiterTest {
+
+    private AiClientProperties.Limiter config;
+
+    @BeforeEach
+    void setUp() {
+        config = new AiClientProperties.Limiter();
+        config.setInitialLimit(4);
+        config.setMinLimit(1);
+        config.setMaxLimit(32);
+        config.setSmoothing(0.5);
+    }
+
+    @Test
+    @DisplayName("limit만큼 요청이 처리 중이면 즉시 거절")
+    void tryAcquire_RejectsOverLimit() {
+        AdaptiveConcurrencyLimiter limiter = new AdaptiveConcurrencyLimiter(config);
+
+        for (int i = 0; i < 4; i++) {
+            assertTrue(limiter.tryAcquire());
+        }
+
+        assertFalse(limiter.tryAcquire());
+        assertEquals(4, limiter.getInFlight());
+    }
+
+    @Test
+    @DisplayName("지연이 최소 RTT 근처면 limit 증가")
+    void release_GrowsLimitWhenLatencyStable() {
+        AdaptiveConcurrencyLimiter limiter = new AdaptiveConcurrencyLimiter(config);
+        long rtt = TimeUnit.MILLISECONDS.toNanos(100);
+
+        for (int round = 0; round < 20; round++) {
+            int limit = limiter.getLimit();
+            for (int i = 0; i < limit; i++) {
+                limiter.tryAcquire();
+            }
+            for (int i = 0; i < limit; i++) {
+                limiter.release(rtt, false);
+            }
+        }
+
+        assertTrue(limiter.getLimit() > 4, "limit: " + limiter.getLimit());
+    }
+
+    @Test
+    @DisplayName("지연이 늘어나면 limit 감소")
+    void release_ShrinksLimitWhenLatencyRises() {
+        config.setInitialLimit(16);
+        AdaptiveConcurrencyLimiter limiter = new AdaptiveConcurrencyLimiter(config);
+
+        limiter.tryAcquire();
+        limiter.release(TimeUnit.MILLISECONDS.toNanos(100), false);
+
+        for (int i = 0; i < 20; i++) {
+            limiter.tryAcquire();
+            limiter.release(TimeUnit.SECONDS.toNanos(5), false);
+        }
+
+        assertTrue(limiter.getLimit() < 16, "limit: " + limiter.getLimit());
+    }
+
+    @Test
+    @DisplayName("실패가 이어지면 하한까지 감소")
+    void release_BacksOffOnDrops() {
+        AdaptiveConcurrencyLimiter limiter = new AdaptiveConcurrencyLimiter(config);
+
+        for (int i = 0; i < 50; i++) {
+            limiter.tryAcquire();
+            limiter.release(TimeUnit.MILLISECONDS.toNanos(100), true);
+        }
+
+        assertEquals(1, limiter.getLimit());
+        assertEquals(0, limiter.getInFlight());
+    }
+}
@@ -0,0 +1,147 @@
+package mandarin.com.mandarin_backend.config;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import mandarin.com.mandarin_backend.exception.AiDeadlineExceededException;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.Sinks;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("AiFanOut 테스트")
+class AiFanOutTest {
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final AiFanOut fanOut = new AiFanOut(new AiClientProperties(), meterRegistry);
+
+    /**
+     * 정해진 수의 호출이 모두 구독된 뒤에야 값을 내보내는 응답
+     * 순차 실행이면 먼저 구독한 호출이 끝나지 않으므로 타임아웃으로 실패 (경과 시간에 의존하지 않음)
+     */
+    private static final class StartBarrier {
+
+        private final AtomicInteger remaining;
+        private final Sinks.Empty<Void> allStarted = Sinks.empty();
+
+        StartBarrier(int parties) {
+            this.remaining = new AtomicInteger(parties);
+        }
+
+        <T> Mono<T> completeWith(T value) {
+            return Mono.defer(() -> {
+                        if (remaining.decrementAndGet() == 0) {
+                            allStarted.tryEmitEmpty();
+                        }
+                        return allStarted.asMono().thenReturn(value);
+                    })
+                    .timeout(Duration.ofSeconds(5));
+        }
+    }
+
+    @Test
+    @DisplayName("독립적인 호출은 동시에 실행되고 결과를 각각 꺼낼 수 있다")
+    void join_RunsCallsConcurrently() {
+        StartBarrier barrier = new StartBarrier(2);
+        try (AiFanOut.Scope scope = fanOut.open("test")) {
+            // 두 호출 모두 상대 호출이 구독된 뒤에야 끝남
+            AiFanOut.Call<String> summary = scope.fork("/summarize-history",
+                    barrier.completeWith("요약"));
+            AiFanOut.Call<Integer> triggers = scope.fork("/extract-negative-triggers",
+                    barrier.completeWith(3));
+            AiFanOut.Call<String> empty = scope.fork("/analyze", Mono.empty());
+            scope.join();
+
+            assertEquals("요약", summary.get());
+            assertEquals(3, triggers.get());
+            assertNull(empty.get());
+        }
+    }
+
+    @Test
+    @DisplayName("하나가 실패하면 나머지 호출은 취소되고 join은 그 예외를 던진다")
+    void join_CancelsSiblingsOnFailure() {
+        AtomicBoolean cancelled = new AtomicBoolean();
+
+        try (AiFanOut.Scope scope = fanOut.open("test")) {
+            AiFanOut.Call<String> slow = scope.fork("/analyze",
+                    Mono.<String>never().doOnCancel(() -> cancelled.set(true)));
+            scope.fork("/extract-negative-triggers",
+                    Mono.error(new IllegalStateException("AI 서버 오류")).delaySubscription(Duration.ofMillis(50)));
+
+            IllegalStateException e = assertThrows(IllegalStateException.class, scope::join);
+            assertEquals("AI 서버 오류", e.getMessage());
+            assertThrows(IllegalStateException.class, slow::get);
+        }
+
+        assertTrue(cancelled.get());
+        assertEquals(1, meterRegistry.counter("ai.client.fan-out.cancelled", "scope", "test").count());
+    }
+
+    @Test
+    @DisplayName("공유(coalesce)된 호출도 실패한 형제 호출 때문에 취소되면 AI 서버 호출까지 취소된다")
+    void join_CancelsCoalescedUpstream() {
+        AiClientProperties properties = new AiClientProperties();
+        AiClientProperties.Policy analyze = new AiClientProperties.Policy();
+        analyze.setCoalesce(true);
+        properties.getPolicies().put("analyze", analyze);
+        AiRequestCoalescer coalescer = new AiRequestCoalescer(properties, new ObjectMapper(), meterRegistry);
+        AtomicBoolean upstreamCancelled = new AtomicBoolean();
+        Map<String, Object> body = Map.of("target_name", "철수");
+
+        try (AiFanOut.Scope scope = fanOut.open("test")) {
+            scope.fork("/analyze", coalescer.execute("/analyze", body,
+                    () -> Mono.<String>never().doOnCancel(() -> upstreamCancelled.set(true))));
+            scope.fork("/extract-negative-triggers",
+                    Mono.error(new IllegalStateException("AI 서버 오류")).delaySubscription(Duration.ofMillis(50)));
+
+            assertThrows(IllegalStateException.class, scope::join);
+        }
+
+        assertTrue(upstreamCancelled.get());
+        // 취소된 호출은 공유 목록에서 빠져서 다음 요청은 새로 호출
+        assertEquals("새 결과", coalescer.execute("/analyze", body, () -> Mono.just("새 결과")).block());
+    }
+
+    @Test
+    @DisplayName("전체 제한 시간을 넘으면 남은 호출을 모두 취소한다")
+    void join_CancelsAllAfterDeadline() {
+        AiClientProperties properties = new AiClientProperties();
+        AiClientProperties.Policy analyze = new AiClientProperties.Policy();
+        analyze.setCoalesce(true);
+        properties.getPolicies().put("analyze", analyze);
+        AiRequestCoalescer coalescer = new AiRequestCoalescer(properties, new ObjectMapper(), meterRegistry);
+        AtomicBoolean firstCancelled = new AtomicBoolean();
+        AtomicBoolean secondCancelled = new AtomicBoolean();
+
+        try (AiFanOut.Scope scope = fanOut.open("test", Duration.ofMillis(100))) {
+            scope.fork("/analyze", coalescer.execute("/analyze", Map.of("target_name", "철수"),
+                    () -> Mono.never().doOnCancel(() -> firstCancelled.set(true))));
+            scope.fork("/summarize-history", Mono.never().doOnCancel(() -> secondCancelled.set(true)));
+
+            assertThrows(AiDeadlineExceededException.class, scope::join);
+        }
+
+        assertTrue(firstCancelled.get());
+        assertTrue(secondCancelled.get());
+        assertEquals(1, meterRegistry.counter("ai.client.fan-out.deadline-exceeded", "scope", "test").count());
+    }
+
+    @Test
+    @DisplayName("join 전에 scope를 닫으면 실행 중인 호출은 취소된다")
+    void close_CancelsRunningCalls() {
+        AtomicBoolean cancelled = new AtomicBoolean();
+
+        try (AiFanOut.Scope scope = fanOut.open("test")) {
+            scope.fork("/analyze", Mono.never().doOnCancel(() -> cancelled.set(true)));
+        }
+
+        assertTrue(cancelled.get());
+    }
+}
@@ -0,0 +1,186 @@
+package mandarin.com.mandarin_backend.config;
+
+import com.sun.net.httpserver.HttpServer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.web.reactive.function.client.WebClient;
+import org.springframework.web.reactive.function.client.WebClientRequestException;
+import reactor.core.publisher.Flux;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("AiLoadBalancer 테스트 (로컬 스텁 서버 여러 대)")
+class AiLoadBalancerTest {
+
+    private final List<StubServer> servers = new ArrayList<>();
+    private AiLoadBalancer loadBalancer;
+    private WebClient webClient;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        for (int i = 0; i < 3; i++) {
+            servers.add(new StubServer());
+        }
+
+        AiClientProperties.HealthCheck healthCheck = new AiClientProperties.HealthCheck();
+        healthCheck.setTimeout(Duration.ofSeconds(1));
+        healthCheck.setUnhealthyThreshold(2);
+        healthCheck.setHealthyThreshold(1);
+
+        List<String> endpoints = servers.stream().map(StubServer::url).toList();
+        loadBalancer = new AiLoadBalancer(endpoints, healthCheck, WebClient.create(), new SimpleMeterRegistry());
+
+        webClient = WebClient.builder()
+                .baseUrl(endpoints.get(0))
+                .filter(new AiLoadBalancingFilter(loadBalancer))
+                .build();
+    }
+
+    @AfterEach
+    void tearDown() {
+        servers.forEach(StubServer::stop);
+    }
+
+    private void sendConcurrently(int count) {
+        Flux.range(0, count)
+                .flatMap(i -> webClient.post().uri("/chat").retrieve().bodyToMono(String.class), count)
+                .blockLast(Duration.ofSeconds(10));
+    }
+
+    @Test
+    @DisplayName("동시 요청은 모든 정상 노드로 고르게 분산된다")
+    void distributesAcrossHealthyNodes() {
+        sendConcurrently(30);
+
+        for (StubServer server : servers) {
+            assertTrue(server.chatCalls.get() >= 5, "노드별 요청 수: " + server.chatCalls.get());
+        }
+        assertEquals(30, servers.stream().mapToInt(s -> s.chatCalls.get()).sum());
+        loadBalancer.getNodes().forEach(node -> assertEquals(0, node.getOutstanding()));
+    }
+
+    @Test
+    @DisplayName("처리 중인 요청이 가장 적은 노드를 고른다")
+    void choosesLeastOutstanding() {
+        List<AiLoadBalancer.Node> nodes = loadBalancer.getNodes();
+        nodes.get(0).acquire();
+        nodes.get(0).acquire();
+        nodes.get(1).acquire();
+
+        assertSame(nodes.get(2), loadBalancer.choose());
+    }
+
+    @Test
+    @DisplayName("헬스 체크에 연속 실패한 노드는 제외되고, 다시 성공하면 복귀한다")
+    void ejectsAndRestoresNode() {
+        StubServer broken = servers.get(1);
+        broken.down.set(true);
+
+        loadBalancer.checkAll().block();
+        assertTrue(loadBalancer.getNodes().get(1).isHealthy(), "1회 실패로는 제외하지 않음");
+        loadBalancer.checkAll().block();
+        assertFalse(loadBalancer.getNodes().get(1).isHealthy());
+
+        sendConcurrently(20);
+        assertEquals(0, broken.chatCalls.get());
+
+        broken.down.set(false);
+        loadBalancer.checkAll().block();
+        assertTrue(loadBalancer.getNodes().get(1).isHealthy());
+
+        sendConcurrently(30);
+        assertTrue(broken.chatCalls.get() > 0);
+    }
+
+    @Test
+    @DisplayName("연결이 거부되는 노드는 헬스 체크 없이도 제외된다")
+    void ejectsNodeOnConnectionFailure() {
+        servers.get(2).stop();
+        AiLoadBalancer.Node dead = loadBalancer.getNodes().get(2);
+
+        int failures = 0;
+        for (int i = 0; i < 30 && dead.isHealthy(); i++) {
+            try {
+                webClient.post().uri("/chat").retrieve().bodyToMono(String.class).block(Duration.ofSeconds(5));
+            } catch (WebClientRequestException e) {
+                failures++;
+            }
+        }
+
+        assertFalse(dead.isHealthy());
+        assertEquals(2, failures);
+
+        int before = servers.get(0).chatCalls.get() + servers.get(1).chatCalls.get();
+        sendConcurrently(20);
+        assertEquals(before + 20, servers.get(0).chatCalls.get() + servers.get(1).chatCalls.get());
+    }
+
+    @Test
+    @DisplayName("모든 노드가 비정상이면 전체 노드를 대상으로 선택한다")
+    void failsOpenWhenAllNodesUnhealthy() {
+        servers.forEach(s -> s.down.set(true));
+        loadBalancer.checkAll().block();
+        loadBalancer.checkAll().block();
+        loadBalancer.getNodes().forEach(node -> assertFalse(node.isHealthy()));
+
+        assertNotNull(loadBalancer.choose());
+    }
+
+    /**
+     * GET / (헬스 체크)와 POST /chat 을 흉내내는 스텁 AI 서버
+     */
+    private static class StubServer {
+
+        private final HttpServer server;
+        private final ExecutorService executor = Executors.newFixedThreadPool(16);
+        private final AtomicInteger chatCalls = new AtomicInteger();
+        private final AtomicBoolean down = new AtomicBoolean(false);
+
+        StubServer() throws IOException {
+            server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+            server.setExecutor(executor);
+            server.createContext("/", exchange -> {
+                int status = down.get() ? 503 : 200;
+                if (status == 200 && exchange.getRequestURI().getPath().equals("/chat")) {
+                    chatCalls.incrementAndGet();
+                    try {
+                        Thread.sleep(50);
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                    }
+                }
+                byte[] body = "{\"status\":\"ok\"}".getBytes(StandardCharsets.UTF_8);
+                exchange.getResponseHeaders().add("Content-Type", "application/json");
+                exchange.sendResponseHeaders(status, body.length);
+                try (OutputStream os = exchange.getResponseBody()) {
+                    os.write(body);
+                }
+            });
+            server.start();
+        }
+
+        String url() {
+            return "http://127.0.0.1:" + server.getAddress().getPort();
+        }
+
+        void stop() {
+            server.stop(0);
+            executor.shutdownNow();
+        }
+    }
+}
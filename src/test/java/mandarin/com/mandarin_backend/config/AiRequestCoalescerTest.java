@@ -0,0 +1,184 @@
+package mandarin.com.mandarin_backend.config;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import reactor.core.Disposable;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("AiRequestCoalescer 테스트")
+class AiRequestCoalescerTest {
+
+    private SimpleMeterRegistry meterRegistry;
+    private AiRequestCoalescer coalescer;
+    private final AtomicInteger calls = new AtomicInteger();
+
+    @BeforeEach
+    void setUp() {
+        AiClientProperties properties = new AiClientProperties();
+
+        AiClientProperties.Policy analyze = new AiClientProperties.Policy();
+        analyze.setCoalesce(true);
+        properties.getPolicies().put("analyze", analyze);
+
+        AiClientProperties.Policy triggers = new AiClientProperties.Policy();
+        triggers.setCoalesce(true);
+        triggers.setCoalesceWindow(Duration.ofMinutes(1));
+        properties.getPolicies().put("extract-negative-triggers", triggers);
+
+        AiClientProperties.Policy summary = new AiClientProperties.Policy();
+        summary.setResultCacheTtl(Duration.ofHours(1));
+        summary.setResultCacheMaxEntries(10);
+        properties.getPolicies().put("summarize-history", summary);
+
+        meterRegistry = new SimpleMeterRegistry();
+        coalescer = new AiRequestCoalescer(properties, new ObjectMapper(), meterRegistry);
+    }
+
+    private Mono<String> slowCall() {
+        return Mono.fromCallable(() -> "result-" + calls.incrementAndGet())
+                .delayElement(Duration.ofMillis(100));
+    }
+
+    private double coalesced(String endpoint) {
+        return meterRegistry.counter("ai.client.coalesced", "endpoint", endpoint).count();
+    }
+
+    @Test
+    @DisplayName("동시에 들어온 같은 요청은 AI 서버를 1번만 호출한다")
+    void coalescesConcurrentIdenticalRequests() {
+        Map<String, Object> body = Map.of("text_content", "대화", "target_name", "철수");
+
+        List<String> results = Flux.range(0, 5)
+                .flatMap(i -> coalescer.execute("/analyze", body, this::slowCall))
+                .collectList()
+                .block();
+
+        assertEquals(1, calls.get());
+        assertEquals(5, results.size());
+        assertTrue(results.stream().allMatch("result-1"::equals));
+        assertEquals(4, coalesced("/analyze"));
+    }
+
+    @Test
+    @DisplayName("요청 본문이 다르면 공유하지 않는다")
+    void doesNotCoalesceDifferentBodies() {
+        Flux.merge(
+                coalescer.execute("/analyze", Map.of("target_name", "철수"), this::slowCall),
+                coalescer.execute("/analyze", Map.of("target_name", "영희"), this::slowCall)
+        ).blockLast();
+
+        assertEquals(2, calls.get());
+        assertEquals(0, coalesced("/analyze"));
+    }
+
+    @Test
+    @DisplayName("공유 시간이 0이면 완료된 뒤에는 다시 호출한다")
+    void callsAgainAfterCompletionWithoutWindow() {
+        Map<String, Object> body = Map.of("target_name", "철수");
+
+        coalescer.execute("/analyze", body, this::slowCall).block();
+        coalescer.execute("/analyze", body, this::slowCall).block();
+
+        assertEquals(2, calls.get());
+    }
+
+    @Test
+    @DisplayName("공유 시간 동안은 완료된 결과를 재사용한다")
+    void reusesResultWithinWindow() {
+        Map<String, Object> body = Map.of("target_name", "철수");
+
+        String first = coalescer.execute("/extract-negative-triggers", body, this::slowCall).block();
+        String second = coalescer.execute("/extract-negative-triggers", body, this::slowCall).block();
+
+        assertEquals(1, calls.get());
+        assertEquals(first, second);
+        assertEquals(1, coalesced("/extract-negative-triggers"));
+    }
+
+    @Test
+    @DisplayName("실패한 호출은 공유하지 않고 다음 요청에서 다시 시도한다")
+    void failedCallIsNotReused() {
+        Map<String, Object> body = Map.of("target_name", "철수");
+
+        assertThrows(IllegalStateException.class, () -> coalescer.execute("/extract-negative-triggers", body,
+                () -> Mono.<String>error(new IllegalStateException("AI 서버 오류"))).block());
+
+        assertEquals("result-1", coalescer.execute("/extract-negative-triggers", body, this::slowCall).block());
+    }
+
+    @Test
+    @DisplayName("공유 중인 호출은 마지막 구독자가 취소해야 AI 서버 호출이 취소된다")
+    void cancelsUpstreamWhenLastSubscriberLeaves() {
+        Map<String, Object> body = Map.of("target_name", "철수");
+        AtomicInteger subscribed = new AtomicInteger();
+        AtomicBoolean upstreamCancelled = new AtomicBoolean();
+        Supplier<Mono<String>> call = () -> Mono.<String>never()
+                .doOnSubscribe(s -> subscribed.incrementAndGet())
+                .doOnCancel(() -> upstreamCancelled.set(true));
+
+        Disposable first = coalescer.execute("/analyze", body, call).subscribe();
+        Disposable second = coalescer.execute("/analyze", body, call).subscribe();
+        assertEquals(1, subscribed.get());
+
+        first.dispose();
+        assertFalse(upstreamCancelled.get());
+
+        second.dispose();
+        assertTrue(upstreamCancelled.get());
+
+        // 취소된 호출은 공유 목록에서 제거되어 다음 요청은 새로 호출
+        assertEquals("result-1", coalescer.execute("/analyze", body, this::slowCall).block());
+    }
+
+    @Test
+    @DisplayName("coalesce가 꺼진 엔드포인트는 매번 호출한다")
+    void passesThroughWhenDisabled() {
+        Map<String, Object> body = Map.of("message", "안녕");
+
+        Flux.range(0, 3)
+                .flatMap(i -> coalescer.execute("/chat", body, this::slowCall))
+                .blockLast();
+
+        assertEquals(3, calls.get());
+    }
+
+    @Test
+    @DisplayName("결과 캐시 - 같은 입력이면 완료 후에도 AI 서버를 다시 호출하지 않는다")
+    void reusesCachedResult() {
+        Map<String, Object> body = Map.of("history", "첫 만남", "character_name", "철수");
+
+        String first = coalescer.execute("/summarize-history", body, this::slowCall).block();
+        String second = coalescer.execute("/summarize-history", body, this::slowCall).block();
+        coalescer.execute("/summarize-history", Map.of("history", "수정된 히스토리"), this::slowCall).block();
+
+        assertEquals(first, second);
+        assertEquals(2, calls.get());
+        assertEquals(1, meterRegistry.counter("ai.client.result-cache.hits", "endpoint", "/summarize-history").count());
+    }
+
+    @Test
+    @DisplayName("결과 캐시 - fallback 응답은 캐시하지 않는다")
+    void doesNotCacheFallback() {
+        Map<String, Object> body = Map.of("history", "첫 만남");
+
+        coalescer.execute("/summarize-history", body, () -> Mono.deferContextual(context -> {
+            context.<AtomicBoolean>get(AiResiliencePolicyFilter.FALLBACK_MARKER).set(true);
+            return Mono.just("fallback");
+        })).block();
+
+        assertEquals("result-1", coalescer.execute("/summarize-history", body, this::slowCall).block());
+    }
+}
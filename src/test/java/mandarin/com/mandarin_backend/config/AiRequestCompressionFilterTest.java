@@ -0,0 +1,117 @@
+package mandarin.com.mandarin_backend.config;
+
+import com.sun.net.httpserver.HttpServer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.MediaType;
+import org.springframework.http.client.reactive.ReactorClientHttpConnector;
+import org.springframework.util.unit.DataSize;
+import org.springframework.web.reactive.function.client.WebClient;
+import reactor.netty.http.client.HttpClient;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.zip.GZIPInputStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("AiRequestCompressionFilter 테스트 (로컬 스텁 서버)")
+class AiRequestCompressionFilterTest {
+
+    private HttpServer server;
+    private final AtomicReference<String> receivedEncoding = new AtomicReference<>();
+    private final AtomicReference<String> receivedBody = new AtomicReference<>();
+    private SimpleMeterRegistry meterRegistry;
+    private WebClient webClient;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        // 요청이 gzip이면 풀어서 기록하고, Accept-Encoding: gzip 이면 응답도 gzip으로 보내는 스텁
+        server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+        server.createContext("/", exchange -> {
+            String encoding = exchange.getRequestHeaders().getFirst("Content-Encoding");
+            receivedEncoding.set(encoding);
+            byte[] raw = exchange.getRequestBody().readAllBytes();
+            if ("gzip".equals(encoding)) {
+                try (InputStream in = new GZIPInputStream(new ByteArrayInputStream(raw))) {
+                    raw = in.readAllBytes();
+                }
+            }
+            receivedBody.set(new String(raw, StandardCharsets.UTF_8));
+
+            byte[] body = ("{\"length\":" + raw.length + "}").getBytes(StandardCharsets.UTF_8);
+            String accept = exchange.getRequestHeaders().getFirst("Accept-Encoding");
+            if (accept != null && accept.contains("gzip")) {
+                body = AiRequestCompressionFilter.gzip(body);
+                exchange.getResponseHeaders().add("Content-Encoding", "gzip");
+            }
+            exchange.getResponseHeaders().add("Content-Type", "application/json");
+            exchange.sendResponseHeaders(200, body.length);
+            try (OutputStream os = exchange.getResponseBody()) {
+                os.write(body);
+            }
+        });
+        server.start();
+
+        AiClientProperties.Compression compression = new AiClientProperties.Compression();
+        compression.setRequestEnabled(true);
+        compression.setMinRequestSize(DataSize.ofBytes(1024));
+        meterRegistry = new SimpleMeterRegistry();
+
+        webClient = WebClient.builder()
+                .baseUrl("http://127.0.0.1:" + server.getAddress().getPort())
+                .clientConnector(new ReactorClientHttpConnector(HttpClient.create().compress(true)))
+                .filter(new AiRequestCompressionFilter(compression, meterRegistry))
+                .build();
+    }
+
+    @AfterEach
+    void tearDown() {
+        server.stop(0);
+    }
+
+    private String post(String path, String body) {
+        return webClient.post()
+                .uri(path)
+                .contentType(MediaType.APPLICATION_JSON)
+                .bodyValue(body)
+                .retrieve()
+                .bodyToMono(String.class)
+                .block(Duration.ofSeconds(5));
+    }
+
+    @Test
+    @DisplayName("기준 크기 이상인 요청은 gzip으로 보내고 줄어든 바이트를 기록한다")
+    void compressesLargeRequest() {
+        String dialogue = "{\"text\":\"" + "안녕 오늘 뭐해? ㅋㅋ 나 지금 집에 가는 중이야\\n".repeat(500) + "\"}";
+        int rawLength = dialogue.getBytes(StandardCharsets.UTF_8).length;
+
+        String response = post("/analyze", dialogue);
+
+        assertEquals("gzip", receivedEncoding.get());
+        assertEquals(dialogue, receivedBody.get());
+        assertEquals("{\"length\":" + rawLength + "}", response, "gzip 응답은 자동으로 해제된다");
+        assertEquals(1.0, meterRegistry.counter("ai.client.compression.requests", "endpoint", "/analyze").count());
+        assertTrue(meterRegistry.counter("ai.client.compression.bytes-saved", "endpoint", "/analyze").count()
+                > rawLength / 2.0);
+    }
+
+    @Test
+    @DisplayName("기준 크기보다 작은 요청은 압축하지 않는다")
+    void skipsSmallRequest() {
+        post("/chat", "{\"user_message\":\"안녕\"}");
+
+        assertNull(receivedEncoding.get());
+        assertEquals("{\"user_message\":\"안녕\"}", receivedBody.get());
+        assertEquals(0.0, meterRegistry.counter("ai.client.compression.bytes-saved", "endpoint", "/chat").count());
+    }
+}
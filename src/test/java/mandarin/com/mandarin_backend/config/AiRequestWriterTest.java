@@ -0,0 +1,50 @@
+package mandarin.com.mandarin_backend.config;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.util.RawValue;
+import mandarin.com.mandarin_backend.dto.ChatAiRequestDto;
+import mandarin.com.mandarin_backend.dto.ChatLogDto;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("AiRequestWriter 테스트")
+class AiRequestWriterTest {
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final AiRequestWriter writer = new AiRequestWriter(objectMapper);
+
+    @Test
+    @DisplayName("미리 직렬화한 persona / simulation_context가 JSON 객체로 그대로 들어간다")
+    void write_SplicesRawJson() throws Exception {
+        RawValue persona = writer.rawJson(Map.of("name", "철수"));
+        RawValue context = writer.rawJson(Map.of("love_type", 16));
+
+        byte[] body = writer.write(new ChatAiRequestDto(persona, "안녕",
+                List.of(ChatLogDto.builder().role("user").content("이전 메시지").build()), "요약", context));
+
+        JsonNode json = objectMapper.readTree(body);
+        assertEquals("철수", json.get("persona").get("name").asText());
+        assertEquals(16, json.get("simulation_context").get("love_type").asInt());
+        assertEquals("안녕", json.get("user_message").asText());
+        assertEquals("이전 메시지", json.get("history").get(0).get("content").asText());
+        assertEquals("요약", json.get("conversation_summary").asText());
+    }
+
+    @Test
+    @DisplayName("요약이 없으면 conversation_summary를 보내지 않는다")
+    void write_OmitsNullSummary() throws Exception {
+        RawValue persona = writer.rawJson(Map.of("name", "철수"));
+
+        JsonNode json = objectMapper.readTree(writer.write(
+                new ChatAiRequestDto(persona, "안녕", List.of(), null, writer.rawJson(Map.of()))));
+
+        assertFalse(json.has("conversation_summary"));
+        assertTrue(json.get("history").isArray());
+    }
+}
@@ -0,0 +1,131 @@
+package mandarin.com.mandarin_backend.config;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import mandarin.com.mandarin_backend.exception.AiCircuitOpenException;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.reactive.function.client.ClientRequest;
+import org.springframework.web.reactive.function.client.ClientResponse;
+import org.springframework.web.reactive.function.client.ExchangeFunction;
+import org.springframework.web.reactive.function.client.WebClientResponseException;
+import reactor.core.Exceptions;
+import reactor.core.publisher.Mono;
+
+import java.net.URI;
+import java.time.Duration;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("AiResiliencePolicyFilter 테스트")
+class AiResiliencePolicyFilterTest {
+
+    private AiClientProperties properties;
+    private AiResiliencePolicyFilter filter;
+    private AiRequestTimeoutFilter timeoutFilter;
+    private final AtomicInteger calls = new AtomicInteger();
+
+    @BeforeEach
+    void setUp() {
+        properties = new AiClientProperties();
+
+        AiClientProperties.Policy chat = new AiClientProperties.Policy();
+        chat.setTimeout(Duration.ofMillis(200));
+        chat.setMaxRetries(2);
+        chat.setRetryBackoff(Duration.ofMillis(1));
+        chat.setRetryMaxBackoff(Duration.ofMillis(5));
+        chat.getCircuitBreaker().setWindowSize(4);
+        chat.getCircuitBreaker().setMinimumCalls(4);
+        chat.getCircuitBreaker().setOpenDuration(Duration.ofMinutes(1));
+        properties.getPolicies().put("chat", chat);
+
+        AiClientProperties.Policy triggers = new AiClientProperties.Policy();
+        triggers.setFallbackBody("{\"negative_triggers\":[]}");
+        properties.getPolicies().put("extract-negative-triggers", triggers);
+
+        filter = new AiResiliencePolicyFilter(properties, new SimpleMeterRegistry());
+        timeoutFilter = new AiRequestTimeoutFilter(properties);
+    }
+
+    private ClientRequest request(String path) {
+        return ClientRequest.create(HttpMethod.POST, URI.create("http://localhost:8000" + path)).build();
+    }
+
+    private ExchangeFunction respondWith(HttpStatus... statuses) {
+        return req -> {
+            int i = Math.min(calls.getAndIncrement(), statuses.length - 1);
+            return Mono.just(ClientResponse.create(statuses[i]).build());
+        };
+    }
+
+    @Test
+    @DisplayName("5xx 응답은 재시도 후 성공하면 정상 응답 반환")
+    void retriesServerErrors() {
+        ClientResponse response = filter.filter(request("/chat"),
+                respondWith(HttpStatus.BAD_GATEWAY, HttpStatus.OK)).block();
+
+        assertNotNull(response);
+        assertEquals(HttpStatus.OK, response.statusCode());
+        assertEquals(2, calls.get());
+    }
+
+    @Test
+    @DisplayName("재시도 횟수를 모두 쓰면 WebClientResponseException")
+    void retryExhaustedThrows() {
+        assertThrows(WebClientResponseException.class, () -> filter.filter(request("/chat"),
+                respondWith(HttpStatus.SERVICE_UNAVAILABLE)).block());
+        assertEquals(3, calls.get());
+    }
+
+    @Test
+    @DisplayName("실패가 쌓이면 서킷이 열리고 AI 서버를 호출하지 않음")
+    void opensCircuit() {
+        properties.getPolicies().get("chat").setMaxRetries(0);
+
+        for (int i = 0; i < 4; i++) {
+            assertThrows(WebClientResponseException.class, () -> filter.filter(request("/chat"),
+                    respondWith(HttpStatus.INTERNAL_SERVER_ERROR)).block());
+        }
+
+        int callsBefore = calls.get();
+        assertThrows(AiCircuitOpenException.class, () -> filter.filter(request("/chat"),
+                respondWith(HttpStatus.OK)).block());
+        assertEquals(callsBefore, calls.get());
+    }
+
+    @Test
+    @DisplayName("타임아웃되면 fallback 응답 반환")
+    void fallbackOnTimeout() {
+        properties.getPolicies().get("extract-negative-triggers").setTimeout(Duration.ofMillis(50));
+
+        ClientResponse response = filter.filter(request("/extract-negative-triggers"),
+                req -> timeoutFilter.filter(req, hung -> Mono.never())).block();
+
+        assertNotNull(response);
+        assertEquals(HttpStatus.OK, response.statusCode());
+        assertEquals("{\"negative_triggers\":[]}", response.bodyToMono(String.class).block());
+    }
+
+    @Test
+    @DisplayName("타임아웃은 동시 요청 제한에 실패(drop)로 기록되어 limit이 줄어듦")
+    void timeoutLowersConcurrencyLimit() {
+        properties.getPolicies().get("chat").setTimeout(Duration.ofMillis(50));
+        properties.getPolicies().get("chat").setMaxRetries(0);
+        SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+        AiConcurrencyLimitFilter limitFilter = new AiConcurrencyLimitFilter(properties.getLimiter(), meterRegistry);
+
+        // WebClientConfig와 같은 순서: 재시도/서킷 → 동시 요청 제한 → 타임아웃
+        RuntimeException e = assertThrows(RuntimeException.class, () -> filter.filter(request("/chat"),
+                req -> limitFilter.filter(req, limited -> timeoutFilter.filter(limited, hung -> Mono.never())))
+                .block());
+        assertInstanceOf(TimeoutException.class, Exceptions.unwrap(e));
+
+        double limit = meterRegistry.get("ai.client.concurrency.limit").tag("endpoint", "/chat").gauge().value();
+        assertEquals(7, limit);
+        assertEquals(0, meterRegistry.get("ai.client.concurrency.inflight").tag("endpoint", "/chat").gauge().value());
+    }
+}
@@ -0,0 +1,72 @@
+package mandarin.com.mandarin_backend.config;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("AiResultCache 테스트")
+class AiResultCacheTest {
+
+    /**
+     * 테스트에서 시간을 직접 옮길 수 있는 Clock
+     */
+    private static class MutableClock extends Clock {
+        private Instant now = Instant.parse("2025-01-01T00:00:00Z");
+
+        void advance(Duration duration) {
+            now = now.plus(duration);
+        }
+
+        @Override
+        public ZoneOffset getZone() {
+            return ZoneOffset.UTC;
+        }
+
+        @Override
+        public Clock withZone(java.time.ZoneId zone) {
+            return this;
+        }
+
+        @Override
+        public Instant instant() {
+            return now;
+        }
+    }
+
+    @Test
+    @DisplayName("TTL이 지난 항목은 조회되지 않는다")
+    void expiresAfterTtl() {
+        MutableClock clock = new MutableClock();
+        AiResultCache cache = new AiResultCache(10, Duration.ofMinutes(10), clock);
+        cache.put("a", "요약");
+
+        clock.advance(Duration.ofMinutes(9));
+        assertEquals(Optional.of("요약"), cache.get("a"));
+
+        clock.advance(Duration.ofMinutes(1));
+        assertTrue(cache.get("a").isEmpty());
+        assertEquals(0, cache.size());
+    }
+
+    @Test
+    @DisplayName("최대 개수를 넘으면 가장 오래 사용하지 않은 항목부터 제거한다")
+    void evictsLeastRecentlyUsed() {
+        AiResultCache cache = new AiResultCache(2, Duration.ofHours(1));
+        cache.put("a", 1);
+        cache.put("b", 2);
+        cache.get("a");
+        cache.put("c", 3);
+
+        assertTrue(cache.get("a").isPresent());
+        assertTrue(cache.get("b").isEmpty());
+        assertTrue(cache.get("c").isPresent());
+        assertEquals(2, cache.size());
+    }
+}
@@ -0,0 +1,221 @@
+package mandarin.com.mandarin_backend.service;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+import mandarin.com.mandarin_backend.config.AccountPurgeProperties;
+import mandarin.com.mandarin_backend.entity.*;
+import mandarin.com.mandarin_backend.entity.enums.SimulationCategory;
+import mandarin.com.mandarin_backend.entity.enums.SimulationPurpose;
+import mandarin.com.mandarin_backend.repository.ChatReportAvgRepository;
+import mandarin.com.mandarin_backend.util.FileUtil;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.verify;
+
+@DataJpaTest(properties = "spring.jpa.properties.hibernate.generate_statistics=true")
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Import({AccountPurgeService.class, AccountPurgeProperties.class})
+@DisplayName("AccountPurgeService 테스트")
+class AccountPurgeServiceTest {
+
+    @Autowired
+    private AccountPurgeService accountPurgeService;
+
+    @Autowired
+    private AccountPurgeProperties properties;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    private ChatReportAvgRepository chatReportAvgRepository;
+
+    @MockitoBean
+    private ConversationStateCache conversationStateCache;
+
+    @MockitoBean
+    private FileUtil fileUtil;
+
+    private Statistics statistics;
+
+    @BeforeEach
+    void setUp() {
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+    }
+
+    private User persistUser(String userId) {
+        User user = User.builder().userId(userId).username("테스트").password("pw").build();
+        entityManager.persist(user);
+        return user;
+    }
+
+    private UserCharacter persistCharacter(User user, String name) {
+        UserCharacter character = UserCharacter.builder()
+                .user(user)
+                .characterName(name)
+                .characterAge(25)
+                .relationType(1)
+                .kakaoName(name)
+                .characterImg("character/" + name + ".png")
+                .fullDialogue("dialogue/" + name + ".txt")
+                .build();
+        entityManager.persist(character);
+
+        ReportCharacter reportCharacter = ReportCharacter.builder()
+                .character(character).conflictName("연락").dangerLevel(50).description("설명").solution("해결")
+                .build();
+        entityManager.persist(reportCharacter);
+        entityManager.persist(ReportCharacterDetailLog.builder()
+                .reportCharacter(reportCharacter).sender("user").messageKakao("안녕").timestamp(LocalDateTime.now())
+                .build());
+        entityManager.persist(PersonaCache.builder()
+                .character(character).targetName(name).contextHash(name + "-hash").promptVersion("v1")
+                .personaJson("{}")
+                .build());
+        return character;
+    }
+
+    /**
+     * 시뮬레이션 하나 (메시지 / 대화 요약 / 부분 보고서 / ChatReport 포함)
+     */
+    private Simulation persistSimulation(User user, UserCharacter character, Simulation parent, int messages) {
+        Simulation simulation = Simulation.builder()
+                .user(user)
+                .character(character)
+                .simulationName("시뮬레이션")
+                .purpose(SimulationPurpose.FUTURE)
+                .category(SimulationCategory.RELATION_TENSION)
+                .parent(parent)
+                .origin(parent)
+                .build();
+        entityManager.persist(simulation);
+        for (int i = 0; i < messages; i++) {
+            entityManager.persist(SimulationMessage.builder()
+                    .simulation(simulation).sender(i % 2 == 0 ? "user" : "assistant").content("메시지" + i)
+                    .timestamp(LocalDateTime.now())
+                    .build());
+        }
+        entityManager.persist(SimulationMemory.builder().simulation(simulation).summary("요약").build());
+        entityManager.persist(SimulationPartialReport.builder().simulation(simulation).scenarioType("FUTURE").build());
+
+        ChatReportContent content = ChatReportContent.builder().simulation(simulation).reportContent("{}").build();
+        entityManager.persist(content);
+        ChatReport report = ChatReport.builder()
+                .simulation(simulation).user(user).character(character)
+                .scoreAvg(70).labelKey(1).labelScore(70).content(content)
+                .build();
+        entityManager.persist(report);
+        entityManager.persist(ChatReportDetailLog.builder()
+                .chatReportId(report.getChatReportId()).sender("user").message("메시지").timestamp(LocalDateTime.now())
+                .build());
+        entityManager.flush();
+        chatReportAvgRepository.accumulate(report.getChatReportId(), user.getId(), "F1", 70, 70, LocalDateTime.now());
+        return simulation;
+    }
+
+    private User persistAccount(String userId, int simulations, int messagesPerSimulation) {
+        User user = persistUser(userId);
+        UserCharacter character = persistCharacter(user, userId + "캐릭터");
+        Simulation previous = null;
+        for (int i = 0; i < simulations; i++) {
+            // 절반은 앞 시뮬레이션의 분기로 만들어 부모 / 분기를 함께 지우는 경우를 포함
+            previous = persistSimulation(user, character, i % 2 == 1 ? previous : null, messagesPerSimulation);
+        }
+        return user;
+    }
+
+    private long count(String entityName) {
+        return entityManager.createQuery("SELECT COUNT(e) FROM " + entityName + " e", Long.class).getSingleResult();
+    }
+
+    private long statementsFor(Runnable action) {
+        entityManager.flush();
+        entityManager.clear();
+        statistics.clear();
+        action.run();
+        entityManager.flush();
+        return statistics.getPrepareStatementCount();
+    }
+
+    private void assertAllDeleted() {
+        for (String entity : List.of("User", "UserCharacter", "Simulation", "SimulationMessage", "SimulationMemory",
+                "SimulationPartialReport", "ChatReport", "ChatReportContent", "ChatReportDetailLog", "ChatReportAvg", "ReportCharacter",
+                "ReportCharacterDetailLog", "PersonaCache")) {
+            assertEquals(0, count(entity), entity);
+        }
+    }
+
+    @Test
+    @DisplayName("회원 삭제 시 실행하는 SQL 수는 데이터 양과 관계없이 일정")
+    void deleteUserNow_ConstantStatementCount() {
+        User small = persistAccount("small", 1, 2);
+        User large = persistAccount("large", 8, 30);
+
+        long smallStatements = statementsFor(() -> accountPurgeService.deleteUserNow(small.getId()));
+        long largeStatements = statementsFor(() -> accountPurgeService.deleteUserNow(large.getId()));
+
+        assertEquals(smallStatements, largeStatements);
+        assertTrue(largeStatements <= 24, "SQL 수: " + largeStatements);
+        entityManager.clear();
+        assertAllDeleted();
+    }
+
+    @Test
+    @DisplayName("캐릭터 삭제는 같은 사용자의 다른 캐릭터 데이터를 남기고 파일은 커밋 후 삭제 대상으로 넘김")
+    void deleteCharacters_KeepsOtherCharacters() {
+        User user = persistUser("user");
+        UserCharacter deleted = persistCharacter(user, "삭제");
+        UserCharacter kept = persistCharacter(user, "유지");
+        Simulation root = persistSimulation(user, deleted, null, 4);
+        persistSimulation(user, deleted, root, 2);
+        persistSimulation(user, kept, null, 3);
+        entityManager.flush();
+        entityManager.clear();
+
+        accountPurgeService.deleteCharacters(List.of(entityManager.find(UserCharacter.class, deleted.getCharacterId())));
+        entityManager.clear();
+
+        assertEquals(1, count("UserCharacter"));
+        assertEquals(1, count("Simulation"));
+        assertEquals(3, count("SimulationMessage"));
+        assertEquals(1, count("ChatReport"));
+        assertEquals(1, count("ChatReportContent"));
+        // 남은 캐릭터의 리포트 하나로 누적 합계를 다시 만듦
+        ChatReportAvg avg = chatReportAvgRepository.findByUser_Id(user.getId()).get(0);
+        assertEquals(1, avg.getReportCount());
+        assertEquals(70L, avg.getLabelScoreSum());
+        assertEquals(1, count("ReportCharacter"));
+        assertEquals(1, count("PersonaCache"));
+        verify(conversationStateCache).evictCharacter(deleted.getCharacterId());
+    }
+
+    @Test
+    @DisplayName("탈퇴 처리된 계정은 시뮬레이션을 묶음으로 나눠 모두 삭제")
+    void purgeUser_DeletesInBatches() {
+        properties.setBatchSize(2);
+        User user = persistAccount("heavy", 5, 6);
+        entityManager.flush();
+        entityManager.clear();
+
+        accountPurgeService.purgeUser(user.getId());
+        entityManager.clear();
+
+        assertAllDeleted();
+    }
+}
@@ -0,0 +1,195 @@
+package mandarin.com.mandarin_backend.service;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import mandarin.com.mandarin_backend.config.ChatBatchProperties;
+import mandarin.com.mandarin_backend.dto.ChatBatchAlternativeDto;
+import mandarin.com.mandarin_backend.dto.ChatResponseDto;
+import mandarin.com.mandarin_backend.exception.ChatBatchConflictException;
+import mandarin.com.mandarin_backend.exception.ChatBatchNotFoundException;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.Sinks;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("ChatBatchService 테스트")
+class ChatBatchServiceTest {
+
+    @Mock
+    private ChatService chatService;
+
+    @Mock
+    private ConversationStateCache conversationStateCache;
+
+    private SimpleMeterRegistry meterRegistry;
+    private ChatBatchService chatBatchService;
+    private ConversationStateCache.ConversationState state;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        chatBatchService = new ChatBatchService(chatService, conversationStateCache,
+                new ChatBatchProperties(), meterRegistry);
+        state = new ConversationStateCache.ConversationState(1L, 10L, null, null, 20, 0L);
+        lenient().when(conversationStateCache.get(1L)).thenReturn(state);
+    }
+
+    private static Mono<ChatResponseDto> reply(String text, long delayMillis) {
+        return Mono.just(new ChatResponseDto(text)).delayElement(Duration.ofMillis(delayMillis));
+    }
+
+    @Test
+    @DisplayName("후보 /chat은 동시에 concurrency개까지 호출하고 요청 순서대로 모아 반환")
+    void awaitAll_RunsCandidatesConcurrentlyUpToLimit() {
+        Sinks.One<ChatResponseDto> first = Sinks.one();
+        Sinks.One<ChatResponseDto> second = Sinks.one();
+        Sinks.One<ChatResponseDto> third = Sinks.one();
+        List<String> subscribed = new CopyOnWriteArrayList<>();
+        when(chatService.requestReply(eq(state), eq("안녕"), any()))
+                .thenReturn(first.asMono().doOnSubscribe(subscription -> subscribed.add("안녕")));
+        when(chatService.requestReply(eq(state), eq("뭐해?"), any()))
+                .thenReturn(second.asMono().doOnSubscribe(subscription -> subscribed.add("뭐해?")));
+        when(chatService.requestReply(eq(state), eq("보고 싶어"), any()))
+                .thenReturn(third.asMono().doOnSubscribe(subscription -> subscribed.add("보고 싶어")));
+
+        ChatBatchService.Batch batch = chatBatchService.start(1L, List.of("안녕", "뭐해?", "보고 싶어"), List.of());
+
+        // 기본 concurrency 2: 앞의 두 후보는 어느 쪽도 끝나기 전에 함께 호출되고 세 번째는 자리가 날 때까지 대기
+        assertEquals(List.of("안녕", "뭐해?"), subscribed);
+        first.tryEmitValue(new ChatResponseDto("반가워"));
+        assertEquals(List.of("안녕", "뭐해?", "보고 싶어"), subscribed);
+        third.tryEmitError(new IllegalStateException("AI 서버 오류"));
+        second.tryEmitValue(new ChatResponseDto("그냥 있어"));
+
+        List<ChatBatchAlternativeDto> alternatives = chatBatchService.awaitAll(batch);
+
+        assertEquals(List.of(0, 1, 2),
+                alternatives.stream().map(ChatBatchAlternativeDto::getIndex).collect(Collectors.toList()));
+        assertEquals("반가워", alternatives.get(0).getReply());
+        assertEquals("그냥 있어", alternatives.get(1).getReply());
+        assertNull(alternatives.get(2).getReply());
+        assertEquals("AI 서버 오류", alternatives.get(2).getError());
+        verify(chatService, never()).commitTurn(any(), anyString(), any());
+    }
+
+    @Test
+    @DisplayName("만료된 배치는 commit 때 정리되고 진행 중인 호출과 대기 중인 후보도 취소")
+    void commit_EvictsExpiredBatch() {
+        MutableClock clock = new MutableClock();
+        chatBatchService = new ChatBatchService(chatService, conversationStateCache,
+                new ChatBatchProperties(), meterRegistry, clock);
+        AtomicBoolean cancelled = new AtomicBoolean();
+        when(chatService.requestReply(eq(state), anyString(), any()))
+                .thenReturn(Mono.<ChatResponseDto>never().doOnCancel(() -> cancelled.set(true)));
+
+        ChatBatchService.Batch batch = chatBatchService.start(1L, List.of("1", "2", "3"), List.of());
+        clock.advance(Duration.ofMinutes(11));
+
+        assertThrows(ChatBatchNotFoundException.class, () -> chatBatchService.commit(batch.getBatchId(), 0));
+        assertTrue(cancelled.get());
+        assertEquals(3, meterRegistry.counter("chat.batch.cancelled").count());
+        assertEquals(0, chatBatchService.activeCount());
+    }
+
+    @Test
+    @DisplayName("스트림은 끝나는 순서대로 후보 응답을 내보냄")
+    void stream_EmitsInCompletionOrder() {
+        when(chatService.requestReply(eq(state), eq("느린 후보"), any())).thenReturn(reply("늦은 답", 300));
+        when(chatService.requestReply(eq(state), eq("빠른 후보"), any())).thenReturn(reply("빠른 답", 50));
+
+        ChatBatchService.Batch batch = chatBatchService.start(1L, List.of("느린 후보", "빠른 후보"), List.of());
+        List<ChatBatchAlternativeDto> streamed = chatBatchService.stream(batch).collectList().block();
+
+        assertEquals(List.of("빠른 답", "늦은 답"),
+                streamed.stream().map(ChatBatchAlternativeDto::getReply).collect(Collectors.toList()));
+        assertEquals(1, streamed.get(0).getIndex());
+    }
+
+    @Test
+    @DisplayName("먼저 끝난 후보를 고르면 그 후보만 저장하고 진행 중인 나머지 호출은 취소")
+    void commit_PersistsChosenAndCancelsOthers() {
+        AtomicBoolean cancelled = new AtomicBoolean();
+        when(chatService.requestReply(eq(state), eq("빠른 후보"), any())).thenReturn(reply("빠른 답", 0));
+        when(chatService.requestReply(eq(state), eq("느린 후보"), any()))
+                .thenReturn(Mono.<ChatResponseDto>never().doOnCancel(() -> cancelled.set(true)));
+        when(chatService.commitTurn(eq(1L), anyString(), any())).thenAnswer(invocation -> invocation.getArgument(2));
+
+        ChatBatchService.Batch batch = chatBatchService.start(1L, List.of("빠른 후보", "느린 후보"), List.of());
+        ChatResponseDto saved = chatBatchService.commit(batch.getBatchId(), 0);
+
+        assertEquals("빠른 답", saved.getReply());
+        assertTrue(cancelled.get());
+        assertEquals(1, meterRegistry.counter("chat.batch.cancelled").count());
+        verify(chatService).commitTurn(eq(1L), eq("빠른 후보"), any());
+        assertEquals(0, chatBatchService.activeCount());
+        // 한 번 고른 배치는 다시 고를 수 없음
+        assertThrows(ChatBatchNotFoundException.class, () -> chatBatchService.commit(batch.getBatchId(), 1));
+    }
+
+    @Test
+    @DisplayName("후보를 만든 뒤 대화가 진행됐으면 저장하지 않음")
+    void commit_RejectsWhenConversationMovedOn() {
+        when(chatService.requestReply(eq(state), eq("안녕"), any())).thenReturn(reply("반가워", 0));
+
+        ChatBatchService.Batch batch = chatBatchService.start(1L, List.of("안녕"), List.of());
+        // 그 사이 /send로 한 턴이 저장됨
+        state.nextSequence();
+        state.nextSequence();
+
+        assertThrows(ChatBatchConflictException.class, () -> chatBatchService.commit(batch.getBatchId(), 0));
+        verify(chatService, never()).commitTurn(any(), anyString(), any());
+    }
+
+    @Test
+    @DisplayName("후보 개수 제한을 넘으면 AI 서버를 호출하지 않음")
+    void start_RejectsTooManyCandidates() {
+        List<String> candidates = List.of("1", "2", "3", "4", "5", "6");
+
+        assertThrows(IllegalArgumentException.class, () -> chatBatchService.start(1L, candidates, List.of()));
+        verifyNoInteractions(chatService);
+    }
+
+    private static class MutableClock extends Clock {
+
+        private Instant now = Instant.parse("2026-01-01T00:00:00Z");
+
+        void advance(Duration duration) {
+            now = now.plus(duration);
+        }
+
+        @Override
+        public ZoneId getZone() {
+            return ZoneOffset.UTC;
+        }
+
+        @Override
+        public Clock withZone(ZoneId zone) {
+            return this;
+        }
+
+        @Override
+        public Instant instant() {
+            return now;
+        }
+    }
+}
@@ -0,0 +1,301 @@
+package mandarin.com.mandarin_backend.service;
+
+import mandarin.com.mandarin_backend.config.ConversationMemoryProperties;
+import mandarin.com.mandarin_backend.dto.ChatLogDto;
+import mandarin.com.mandarin_backend.dto.ConversationSummaryResponseDto;
+import mandarin.com.mandarin_backend.entity.Simulation;
+import mandarin.com.mandarin_backend.entity.SimulationMemory;
+import mandarin.com.mandarin_backend.entity.SimulationMessage;
+import mandarin.com.mandarin_backend.entity.UserCharacter;
+import mandarin.com.mandarin_backend.repository.SimulationMemoryRepository;
+import mandarin.com.mandarin_backend.repository.SimulationMessageRepository;
+import mandarin.com.mandarin_backend.repository.SimulationRepository;
+import mandarin.com.mandarin_backend.repository.UserRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.projection.SpelAwareProxyProjectionFactory;
+import org.springframework.web.reactive.function.client.WebClient;
+import reactor.core.publisher.Mono;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.stream.Collectors;
+import java.util.stream.LongStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("ConversationMemoryService 테스트")
+class ConversationMemoryServiceTest {
+
+    @Mock
+    private SimulationRepository simulationRepository;
+
+    @Mock
+    private SimulationMessageRepository simulationMessageRepository;
+
+    @Mock
+    private SimulationMemoryRepository simulationMemoryRepository;
+
+    @Mock
+    private WebClient webClient;
+
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+
+    @Mock
+    private WebClient.RequestBodyUriSpec requestBodyUriSpec;
+
+    @Mock
+    private WebClient.RequestBodySpec requestBodySpec;
+
+    @Mock
+    private WebClient.ResponseSpec responseSpec;
+
+    private ConversationMemoryProperties properties;
+    private ConversationMemoryService conversationMemoryService;
+    private Simulation simulation;
+
+    @BeforeEach
+    void setUp() {
+        properties = new ConversationMemoryProperties();
+        properties.setRecentMaxMessages(4);
+        properties.setRecentTokenBudget(30);
+        properties.setSummarizeEvery(3);
+        properties.setCharsPerToken(1.0);
+        properties.setMessageOverheadTokens(0);
+
+        SimulationBranchService simulationBranchService = new SimulationBranchService(
+                simulationRepository, simulationMessageRepository, simulationMemoryRepository,
+                mock(UserRepository.class), eventPublisher);
+        conversationMemoryService = new ConversationMemoryService(simulationRepository,
+                simulationMemoryRepository, simulationBranchService, webClient, properties, eventPublisher);
+        lenient().when(simulationRepository.findBranchPoint(1L)).thenReturn(Optional.of(branchPoint(1L, null, null)));
+
+        UserCharacter character = new UserCharacter();
+        character.setCharacterName("철수");
+        simulation = Simulation.builder().simulationId(1L).character(character).build();
+    }
+
+    private SimulationMessage message(long id, String content) {
+        return SimulationMessage.builder()
+                .messageId(id)
+                .simulation(simulation)
+                .sender(id % 2 == 0 ? "assistant" : "user")
+                .content(content)
+                .build();
+    }
+
+    private static SimulationRepository.BranchPoint branchPoint(Long simulationId, Long parentId, Long branchMessageId) {
+        Map<String, Object> values = new HashMap<>();
+        values.put("simulationId", simulationId);
+        values.put("parentSimulationId", parentId);
+        values.put("branchMessageId", branchMessageId);
+        return new SpelAwareProxyProjectionFactory().createProjection(SimulationRepository.BranchPoint.class, values);
+    }
+
+    private void stubSummaryResponse(String summary) {
+        when(webClient.post()).thenReturn(requestBodyUriSpec);
+        when(requestBodyUriSpec.uri(anyString())).thenReturn(requestBodySpec);
+        doReturn(requestBodySpec).when(requestBodySpec).bodyValue(any());
+        when(requestBodySpec.retrieve()).thenReturn(responseSpec);
+        when(responseSpec.bodyToMono(eq(ConversationSummaryResponseDto.class)))
+                .thenReturn(Mono.just(new ConversationSummaryResponseDto(summary)));
+    }
+
+    private static List<String> contents(List<ChatLogDto> turns) {
+        return turns.stream().map(ChatLogDto::getContent).collect(Collectors.toList());
+    }
+
+    @Test
+    @DisplayName("요약을 켜면 요약 이후 메시지는 토큰 예산을 넘어도 모두 오래된 순으로 반환")
+    void load_AllMessagesAfterSummary() {
+        when(simulationMessageRepository.findBySimulationSimulationIdOrderByMessageIdDesc(eq(1L), any(Pageable.class)))
+                .thenReturn(List.of(message(8, "여덟번째메시지다"), message(7, "일곱번째메시지다"),
+                        message(6, "여섯번째메시지다"), message(5, "다섯번째메시지다"), message(4, "요약된메시지")));
+        when(simulationMemoryRepository.findBySimulation_SimulationId(1L))
+                .thenReturn(Optional.of(SimulationMemory.builder().summary("이전 요약").summarizedUntilMessageId(4L).build()));
+
+        ConversationMemoryService.ConversationContext context = conversationMemoryService.load(1L);
+
+        assertEquals("이전 요약", context.summary());
+        assertEquals(List.of("다섯번째메시지다", "여섯번째메시지다", "일곱번째메시지다", "여덟번째메시지다"),
+                contents(context.recent()));
+        assertEquals("assistant", context.recent().get(3).getRole());
+    }
+
+    @Test
+    @DisplayName("요약을 끄면 최근 대화는 토큰 예산 안에서 최신 메시지부터 채우고 오래된 순으로 반환")
+    void load_RecentWindowWithinBudget() {
+        properties.setSummaryEnabled(false);
+        // 최신순 8자씩 4개 → 예산 30이면 3개만
+        when(simulationMessageRepository.findBySimulationSimulationIdOrderByMessageIdDesc(eq(1L), any(Pageable.class)))
+                .thenReturn(List.of(message(8, "여덟번째메시지다"), message(7, "일곱번째메시지다"),
+                        message(6, "여섯번째메시지다"), message(5, "다섯번째메시지다")));
+
+        ConversationMemoryService.ConversationContext context = conversationMemoryService.load(1L);
+
+        assertNull(context.summary());
+        assertEquals(List.of("여섯번째메시지다", "일곱번째메시지다", "여덟번째메시지다"), contents(context.recent()));
+    }
+
+    @Test
+    @DisplayName("가장 최근 메시지는 예산을 넘어도 포함")
+    void load_AlwaysIncludesLatest() {
+        properties.setSummaryEnabled(false);
+        when(simulationMessageRepository.findBySimulationSimulationIdOrderByMessageIdDesc(eq(1L), any(Pageable.class)))
+                .thenReturn(List.of(message(2, "아주 긴 메시지".repeat(10))));
+        when(simulationMemoryRepository.findBySimulation_SimulationId(1L)).thenReturn(Optional.empty());
+
+        ConversationMemoryService.ConversationContext context = conversationMemoryService.load(1L);
+
+        assertNull(context.summary());
+        assertEquals(1, context.recent().size());
+    }
+
+    @Test
+    @DisplayName("윈도우 밖 미요약 메시지가 summarizeEvery개 미만이면 요약하지 않음")
+    void summarizeIfNeeded_BelowThreshold() {
+        when(simulationMemoryRepository.findBySimulation_SimulationId(1L)).thenReturn(Optional.empty());
+        // 6개 중 최근 4개는 윈도우 → 윈도우 밖 2개 < 3
+        when(simulationMessageRepository.findBySimulationSimulationIdAndMessageIdGreaterThanOrderByMessageIdAsc(
+                eq(1L), eq(0L), any(Pageable.class)))
+                .thenReturn(LongStream.rangeClosed(1, 6).mapToObj(id -> message(id, "메시지" + id)).toList());
+
+        assertFalse(conversationMemoryService.summarizeIfNeeded(1L));
+        verifyNoInteractions(webClient);
+    }
+
+    @Test
+    @DisplayName("윈도우 밖으로 밀려난 메시지만 기존 요약에 반영하고 마지막 메시지 ID를 기록")
+    void summarizeIfNeeded_FoldsOlderMessages() {
+        SimulationMemory memory = SimulationMemory.builder()
+                .simulation(simulation)
+                .summary("이전 요약")
+                .summarizedUntilMessageId(10L)
+                .summarizedMessageCount(10)
+                .build();
+        when(simulationMemoryRepository.findBySimulation_SimulationId(1L)).thenReturn(Optional.of(memory));
+        when(simulationRepository.findWithCharacterBySimulationId(1L)).thenReturn(Optional.of(simulation));
+        // 미요약 8개 중 최근 4개는 윈도우에 남기고 4개를 요약
+        when(simulationMessageRepository.findBySimulationSimulationIdAndMessageIdGreaterThanOrderByMessageIdAsc(
+                eq(1L), eq(10L), any(Pageable.class)))
+                .thenReturn(LongStream.rangeClosed(11, 18).mapToObj(id -> message(id, "메시지" + id)).toList());
+        stubSummaryResponse("새 요약");
+
+        assertTrue(conversationMemoryService.summarizeIfNeeded(1L));
+
+        ArgumentCaptor<Object> body = ArgumentCaptor.forClass(Object.class);
+        verify(requestBodySpec).bodyValue(body.capture());
+        assertEquals(4, ((List<?>) ((Map<?, ?>) body.getValue()).get("messages")).size());
+
+        verify(requestBodyUriSpec).uri("/summarize-conversation");
+        verify(simulationMemoryRepository).save(memory);
+        assertEquals("새 요약", memory.getSummary());
+        assertEquals(14L, memory.getSummarizedUntilMessageId());
+        assertEquals(14, memory.getSummarizedMessageCount());
+        verify(eventPublisher).publishEvent(new ConversationMemoryService.SummaryUpdated(1L, "새 요약", 14L));
+    }
+
+    @Test
+    @DisplayName("대화가 이어지는 동안 모든 메시지는 요약이나 /chat 윈도우 중 정확히 한 곳에 들어 있음")
+    void everyMessageIsInSummaryOrWindow() {
+        List<SimulationMessage> stored = new ArrayList<>();
+        SimulationMemory memory = SimulationMemory.builder().simulation(simulation).build();
+        when(simulationMemoryRepository.findBySimulation_SimulationId(1L)).thenReturn(Optional.of(memory));
+        when(simulationRepository.findWithCharacterBySimulationId(1L)).thenReturn(Optional.of(simulation));
+        when(simulationMessageRepository.findBySimulationSimulationIdAndMessageIdGreaterThanOrderByMessageIdAsc(
+                eq(1L), anyLong(), any(Pageable.class)))
+                .thenAnswer(invocation -> stored.stream()
+                        .filter(message -> message.getMessageId() > invocation.<Long>getArgument(1))
+                        .limit(invocation.<Pageable>getArgument(2).getPageSize())
+                        .toList());
+        when(simulationMessageRepository.findBySimulationSimulationIdOrderByMessageIdDesc(eq(1L), any(Pageable.class)))
+                .thenAnswer(invocation -> {
+                    List<SimulationMessage> latest = new ArrayList<>(stored);
+                    Collections.reverse(latest);
+                    return latest.stream().limit(invocation.<Pageable>getArgument(1).getPageSize()).toList();
+                });
+        stubSummaryResponse("요약");
+
+        for (long id = 1; id <= 40; id++) {
+            // 가끔 긴 메시지를 섞어서 토큰 예산 때문에 윈도우가 recentMaxMessages보다 작아지는 경우도 확인
+            stored.add(message(id, id % 7 == 0 ? "긴 메시지".repeat(5) : "메시지" + id));
+            while (conversationMemoryService.summarizeIfNeeded(1L)) {
+                assertTrue(memory.getSummarizedUntilMessageId() <= id);
+            }
+
+            List<String> recent = contents(conversationMemoryService.load(1L).recent());
+            List<String> unsummarized = stored.stream()
+                    .filter(message -> message.getMessageId() > memory.getSummarizedUntilMessageId())
+                    .map(SimulationMessage::getContent)
+                    .collect(Collectors.toList());
+            assertEquals(unsummarized, recent, id + "번째 메시지 저장 후");
+            assertEquals(id, memory.getSummarizedMessageCount() + recent.size());
+            assertTrue(recent.size() < properties.getRecentMaxMessages() + properties.getSummarizeEvery());
+        }
+        assertTrue(memory.getSummarizedMessageCount() > 0);
+    }
+
+    @Test
+    @DisplayName("분기 시뮬레이션은 이어받은 구간 중 요약에 없는 대화부터 요약하고, 요약된 구간은 윈도우에서 빠짐")
+    @SuppressWarnings("unchecked")
+    void summarizeIfNeeded_FoldsInheritedPrefix() {
+        // 부모(1)의 6번 메시지에서 분기(2), 부모 요약은 2번까지 → 3~6번은 분기가 이어받았지만 요약 안 됨
+        Simulation branch = Simulation.builder().simulationId(2L).character(simulation.getCharacter()).parent(simulation)
+                .branchMessageId(6L).branchMessageCount(6L).build();
+        SimulationMemory memory = SimulationMemory.builder()
+                .simulation(branch).summary("부모 요약").summarizedUntilMessageId(2L).summarizedMessageCount(2).build();
+        when(simulationMemoryRepository.findBySimulation_SimulationId(2L)).thenReturn(Optional.of(memory));
+        when(simulationRepository.findWithCharacterBySimulationId(2L)).thenReturn(Optional.of(branch));
+        when(simulationRepository.findBranchPoint(2L)).thenReturn(Optional.of(branchPoint(2L, 1L, 6L)));
+        when(simulationMessageRepository
+                .findBySimulationSimulationIdAndMessageIdGreaterThanAndMessageIdLessThanEqualOrderByMessageIdAsc(
+                        eq(1L), eq(2L), eq(6L), any(Pageable.class)))
+                .thenReturn(LongStream.rangeClosed(3, 6).mapToObj(id -> message(id, "부모" + id)).toList());
+        when(simulationMessageRepository.findBySimulationSimulationIdAndMessageIdGreaterThanOrderByMessageIdAsc(
+                eq(2L), eq(2L), any(Pageable.class)))
+                .thenReturn(LongStream.rangeClosed(11, 14).mapToObj(id -> message(id, "분기" + id)).toList());
+        stubSummaryResponse("분기 요약");
+
+        assertTrue(conversationMemoryService.summarizeIfNeeded(2L));
+
+        ArgumentCaptor<Object> body = ArgumentCaptor.forClass(Object.class);
+        verify(requestBodySpec).bodyValue(body.capture());
+        Map<String, Object> request = (Map<String, Object>) body.getValue();
+        assertEquals("부모 요약", request.get("previous_summary"));
+        assertEquals(List.of("부모3", "부모4", "부모5", "부모6"), ((List<Map<String, Object>>) request.get("messages"))
+                .stream().map(message -> message.get("content")).collect(Collectors.toList()));
+        assertEquals(6L, memory.getSummarizedUntilMessageId());
+
+        // 윈도우는 분기 이후 메시지만 (이어받은 구간은 전부 요약에 들어감)
+        when(simulationMessageRepository.findBySimulationSimulationIdOrderByMessageIdDesc(eq(2L), any(Pageable.class)))
+                .thenReturn(LongStream.rangeClosed(11, 14).map(id -> 25 - id).mapToObj(id -> message(id, "분기" + id))
+                        .toList());
+        when(simulationRepository.findById(2L)).thenReturn(Optional.of(branch));
+        when(simulationMessageRepository.findBySimulationSimulationIdAndMessageIdLessThanEqualOrderByMessageIdDesc(
+                eq(1L), eq(6L), any(Pageable.class)))
+                .thenReturn(LongStream.rangeClosed(1, 6).map(id -> 7 - id).mapToObj(id -> message(id, "부모" + id))
+                        .toList());
+
+        ConversationMemoryService.ConversationContext context = conversationMemoryService.load(2L);
+        assertEquals("분기 요약", context.summary());
+        assertEquals(List.of("분기11", "분기12", "분기13", "분기14"), contents(context.recent()));
+    }
+}
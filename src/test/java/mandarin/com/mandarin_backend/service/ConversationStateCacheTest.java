@@ -0,0 +1,245 @@
+package mandarin.com.mandarin_backend.service;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import mandarin.com.mandarin_backend.config.AiRequestWriter;
+import mandarin.com.mandarin_backend.config.ConversationMemoryProperties;
+import mandarin.com.mandarin_backend.dto.ChatLogDto;
+import mandarin.com.mandarin_backend.entity.Simulation;
+import mandarin.com.mandarin_backend.entity.UserCharacter;
+import mandarin.com.mandarin_backend.entity.enums.SimulationCategory;
+import mandarin.com.mandarin_backend.entity.enums.SimulationPurpose;
+import mandarin.com.mandarin_backend.repository.SimulationMessageRepository;
+import mandarin.com.mandarin_backend.repository.SimulationRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.util.List;
+import java.util.Optional;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("ConversationStateCache 테스트")
+class ConversationStateCacheTest {
+
+    @Mock
+    private SimulationRepository simulationRepository;
+
+    @Mock
+    private SimulationMessageRepository simulationMessageRepository;
+
+    @Mock
+    private ConversationMemoryService conversationMemoryService;
+
+    private final MutableClock clock = new MutableClock();
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private ConversationMemoryProperties properties;
+    private ConversationStateCache cache;
+
+    @BeforeEach
+    void setUp() {
+        properties = new ConversationMemoryProperties();
+        properties.setRecentMaxMessages(3);
+        properties.setUnsummarizedMaxMessages(3);
+        properties.setStateCacheMaxEntries(2);
+        properties.setStateCacheTtl(Duration.ofMinutes(10));
+
+        cache = new ConversationStateCache(simulationRepository, simulationMessageRepository, conversationMemoryService, objectMapper,
+                new AiRequestWriter(objectMapper), properties, new SimpleMeterRegistry(), clock);
+
+        lenient().when(simulationRepository.findWithCharacterAndOriginBySimulationId(anyLong()))
+                .thenAnswer(invocation -> Optional.of(simulation(invocation.getArgument(0))));
+        lenient().when(conversationMemoryService.loadUnsummarizedTurns(anyLong(), anyLong()))
+                .thenReturn(List.of(new ConversationMemoryService.Turn(1L, turn("user", "안녕")),
+                        new ConversationMemoryService.Turn(2L, turn("assistant", "응 안녕"))));
+    }
+
+    @AfterEach
+    void tearDown() {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+    }
+
+    private Simulation simulation(Long simulationId) {
+        UserCharacter character = UserCharacter.builder()
+                .characterId(simulationId * 10)
+                .characterName("철수")
+                .characterAge(25)
+                .relationType(1)
+                .historySum("요약")
+                .build();
+        return Simulation.builder()
+                .simulationId(simulationId)
+                .character(character)
+                .purpose(SimulationPurpose.FUTURE)
+                .category(SimulationCategory.RELATION_TENSION)
+                .characterPersona("{\"name\":\"철수\"}")
+                .build();
+    }
+
+    private ChatLogDto turn(String role, String content) {
+        return ChatLogDto.builder().role(role).content(content).build();
+    }
+
+    private List<String> contents(ConversationStateCache.ConversationState state) {
+        return state.recentTurns().stream().map(ChatLogDto::getContent).collect(Collectors.toList());
+    }
+
+    @Test
+    @DisplayName("처음 조회할 때만 DB에서 로드하고 이후에는 메모리의 상태를 사용")
+    void get_LoadsOnceThenHits() throws Exception {
+        ConversationStateCache.ConversationState first = cache.get(1L);
+        ConversationStateCache.ConversationState second = cache.get(1L);
+
+        assertSame(first, second);
+        verify(simulationRepository, times(1)).findWithCharacterAndOriginBySimulationId(1L);
+        verify(conversationMemoryService, times(1)).loadUnsummarizedTurns(1L, 0L);
+
+        JsonNode persona = objectMapper.readTree(first.getPersona().rawValue().toString());
+        JsonNode context = objectMapper.readTree(first.getSimulationContext().rawValue().toString());
+        assertEquals("철수", persona.get("name").asText());
+        assertEquals(16, context.get("love_type").asInt());
+        assertEquals("FUTURE", context.get("purpose").asText());
+        assertEquals(List.of("안녕", "응 안녕"), contents(first));
+    }
+
+    @Test
+    @DisplayName("요약 이후 대화는 unsummarizedMaxMessages개까지만 유지하고 오래된 것부터 밀려남")
+    void append_KeepsRingBufferBounded() {
+        cache.get(1L);
+        cache.appendAfterCommit(1L, 3L, "user", "세번째");
+        cache.appendAfterCommit(1L, 4L, "assistant", "네번째");
+
+        assertEquals(List.of("응 안녕", "세번째", "네번째"), contents(cache.get(1L)));
+    }
+
+    @Test
+    @DisplayName("트랜잭션이 커밋된 뒤에만 추가하고, 롤백되면 상태를 제거")
+    void appendAfterCommit_FollowsTransactionOutcome() {
+        cache.get(1L);
+
+        TransactionSynchronizationManager.initSynchronization();
+        cache.appendAfterCommit(1L, 3L, "user", "커밋될 메시지");
+        assertEquals(2, cache.get(1L).recentTurns().size());
+        TransactionSynchronizationManager.getSynchronizations()
+                .forEach(sync -> sync.afterCompletion(TransactionSynchronization.STATUS_COMMITTED));
+        TransactionSynchronizationManager.clearSynchronization();
+        assertEquals("커밋될 메시지", contents(cache.get(1L)).get(2));
+
+        TransactionSynchronizationManager.initSynchronization();
+        cache.appendAfterCommit(1L, 3L, "user", "롤백될 메시지");
+        TransactionSynchronizationManager.getSynchronizations()
+                .forEach(sync -> sync.afterCompletion(TransactionSynchronization.STATUS_ROLLED_BACK));
+        TransactionSynchronizationManager.clearSynchronization();
+
+        assertEquals(0, cache.size());
+    }
+
+    @Test
+    @DisplayName("마지막 사용 후 TTL이 지나면 다시 로드")
+    void get_ReloadsAfterTtl() {
+        cache.get(1L);
+        clock.advance(Duration.ofMinutes(9));
+        cache.get(1L);
+        clock.advance(Duration.ofMinutes(9));
+        cache.get(1L);
+        verify(simulationRepository, times(1)).findWithCharacterAndOriginBySimulationId(1L);
+
+        clock.advance(Duration.ofMinutes(10));
+        cache.get(1L);
+        verify(simulationRepository, times(2)).findWithCharacterAndOriginBySimulationId(1L);
+    }
+
+    @Test
+    @DisplayName("최대 개수를 넘으면 가장 오래 사용하지 않은 상태부터 제거")
+    void get_EvictsLeastRecentlyUsed() {
+        cache.get(1L);
+        cache.get(2L);
+        cache.get(1L);
+        cache.get(3L);
+
+        assertEquals(2, cache.size());
+        cache.get(1L);
+        verify(simulationRepository, times(1)).findWithCharacterAndOriginBySimulationId(1L);
+        cache.get(2L);
+        verify(simulationRepository, times(2)).findWithCharacterAndOriginBySimulationId(2L);
+    }
+
+    @Test
+    @DisplayName("캐릭터가 바뀌면 그 캐릭터의 상태만 제거하고, 요약 갱신은 메모리에 반영하며 요약된 대화는 덜어냄")
+    void evictCharacterAndSummaryUpdate() {
+        cache.get(1L);
+        cache.get(2L);
+
+        cache.onSummaryUpdated(new ConversationMemoryService.SummaryUpdated(2L, "새 요약", 1L));
+        ConversationMemoryService.ConversationContext context = cache.get(2L).context();
+        assertEquals("새 요약", context.summary());
+        assertEquals(List.of("응 안녕"), context.recent().stream().map(ChatLogDto::getContent).collect(Collectors.toList()));
+
+        cache.evictCharacter(10L);
+        assertEquals(1, cache.size());
+        cache.get(2L);
+        verify(simulationRepository, times(1)).findWithCharacterAndOriginBySimulationId(2L);
+    }
+
+    @Test
+    @DisplayName("메시지 순번은 DB의 마지막 순번부터 이어서 발급하고, 롤백 후 다시 로드하면 DB 기준으로 재시작")
+    void nextSequence_ContinuesFromDatabase() {
+        when(simulationMessageRepository.findMaxSequenceNo(1L)).thenReturn(7L, 8L);
+
+        ConversationStateCache.ConversationState state = cache.get(1L);
+        assertEquals(8L, state.nextSequence());
+        assertEquals(9L, cache.get(1L).nextSequence());
+
+        // 9번을 저장한 트랜잭션이 롤백되면 상태를 버리고 DB의 8번부터 다시 시작
+        TransactionSynchronizationManager.initSynchronization();
+        cache.appendAfterCommit(1L, 3L, "user", "롤백될 메시지");
+        TransactionSynchronizationManager.getSynchronizations()
+                .forEach(sync -> sync.afterCompletion(TransactionSynchronization.STATUS_ROLLED_BACK));
+        TransactionSynchronizationManager.clearSynchronization();
+
+        assertEquals(9L, cache.get(1L).nextSequence());
+    }
+
+    private static class MutableClock extends Clock {
+
+        private Instant now = Instant.parse("2026-01-01T00:00:00Z");
+
+        void advance(Duration duration) {
+            now = now.plus(duration);
+        }
+
+        @Override
+        public ZoneId getZone() {
+            return ZoneOffset.UTC;
+        }
+
+        @Override
+        public Clock withZone(ZoneId zone) {
+            return this;
+        }
+
+        @Override
+        public Instant instant() {
+            return now;
+        }
+    }
+}
@@ -0,0 +1,291 @@
+package mandarin.com.mandarin_backend.service;
+
+import jakarta.persistence.EntityManager;
+import mandarin.com.mandarin_backend.config.AiFanOut;
+import mandarin.com.mandarin_backend.config.AiRequestCoalescer;
+import mandarin.com.mandarin_backend.config.AiRequestWriter;
+import mandarin.com.mandarin_backend.dto.ApiResponse;
+import mandarin.com.mandarin_backend.dto.ChatReportResponseDto;
+import mandarin.com.mandarin_backend.dto.CursorPageResponseDto;
+import mandarin.com.mandarin_backend.dto.SimulationMessageResponseDto;
+import mandarin.com.mandarin_backend.dto.SimulationResponseDto;
+import mandarin.com.mandarin_backend.dto.UserCharacterResponseDto;
+import mandarin.com.mandarin_backend.entity.*;
+import mandarin.com.mandarin_backend.entity.enums.SimulationCategory;
+import mandarin.com.mandarin_backend.entity.enums.SimulationPurpose;
+import mandarin.com.mandarin_backend.repository.SimulationRepository;
+import mandarin.com.mandarin_backend.util.FileUtil;
+import mandarin.com.mandarin_backend.util.KeysetCursor;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+import org.springframework.web.reactive.function.client.WebClient;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.BiFunction;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DataJpaTest
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Import({ChatReportService.class, SimulationService.class, SimulationBranchService.class, UserCharacterService.class})
+@DisplayName("커서 기반 페이지 조회 테스트")
+class CursorPaginationTest {
+
+    @Autowired
+    private ChatReportService chatReportService;
+
+    @Autowired
+    private SimulationService simulationService;
+
+    @Autowired
+    private UserCharacterService userCharacterService;
+
+    @Autowired
+    private SimulationRepository simulationRepository;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    @MockitoBean
+    private WebClient webClient;
+
+    @MockitoBean
+    private ConversationMemoryService conversationMemoryService;
+
+    @MockitoBean
+    private ConversationStateCache conversationStateCache;
+
+    @MockitoBean
+    private AiRequestWriter aiRequestWriter;
+
+    @MockitoBean
+    private AiRequestCoalescer aiRequestCoalescer;
+
+    @MockitoBean
+    private AiFanOut aiFanOut;
+
+    @MockitoBean
+    private AnalysisService analysisService;
+
+    @MockitoBean
+    private AccountPurgeService accountPurgeService;
+
+    @MockitoBean
+    private FileUtil fileUtil;
+
+    private final LocalDateTime base = LocalDateTime.of(2025, 1, 1, 12, 0);
+    private User user;
+    private UserCharacter character;
+    private Simulation root;
+    private Simulation branch;
+
+    @BeforeEach
+    void setUp() {
+        user = User.builder().userId("user").username("테스트").password("pw").build();
+        entityManager.persist(user);
+        for (int c = 0; c < 5; c++) {
+            character = UserCharacter.builder()
+                    .user(user).characterName("상대" + c).characterAge(25).relationType(1).kakaoName("나")
+                    .fullDialogue("")
+                    .build();
+            entityManager.persist(character);
+        }
+
+        // 원본 6개 메시지, 분기는 원본의 3번째 메시지에서 갈라져 4개 메시지 → 분기 대화는 7개
+        root = persistSimulation(null, null);
+        List<SimulationMessage> rootMessages = persistMessages(root, 6, 0, 0);
+        branch = persistSimulation(root, rootMessages.get(2).getMessageId());
+        persistMessages(branch, 4, 10, 3);
+        for (int s = 0; s < 3; s++) {
+            persistSimulation(null, null);
+        }
+
+        for (Simulation simulation : List.of(root, branch)) {
+            ChatReportContent content = ChatReportContent.builder()
+                    .simulation(simulation).reportContent("{\"simulation\":" + simulation.getSimulationId() + "}")
+                    .build();
+            entityManager.persist(content);
+            for (int labelKey = 1; labelKey <= 3; labelKey++) {
+                // 같은 리포트의 지표 행은 생성 시간이 같으므로 ID로 순서가 갈림
+                entityManager.persist(ChatReport.builder()
+                        .simulation(simulation).user(user).character(character)
+                        .scoreAvg(70).labelKey(labelKey).labelScore(60 + labelKey).content(content)
+                        .createdAt(base)
+                        .build());
+            }
+        }
+        entityManager.flush();
+        entityManager.clear();
+    }
+
+    private Simulation persistSimulation(Simulation parent, Long branchMessageId) {
+        Simulation simulation = Simulation.builder()
+                .user(user).character(character).simulationName("시뮬레이션")
+                .purpose(SimulationPurpose.FUTURE).category(SimulationCategory.RELATION_TENSION)
+                .parent(parent).origin(parent).branchMessageId(branchMessageId)
+                .branchMessageCount(parent != null ? 3L : null)
+                .build();
+        entityManager.persist(simulation);
+        return simulation;
+    }
+
+    private List<SimulationMessage> persistMessages(Simulation simulation, int count, int minuteOffset, long inherited) {
+        List<SimulationMessage> messages = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            SimulationMessage message = SimulationMessage.builder()
+                    .simulation(simulation).sender(i % 2 == 0 ? "user" : "assistant")
+                    .content(simulation.getSimulationId() + "-" + i)
+                    .timestamp(base.plusMinutes(minuteOffset + i))
+                    .sequenceNo(inherited + i + 1)
+                    .build();
+            entityManager.persist(message);
+            messages.add(message);
+        }
+        return messages;
+    }
+
+    /**
+     * nextCursor를 따라 끝까지 넘기며 모든 항목을 모음
+     */
+    private <T> List<T> collectPages(BiFunction<String, Integer, CursorPageResponseDto<T>> fetch, int size,
+                                     List<Integer> pageSizes) {
+        List<T> items = new ArrayList<>();
+        String cursor = null;
+        CursorPageResponseDto<T> page;
+        do {
+            page = fetch.apply(cursor, size);
+            items.addAll(page.getItems());
+            pageSizes.add(page.getItems().size());
+            cursor = page.getNextCursor();
+            assertEquals(page.isHasNext(), cursor != null);
+        } while (cursor != null);
+        return items;
+    }
+
+    @Test
+    @DisplayName("분기 대화는 이어받은 구간부터 시간순으로 나눠 받고 전체 조회와 같은 순서")
+    void messagePages_FollowBranchHistory() {
+        List<Integer> pageSizes = new ArrayList<>();
+        List<String> paged = collectPages((cursor, size) -> simulationService
+                .getMessagePageBySimulationId(branch.getSimulationId(), cursor, size).getData(), 3, pageSizes)
+                .stream().map(SimulationMessageResponseDto::getContent).collect(Collectors.toList());
+
+        List<String> all = simulationService.getMessagesBySimulationId(branch.getSimulationId()).getData()
+                .stream().map(SimulationMessageResponseDto::getContent).collect(Collectors.toList());
+        assertEquals(7, all.size());
+        assertEquals(all, paged);
+        assertEquals(List.of(3, 3, 1), pageSizes);
+    }
+
+    @Test
+    @DisplayName("since 이후 메시지만 받고, 이어받은 구간이 빠진 경우에도 전체 조회와 같은 순서")
+    void messagesSince() {
+        List<SimulationMessageResponseDto> all = simulationService.getMessagesBySimulationId(branch.getSimulationId())
+                .getData();
+        assertEquals(List.of(1L, 2L, 3L, 4L, 5L, 6L, 7L),
+                all.stream().map(SimulationMessageResponseDto::getSequenceNo).collect(Collectors.toList()));
+
+        // 자기 메시지 구간만 조회
+        List<SimulationMessageResponseDto> recent = simulationService
+                .getMessagesSince(branch.getSimulationId(), 5).getData();
+        assertEquals(contents(all.subList(5, 7)), contents(recent));
+
+        // 이어받은 구간 일부부터
+        List<SimulationMessageResponseDto> fromInherited = simulationService
+                .getMessagesSince(branch.getSimulationId(), 1).getData();
+        assertEquals(contents(all.subList(1, 7)), contents(fromInherited));
+
+        assertTrue(simulationService.getMessagesSince(branch.getSimulationId(), 7).getData().isEmpty());
+        assertFalse(simulationService.getMessagesSince(-1L, 0).isSuccess());
+    }
+
+    @Test
+    @DisplayName("ETag는 메시지가 저장될 때만 바뀜")
+    void messageETag_ChangesWithNewMessage() {
+        String before = simulationService.getMessageETag(branch.getSimulationId()).orElseThrow();
+        assertEquals(before, simulationService.getMessageETag(branch.getSimulationId()).orElseThrow());
+        assertNotEquals(before, simulationService.getMessageETag(root.getSimulationId()).orElseThrow());
+
+        simulationRepository.recordMessages(branch.getSimulationId(), base.plusHours(1), 1);
+        entityManager.clear();
+
+        String after = simulationService.getMessageETag(branch.getSimulationId()).orElseThrow();
+        assertNotEquals(before, after);
+        assertTrue(simulationService.getMessageETag(-1L).isEmpty());
+    }
+
+    private static List<String> contents(List<SimulationMessageResponseDto> messages) {
+        return messages.stream().map(SimulationMessageResponseDto::getContent).collect(Collectors.toList());
+    }
+
+    @Test
+    @DisplayName("시뮬레이션 목록은 최근 수정 순이고 수정 시간이 같으면 ID로 순서가 고정됨")
+    void simulationPages_StableOrder() {
+        List<Integer> pageSizes = new ArrayList<>();
+        List<SimulationResponseDto> paged = collectPages((cursor, size) -> simulationService
+                .getSimulationPageByCharacterId(character.getCharacterId(), cursor, size).getData(), 2, pageSizes);
+
+        assertEquals(List.of(2, 2, 1), pageSizes);
+        for (int i = 1; i < paged.size(); i++) {
+            SimulationResponseDto previous = paged.get(i - 1);
+            SimulationResponseDto current = paged.get(i);
+            assertTrue(previous.getLastUpdateTime().isAfter(current.getLastUpdateTime())
+                    || previous.getLastUpdateTime().isEqual(current.getLastUpdateTime())
+                    && previous.getSimulationId() > current.getSimulationId());
+        }
+        // 기존 전체 조회도 그대로 동작
+        assertEquals(5, simulationService.getSimulationsByCharacterId(character.getCharacterId()).getData().size());
+    }
+
+    @Test
+    @DisplayName("리포트 목록은 생성 시간이 같은 지표 행도 빠짐 / 중복 없이 나눠 받음")
+    void chatReportPages_NoGapOrDuplicate() {
+        List<Integer> pageSizes = new ArrayList<>();
+        List<Integer> byUser = collectPages((cursor, size) -> chatReportService
+                .getChatReportPageByUserId(user.getId(), cursor, size), 4, pageSizes)
+                .stream().map(ChatReportResponseDto::getChatReportId).collect(Collectors.toList());
+        List<Integer> byCharacter = collectPages((cursor, size) -> chatReportService
+                .getChatReportPageByCharacterId(character.getCharacterId(), cursor, size), 4, new ArrayList<>())
+                .stream().map(ChatReportResponseDto::getChatReportId).collect(Collectors.toList());
+
+        assertEquals(List.of(4, 2), pageSizes);
+        assertEquals(6, byUser.stream().distinct().count());
+        assertEquals(byUser, byUser.stream().sorted((a, b) -> b - a).collect(Collectors.toList()));
+        assertEquals(byUser, byCharacter);
+    }
+
+    @Test
+    @DisplayName("캐릭터 목록 페이지와 페이지 크기 제한")
+    void characterPages_BoundedSize() {
+        List<Integer> pageSizes = new ArrayList<>();
+        List<UserCharacterResponseDto> paged = collectPages((cursor, size) -> userCharacterService
+                .getCharacterPageByUserId(user.getId(), cursor, size), 2, pageSizes);
+
+        assertEquals(List.of(2, 2, 1), pageSizes);
+        assertEquals(5, paged.stream().map(UserCharacterResponseDto::getCharacterId).distinct().count());
+        assertEquals(KeysetCursor.MAX_PAGE_SIZE, KeysetCursor.pageSize(10_000));
+        assertEquals(1, KeysetCursor.pageSize(0));
+        assertEquals(KeysetCursor.DEFAULT_PAGE_SIZE, KeysetCursor.pageSize(null));
+    }
+
+    @Test
+    @DisplayName("잘못된 커서는 실패로 응답")
+    void invalidCursor() {
+        ApiResponse<CursorPageResponseDto<SimulationMessageResponseDto>> response =
+                simulationService.getMessagePageBySimulationId(branch.getSimulationId(), "not-a-cursor", 3);
+
+        assertFalse(response.isSuccess());
+        assertEquals("잘못된 커서입니다.", response.getMessage());
+        assertThrows(IllegalArgumentException.class,
+                () -> chatReportService.getChatReportPageByUserId(user.getId(), "%%%", 3));
+    }
+}
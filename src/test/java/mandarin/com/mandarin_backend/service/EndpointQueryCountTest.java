@@ -0,0 +1,217 @@
+package mandarin.com.mandarin_backend.service;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+import mandarin.com.mandarin_backend.config.AiFanOut;
+import mandarin.com.mandarin_backend.config.AiRequestCoalescer;
+import mandarin.com.mandarin_backend.config.AiRequestWriter;
+import mandarin.com.mandarin_backend.entity.*;
+import mandarin.com.mandarin_backend.entity.enums.SimulationCategory;
+import mandarin.com.mandarin_backend.entity.enums.SimulationPurpose;
+import mandarin.com.mandarin_backend.repository.ChatReportAvgRepository;
+import mandarin.com.mandarin_backend.util.FileUtil;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+import org.springframework.web.reactive.function.client.WebClient;
+
+import java.time.LocalDateTime;
+import java.util.function.Supplier;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * 조회 API가 실행하는 SQL 수
+ *
+ * 연관 엔티티는 모두 지연 로딩이므로 목록 크기와 관계없이 SQL 수가 일정해야 함
+ * (연관 엔티티의 ID만 쓰는 DTO 변환은 프록시를 초기화하지 않음)
+ */
+@DataJpaTest(properties = "spring.jpa.properties.hibernate.generate_statistics=true")
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Import({ChatReportService.class, SimulationService.class, SimulationBranchService.class, UserCharacterService.class,
+        ReportCharacterService.class, ReportCharacterDetailLogService.class})
+@DisplayName("조회 API별 SQL 수 테스트")
+class EndpointQueryCountTest {
+
+    @Autowired
+    private ChatReportService chatReportService;
+
+    @Autowired
+    private SimulationService simulationService;
+
+    @Autowired
+    private UserCharacterService userCharacterService;
+
+    @Autowired
+    private ReportCharacterService reportCharacterService;
+
+    @Autowired
+    private ReportCharacterDetailLogService reportCharacterDetailLogService;
+
+    @Autowired
+    private ChatReportAvgRepository chatReportAvgRepository;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @MockitoBean
+    private WebClient webClient;
+
+    @MockitoBean
+    private ConversationMemoryService conversationMemoryService;
+
+    @MockitoBean
+    private ConversationStateCache conversationStateCache;
+
+    @MockitoBean
+    private AiRequestWriter aiRequestWriter;
+
+    @MockitoBean
+    private AiRequestCoalescer aiRequestCoalescer;
+
+    @MockitoBean
+    private AiFanOut aiFanOut;
+
+    @MockitoBean
+    private AnalysisService analysisService;
+
+    @MockitoBean
+    private AccountPurgeService accountPurgeService;
+
+    @MockitoBean
+    private FileUtil fileUtil;
+
+    private Statistics statistics;
+    private User user;
+    private UserCharacter character;
+    private Simulation simulation;
+    private ReportCharacter reportCharacter;
+
+    @BeforeEach
+    void setUp() {
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+
+        user = User.builder().userId("user").username("테스트").password("pw").build();
+        entityManager.persist(user);
+        for (int c = 0; c < 3; c++) {
+            character = UserCharacter.builder()
+                    .user(user).characterName("상대" + c).characterAge(25).relationType(1).kakaoName("나")
+                    .fullDialogue("")
+                    .build();
+            entityManager.persist(character);
+        }
+        reportCharacter = ReportCharacter.builder()
+                .character(character).conflictName("연락").dangerLevel(50).description("설명").solution("해결")
+                .build();
+        entityManager.persist(reportCharacter);
+        for (int i = 0; i < 5; i++) {
+            entityManager.persist(ReportCharacterDetailLog.builder()
+                    .reportCharacter(reportCharacter).sender("user").messageKakao("예시" + i).timestamp(LocalDateTime.now())
+                    .build());
+        }
+
+        Simulation parent = null;
+        for (int s = 0; s < 4; s++) {
+            simulation = Simulation.builder()
+                    .user(user).character(character).simulationName("시뮬레이션" + s)
+                    .purpose(SimulationPurpose.FUTURE).category(SimulationCategory.RELATION_TENSION)
+                    .fewShotContext("few-shot ".repeat(100)).characterPersona("{}")
+                    .parent(parent).origin(parent)
+                    .build();
+            entityManager.persist(simulation);
+            for (int i = 0; i < 6; i++) {
+                entityManager.persist(SimulationMessage.builder()
+                        .simulation(simulation).sender(i % 2 == 0 ? "user" : "assistant").content("메시지" + i)
+                        .timestamp(LocalDateTime.now())
+                        .build());
+            }
+            ChatReportContent content = ChatReportContent.builder()
+                    .simulation(simulation).reportContent("{\"summary\":\"" + s + "\"}")
+                    .build();
+            entityManager.persist(content);
+            for (int labelKey = 1; labelKey <= 3; labelKey++) {
+                ChatReport report = ChatReport.builder()
+                        .simulation(simulation).user(user).character(character)
+                        .scoreAvg(70).labelKey(labelKey).labelScore(60 + labelKey).content(content)
+                        .build();
+                entityManager.persist(report);
+                entityManager.flush();
+                chatReportAvgRepository.accumulate(report.getChatReportId(), user.getId(),
+                        ChatReportAvg.TotalLabelKey.fromLabelKey(labelKey).name(), 60 + labelKey, 70, LocalDateTime.now());
+            }
+            parent = s == 0 ? simulation : parent;
+        }
+        entityManager.flush();
+    }
+
+    private <T> long statementsFor(Supplier<T> action) {
+        entityManager.clear();
+        statistics.clear();
+        action.get();
+        return statistics.getPrepareStatementCount();
+    }
+
+    @Test
+    @DisplayName("/chat/report/user/{id}: 리포트 목록 1번 + 리포트 내용 묶음 1번")
+    void chatReportsByUser() {
+        assertEquals(2, statementsFor(() -> chatReportService.getChatReportsByUserId(user.getId())));
+    }
+
+    @Test
+    @DisplayName("/chat/report/character/{id}: 리포트 목록 1번 + 리포트 내용 묶음 1번")
+    void chatReportsByCharacter() {
+        assertEquals(2, statementsFor(() -> chatReportService.getChatReportsByCharacterId(character.getCharacterId())));
+    }
+
+    @Test
+    @DisplayName("/chat/report/avg/{id}: 누적 합계 행 1번")
+    void chatReportAvgByUser() {
+        assertEquals(1, statementsFor(() -> chatReportService.getChatReportAvgByUserId(user.getId())));
+    }
+
+    @Test
+    @DisplayName("/simulation/character/{id}: 시뮬레이션 목록 1번 (캐릭터 / 분기 원본을 읽지 않음)")
+    void simulationsByCharacter() {
+        assertEquals(1, statementsFor(() -> simulationService.getSimulationsByCharacterId(character.getCharacterId())));
+        // 부모가 없는 시뮬레이션도 목록에 포함 (parent 경로가 inner join으로 바뀌지 않음)
+        assertEquals(4, simulationService.getSimulationsByCharacterId(character.getCharacterId()).getData().size());
+    }
+
+    @Test
+    @DisplayName("/simulation/message/{id}: 분기 단계마다 분기 지점 1번 / 메시지 1번")
+    void messagesBySimulation() {
+        // 마지막 시뮬레이션은 첫 시뮬레이션의 분기 → 자기 분기 지점, 원본 분기 지점, 원본 구간 메시지, 자기 구간 메시지
+        assertEquals(4, statementsFor(() -> simulationService.getMessagesBySimulationId(simulation.getSimulationId())));
+    }
+
+    @Test
+    @DisplayName("/simulation/message/{id} 304 확인: 시뮬레이션 1행 / since 조회: 분기 지점 1번 + 메시지 1번")
+    void messageVersionAndSince() {
+        assertEquals(1, statementsFor(() -> simulationService.getMessageETag(simulation.getSimulationId())));
+        assertEquals(2, statementsFor(() -> simulationService.getMessagesSince(simulation.getSimulationId(), 4)));
+    }
+
+    @Test
+    @DisplayName("/character/user/{id}: 사용자 확인 + 캐릭터 목록")
+    void charactersByUser() {
+        assertEquals(2, statementsFor(() -> userCharacterService.getCharactersByUserId(user.getId())));
+    }
+
+    @Test
+    @DisplayName("/report-character/{id}, 상세 로그: 목록 1번씩")
+    void reportCharacters() {
+        assertEquals(1, statementsFor(() -> reportCharacterService.getReportsByCharacterId(character.getCharacterId())));
+        assertEquals(1, statementsFor(() -> reportCharacterDetailLogService
+                .getDetailLogsByReportCharacterId(reportCharacter.getReportCharacterId())));
+    }
+}
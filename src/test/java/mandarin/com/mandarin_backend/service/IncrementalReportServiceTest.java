@@ -0,0 +1,316 @@
+package mandarin.com.mandarin_backend.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import mandarin.com.mandarin_backend.config.IncrementalReportProperties;
+import mandarin.com.mandarin_backend.dto.KeyConversationDto;
+import mandarin.com.mandarin_backend.dto.PartialReportDto;
+import mandarin.com.mandarin_backend.dto.SimulationReportDto;
+import mandarin.com.mandarin_backend.dto.TurnEvaluationDto;
+import mandarin.com.mandarin_backend.entity.Simulation;
+import mandarin.com.mandarin_backend.entity.SimulationMessage;
+import mandarin.com.mandarin_backend.entity.SimulationPartialReport;
+import mandarin.com.mandarin_backend.entity.UserCharacter;
+import mandarin.com.mandarin_backend.entity.enums.SimulationCategory;
+import mandarin.com.mandarin_backend.repository.SimulationMessageRepository;
+import mandarin.com.mandarin_backend.repository.SimulationPartialReportRepository;
+import mandarin.com.mandarin_backend.repository.SimulationRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.Pageable;
+import org.springframework.web.reactive.function.client.WebClient;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.Sinks;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("IncrementalReportService 테스트")
+class IncrementalReportServiceTest {
+
+    @Mock
+    private SimulationRepository simulationRepository;
+
+    @Mock
+    private SimulationMessageRepository simulationMessageRepository;
+
+    @Mock
+    private SimulationPartialReportRepository partialReportRepository;
+
+    @Mock
+    private WebClient webClient;
+
+    @Mock
+    private WebClient.RequestBodyUriSpec requestBodyUriSpec;
+
+    @Mock
+    private WebClient.RequestBodySpec requestBodySpec;
+
+    @Mock
+    private WebClient.ResponseSpec responseSpec;
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private IncrementalReportService incrementalReportService;
+    private Simulation simulation;
+
+    @BeforeEach
+    void setUp() {
+        incrementalReportService = new IncrementalReportService(simulationRepository, simulationMessageRepository,
+                partialReportRepository, webClient, objectMapper, new IncrementalReportProperties());
+
+        UserCharacter character = new UserCharacter();
+        character.setCharacterName("철수");
+        character.setKakaoName("영희");
+        simulation = Simulation.builder()
+                .simulationId(1L)
+                .character(character)
+                .category(SimulationCategory.RELATION_TENSION)
+                .build();
+    }
+
+    private SimulationMessage message(long id, String sender) {
+        return SimulationMessage.builder()
+                .messageId(id)
+                .simulation(simulation)
+                .sender(sender)
+                .content("메시지" + id)
+                .build();
+    }
+
+    private static TurnEvaluationDto evaluation(int eci, int evr, int ccs, boolean key) {
+        return new TurnEvaluationDto(List.of(
+                new TurnEvaluationDto.TurnMetricScore("ECI", "관계 유지력", eci, "ECI 이유 " + eci, key),
+                new TurnEvaluationDto.TurnMetricScore("EVR", "감정 안정성", evr, "EVR 이유 " + evr, false),
+                new TurnEvaluationDto.TurnMetricScore("CCS", "선택 일관성", ccs, "CCS 이유 " + ccs, false)),
+                "요약 " + eci, "분석 " + eci, "조언 " + eci);
+    }
+
+    private void stubTurnEvaluation(TurnEvaluationDto evaluation) {
+        when(webClient.post()).thenReturn(requestBodyUriSpec);
+        when(requestBodyUriSpec.uri(anyString())).thenReturn(requestBodySpec);
+        doReturn(requestBodySpec).when(requestBodySpec).bodyValue(any());
+        when(requestBodySpec.retrieve()).thenReturn(responseSpec);
+        when(responseSpec.bodyToMono(eq(TurnEvaluationDto.class))).thenReturn(Mono.just(evaluation));
+    }
+
+    @Test
+    @DisplayName("AI 응답까지 끝난 구간만 평가하고 응답을 기다리는 사용자 메시지는 남겨둠")
+    @SuppressWarnings("unchecked")
+    void scorePending_ScoresCompletedExchangeOnly() throws Exception {
+        when(partialReportRepository.findBySimulation_SimulationId(1L)).thenReturn(Optional.empty());
+        when(simulationMessageRepository.findBySimulationSimulationIdAndMessageIdGreaterThanOrderByMessageIdAsc(
+                eq(1L), eq(0L), any(Pageable.class)))
+                .thenReturn(List.of(message(1, "user"), message(2, "assistant"), message(3, "user")));
+        when(simulationRepository.findWithCharacterBySimulationId(1L)).thenReturn(Optional.of(simulation));
+        stubTurnEvaluation(evaluation(80, 20, 70, true));
+
+        int scored = incrementalReportService.scorePending(1L);
+
+        assertEquals(2, scored);
+        verify(requestBodyUriSpec).uri("/report-turn");
+        ArgumentCaptor<Object> body = ArgumentCaptor.forClass(Object.class);
+        verify(requestBodySpec).bodyValue(body.capture());
+        Map<String, Object> request = (Map<String, Object>) body.getValue();
+        assertEquals(2, ((List<?>) request.get("exchange")).size());
+        assertEquals("FUTURE", request.get("scenario_type"));
+        assertEquals("영희", request.get("user_name"));
+
+        ArgumentCaptor<SimulationPartialReport> saved = ArgumentCaptor.forClass(SimulationPartialReport.class);
+        verify(partialReportRepository).save(saved.capture());
+        assertEquals(2L, saved.getValue().getScoredUntilMessageId());
+        assertEquals(1, saved.getValue().getScoredTurnCount());
+        PartialReportDto content = objectMapper.readValue(saved.getValue().getContent(), PartialReportDto.class);
+        assertEquals(80L, content.getMetrics().get(0).getScoreSum());
+        assertEquals("요약 80", content.getSummary());
+    }
+
+    @Test
+    @DisplayName("평가할 완결된 구간이 없으면 AI 서버를 호출하지 않음")
+    void scorePending_NothingToScore() {
+        when(partialReportRepository.findBySimulation_SimulationId(1L)).thenReturn(Optional.empty());
+        when(simulationMessageRepository.findBySimulationSimulationIdAndMessageIdGreaterThanOrderByMessageIdAsc(
+                eq(1L), eq(0L), any(Pageable.class)))
+                .thenReturn(List.of(message(1, "user")));
+
+        assertEquals(0, incrementalReportService.scorePending(1L));
+        verifyNoInteractions(webClient);
+        verify(partialReportRepository, never()).save(any());
+    }
+
+    @Test
+    @DisplayName("누적 점수는 턴 수로 가중한 평균이고 주요 대화는 영향이 큰 구간만 시간순으로 남김")
+    void merge_WeightedAverageAndKeyExchanges() {
+        PartialReportDto report = new PartialReportDto();
+        incrementalReportService.merge(report, evaluation(60, 30, 50, false),
+                List.of(message(1, "user"), message(2, "assistant")), 1, "FUTURE");
+        incrementalReportService.merge(report, evaluation(90, 30, 50, true),
+                List.of(message(3, "user"), message(4, "assistant"), message(5, "user"), message(6, "assistant")),
+                2, "FUTURE");
+        incrementalReportService.merge(report, evaluation(61, 30, 50, false),
+                List.of(message(7, "user"), message(8, "assistant")), 1, "FUTURE");
+
+        SimulationReportDto merged = incrementalReportService.toReport(report, "FUTURE");
+
+        // (60 * 1 + 90 * 2 + 61 * 1) / 4 = 75.25
+        assertEquals(75, merged.getScores().getMetric1().getScore());
+        assertEquals(30, merged.getScores().getMetric2().getScore());
+        assertEquals((75 + 30 + 50 + 1) / 3, merged.getReport().getOverallRating());
+        // key로 표시된 구간 이유를 사용
+        assertEquals("ECI 이유 90", merged.getScores().getMetric1().getReason());
+        // 영향: 1~2 = |60 - 50| = 10, 3~6 = key, 7~8 = |61 - 80| = 19 -> 상위 2개 구간(3~6, 7~8)을 시간순으로
+        assertEquals(List.of("메시지3", "메시지4", "메시지5", "메시지6", "메시지7", "메시지8"),
+                merged.getScores().getMetric1().getKeyConversations().stream()
+                        .map(KeyConversationDto::getContent).collect(Collectors.toList()));
+        assertEquals("요약 61", merged.getSummary());
+        assertEquals("FUTURE", merged.getScenarioType());
+    }
+
+    @Test
+    @DisplayName("응답 지표 순서가 바뀌어도 지표 코드로 맞춰서 누적")
+    void merge_MatchesMetricsByCode() {
+        PartialReportDto report = new PartialReportDto();
+        incrementalReportService.merge(report, evaluation(60, 30, 50, false),
+                List.of(message(1, "user"), message(2, "assistant")), 1, "FUTURE");
+        TurnEvaluationDto reordered = evaluation(80, 40, 70, false);
+        List<TurnEvaluationDto.TurnMetricScore> reversed = new ArrayList<>(reordered.getMetrics());
+        Collections.reverse(reversed);
+        reordered.setMetrics(reversed);
+        incrementalReportService.merge(report, reordered,
+                List.of(message(3, "user"), message(4, "assistant")), 1, "FUTURE");
+
+        SimulationReportDto merged = incrementalReportService.toReport(report, "FUTURE");
+
+        assertEquals("ECI", merged.getScores().getMetric1().getCode());
+        assertEquals(70, merged.getScores().getMetric1().getScore());
+        assertEquals("EVR", merged.getScores().getMetric2().getCode());
+        assertEquals(35, merged.getScores().getMetric2().getScore());
+        assertEquals("CCS", merged.getScores().getMetric3().getCode());
+        assertEquals(60, merged.getScores().getMetric3().getScore());
+    }
+
+    @Test
+    @DisplayName("시나리오의 세 지표가 아닌 코드가 오면 누적 값을 바꾸지 않고 실패")
+    void merge_RejectsUnknownCode() {
+        PartialReportDto report = new PartialReportDto();
+        incrementalReportService.merge(report, evaluation(60, 30, 50, false),
+                List.of(message(1, "user"), message(2, "assistant")), 1, "FUTURE");
+        TurnEvaluationDto wrong = new TurnEvaluationDto(List.of(
+                new TurnEvaluationDto.TurnMetricScore("RRI", "후회 해소도", 90, "이유", true),
+                new TurnEvaluationDto.TurnMetricScore("EVR", "감정 안정성", 90, "이유", false),
+                new TurnEvaluationDto.TurnMetricScore("CCS", "선택 일관성", 90, "이유", false)),
+                "다른 요약", null, null);
+
+        assertThrows(IllegalStateException.class, () -> incrementalReportService.merge(report, wrong,
+                List.of(message(3, "user"), message(4, "assistant")), 1, "FUTURE"));
+        assertEquals(60L, report.getMetrics().get(0).getScoreSum());
+        assertEquals(1, report.getMetrics().get(1).getTurns());
+        assertEquals("요약 60", report.getSummary());
+    }
+
+    @Test
+    @DisplayName("종료 시 밀린 구간이 없으면 AI 서버 호출 없이 누적 값만 합침")
+    void mergeReport_WithoutPendingTurns() throws Exception {
+        PartialReportDto report = new PartialReportDto();
+        incrementalReportService.merge(report, evaluation(70, 40, 60, true),
+                List.of(message(1, "user"), message(2, "assistant")), 1, "FUTURE");
+        SimulationPartialReport partial = SimulationPartialReport.builder()
+                .simulation(simulation)
+                .scenarioType("FUTURE")
+                .content(objectMapper.writeValueAsString(report))
+                .scoredUntilMessageId(2L)
+                .scoredTurnCount(1)
+                .build();
+        when(simulationRepository.findById(1L)).thenReturn(Optional.of(simulation));
+        when(partialReportRepository.findBySimulation_SimulationId(1L)).thenReturn(Optional.of(partial));
+        when(simulationMessageRepository.findBySimulationSimulationIdAndMessageIdGreaterThanOrderByMessageIdAsc(
+                eq(1L), eq(2L), any(Pageable.class))).thenReturn(List.of());
+
+        Optional<SimulationReportDto> merged = incrementalReportService.mergeReport(1L);
+
+        assertTrue(merged.isPresent());
+        assertEquals(70, merged.get().getScores().getMetric1().getScore());
+        assertEquals(57, merged.get().getReport().getOverallRating());
+        verifyNoInteractions(webClient);
+    }
+
+    @Test
+    @DisplayName("종료 시 밀린 대화가 한 번에 평가할 양보다 많으면 나눠 평가하지 않고 전체 대화로 평가")
+    void mergeReport_LargeBacklogFallsBack() {
+        when(simulationRepository.findById(1L)).thenReturn(Optional.of(simulation));
+        when(partialReportRepository.findBySimulation_SimulationId(1L)).thenReturn(Optional.empty());
+        when(simulationMessageRepository.countBySimulationSimulationIdAndMessageIdGreaterThan(1L, 0L))
+                .thenReturn(21L);
+
+        assertTrue(incrementalReportService.mergeReport(1L).isEmpty());
+        verify(simulationMessageRepository, never())
+                .findBySimulationSimulationIdAndMessageIdGreaterThanOrderByMessageIdAsc(any(), any(), any());
+        verifyNoInteractions(webClient);
+    }
+
+    @Test
+    @DisplayName("종료 시 백그라운드 평가가 진행 중이면 끝나길 기다렸다가 남은 구간만 평가 (같은 구간을 두 번 평가하지 않음)")
+    void mergeReport_WaitsForBackgroundScoring() throws Exception {
+        AtomicReference<SimulationPartialReport> stored = new AtomicReference<>();
+        when(simulationRepository.findById(1L)).thenReturn(Optional.of(simulation));
+        when(simulationRepository.findWithCharacterBySimulationId(1L)).thenReturn(Optional.of(simulation));
+        when(partialReportRepository.findBySimulation_SimulationId(1L))
+                .thenAnswer(invocation -> Optional.ofNullable(stored.get()));
+        when(partialReportRepository.save(any())).thenAnswer(invocation -> {
+            stored.set(invocation.getArgument(0));
+            return invocation.getArgument(0);
+        });
+        when(simulationMessageRepository.findBySimulationSimulationIdAndMessageIdGreaterThanOrderByMessageIdAsc(
+                eq(1L), eq(0L), any(Pageable.class))).thenReturn(List.of(message(1, "user"), message(2, "assistant")));
+        when(simulationMessageRepository.findBySimulationSimulationIdAndMessageIdGreaterThanOrderByMessageIdAsc(
+                eq(1L), eq(2L), any(Pageable.class))).thenReturn(List.of());
+        Sinks.One<TurnEvaluationDto> evaluation = Sinks.one();
+        when(webClient.post()).thenReturn(requestBodyUriSpec);
+        when(requestBodyUriSpec.uri(anyString())).thenReturn(requestBodySpec);
+        doReturn(requestBodySpec).when(requestBodySpec).bodyValue(any());
+        when(requestBodySpec.retrieve()).thenReturn(responseSpec);
+        when(responseSpec.bodyToMono(eq(TurnEvaluationDto.class))).thenReturn(evaluation.asMono());
+
+        // 백그라운드 평가가 /report-turn 응답을 기다리는 중에 종료
+        CompletableFuture<Void> background = CompletableFuture.runAsync(() ->
+                incrementalReportService.onMessagesAppended(new ConversationMemoryService.MessagesAppended(1L)));
+        verify(responseSpec, timeout(5000)).bodyToMono(eq(TurnEvaluationDto.class));
+        CompletableFuture<Optional<SimulationReportDto>> merged =
+                CompletableFuture.supplyAsync(() -> incrementalReportService.mergeReport(1L));
+
+        evaluation.tryEmitValue(evaluation(70, 40, 60, true));
+        background.get(5, TimeUnit.SECONDS);
+
+        assertTrue(merged.get(5, TimeUnit.SECONDS).isPresent());
+        verify(webClient, times(1)).post();
+        verify(simulationMessageRepository).countBySimulationSimulationIdAndMessageIdGreaterThan(1L, 2L);
+        assertEquals(1, stored.get().getScoredTurnCount());
+    }
+
+    @Test
+    @DisplayName("분기 시뮬레이션은 이어받은 대화가 평가되지 않았으므로 전체 대화로 평가")
+    void mergeReport_BranchFallsBack() {
+        Simulation branch = Simulation.builder().simulationId(2L).parent(simulation).build();
+        when(simulationRepository.findById(2L)).thenReturn(Optional.of(branch));
+
+        assertTrue(incrementalReportService.mergeReport(2L).isEmpty());
+        verifyNoInteractions(partialReportRepository, webClient);
+    }
+}
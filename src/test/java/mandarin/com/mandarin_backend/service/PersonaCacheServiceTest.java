@@ -0,0 +1,95 @@
+package mandarin.com.mandarin_backend.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import mandarin.com.mandarin_backend.dto.UserPersonaDto;
+import mandarin.com.mandarin_backend.entity.PersonaCache;
+import mandarin.com.mandarin_backend.entity.UserCharacter;
+import mandarin.com.mandarin_backend.repository.PersonaCacheRepository;
+import mandarin.com.mandarin_backend.util.HashUtil;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("PersonaCacheService 테스트")
+class PersonaCacheServiceTest {
+
+    @Mock
+    private PersonaCacheRepository personaCacheRepository;
+
+    private PersonaCacheService personaCacheService;
+
+    private static final String TEXT = "[2024-01-01 10:00] 철수: 안녕";
+
+    @BeforeEach
+    void setUp() {
+        personaCacheService = new PersonaCacheService(personaCacheRepository, new ObjectMapper());
+        ReflectionTestUtils.setField(personaCacheService, "promptVersion", "v2");
+    }
+
+    @Test
+    @DisplayName("캐시 적중 - 저장된 페르소나를 반환하고 사용 횟수를 올린다")
+    void find_Hit() {
+        PersonaCache cache = PersonaCache.builder()
+                .targetName("철수")
+                .contextHash(HashUtil.sha256Hex(TEXT))
+                .promptVersion("v2")
+                .personaJson("{\"name\":\"철수\"}")
+                .hitCount(0)
+                .build();
+        when(personaCacheRepository.findByTargetNameAndContextHashAndPromptVersion(
+                "철수", HashUtil.sha256Hex(TEXT), "v2")).thenReturn(Optional.of(cache));
+
+        Optional<UserPersonaDto> result = personaCacheService.find("철수", TEXT);
+
+        assertTrue(result.isPresent());
+        assertEquals("철수", result.get().getName());
+        assertEquals(1, cache.getHitCount());
+    }
+
+    @Test
+    @DisplayName("캐시 미스 - 대화 내용이 다르면 빈 값")
+    void find_Miss() {
+        when(personaCacheRepository.findByTargetNameAndContextHashAndPromptVersion(any(), any(), any()))
+                .thenReturn(Optional.empty());
+
+        assertTrue(personaCacheService.find("철수", TEXT + " 추가된 대화").isEmpty());
+    }
+
+    @Test
+    @DisplayName("읽을 수 없는 캐시는 삭제하고 미스로 처리")
+    void find_CorruptedEntry() {
+        PersonaCache cache = PersonaCache.builder().personaJson("not-json").hitCount(0).build();
+        when(personaCacheRepository.findByTargetNameAndContextHashAndPromptVersion(any(), any(), any()))
+                .thenReturn(Optional.of(cache));
+
+        assertTrue(personaCacheService.find("철수", TEXT).isEmpty());
+        verify(personaCacheRepository).delete(cache);
+    }
+
+    @Test
+    @DisplayName("저장 - 대화 해시와 현재 프롬프트 버전으로 저장")
+    void save() {
+        UserPersonaDto persona = new UserPersonaDto();
+        persona.setName("철수");
+
+        personaCacheService.save(new UserCharacter(), "철수", TEXT, persona);
+
+        ArgumentCaptor<PersonaCache> captor = ArgumentCaptor.forClass(PersonaCache.class);
+        verify(personaCacheRepository).save(captor.capture());
+        assertEquals(HashUtil.sha256Hex(TEXT), captor.getValue().getContextHash());
+        assertEquals("v2", captor.getValue().getPromptVersion());
+        assertTrue(captor.getValue().getPersonaJson().contains("\"name\":\"철수\""));
+    }
+}
@@ -0,0 +1,156 @@
+package mandarin.com.mandarin_backend.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+import mandarin.com.mandarin_backend.dto.*;
+import mandarin.com.mandarin_backend.entity.Simulation;
+import mandarin.com.mandarin_backend.entity.User;
+import mandarin.com.mandarin_backend.entity.UserCharacter;
+import mandarin.com.mandarin_backend.entity.enums.SimulationCategory;
+import mandarin.com.mandarin_backend.entity.enums.SimulationPurpose;
+import mandarin.com.mandarin_backend.repository.DetailLogBatchRepository;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+import org.springframework.web.reactive.function.client.WebClient;
+
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.Mockito.verifyNoInteractions;
+
+@DataJpaTest(properties = "spring.jpa.properties.hibernate.generate_statistics=true")
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Import({ReportService.class, ChatReportService.class, DetailLogBatchRepository.class, ObjectMapper.class})
+@DisplayName("ReportService 테스트")
+class ReportServiceTest {
+
+    @Autowired
+    private ReportService reportService;
+
+    @Autowired
+    private ChatReportService chatReportService;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @MockitoBean
+    private WebClient webClient;
+
+    private Statistics statistics;
+    private User user;
+    private UserCharacter character;
+
+    @BeforeEach
+    void setUp() {
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        user = User.builder().userId("user").username("테스트").password("pw").build();
+        entityManager.persist(user);
+        character = UserCharacter.builder()
+                .user(user).characterName("상대").characterAge(25).relationType(1).kakaoName("상대").fullDialogue("")
+                .build();
+        entityManager.persist(character);
+    }
+
+    private Long persistSimulation() {
+        Simulation simulation = Simulation.builder()
+                .user(user)
+                .character(character)
+                .simulationName("시뮬레이션")
+                .purpose(SimulationPurpose.FUTURE)
+                .category(SimulationCategory.RELATION_TENSION)
+                .build();
+        entityManager.persist(simulation);
+        entityManager.flush();
+        entityManager.clear();
+        return simulation.getSimulationId();
+    }
+
+    private static SimulationReportDto report(int eci, int evr, int ccs, int overall) {
+        List<KeyConversationDto> none = List.of();
+        ScenarioScoresDto scores = new ScenarioScoresDto(
+                new MetricScoreDto("ECI", "관계 유지력", eci, "이유", none),
+                new MetricScoreDto("EVR", "감정 안정성", evr, "이유", none),
+                new MetricScoreDto("CCS", "선택 일관성", ccs, "이유", none));
+        return new SimulationReportDto("요약", "FUTURE", scores, new ReportContentDto("분석", "조언", overall));
+    }
+
+    private void saveReport(SimulationReportDto report) {
+        reportService.createReportAndSave(persistSimulation(), List.of(), "나", "상대", "FUTURE", report);
+    }
+
+    @Test
+    @DisplayName("리포트마다 라벨별 합계만 더하고 평균은 누적 행에서 계산")
+    void createReportAndSave_AccumulatesRunningTotals() {
+        saveReport(report(80, 40, 61, 60));
+        saveReport(report(70, 50, 60, 61));
+        entityManager.clear();
+
+        List<ChatReportAvgResponseDto> avgs = chatReportService.getChatReportAvgByUserId(user.getId());
+        Map<String, ChatReportAvgResponseDto> byLabel = avgs.stream()
+                .collect(Collectors.toMap(ChatReportAvgResponseDto::getTotalLabelKey, avg -> avg));
+
+        assertEquals(3, avgs.size());
+        assertEquals(75, byLabel.get("F1").getTotalLabelScore());
+        assertEquals(45, byLabel.get("F2").getTotalLabelScore());
+        // (61 + 60) / 2 = 60.5 → 61
+        assertEquals(61, byLabel.get("F3").getTotalLabelScore());
+        assertEquals(2, byLabel.get("F1").getReportCount());
+        // (60 * 3 + 61 * 3) / 6 = 60.5 → 61
+        avgs.forEach(avg -> assertEquals(61, avg.getAvgMandarinScore()));
+        verifyNoInteractions(webClient);
+    }
+
+    @Test
+    @DisplayName("평균 반영에 실행하는 SQL 수는 사용자의 기존 리포트 수와 관계없이 일정")
+    void createReportAndSave_ConstantStatementCount() {
+        saveReport(report(50, 50, 50, 50));
+        long second = statementsFor(() -> saveReport(report(60, 60, 60, 60)));
+        for (int i = 0; i < 5; i++) {
+            saveReport(report(70, 70, 70, 70));
+        }
+        long eighth = statementsFor(() -> saveReport(report(80, 80, 80, 80)));
+
+        assertEquals(second, eighth);
+    }
+
+    @Test
+    @DisplayName("리포트 내용은 리포트마다 한 행만 저장하고 목록 조회 시 리포트마다 한 번만 읽음")
+    void createReportAndSave_StoresContentOnce() {
+        saveReport(report(80, 40, 61, 60));
+        saveReport(report(70, 50, 60, 61));
+        entityManager.flush();
+        entityManager.clear();
+
+        assertEquals(2L, entityManager.createQuery("SELECT COUNT(c) FROM ChatReportContent c", Long.class)
+                .getSingleResult());
+
+        statistics.clear();
+        List<ChatReportResponseDto> reports = chatReportService.getChatReportsByUserId(user.getId());
+
+        assertEquals(6, reports.size());
+        assertEquals(2, reports.stream().map(ChatReportResponseDto::getReportContent).distinct().count());
+        // 리포트 목록 1번 + 서로 다른 리포트 내용 묶음 1번
+        assertEquals(2, statistics.getPrepareStatementCount());
+    }
+
+    private long statementsFor(Runnable action) {
+        statistics.clear();
+        action.run();
+        entityManager.flush();
+        return statistics.getPrepareStatementCount();
+    }
+}
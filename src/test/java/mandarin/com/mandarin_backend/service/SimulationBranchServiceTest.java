@@ -0,0 +1,222 @@
+package mandarin.com.mandarin_backend.service;
+
+import mandarin.com.mandarin_backend.entity.Simulation;
+import mandarin.com.mandarin_backend.entity.SimulationMemory;
+import mandarin.com.mandarin_backend.entity.SimulationMessage;
+import mandarin.com.mandarin_backend.entity.User;
+import mandarin.com.mandarin_backend.repository.SimulationMemoryRepository;
+import mandarin.com.mandarin_backend.repository.SimulationMessageRepository;
+import mandarin.com.mandarin_backend.repository.SimulationRepository;
+import mandarin.com.mandarin_backend.repository.UserRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.PageRequest;
+
+import java.util.List;
+import java.util.Optional;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("SimulationBranchService 테스트")
+class SimulationBranchServiceTest {
+
+    @Mock
+    private SimulationRepository simulationRepository;
+
+    @Mock
+    private SimulationMessageRepository simulationMessageRepository;
+
+    @Mock
+    private SimulationMemoryRepository simulationMemoryRepository;
+
+    @Mock
+    private UserRepository userRepository;
+
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+
+    @InjectMocks
+    private SimulationBranchService simulationBranchService;
+
+    private Simulation root;
+
+    @BeforeEach
+    void setUp() {
+        root = Simulation.builder()
+                .simulationId(1L)
+                .user(User.builder().id(7L).build())
+                .simulationName("첫 데이트")
+                .fewShotContext("few-shot")
+                .characterPersona("{\"name\":\"철수\"}")
+                .build();
+        lenient().when(userRepository.existsByIdAndDeletedAtIsNull(7L)).thenReturn(true);
+    }
+
+    private SimulationMessage message(Simulation simulation, long id) {
+        return SimulationMessage.builder()
+                .messageId(id)
+                .simulation(simulation)
+                .sender(id % 2 == 0 ? "assistant" : "user")
+                .content("메시지" + id)
+                .build();
+    }
+
+    private Simulation branchOf(Simulation parent, long id, long branchMessageId, long branchMessageCount) {
+        return Simulation.builder()
+                .simulationId(id)
+                .user(parent.getUser())
+                .parent(parent)
+                .branchMessageId(branchMessageId)
+                .branchMessageCount(branchMessageCount)
+                .origin(parent.getOrigin() != null ? parent.getOrigin() : parent)
+                .build();
+    }
+
+    @Test
+    @DisplayName("분기는 메시지 / 페르소나를 복사하지 않고 시뮬레이션 1행만 추가")
+    void fork_InsertsSingleRow() {
+        when(simulationRepository.findById(1L)).thenReturn(Optional.of(root));
+        when(simulationMessageRepository.findBySimulationSimulationIdOrderBySequenceNoAscMessageIdAsc(
+                1L, PageRequest.of(2, 1))).thenReturn(List.of(message(root, 13L)));
+        when(simulationMemoryRepository.findBySimulation_SimulationId(1L)).thenReturn(Optional.empty());
+        when(simulationRepository.save(any(Simulation.class))).thenAnswer(invocation -> invocation.getArgument(0));
+
+        Simulation branch = simulationBranchService.fork(1L, 3, null);
+
+        assertSame(root, branch.getParent());
+        assertSame(root, branch.getOrigin());
+        assertEquals(13L, branch.getBranchMessageId());
+        assertEquals(3L, branch.getBranchMessageCount());
+        assertEquals("첫 데이트 (분기)", branch.getSimulationName());
+        assertNull(branch.getFewShotContext());
+        assertNull(branch.getCharacterPersona());
+        verify(simulationRepository, times(1)).save(any(Simulation.class));
+        verify(simulationMessageRepository, never()).save(any());
+        verify(simulationMessageRepository, never()).saveAll(any());
+    }
+
+    @Test
+    @DisplayName("분기 지점이 이어받은 구간에 있으면 그 메시지를 가진 조상에서 바로 분기")
+    void fork_FromInheritedPrefixBranchesOffAncestor() {
+        // root의 4번째 메시지(14) 뒤에서 분기한 시뮬레이션을 다시 2번째 메시지에서 분기
+        Simulation child = branchOf(root, 2L, 14L, 4L);
+        when(simulationRepository.findById(2L)).thenReturn(Optional.of(child));
+        when(simulationMessageRepository.findBySimulationSimulationIdOrderBySequenceNoAscMessageIdAsc(
+                1L, PageRequest.of(1, 1))).thenReturn(List.of(message(root, 12L)));
+        when(simulationMemoryRepository.findBySimulation_SimulationId(1L)).thenReturn(Optional.empty());
+        when(simulationRepository.save(any(Simulation.class))).thenAnswer(invocation -> invocation.getArgument(0));
+
+        Simulation branch = simulationBranchService.fork(2L, 2, "다른 대답");
+
+        assertSame(root, branch.getParent());
+        assertSame(root, branch.getOrigin());
+        assertEquals(12L, branch.getBranchMessageId());
+        assertEquals("다른 대답", branch.getSimulationName());
+    }
+
+    @Test
+    @DisplayName("분기 지점 이전까지만 요약한 누적 요약은 분기에 그대로 이어받음")
+    void fork_InheritsSummaryBeforeBranchPoint() {
+        when(simulationRepository.findById(1L)).thenReturn(Optional.of(root));
+        when(simulationMessageRepository.findBySimulationSimulationIdOrderBySequenceNoAscMessageIdAsc(
+                1L, PageRequest.of(5, 1))).thenReturn(List.of(message(root, 16L)));
+        when(simulationMemoryRepository.findBySimulation_SimulationId(1L)).thenReturn(Optional.of(
+                SimulationMemory.builder().summary("이전 요약").summarizedUntilMessageId(13L)
+                        .summarizedMessageCount(3).build()));
+        when(simulationRepository.save(any(Simulation.class))).thenAnswer(invocation -> invocation.getArgument(0));
+
+        Simulation branch = simulationBranchService.fork(1L, 6, null);
+
+        ArgumentCaptor<SimulationMemory> captor = ArgumentCaptor.forClass(SimulationMemory.class);
+        verify(simulationMemoryRepository).save(captor.capture());
+        assertSame(branch, captor.getValue().getSimulation());
+        assertEquals("이전 요약", captor.getValue().getSummary());
+        assertEquals(13L, captor.getValue().getSummarizedUntilMessageId());
+        // 14~16번(요약 이후 ~ 분기 지점)은 분기의 요약이 이어서 반영하도록 커밋 후 요약 요청
+        verify(eventPublisher).publishEvent(new ConversationMemoryService.MessagesAppended(branch.getSimulationId()));
+    }
+
+    @Test
+    @DisplayName("없는 위치에서는 분기할 수 없음")
+    void fork_RejectsIndexBeyondHistory() {
+        when(simulationRepository.findById(1L)).thenReturn(Optional.of(root));
+        when(simulationMessageRepository.findBySimulationSimulationIdOrderBySequenceNoAscMessageIdAsc(
+                1L, PageRequest.of(9, 1))).thenReturn(List.of());
+
+        assertThrows(IllegalArgumentException.class, () -> simulationBranchService.fork(1L, 10, null));
+        verify(simulationRepository, never()).save(any());
+    }
+
+    @Test
+    @DisplayName("탈퇴 처리된 사용자의 시뮬레이션은 분기할 수 없음")
+    void fork_RejectsSoftDeletedUser() {
+        when(simulationRepository.findById(1L)).thenReturn(Optional.of(root));
+        when(userRepository.existsByIdAndDeletedAtIsNull(7L)).thenReturn(false);
+
+        assertThrows(IllegalArgumentException.class, () -> simulationBranchService.fork(1L, 3, null));
+        verify(simulationRepository, never()).save(any());
+        verify(eventPublisher, never()).publishEvent(any(Object.class));
+    }
+
+    @Test
+    @DisplayName("전체 대화는 조상 구간을 오래된 것부터 이어 붙인 뒤 자기 메시지를 붙임")
+    void loadHistory_ConcatenatesSegments() {
+        Simulation child = branchOf(root, 2L, 12L, 2L);
+        Simulation grandChild = branchOf(child, 3L, 21L, 3L);
+        when(simulationRepository.findById(3L)).thenReturn(Optional.of(grandChild));
+        when(simulationMessageRepository.findBySimulationSimulationIdAndMessageIdLessThanEqualOrderBySequenceNoAscMessageIdAsc(
+                1L, 12L)).thenReturn(List.of(message(root, 11L), message(root, 12L)));
+        when(simulationMessageRepository.findBySimulationSimulationIdAndMessageIdLessThanEqualOrderBySequenceNoAscMessageIdAsc(
+                2L, 21L)).thenReturn(List.of(message(child, 21L)));
+        when(simulationMessageRepository.findBySimulationSimulationIdOrderBySequenceNoAscMessageIdAsc(3L))
+                .thenReturn(List.of(message(grandChild, 31L), message(grandChild, 32L)));
+
+        List<SimulationMessage> history = simulationBranchService.loadHistory(3L);
+
+        assertEquals(List.of(11L, 12L, 21L, 31L, 32L),
+                history.stream().map(SimulationMessage::getMessageId).collect(Collectors.toList()));
+    }
+
+    @Test
+    @DisplayName("최근 대화는 자기 메시지로 채워지면 조상을 조회하지 않음")
+    void loadRecentMessages_OwnMessagesOnly() {
+        when(simulationMessageRepository.findBySimulationSimulationIdOrderByMessageIdDesc(2L, PageRequest.of(0, 2)))
+                .thenReturn(List.of(message(root, 24L), message(root, 23L)));
+
+        List<SimulationMessage> recent = simulationBranchService.loadRecentMessages(2L, 2);
+
+        assertEquals(2, recent.size());
+        verifyNoInteractions(simulationRepository);
+        verify(simulationMessageRepository, never())
+                .findBySimulationSimulationIdAndMessageIdLessThanEqualOrderByMessageIdDesc(anyLong(), anyLong(), any());
+    }
+
+    @Test
+    @DisplayName("최근 대화가 모자라면 분기 지점 이전 대화에서 최신순으로 채움")
+    void loadRecentMessages_FillsFromAncestors() {
+        Simulation child = branchOf(root, 2L, 14L, 4L);
+        when(simulationMessageRepository.findBySimulationSimulationIdOrderByMessageIdDesc(2L, PageRequest.of(0, 4)))
+                .thenReturn(List.of(message(child, 21L)));
+        when(simulationRepository.findById(2L)).thenReturn(Optional.of(child));
+        when(simulationMessageRepository.findBySimulationSimulationIdAndMessageIdLessThanEqualOrderByMessageIdDesc(
+                1L, 14L, PageRequest.of(0, 3)))
+                .thenReturn(List.of(message(root, 14L), message(root, 13L), message(root, 12L)));
+
+        List<SimulationMessage> recent = simulationBranchService.loadRecentMessages(2L, 4);
+
+        assertEquals(List.of(21L, 14L, 13L, 12L),
+                recent.stream().map(SimulationMessage::getMessageId).collect(Collectors.toList()));
+    }
+}
@@ -0,0 +1,205 @@
+package mandarin.com.mandarin_backend.service;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.LockSupport;
+import java.util.function.BooleanSupplier;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("SimulationMailbox 테스트")
+class SimulationMailboxTest {
+
+    private SimpleMeterRegistry meterRegistry;
+    private SimulationMailbox mailbox;
+    private ExecutorService executor;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        mailbox = new SimulationMailbox(meterRegistry);
+        executor = Executors.newFixedThreadPool(64);
+    }
+
+    @AfterEach
+    void tearDown() {
+        executor.shutdownNow();
+    }
+
+    /**
+     * 시뮬레이션 하나의 상태 (메일박스가 직렬화해 주므로 일부러 동기화 없이 읽고 씀)
+     */
+    private static class Turns {
+        long lastSequence;
+        int inFlight;
+        int maxInFlight;
+        final List<Long> completed = new ArrayList<>();
+
+        long run(long workNanos) {
+            inFlight++;
+            maxInFlight = Math.max(maxInFlight, inFlight);
+            long sequence = lastSequence + 1;
+            // AI 호출처럼 CPU를 쓰지 않고 기다리는 작업
+            LockSupport.parkNanos(workNanos);
+            lastSequence = sequence;
+            completed.add(sequence);
+            inFlight--;
+            return sequence;
+        }
+    }
+
+    @Test
+    @DisplayName("한 시뮬레이션에 동시에 몰려도 하나씩 실행되고 순번이 빠짐없이 증가")
+    void submit_SameSimulationIsSerialized() throws Exception {
+        int threads = 32;
+        int perThread = 50;
+        Turns turns = new Turns();
+        CountDownLatch start = new CountDownLatch(1);
+
+        List<Future<List<Long>>> futures = new ArrayList<>();
+        for (int t = 0; t < threads; t++) {
+            futures.add(executor.submit(() -> {
+                start.await();
+                List<Long> mine = new ArrayList<>();
+                for (int i = 0; i < perThread; i++) {
+                    mine.add(mailbox.submit(1L, () -> turns.run(10_000)));
+                }
+                return mine;
+            }));
+        }
+        start.countDown();
+
+        for (Future<List<Long>> future : futures) {
+            List<Long> mine = future.get(30, TimeUnit.SECONDS);
+            // 한 스레드가 보낸 메시지는 보낸 순서대로 순번을 받음
+            for (int i = 1; i < mine.size(); i++) {
+                assertTrue(mine.get(i) > mine.get(i - 1));
+            }
+        }
+
+        assertEquals(1, turns.maxInFlight);
+        assertEquals(threads * perThread, turns.lastSequence);
+        for (int i = 0; i < turns.completed.size(); i++) {
+            assertEquals(i + 1L, turns.completed.get(i));
+        }
+        assertEquals(0, mailbox.activeCount());
+    }
+
+    @Test
+    @DisplayName("먼저 도착한 요청부터 실행 (FIFO)")
+    void submit_RunsInArrivalOrder() throws Exception {
+        CountDownLatch release = new CountDownLatch(1);
+        List<Integer> order = Collections.synchronizedList(new ArrayList<>());
+
+        Future<?> first = executor.submit(() -> mailbox.submit(1L, () -> {
+            await(release);
+            order.add(0);
+            return null;
+        }));
+        waitUntil(() -> mailbox.activeCount() == 1);
+
+        List<Future<?>> waiting = new ArrayList<>();
+        for (int i = 1; i <= 5; i++) {
+            int index = i;
+            waiting.add(executor.submit(() -> mailbox.submit(1L, () -> order.add(index))));
+            // 앞 요청이 대기열에 들어간 것을 확인한 뒤 다음 요청을 보냄
+            waitUntil(() -> meterRegistry.counter("simulation.mailbox.queued").count() == index);
+        }
+
+        release.countDown();
+        first.get(5, TimeUnit.SECONDS);
+        for (Future<?> future : waiting) {
+            future.get(5, TimeUnit.SECONDS);
+        }
+
+        assertEquals(List.of(0, 1, 2, 3, 4, 5), order);
+    }
+
+    @Test
+    @DisplayName("앞선 작업이 예외로 끝나도 다음 작업은 실행됨")
+    void submit_ContinuesAfterFailure() {
+        assertThrows(IllegalStateException.class, () -> mailbox.submit(1L, () -> {
+            throw new IllegalStateException("AI 서버 오류");
+        }));
+
+        assertEquals("다음 턴", mailbox.submit(1L, () -> "다음 턴"));
+        assertEquals(0, mailbox.activeCount());
+    }
+
+    @Test
+    @DisplayName("서로 다른 시뮬레이션은 병렬로 진행되고 각 시뮬레이션 안에서만 직렬화")
+    void submit_DifferentSimulationsRunInParallel() throws Exception {
+        int simulations = 32;
+        int perSimulation = 5;
+        long workMillis = 20;
+        Map<Long, Turns> turnsBySimulation = new ConcurrentHashMap<>();
+        AtomicInteger concurrent = new AtomicInteger();
+        AtomicInteger maxConcurrent = new AtomicInteger();
+        CountDownLatch start = new CountDownLatch(1);
+
+        List<Future<?>> futures = new ArrayList<>();
+        for (long simulationId = 1; simulationId <= simulations; simulationId++) {
+            Turns turns = turnsBySimulation.computeIfAbsent(simulationId, id -> new Turns());
+            for (int i = 0; i < perSimulation; i++) {
+                long id = simulationId;
+                futures.add(executor.submit(() -> {
+                    start.await();
+                    return mailbox.submit(id, () -> {
+                        maxConcurrent.accumulateAndGet(concurrent.incrementAndGet(), Math::max);
+                        try {
+                            return turns.run(TimeUnit.MILLISECONDS.toNanos(workMillis));
+                        } finally {
+                            concurrent.decrementAndGet();
+                        }
+                    });
+                }));
+            }
+        }
+
+        start.countDown();
+        for (Future<?> future : futures) {
+            future.get(30, TimeUnit.SECONDS);
+        }
+
+        for (Turns turns : turnsBySimulation.values()) {
+            assertEquals(1, turns.maxInFlight);
+            assertEquals(List.of(1L, 2L, 3L, 4L, 5L), turns.completed);
+        }
+        // 시뮬레이션끼리 서로 기다리지 않음 (전역 직렬화였다면 동시 실행 수는 항상 1)
+        assertTrue(maxConcurrent.get() > 1, "동시 실행 수: " + maxConcurrent.get());
+        assertEquals(0, mailbox.activeCount());
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private static void waitUntil(BooleanSupplier condition) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (!condition.getAsBoolean()) {
+            if (System.nanoTime() > deadline) {
+                fail("조건을 만족하지 않음");
+            }
+            Thread.sleep(1);
+        }
+    }
+}
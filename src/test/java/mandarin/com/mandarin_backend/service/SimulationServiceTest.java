@@ -0,0 +1,142 @@
+package mandarin.com.mandarin_backend.service;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import mandarin.com.mandarin_backend.config.AiRequestWriter;
+import mandarin.com.mandarin_backend.config.IdempotencyProperties;
+import mandarin.com.mandarin_backend.dto.ApiResponse;
+import mandarin.com.mandarin_backend.dto.ChatResponseDto;
+import mandarin.com.mandarin_backend.dto.SimulationMessageRequestDto;
+import mandarin.com.mandarin_backend.dto.SimulationMessageResponseDto;
+import mandarin.com.mandarin_backend.entity.Simulation;
+import mandarin.com.mandarin_backend.entity.SimulationMessage;
+import mandarin.com.mandarin_backend.entity.User;
+import mandarin.com.mandarin_backend.entity.UserCharacter;
+import mandarin.com.mandarin_backend.entity.enums.SimulationCategory;
+import mandarin.com.mandarin_backend.entity.enums.SimulationPurpose;
+import mandarin.com.mandarin_backend.repository.SimulationMessageRepository;
+import mandarin.com.mandarin_backend.repository.SimulationRepository;
+import mandarin.com.mandarin_backend.repository.UserCharacterRepository;
+import mandarin.com.mandarin_backend.repository.UserRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.mockito.Answers;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.web.reactive.function.client.WebClient;
+import reactor.core.publisher.Mono;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.when;
+
+/**
+ * 대화 턴 저장 (서비스 트랜잭션이 실제로 커밋 / 롤백되도록 테스트 트랜잭션 없이 실행)
+ */
+@DataJpaTest
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+@Import({SimulationService.class, SimulationBranchService.class})
+@DisplayName("SimulationService 테스트")
+class SimulationServiceTest {
+
+    @Autowired
+    private SimulationService simulationService;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private UserCharacterRepository userCharacterRepository;
+
+    @Autowired
+    private SimulationRepository simulationRepository;
+
+    @Autowired
+    private SimulationMessageRepository simulationMessageRepository;
+
+    @MockitoBean(answers = Answers.RETURNS_DEEP_STUBS)
+    private WebClient webClient;
+
+    @MockitoBean
+    private ConversationMemoryService conversationMemoryService;
+
+    @MockitoBean
+    private ConversationStateCache conversationStateCache;
+
+    @MockitoBean
+    private AiRequestWriter aiRequestWriter;
+
+    private final TurnIdempotencyService turnIdempotencyService =
+            new TurnIdempotencyService(new IdempotencyProperties(), new SimpleMeterRegistry());
+
+    private User user;
+    private UserCharacter character;
+    private Simulation simulation;
+
+    @BeforeEach
+    void setUp() {
+        user = userRepository.save(User.builder().userId("retry").username("테스트").password("pw").build());
+        character = userCharacterRepository.save(UserCharacter.builder()
+                .user(user).characterName("상대").characterAge(25).relationType(1).kakaoName("나").fullDialogue("")
+                .build());
+        simulation = simulationRepository.save(Simulation.builder()
+                .user(user).character(character).simulationName("재시도")
+                .purpose(SimulationPurpose.FUTURE).category(SimulationCategory.RELATION_TENSION)
+                .build());
+
+        when(conversationStateCache.get(simulation.getSimulationId())).thenReturn(
+                new ConversationStateCache.ConversationState(simulation.getSimulationId(), character.getCharacterId(),
+                        null, null, 10, 0L));
+        when(conversationMemoryService.window(any()))
+                .thenReturn(new ConversationMemoryService.ConversationContext(null, List.of()));
+    }
+
+    @AfterEach
+    void tearDown() {
+        simulationMessageRepository.deleteAll(
+                simulationMessageRepository.findBySimulationSimulationIdOrderBySequenceNoAscMessageIdAsc(simulation.getSimulationId()));
+        simulationRepository.delete(simulation);
+        userCharacterRepository.delete(character);
+        userRepository.delete(user);
+    }
+
+    @Test
+    @DisplayName("AI 호출이 실패하면 사용자 메시지도 롤백되어 같은 키로 재시도해도 한 번만 저장")
+    void sendMessage_RetryAfterAiFailureSavesUserMessageOnce() {
+        when(webClient.post().uri("/chat").contentType(any()).bodyValue(any()).retrieve()
+                .bodyToMono(eq(ChatResponseDto.class)))
+                .thenReturn(Mono.error(new IllegalStateException("AI 서버 오류")))
+                .thenReturn(Mono.just(new ChatResponseDto("안녕")));
+        SimulationMessageRequestDto request = SimulationMessageRequestDto.builder()
+                .simulationId(simulation.getSimulationId()).sender("user").content("안녕하세요")
+                .build();
+
+        ApiResponse<SimulationMessageResponseDto> failed = send(request);
+        assertFalse(failed.isSuccess());
+        assertEquals(0, simulationMessageRepository
+                .findBySimulationSimulationIdOrderBySequenceNoAscMessageIdAsc(simulation.getSimulationId()).size());
+
+        ApiResponse<SimulationMessageResponseDto> retried = send(request);
+        assertTrue(retried.isSuccess());
+        assertEquals(List.of("안녕하세요", "안녕"), simulationMessageRepository
+                .findBySimulationSimulationIdOrderBySequenceNoAscMessageIdAsc(simulation.getSimulationId()).stream()
+                .map(SimulationMessage::getContent)
+                .toList());
+    }
+
+    private ApiResponse<SimulationMessageResponseDto> send(SimulationMessageRequestDto request) {
+        return turnIdempotencyService.execute(simulation.getSimulationId(), "turn-1",
+                request.getSender() + ":" + request.getContent(),
+                () -> simulationService.sendMessage(request), ApiResponse::isSuccess);
+    }
+}
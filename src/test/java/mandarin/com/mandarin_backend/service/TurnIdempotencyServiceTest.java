@@ -0,0 +1,115 @@
+package mandarin.com.mandarin_backend.service;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import mandarin.com.mandarin_backend.config.IdempotencyProperties;
+import mandarin.com.mandarin_backend.exception.IdempotencyKeyConflictException;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("TurnIdempotencyService 테스트")
+class TurnIdempotencyServiceTest {
+
+    private IdempotencyProperties properties;
+    private SimpleMeterRegistry meterRegistry;
+    private TurnIdempotencyService service;
+    private final AtomicInteger calls = new AtomicInteger();
+
+    @BeforeEach
+    void setUp() {
+        properties = new IdempotencyProperties();
+        properties.setKeysPerSimulation(2);
+        properties.setTtl(Duration.ofMinutes(10));
+        meterRegistry = new SimpleMeterRegistry();
+        service = new TurnIdempotencyService(properties, meterRegistry);
+    }
+
+    private String reply(String payload) {
+        return service.execute(1L, "key-1", payload, () -> "응답" + calls.incrementAndGet(), result -> true);
+    }
+
+    @Test
+    @DisplayName("끝난 요청을 같은 키로 재시도하면 다시 실행하지 않고 저장된 응답을 반환")
+    void replaysCompletedResult() {
+        assertEquals("응답1", reply("안녕"));
+        assertEquals("응답1", reply("안녕"));
+
+        assertEquals(1, calls.get());
+        assertEquals(1.0, meterRegistry.counter("simulation.idempotency.replayed").count());
+    }
+
+    @Test
+    @DisplayName("처리 중에 들어온 재시도는 원래 요청의 결과를 기다린다")
+    void attachesToInFlightRequest() throws Exception {
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+
+        CompletableFuture<String> original = CompletableFuture.supplyAsync(() ->
+                service.execute(1L, "key-1", "안녕", () -> {
+                    started.countDown();
+                    await(release);
+                    return "응답" + calls.incrementAndGet();
+                }, result -> true));
+        assertTrue(started.await(5, TimeUnit.SECONDS));
+
+        CompletableFuture<String> retry = CompletableFuture.supplyAsync(() ->
+                service.execute(1L, "key-1", "안녕", () -> "응답" + calls.incrementAndGet(), result -> true));
+        Thread.sleep(100);
+        assertFalse(retry.isDone(), "원래 요청이 끝날 때까지 기다려야 함");
+
+        release.countDown();
+        assertEquals("응답1", original.get(5, TimeUnit.SECONDS));
+        assertEquals("응답1", retry.get(5, TimeUnit.SECONDS));
+        assertEquals(1, calls.get());
+        assertEquals(1.0, meterRegistry.counter("simulation.idempotency.attached").count());
+    }
+
+    @Test
+    @DisplayName("실패했거나 저장하지 않을 결과면 재시도 시 다시 실행")
+    void doesNotStoreFailures() {
+        assertThrows(IllegalStateException.class, () -> service.execute(1L, "key-1", "안녕", () -> {
+            throw new IllegalStateException("AI 서버 오류");
+        }, result -> true));
+        assertEquals("실패", service.execute(1L, "key-1", "안녕", () -> "실패", result -> false));
+
+        assertEquals("응답1", reply("안녕"));
+    }
+
+    @Test
+    @DisplayName("같은 키로 다른 내용을 보내면 충돌")
+    void rejectsDifferentPayload() {
+        reply("안녕");
+        assertThrows(IdempotencyKeyConflictException.class, () -> reply("다른 메시지"));
+    }
+
+    @Test
+    @DisplayName("키가 없으면 매번 실행하고, 시뮬레이션당 키는 최근 keysPerSimulation개만 기억")
+    void boundedPerSimulation() {
+        service.execute(1L, null, "안녕", calls::incrementAndGet, result -> true);
+        service.execute(1L, null, "안녕", calls::incrementAndGet, result -> true);
+        assertEquals(2, calls.get());
+
+        for (String key : new String[]{"a", "b", "c"}) {
+            service.execute(1L, key, "안녕", calls::incrementAndGet, result -> true);
+        }
+        assertEquals(5, service.execute(1L, "c", "안녕", calls::incrementAndGet, result -> true));
+        assertEquals(6, service.execute(1L, "a", "안녕", calls::incrementAndGet, result -> true),
+                "가장 오래된 키는 밀려나서 다시 실행됨");
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
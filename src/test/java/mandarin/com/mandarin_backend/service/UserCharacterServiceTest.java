@@ -1,6 +1,13 @@
 package mandarin.com.mandarin_backend.service;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import mandarin.com.mandarin_backend.config.AiClientProperties;
+import mandarin.com.mandarin_backend.config.AiFanOut;
+import mandarin.com.mandarin_backend.config.AiRequestCoalescer;
 import mandarin.com.mandarin_backend.dto.HistorySumResponseDto;
+import mandarin.com.mandarin_backend.dto.ReactionTriggerDto;
+import mandarin.com.mandarin_backend.dto.UserCharacterRequestDto;
 import mandarin.com.mandarin_backend.dto.UserCharacterResponseDto;
 import mandarin.com.mandarin_backend.entity.User;
 import mandarin.com.mandarin_backend.entity.UserCharacter;
@@ -14,13 +21,22 @@ import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.projection.SpelAwareProxyProjectionFactory;
+import org.springframework.transaction.PlatformTransactionManager;
 import org.springframework.web.reactive.function.client.WebClient;
 import reactor.core.publisher.Mono;
+import reactor.core.publisher.Sinks;
 
+import java.time.Duration;
 import java.util.Arrays;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.any;
@@ -40,10 +56,26 @@ class UserCharacterServiceTest {
 
     @Mock
     private WebClient webClient;
+
+    @Spy
+    private AiRequestCoalescer aiRequestCoalescer =
+            new AiRequestCoalescer(new AiClientProperties(), new ObjectMapper(), new SimpleMeterRegistry());
     
+    @Spy
+    private AiFanOut aiFanOut = new AiFanOut(new AiClientProperties(), new SimpleMeterRegistry());
+
+    @Mock
+    private AnalysisService analysisService;
+
+    @Mock
+    private ConversationStateCache conversationStateCache;
+
     @Mock
     private FileUtil fileUtil;
 
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
     @Mock
     private WebClient.RequestBodyUriSpec requestBodyUriSpec;
 
@@ -95,15 +127,29 @@ class UserCharacterServiceTest {
                 .build();
     }
 
+    // 목록 조회 projection (조회 결과 컬럼을 Map으로 흉내)
+    private static UserCharacterRepository.ListItem listItem(UserCharacter character) {
+        Map<String, Object> columns = new HashMap<>();
+        columns.put("characterId", character.getCharacterId());
+        columns.put("userId", character.getUser().getId());
+        columns.put("characterName", character.getCharacterName());
+        columns.put("characterAge", character.getCharacterAge());
+        columns.put("relationType", character.getRelationType());
+        columns.put("kakaoName", character.getKakaoName());
+        columns.put("fullDialogue", character.getFullDialogue());
+        columns.put("historySum", character.getHistorySum());
+        return new SpelAwareProxyProjectionFactory().createProjection(UserCharacterRepository.ListItem.class, columns);
+    }
+
     @Test
     @DisplayName("사용자 ID로 캐릭터 목록 조회 - 성공")
     void getCharactersByUserId_Success() {
         // given
         Long userId = 1L;
-        List<UserCharacter> characters = Arrays.asList(testCharacter1, testCharacter2);
+        List<UserCharacterRepository.ListItem> characters = Arrays.asList(listItem(testCharacter1), listItem(testCharacter2));
 
-        when(userRepository.findById(userId)).thenReturn(Optional.of(testUser));
-        when(userCharacterRepository.findByUser(testUser)).thenReturn(characters);
+        when(userRepository.existsByIdAndDeletedAtIsNull(userId)).thenReturn(true);
+        when(userCharacterRepository.findListItemsByUserId(userId)).thenReturn(characters);
 
         // when
         List<UserCharacterResponseDto> result = userCharacterService.getCharactersByUserId(userId);
@@ -115,9 +161,10 @@ class UserCharacterServiceTest {
         assertEquals("카카오이름1", result.get(0).getKakaoName());
         assertEquals("테스트캐릭터2", result.get(1).getCharacterName());
         assertEquals("카카오이름2", result.get(1).getKakaoName());
+        assertEquals(1L, result.get(0).getUserId());
 
-        verify(userRepository, times(1)).findById(userId);
-        verify(userCharacterRepository, times(1)).findByUser(testUser);
+        verify(userRepository, times(1)).existsByIdAndDeletedAtIsNull(userId);
+        verify(userCharacterRepository, times(1)).findListItemsByUserId(userId);
     }
 
     @Test
@@ -125,7 +172,7 @@ class UserCharacterServiceTest {
     void getCharactersByUserId_UserNotFound() {
         // given
         Long userId = 999L;
-        when(userRepository.findById(userId)).thenReturn(Optional.empty());
+        when(userRepository.existsByIdAndDeletedAtIsNull(userId)).thenReturn(false);
 
         // when & then
         UserNotFoundException exception = assertThrows(
@@ -134,8 +181,21 @@ class UserCharacterServiceTest {
         );
 
         assertEquals("회원 정보가 없습니다.", exception.getMessage());
-        verify(userRepository, times(1)).findById(userId);
-        verify(userCharacterRepository, never()).findByUser(any());
+        verify(userRepository, times(1)).existsByIdAndDeletedAtIsNull(userId);
+        verify(userCharacterRepository, never()).findListItemsByUserId(any());
+    }
+
+    @Test
+    @DisplayName("캐릭터 생성 - 탈퇴 처리된(삭제 중인) 사용자는 생성 불가")
+    void createCharacter_SoftDeletedUser() throws Exception {
+        // given: 탈퇴 처리된 사용자는 활성 사용자 조회에서 제외됨
+        UserCharacterRequestDto dto = UserCharacterRequestDto.builder().id(1L).characterName("새캐릭터").build();
+        when(userRepository.findByIdAndDeletedAtIsNull(1L)).thenReturn(Optional.empty());
+
+        // when & then
+        assertThrows(UserNotFoundException.class, () -> userCharacterService.createCharacter(dto, null, null));
+        verify(fileUtil, never()).saveFile(any(), anyString());
+        verify(userCharacterRepository, never()).save(any());
     }
 
     @Test
@@ -143,8 +203,8 @@ class UserCharacterServiceTest {
     void getCharactersByUserId_EmptyList() {
         // given
         Long userId = 1L;
-        when(userRepository.findById(userId)).thenReturn(Optional.of(testUser));
-        when(userCharacterRepository.findByUser(testUser)).thenReturn(Arrays.asList());
+        when(userRepository.existsByIdAndDeletedAtIsNull(userId)).thenReturn(true);
+        when(userCharacterRepository.findListItemsByUserId(userId)).thenReturn(Arrays.asList());
 
         // when
         List<UserCharacterResponseDto> result = userCharacterService.getCharactersByUserId(userId);
@@ -152,8 +212,8 @@ class UserCharacterServiceTest {
         // then
         assertNotNull(result);
         assertTrue(result.isEmpty());
-        verify(userRepository, times(1)).findById(userId);
-        verify(userCharacterRepository, times(1)).findByUser(testUser);
+        verify(userRepository, times(1)).existsByIdAndDeletedAtIsNull(userId);
+        verify(userCharacterRepository, times(1)).findListItemsByUserId(userId);
     }
 
     @Test
@@ -271,5 +331,69 @@ class UserCharacterServiceTest {
         verify(webClient, times(1)).post();
         verify(userCharacterRepository, never()).save(any());
     }
-}
 
+    private void stubHistorySummary(Mono<HistorySumResponseDto> response) {
+        when(webClient.post()).thenReturn(requestBodyUriSpec);
+        when(requestBodyUriSpec.uri(anyString())).thenReturn(requestBodySpec);
+        doReturn(requestBodySpec).when(requestBodySpec).bodyValue(any());
+        when(requestBodySpec.retrieve()).thenReturn(responseSpec);
+        when(responseSpec.bodyToMono(eq(HistorySumResponseDto.class))).thenReturn(response);
+    }
+
+    @Test
+    @DisplayName("캐릭터 분석 - 히스토리 요약과 트리거 추출을 동시에 실행하고 둘 다 저장")
+    void analyzeCharacter_RunsCallsConcurrently() {
+        // given: 두 호출 모두 상대 호출이 구독된 뒤에야 끝남 (순차 실행이면 첫 호출이 끝나지 않아 타임아웃)
+        AtomicInteger started = new AtomicInteger();
+        Sinks.Empty<Void> bothStarted = Sinks.empty();
+        AtomicBoolean transactionDuringCalls = new AtomicBoolean();
+        Mono<Void> afterBothStarted = Mono.defer(() -> {
+                    // AI 호출 중에는 트랜잭션(커넥션)을 잡고 있지 않아야 함
+                    transactionDuringCalls.compareAndSet(false,
+                            !mockingDetails(transactionManager).getInvocations().isEmpty());
+                    if (started.incrementAndGet() == 2) {
+                        bothStarted.tryEmitEmpty();
+                    }
+                    return bothStarted.asMono();
+                })
+                .timeout(Duration.ofSeconds(5));
+        List<ReactionTriggerDto> triggers = List.of(ReactionTriggerDto.builder().keyword("연락").build());
+        when(userCharacterRepository.findById(1L)).thenReturn(Optional.of(testCharacter1));
+        stubHistorySummary(afterBothStarted.thenReturn(HistorySumResponseDto.builder().summary("새 요약").build()));
+        when(analysisService.requestNegativeTriggers("대화", "나", "상대"))
+                .thenReturn(afterBothStarted.thenReturn(triggers));
+
+        // when
+        userCharacterService.analyzeCharacter(1L, "히스토리 원문", "나", "상대", "대화");
+
+        // then: 결과는 join 이후 트랜잭션 하나로 저장
+        assertEquals(2, started.get());
+        assertFalse(transactionDuringCalls.get());
+        verify(transactionManager).getTransaction(any());
+        verify(transactionManager).commit(any());
+        assertEquals("새 요약", testCharacter1.getHistorySum());
+        verify(analysisService).saveReportCharacter(testCharacter1, triggers, "나", "상대");
+        verify(conversationStateCache).evictCharacter(1L);
+    }
+
+    @Test
+    @DisplayName("캐릭터 분석 - 한 호출이 실패하면 나머지 호출을 취소하고 아무것도 저장하지 않음")
+    void analyzeCharacter_CancelsSiblingsOnFailure() {
+        // given
+        AtomicBoolean triggerCancelled = new AtomicBoolean();
+        when(userCharacterRepository.findById(1L)).thenReturn(Optional.of(testCharacter1));
+        stubHistorySummary(Mono.<HistorySumResponseDto>error(new RuntimeException("요약 서버 오류"))
+                .delaySubscription(Duration.ofMillis(50)));
+        when(analysisService.requestNegativeTriggers("대화", "나", "상대"))
+                .thenReturn(Mono.<List<ReactionTriggerDto>>never().doOnCancel(() -> triggerCancelled.set(true)));
+
+        // when & then
+        RuntimeException exception = assertThrows(RuntimeException.class,
+                () -> userCharacterService.analyzeCharacter(1L, "히스토리 원문", "나", "상대", "대화"));
+        assertEquals("요약 서버 오류", exception.getMessage());
+        assertTrue(triggerCancelled.get());
+        assertEquals("요약1", testCharacter1.getHistorySum());
+        verify(analysisService, never()).saveReportCharacter(any(), any(), any(), any());
+        verifyNoInteractions(transactionManager);
+    }
+}